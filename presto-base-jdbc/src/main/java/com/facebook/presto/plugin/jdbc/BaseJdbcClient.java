@@ -14,7 +14,10 @@
 package com.facebook.presto.plugin.jdbc;
 
 import com.facebook.airlift.log.Logger;
+import com.facebook.presto.common.predicate.Domain;
+import com.facebook.presto.common.predicate.Range;
 import com.facebook.presto.common.predicate.TupleDomain;
+import com.facebook.presto.common.predicate.ValueSet;
 import com.facebook.presto.common.type.CharType;
 import com.facebook.presto.common.type.DecimalType;
 import com.facebook.presto.common.type.Type;
@@ -41,6 +44,7 @@ import com.google.common.collect.ImmutableSet;
 import javax.annotation.Nullable;
 import javax.annotation.PreDestroy;
 
+import java.math.BigInteger;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
@@ -111,12 +115,16 @@ public class BaseJdbcClient
             .put(UuidType.UUID, "uuid")
             .build();
 
+    private static final Set<Type> SPLIT_COLUMN_TYPES = ImmutableSet.of(BIGINT, INTEGER, SMALLINT, TINYINT, DATE);
+
     protected final String connectorId;
     protected final ConnectionFactory connectionFactory;
     protected final String identifierQuote;
     protected final boolean caseInsensitiveNameMatching;
     protected final Cache<JdbcIdentity, Map<String, String>> remoteSchemaNames;
     protected final Cache<RemoteTableNameCacheKey, Map<String, String>> remoteTableNames;
+    protected final Optional<Integer> fetchSize;
+    protected final int splitCount;
 
     public BaseJdbcClient(JdbcConnectorId connectorId, BaseJdbcConfig config, String identifierQuote, ConnectionFactory connectionFactory)
     {
@@ -130,6 +138,8 @@ public class BaseJdbcClient
                 .expireAfterWrite(config.getCaseInsensitiveNameMatchingCacheTtl().toMillis(), MILLISECONDS);
         this.remoteSchemaNames = remoteNamesCacheBuilder.build();
         this.remoteTableNames = remoteNamesCacheBuilder.build();
+        this.fetchSize = Optional.ofNullable(config.getFetchSize());
+        this.splitCount = config.getSplitCount();
     }
 
     @PreDestroy
@@ -276,14 +286,138 @@ public class BaseJdbcClient
     public ConnectorSplitSource getSplits(ConnectorSession session, JdbcIdentity identity, JdbcTableLayoutHandle layoutHandle)
     {
         JdbcTableHandle tableHandle = layoutHandle.getTable();
-        JdbcSplit jdbcSplit = new JdbcSplit(
-                connectorId,
-                tableHandle.getCatalogName(),
-                tableHandle.getSchemaName(),
-                tableHandle.getTableName(),
-                layoutHandle.getTupleDomain(),
-                layoutHandle.getAdditionalPredicate());
-        return new FixedSplitSource(ImmutableList.of(jdbcSplit));
+        List<TupleDomain<ColumnHandle>> splitTupleDomains = ImmutableList.of(layoutHandle.getTupleDomain());
+        if (splitCount > 1 && !layoutHandle.getTupleDomain().isNone()) {
+            splitTupleDomains = getSplitTupleDomains(session, identity, tableHandle, layoutHandle.getTupleDomain());
+        }
+
+        ImmutableList.Builder<JdbcSplit> splits = ImmutableList.builder();
+        for (TupleDomain<ColumnHandle> splitTupleDomain : splitTupleDomains) {
+            splits.add(new JdbcSplit(
+                    connectorId,
+                    tableHandle.getCatalogName(),
+                    tableHandle.getSchemaName(),
+                    tableHandle.getTableName(),
+                    splitTupleDomain,
+                    layoutHandle.getAdditionalPredicate()));
+        }
+        return new FixedSplitSource(splits.build());
+    }
+
+    /**
+     * Returns the constraints of the splits a table is read with. Each split is read over its own connection,
+     * with its constraint pushed down to the remote database.
+     * By default, the range between the minimum and maximum value of the split column is divided into {@code split-count} ranges.
+     */
+    protected List<TupleDomain<ColumnHandle>> getSplitTupleDomains(ConnectorSession session, JdbcIdentity identity, JdbcTableHandle tableHandle, TupleDomain<ColumnHandle> tupleDomain)
+    {
+        try (Connection connection = connectionFactory.openConnection(identity)) {
+            Optional<JdbcColumnHandle> splitColumn = getSplitColumn(session, connection, tableHandle);
+            if (!splitColumn.isPresent()) {
+                return ImmutableList.of(tupleDomain);
+            }
+
+            Type type = splitColumn.get().getColumnType();
+            String sql = format(
+                    "SELECT min(%s), max(%s) FROM %s",
+                    quoted(splitColumn.get().getColumnName()),
+                    quoted(splitColumn.get().getColumnName()),
+                    quoted(tableHandle.getCatalogName(), tableHandle.getSchemaName(), tableHandle.getTableName()));
+            long min;
+            long max;
+            try (Statement statement = connection.createStatement();
+                    ResultSet resultSet = statement.executeQuery(sql)) {
+                if (!resultSet.next()) {
+                    return ImmutableList.of(tupleDomain);
+                }
+                if (type.equals(DATE)) {
+                    java.sql.Date minDate = resultSet.getDate(1);
+                    java.sql.Date maxDate = resultSet.getDate(2);
+                    if (minDate == null || maxDate == null) {
+                        return ImmutableList.of(tupleDomain);
+                    }
+                    min = minDate.toLocalDate().toEpochDay();
+                    max = maxDate.toLocalDate().toEpochDay();
+                }
+                else {
+                    min = resultSet.getLong(1);
+                    max = resultSet.getLong(2);
+                    if (resultSet.wasNull()) {
+                        // the table is empty, or the column only contains nulls
+                        return ImmutableList.of(tupleDomain);
+                    }
+                }
+            }
+
+            ImmutableList.Builder<TupleDomain<ColumnHandle>> splitTupleDomains = ImmutableList.builder();
+            for (Domain domain : getSplitDomains(type, min, max, splitCount)) {
+                TupleDomain<ColumnHandle> splitTupleDomain = tupleDomain.intersect(TupleDomain.withColumnDomains(ImmutableMap.of(splitColumn.get(), domain)));
+                if (!splitTupleDomain.isNone()) {
+                    splitTupleDomains.add(splitTupleDomain);
+                }
+            }
+            return splitTupleDomains.build();
+        }
+        catch (SQLException e) {
+            throw new PrestoException(JDBC_ERROR, e);
+        }
+    }
+
+    /**
+     * Returns the column a table is split on, which is the first column of its primary key if that column is integral or a date.
+     */
+    protected Optional<JdbcColumnHandle> getSplitColumn(ConnectorSession session, Connection connection, JdbcTableHandle tableHandle)
+            throws SQLException
+    {
+        Optional<String> columnName = Optional.empty();
+        try (ResultSet resultSet = connection.getMetaData().getPrimaryKeys(tableHandle.getCatalogName(), tableHandle.getSchemaName(), tableHandle.getTableName())) {
+            while (resultSet.next()) {
+                if (resultSet.getInt("KEY_SEQ") == 1) {
+                    columnName = Optional.of(resultSet.getString("COLUMN_NAME"));
+                }
+            }
+        }
+        if (!columnName.isPresent()) {
+            return Optional.empty();
+        }
+
+        return getColumns(session, tableHandle).stream()
+                .filter(column -> column.getColumnName().equals(columnName.get()))
+                .filter(column -> SPLIT_COLUMN_TYPES.contains(column.getColumnType()))
+                .findFirst();
+    }
+
+    /**
+     * Divides the values between {@code min} and {@code max} into at most {@code count} contiguous ranges.
+     * The first and last range are unbounded, so that values written after the bounds were read are still covered,
+     * and the first range also covers nulls.
+     */
+    static List<Domain> getSplitDomains(Type type, long min, long max, int count)
+    {
+        checkArgument(min <= max, "min is greater than max");
+        checkArgument(count > 0, "count must be positive");
+        BigInteger span = BigInteger.valueOf(max).subtract(BigInteger.valueOf(min));
+        List<Long> bounds = new ArrayList<>();
+        for (int i = 1; i < count; i++) {
+            long bound = span.multiply(BigInteger.valueOf(i))
+                    .divide(BigInteger.valueOf(count))
+                    .add(BigInteger.valueOf(min))
+                    .longValueExact();
+            if (bound > min && (bounds.isEmpty() || bound > bounds.get(bounds.size() - 1))) {
+                bounds.add(bound);
+            }
+        }
+        if (bounds.isEmpty()) {
+            return ImmutableList.of(Domain.all(type));
+        }
+
+        ImmutableList.Builder<Domain> domains = ImmutableList.builder();
+        domains.add(Domain.create(ValueSet.ofRanges(Range.lessThan(type, bounds.get(0))), true));
+        for (int i = 1; i < bounds.size(); i++) {
+            domains.add(Domain.create(ValueSet.ofRanges(Range.range(type, bounds.get(i - 1), true, bounds.get(i), false)), false));
+        }
+        domains.add(Domain.create(ValueSet.ofRanges(Range.greaterThanOrEqual(type, bounds.get(bounds.size() - 1))), false));
+        return domains.build();
     }
 
     @Override
@@ -602,7 +736,11 @@ public class BaseJdbcClient
     public PreparedStatement getPreparedStatement(ConnectorSession session, Connection connection, String sql)
             throws SQLException
     {
-        return connection.prepareStatement(sql);
+        PreparedStatement statement = connection.prepareStatement(sql);
+        if (fetchSize.isPresent()) {
+            statement.setFetchSize(fetchSize.get());
+        }
+        return statement;
     }
 
     protected ResultSet getTables(Connection connection, Optional<String> schemaName, Optional<String> tableName)
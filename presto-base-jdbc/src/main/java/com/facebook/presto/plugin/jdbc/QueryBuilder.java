@@ -47,6 +47,7 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static com.facebook.presto.common.type.DateTimeEncoding.unpackMillisUtc;
@@ -233,6 +234,13 @@ public class QueryBuilder
                 }
             }
         }
+        // constraints on columns that are not projected, such as the range of a split, are pushed down as well
+        for (Map.Entry<ColumnHandle, Domain> entry : tupleDomain.getDomains().get().entrySet()) {
+            JdbcColumnHandle column = (JdbcColumnHandle) entry.getKey();
+            if (!columns.contains(column) && isAcceptedType(column.getColumnType())) {
+                builder.add(toPredicate(column.getColumnName(), entry.getValue(), column.getColumnType(), accumulator));
+            }
+        }
         return builder.build();
     }
 
@@ -35,7 +35,9 @@ public class TestBaseJdbcConfig
                 .setUserCredentialName(null)
                 .setPasswordCredentialName(null)
                 .setCaseInsensitiveNameMatching(false)
-                .setCaseInsensitiveNameMatchingCacheTtl(new Duration(1, MINUTES)));
+                .setCaseInsensitiveNameMatchingCacheTtl(new Duration(1, MINUTES))
+                .setFetchSize(null)
+                .setSplitCount(1));
     }
 
     @Test
@@ -49,6 +51,8 @@ public class TestBaseJdbcConfig
                 .put("password-credential-name", "bar")
                 .put("case-insensitive-name-matching", "true")
                 .put("case-insensitive-name-matching.cache-ttl", "1s")
+                .put("fetch-size", "5000")
+                .put("split-count", "8")
                 .build();
 
         BaseJdbcConfig expected = new BaseJdbcConfig()
@@ -58,7 +62,9 @@ public class TestBaseJdbcConfig
                 .setUserCredentialName("foo")
                 .setPasswordCredentialName("bar")
                 .setCaseInsensitiveNameMatching(true)
-                .setCaseInsensitiveNameMatchingCacheTtl(new Duration(1, SECONDS));
+                .setCaseInsensitiveNameMatchingCacheTtl(new Duration(1, SECONDS))
+                .setFetchSize(5000)
+                .setSplitCount(8);
 
         ConfigAssertions.assertFullMapping(properties, expected);
     }
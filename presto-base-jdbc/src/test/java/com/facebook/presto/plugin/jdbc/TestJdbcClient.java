@@ -13,22 +13,33 @@
  */
 package com.facebook.presto.plugin.jdbc;
 
+import com.facebook.presto.common.predicate.Domain;
+import com.facebook.presto.common.predicate.Range;
+import com.facebook.presto.common.predicate.TupleDomain;
+import com.facebook.presto.common.predicate.ValueSet;
 import com.facebook.presto.common.type.BigintType;
 import com.facebook.presto.common.type.DateType;
 import com.facebook.presto.common.type.DoubleType;
 import com.facebook.presto.spi.ColumnMetadata;
 import com.facebook.presto.spi.ConnectorSession;
+import com.facebook.presto.spi.ConnectorSplitSource;
 import com.facebook.presto.spi.ConnectorTableMetadata;
+import com.facebook.presto.spi.RecordCursor;
 import com.facebook.presto.spi.SchemaTableName;
+import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multiset;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.sql.Statement;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static com.facebook.airlift.concurrent.MoreFutures.getFutureValue;
 import static com.facebook.presto.common.type.BigintType.BIGINT;
 import static com.facebook.presto.common.type.DoubleType.DOUBLE;
 import static com.facebook.presto.common.type.RealType.REAL;
@@ -40,7 +51,10 @@ import static com.facebook.presto.plugin.jdbc.TestingJdbcTypeHandle.JDBC_DATE;
 import static com.facebook.presto.plugin.jdbc.TestingJdbcTypeHandle.JDBC_DOUBLE;
 import static com.facebook.presto.plugin.jdbc.TestingJdbcTypeHandle.JDBC_REAL;
 import static com.facebook.presto.plugin.jdbc.TestingJdbcTypeHandle.JDBC_VARCHAR;
+import static com.facebook.presto.spi.connector.NotPartitionedPartitionHandle.NOT_PARTITIONED;
 import static com.facebook.presto.testing.TestingSession.testSessionBuilder;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.lang.String.format;
 import static java.util.Collections.emptyMap;
 import static java.util.Locale.ENGLISH;
 import static java.util.UUID.randomUUID;
@@ -182,4 +196,97 @@ public class TestJdbcClient
             jdbcClient.dropTable(session, JdbcIdentity.from(session), tableHandle);
         }
     }
+
+    @Test
+    public void testSplitOnPrimaryKey()
+            throws Exception
+    {
+        try (Statement statement = database.getConnection().createStatement()) {
+            statement.execute("CREATE SCHEMA split_test");
+            statement.execute("CREATE TABLE split_test.numbers(id bigint primary key, text varchar)");
+            for (int i = 0; i < 100; i++) {
+                // the keys are skewed towards the low end of the range
+                statement.execute(format("INSERT INTO split_test.numbers VALUES (%s, 'text_%s')", i * i, i));
+            }
+        }
+
+        try {
+            JdbcClient splittingJdbcClient = database.createJdbcClient(new BaseJdbcConfig().setSplitCount(4));
+            List<JdbcSplit> splits = getSplits(splittingJdbcClient, new SchemaTableName("split_test", "numbers"));
+            assertEquals(splits.size(), 4);
+
+            // every row is read by exactly one split, whether the split column is projected or not
+            Map<String, JdbcColumnHandle> columns = database.getColumnHandles("split_test", "numbers");
+            Multiset<Object> ids = HashMultiset.create();
+            Multiset<Object> texts = HashMultiset.create();
+            for (JdbcSplit split : splits) {
+                ids.addAll(readValues(splittingJdbcClient, split, columns.get("id")));
+                texts.addAll(readValues(splittingJdbcClient, split, columns.get("text")));
+            }
+            Multiset<Object> expectedIds = HashMultiset.create();
+            Multiset<Object> expectedTexts = HashMultiset.create();
+            for (int i = 0; i < 100; i++) {
+                expectedIds.add((long) i * i);
+                expectedTexts.add("text_" + i);
+            }
+            assertEquals(ids, expectedIds);
+            assertEquals(texts, expectedTexts);
+
+            // a table is not split when the leading column of its primary key is not integral
+            assertEquals(getSplits(splittingJdbcClient, new SchemaTableName("example", "numbers")).size(), 1);
+        }
+        finally {
+            try (Statement statement = database.getConnection().createStatement()) {
+                statement.execute("DROP SCHEMA split_test CASCADE");
+            }
+        }
+    }
+
+    private static List<JdbcSplit> getSplits(JdbcClient jdbcClient, SchemaTableName schemaTableName)
+    {
+        JdbcIdentity identity = JdbcIdentity.from(session);
+        JdbcTableHandle tableHandle = jdbcClient.getTableHandle(session, identity, schemaTableName);
+        JdbcTableLayoutHandle layoutHandle = new JdbcTableLayoutHandle(session.getSqlFunctionProperties(), tableHandle, TupleDomain.all(), Optional.empty());
+        ConnectorSplitSource splitSource = jdbcClient.getSplits(session, identity, layoutHandle);
+        return getFutureValue(splitSource.getNextBatch(NOT_PARTITIONED, 1000)).getSplits().stream()
+                .map(JdbcSplit.class::cast)
+                .collect(toImmutableList());
+    }
+
+    private static List<Object> readValues(JdbcClient jdbcClient, JdbcSplit split, JdbcColumnHandle column)
+    {
+        ImmutableList.Builder<Object> values = ImmutableList.builder();
+        try (RecordCursor cursor = new JdbcRecordSet(jdbcClient, session, split, ImmutableList.of(column)).cursor()) {
+            while (cursor.advanceNextPosition()) {
+                if (column.getColumnType().equals(BIGINT)) {
+                    values.add(cursor.getLong(0));
+                }
+                else {
+                    values.add(cursor.getSlice(0).toStringUtf8());
+                }
+            }
+        }
+        return values.build();
+    }
+
+    @Test
+    public void testSplitDomains()
+    {
+        assertEquals(BaseJdbcClient.getSplitDomains(BIGINT, 0, 100, 4), ImmutableList.of(
+                Domain.create(ValueSet.ofRanges(Range.lessThan(BIGINT, 25L)), true),
+                Domain.create(ValueSet.ofRanges(Range.range(BIGINT, 25L, true, 50L, false)), false),
+                Domain.create(ValueSet.ofRanges(Range.range(BIGINT, 50L, true, 75L, false)), false),
+                Domain.create(ValueSet.ofRanges(Range.greaterThanOrEqual(BIGINT, 75L)), false)));
+
+        // fewer distinct values than splits
+        assertEquals(BaseJdbcClient.getSplitDomains(BIGINT, 7, 9, 4), ImmutableList.of(
+                Domain.create(ValueSet.ofRanges(Range.lessThan(BIGINT, 8L)), true),
+                Domain.create(ValueSet.ofRanges(Range.greaterThanOrEqual(BIGINT, 8L)), false)));
+        assertEquals(BaseJdbcClient.getSplitDomains(BIGINT, 7, 7, 4), ImmutableList.of(Domain.all(BIGINT)));
+
+        // the span does not fit in a long
+        assertEquals(BaseJdbcClient.getSplitDomains(BIGINT, Long.MIN_VALUE, Long.MAX_VALUE, 2), ImmutableList.of(
+                Domain.create(ValueSet.ofRanges(Range.lessThan(BIGINT, -1L)), true),
+                Domain.create(ValueSet.ofRanges(Range.greaterThanOrEqual(BIGINT, -1L)), false)));
+    }
 }
@@ -362,6 +362,28 @@ public class TestJdbcQueryBuilder
         }
     }
 
+    @Test
+    public void testBuildSqlWithConstraintOnNotProjectedColumn()
+            throws SQLException
+    {
+        TupleDomain<ColumnHandle> tupleDomain = TupleDomain.withColumnDomains(ImmutableMap.of(
+                columns.get(0), Domain.create(SortedRangeSet.copyOf(BIGINT,
+                        ImmutableList.of(Range.range(BIGINT, 10L, true, 15L, false))),
+                        false)));
+
+        Connection connection = database.getConnection();
+        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, session, connection, "", "", "test_table", ImmutableList.of(columns.get(1)), tupleDomain, Optional.empty());
+                ResultSet resultSet = preparedStatement.executeQuery()) {
+            assertContains(preparedStatement.toString(), "\"col_0\" >= ?");
+            assertContains(preparedStatement.toString(), "\"col_0\" < ?");
+            ImmutableSet.Builder<Double> builder = ImmutableSet.builder();
+            while (resultSet.next()) {
+                builder.add((Double) resultSet.getObject("col_1"));
+            }
+            assertEquals(builder.build(), ImmutableSet.of(200005.0, 200005.5, 200006.0, 200006.5, 200007.0));
+        }
+    }
+
     @Test
     public void testEmptyBuildSql()
             throws SQLException
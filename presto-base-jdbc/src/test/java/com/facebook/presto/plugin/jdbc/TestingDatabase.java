@@ -41,18 +41,15 @@ final class TestingDatabase
     public static final String CONNECTOR_ID = "test";
     private static final ConnectorSession session = testSessionBuilder().build().toConnectorSession();
 
+    private final String connectionUrl;
     private final Connection connection;
     private final JdbcClient jdbcClient;
 
     public TestingDatabase()
             throws SQLException
     {
-        String connectionUrl = "jdbc:h2:mem:test" + System.nanoTime() + "_" + ThreadLocalRandom.current().nextInt();
-        jdbcClient = new BaseJdbcClient(
-                new JdbcConnectorId(CONNECTOR_ID),
-                new BaseJdbcConfig(),
-                "\"",
-                new DriverConnectionFactory(new Driver(), connectionUrl, Optional.empty(), Optional.empty(), new Properties()));
+        connectionUrl = "jdbc:h2:mem:test" + System.nanoTime() + "_" + ThreadLocalRandom.current().nextInt();
+        jdbcClient = createJdbcClient(new BaseJdbcConfig());
 
         connection = DriverManager.getConnection(connectionUrl);
         connection.createStatement().execute("CREATE SCHEMA example");
@@ -97,6 +94,15 @@ final class TestingDatabase
         return jdbcClient;
     }
 
+    public JdbcClient createJdbcClient(BaseJdbcConfig config)
+    {
+        return new BaseJdbcClient(
+                new JdbcConnectorId(CONNECTOR_ID),
+                config,
+                "\"",
+                new DriverConnectionFactory(new Driver(), connectionUrl, Optional.empty(), Optional.empty(), new Properties()));
+    }
+
     public JdbcSplit getSplit(String schemaName, String tableName)
     {
         JdbcIdentity identity = JdbcIdentity.from(session);
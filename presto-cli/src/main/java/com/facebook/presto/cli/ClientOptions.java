@@ -143,6 +143,9 @@ public class ClientOptions
     @Option(name = "--disable-compression", title = "disable response compression", description = "Disable compression of query results")
     public boolean disableCompression;
 
+    @Option(name = "--binary-results", title = "binary results", description = "Fetch query results as serialized pages instead of JSON")
+    public boolean binaryResults;
+
     public enum OutputFormat
     {
         ALIGNED,
@@ -176,7 +179,8 @@ public class ClientOptions
                 clientRequestTimeout,
                 disableCompression,
                 emptyMap(),
-                emptyMap());
+                emptyMap(),
+                binaryResults);
     }
 
     public static URI parseServer(String server)
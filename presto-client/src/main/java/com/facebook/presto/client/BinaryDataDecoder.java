@@ -0,0 +1,337 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.client;
+
+import com.facebook.presto.common.Page;
+import com.facebook.presto.common.block.Block;
+import com.facebook.presto.common.block.BlockEncodingManager;
+import com.facebook.presto.common.type.DecimalType;
+import com.facebook.presto.common.type.NamedTypeSignature;
+import com.facebook.presto.common.type.SqlDate;
+import com.facebook.presto.common.type.TypeSignature;
+import com.facebook.presto.common.type.TypeSignatureParameter;
+import com.facebook.presto.spi.page.PageCompressor;
+import com.facebook.presto.spi.page.PageDecompressor;
+import com.facebook.presto.spi.page.PagesSerde;
+import com.google.common.collect.ImmutableList;
+import io.airlift.compress.lz4.Lz4Compressor;
+import io.airlift.compress.lz4.Lz4Decompressor;
+import io.airlift.slice.Slices;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.facebook.presto.common.type.DecimalType.createDecimalType;
+import static com.facebook.presto.common.type.StandardTypes.ARRAY;
+import static com.facebook.presto.common.type.StandardTypes.BIGINT;
+import static com.facebook.presto.common.type.StandardTypes.BOOLEAN;
+import static com.facebook.presto.common.type.StandardTypes.CHAR;
+import static com.facebook.presto.common.type.StandardTypes.DATE;
+import static com.facebook.presto.common.type.StandardTypes.DECIMAL;
+import static com.facebook.presto.common.type.StandardTypes.DOUBLE;
+import static com.facebook.presto.common.type.StandardTypes.INTEGER;
+import static com.facebook.presto.common.type.StandardTypes.JSON;
+import static com.facebook.presto.common.type.StandardTypes.MAP;
+import static com.facebook.presto.common.type.StandardTypes.REAL;
+import static com.facebook.presto.common.type.StandardTypes.ROW;
+import static com.facebook.presto.common.type.StandardTypes.SMALLINT;
+import static com.facebook.presto.common.type.StandardTypes.TINYINT;
+import static com.facebook.presto.common.type.StandardTypes.VARBINARY;
+import static com.facebook.presto.common.type.StandardTypes.VARCHAR;
+import static com.facebook.presto.common.type.TypeSignature.parseTypeSignature;
+import static com.facebook.presto.spi.page.PagesSerdeUtil.readSerializedPage;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.lang.Double.longBitsToDouble;
+import static java.lang.Float.intBitsToFloat;
+import static java.lang.Math.toIntExact;
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Decodes the serialized pages returned in {@link QueryResults#getBinaryData()} into rows that read their
+ * values directly from the columnar blocks of the page. The values have the same Java types as the values
+ * that {@link FixJsonDataUtils} produces for the JSON encoded results.
+ */
+@NotThreadSafe
+final class BinaryDataDecoder
+{
+    private static final Base64.Decoder BASE64_DECODER = Base64.getDecoder();
+
+    private final List<ColumnReader> columnReaders;
+    private final PagesSerde pagesSerde;
+
+    BinaryDataDecoder(List<Column> columns)
+    {
+        requireNonNull(columns, "columns is null");
+        this.columnReaders = columns.stream()
+                .map(column -> createColumnReader(parseTypeSignature(column.getType())))
+                .collect(toImmutableList());
+        // pages are compressed with LZ4 when exchange compression is enabled for the query
+        Lz4PageCodec codec = new Lz4PageCodec();
+        this.pagesSerde = new PagesSerde(new BlockEncodingManager(), Optional.of(codec), Optional.of(codec), Optional.empty());
+    }
+
+    public Iterable<List<Object>> decode(Iterable<String> binaryData)
+    {
+        if (binaryData == null) {
+            return null;
+        }
+
+        ImmutableList.Builder<List<Object>> rows = ImmutableList.builder();
+        for (String encodedPage : binaryData) {
+            byte[] bytes = BASE64_DECODER.decode(encodedPage);
+            Page page = pagesSerde.deserialize(readSerializedPage(Slices.wrappedBuffer(bytes).getInput()));
+            checkArgument(page.getChannelCount() == columnReaders.size(), "page/column count mismatch");
+            for (int position = 0; position < page.getPositionCount(); position++) {
+                rows.add(new BinaryRow(page, position, columnReaders));
+            }
+        }
+        return rows.build();
+    }
+
+    private static ColumnReader createColumnReader(TypeSignature signature)
+    {
+        if (signature.isDistinctType()) {
+            return createColumnReader(signature.getDistinctTypeInfo().getBaseType());
+        }
+        if (signature.getTypeSignatureBase().hasTypeName() && signature.getTypeSignatureBase().hasStandardType()) {
+            return createColumnReader(signature.getStandardTypeSignature());
+        }
+        if (signature.isVarcharEnum()) {
+            return new ColumnReader(VARCHAR, BinaryDataDecoder::readString);
+        }
+        if (signature.isBigintEnum()) {
+            return new ColumnReader(BIGINT, Block::getLong);
+        }
+        switch (signature.getBase()) {
+            case BIGINT:
+                return new ColumnReader(BIGINT, Block::getLong);
+            case INTEGER:
+                return new ColumnReader(INTEGER, Block::getInt);
+            case SMALLINT:
+                return new ColumnReader(SMALLINT, Block::getShort);
+            case TINYINT:
+                return new ColumnReader(TINYINT, Block::getByte);
+            case DOUBLE:
+                return new ColumnReader(DOUBLE, (block, position) -> longBitsToDouble(block.getLong(position)));
+            case REAL:
+                return new ColumnReader(REAL, (block, position) -> intBitsToFloat(block.getInt(position)));
+            case BOOLEAN:
+                return new ColumnReader(BOOLEAN, (block, position) -> block.getByte(position) != 0);
+            case VARCHAR:
+            case JSON:
+                return new ColumnReader(signature.getBase(), BinaryDataDecoder::readString);
+            case CHAR: {
+                int length = toIntExact(getLongParameter(signature, 0, 1));
+                return new ColumnReader(CHAR, (block, position) -> padSpaces(readString(block, position), length));
+            }
+            case VARBINARY:
+                return new ColumnReader(VARBINARY, (block, position) -> block.getSlice(position, 0, block.getSliceLength(position)).getBytes());
+            case DATE:
+                return new ColumnReader(DATE, (block, position) -> new SqlDate(block.getInt(position)).toString());
+            case DECIMAL: {
+                DecimalType decimalType = createDecimalType(
+                        toIntExact(getLongParameter(signature, 0, DecimalType.DEFAULT_PRECISION)),
+                        toIntExact(getLongParameter(signature, 1, DecimalType.DEFAULT_SCALE)));
+                return new ColumnReader(DECIMAL, (block, position) -> decimalType.getObjectValue(null, block, position).toString());
+            }
+            case ARRAY: {
+                ColumnReader elementReader = createColumnReader(signature.getTypeParametersAsTypeSignatures().get(0));
+                return new ColumnReader(ARRAY, (block, position) -> readArray(elementReader, block.getBlock(position)));
+            }
+            case MAP: {
+                ColumnReader keyReader = createColumnReader(signature.getTypeParametersAsTypeSignatures().get(0));
+                ColumnReader valueReader = createColumnReader(signature.getTypeParametersAsTypeSignatures().get(1));
+                return new ColumnReader(MAP, (block, position) -> readMap(keyReader, valueReader, block.getBlock(position)));
+            }
+            case ROW: {
+                ImmutableList.Builder<String> fieldNames = ImmutableList.builder();
+                ImmutableList.Builder<ColumnReader> fieldReaders = ImmutableList.builder();
+                List<TypeSignatureParameter> parameters = signature.getParameters();
+                for (int i = 0; i < parameters.size(); i++) {
+                    NamedTypeSignature namedTypeSignature = parameters.get(i).getNamedTypeSignature();
+                    fieldNames.add(namedTypeSignature.getName().orElse("field" + i));
+                    fieldReaders.add(createColumnReader(namedTypeSignature.getTypeSignature()));
+                }
+                List<String> names = fieldNames.build();
+                List<ColumnReader> readers = fieldReaders.build();
+                return new ColumnReader(ROW, (block, position) -> readRow(names, readers, block.getBlock(position)));
+            }
+            default:
+                throw new ClientException(format("Binary results are not supported for type %s", signature));
+        }
+    }
+
+    private static long getLongParameter(TypeSignature signature, int index, long defaultValue)
+    {
+        if (signature.getParameters().size() <= index) {
+            return defaultValue;
+        }
+        return signature.getParameters().get(index).getLongLiteral();
+    }
+
+    private static String readString(Block block, int position)
+    {
+        return block.getSlice(position, 0, block.getSliceLength(position)).toStringUtf8();
+    }
+
+    private static String padSpaces(String value, int length)
+    {
+        StringBuilder builder = new StringBuilder(length);
+        builder.append(value);
+        for (int i = value.length(); i < length; i++) {
+            builder.append(' ');
+        }
+        return builder.toString();
+    }
+
+    private static List<Object> readArray(ColumnReader elementReader, Block arrayBlock)
+    {
+        List<Object> values = new ArrayList<>(arrayBlock.getPositionCount());
+        for (int position = 0; position < arrayBlock.getPositionCount(); position++) {
+            values.add(elementReader.read(arrayBlock, position));
+        }
+        return values;
+    }
+
+    private static Map<Object, Object> readMap(ColumnReader keyReader, ColumnReader valueReader, Block mapBlock)
+    {
+        // keys and values alternate in the positions of a single map block
+        Map<Object, Object> values = new HashMap<>();
+        for (int position = 0; position < mapBlock.getPositionCount(); position += 2) {
+            values.put(keyReader.read(mapBlock, position), valueReader.read(mapBlock, position + 1));
+        }
+        return values;
+    }
+
+    private static Map<String, Object> readRow(List<String> fieldNames, List<ColumnReader> fieldReaders, Block rowBlock)
+    {
+        // the fields are the positions of a single row block
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int field = 0; field < fieldReaders.size(); field++) {
+            values.put(fieldNames.get(field), fieldReaders.get(field).read(rowBlock, field));
+        }
+        return values;
+    }
+
+    @FunctionalInterface
+    private interface ValueReader
+    {
+        Object read(Block block, int position);
+    }
+
+    static final class ColumnReader
+    {
+        private final String type;
+        private final ValueReader valueReader;
+
+        private ColumnReader(String type, ValueReader valueReader)
+        {
+            this.type = requireNonNull(type, "type is null");
+            this.valueReader = requireNonNull(valueReader, "valueReader is null");
+        }
+
+        public Object read(Block block, int position)
+        {
+            if (block.isNull(position)) {
+                return null;
+            }
+            return valueReader.read(block, position);
+        }
+
+        public boolean hasLongValue()
+        {
+            return type.equals(BIGINT) || type.equals(INTEGER) || type.equals(SMALLINT) || type.equals(TINYINT);
+        }
+
+        public long readLong(Block block, int position)
+        {
+            switch (type) {
+                case BIGINT:
+                    return block.getLong(position);
+                case INTEGER:
+                    return block.getInt(position);
+                case SMALLINT:
+                    return block.getShort(position);
+                case TINYINT:
+                    return block.getByte(position);
+                default:
+                    throw new IllegalStateException("Column does not have a long value: " + type);
+            }
+        }
+
+        public boolean hasDoubleValue()
+        {
+            return type.equals(DOUBLE) || type.equals(REAL);
+        }
+
+        public double readDouble(Block block, int position)
+        {
+            switch (type) {
+                case DOUBLE:
+                    return longBitsToDouble(block.getLong(position));
+                case REAL:
+                    return intBitsToFloat(block.getInt(position));
+                default:
+                    throw new IllegalStateException("Column does not have a double value: " + type);
+            }
+        }
+    }
+
+    private static class Lz4PageCodec
+            implements PageCompressor, PageDecompressor
+    {
+        private final Lz4Compressor compressor = new Lz4Compressor();
+        private final Lz4Decompressor decompressor = new Lz4Decompressor();
+
+        @Override
+        public int maxCompressedLength(int uncompressedSize)
+        {
+            return compressor.maxCompressedLength(uncompressedSize);
+        }
+
+        @Override
+        public int compress(byte[] input, int inputOffset, int inputLength, byte[] output, int outputOffset, int maxOutputLength)
+        {
+            return compressor.compress(input, inputOffset, inputLength, output, outputOffset, maxOutputLength);
+        }
+
+        @Override
+        public void compress(ByteBuffer input, ByteBuffer output)
+        {
+            compressor.compress(input, output);
+        }
+
+        @Override
+        public int decompress(byte[] input, int inputOffset, int inputLength, byte[] output, int outputOffset, int maxOutputLength)
+        {
+            return decompressor.decompress(input, inputOffset, inputLength, output, outputOffset, maxOutputLength);
+        }
+
+        @Override
+        public void decompress(ByteBuffer input, ByteBuffer output)
+        {
+            decompressor.decompress(input, output);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.client;
+
+import com.facebook.presto.client.BinaryDataDecoder.ColumnReader;
+import com.facebook.presto.common.Page;
+import com.facebook.presto.common.block.Block;
+
+import java.util.AbstractList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A row of binary query results. The row is a view over a position of the decoded page, so values are only
+ * materialized when they are read. Numeric values can be read without boxing them.
+ */
+public final class BinaryRow
+        extends AbstractList<Object>
+{
+    private final Page page;
+    private final int position;
+    private final List<ColumnReader> columnReaders;
+
+    BinaryRow(Page page, int position, List<ColumnReader> columnReaders)
+    {
+        this.page = requireNonNull(page, "page is null");
+        this.position = position;
+        this.columnReaders = requireNonNull(columnReaders, "columnReaders is null");
+    }
+
+    @Override
+    public Object get(int column)
+    {
+        return columnReaders.get(column).read(page.getBlock(column), position);
+    }
+
+    @Override
+    public int size()
+    {
+        return columnReaders.size();
+    }
+
+    public boolean isNull(int column)
+    {
+        return page.getBlock(column).isNull(position);
+    }
+
+    /**
+     * Returns whether the column is an integral type that can be read with {@link #getLong(int)}.
+     */
+    public boolean hasLongValue(int column)
+    {
+        return columnReaders.get(column).hasLongValue();
+    }
+
+    /**
+     * Returns the value of an integral column, or zero if the value is null.
+     */
+    public long getLong(int column)
+    {
+        ColumnReader columnReader = columnReaders.get(column);
+        checkState(columnReader.hasLongValue(), "column %s does not have a long value", column);
+        Block block = page.getBlock(column);
+        if (block.isNull(position)) {
+            return 0;
+        }
+        return columnReader.readLong(block, position);
+    }
+
+    /**
+     * Returns whether the column is a floating point type that can be read with {@link #getDouble(int)}.
+     */
+    public boolean hasDoubleValue(int column)
+    {
+        return columnReaders.get(column).hasDoubleValue();
+    }
+
+    /**
+     * Returns the value of a floating point column, or zero if the value is null.
+     */
+    public double getDouble(int column)
+    {
+        ColumnReader columnReader = columnReaders.get(column);
+        checkState(columnReader.hasDoubleValue(), "column %s does not have a double value", column);
+        Block block = page.getBlock(column);
+        if (block.isNull(position)) {
+            return 0;
+        }
+        return columnReader.readDouble(block, position);
+    }
+}
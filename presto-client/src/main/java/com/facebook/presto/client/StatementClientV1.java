@@ -99,6 +99,7 @@ class StatementClientV1
     private final OkHttpClient httpClient;
     private final String query;
     private final AtomicReference<QueryResults> currentResults = new AtomicReference<>();
+    private final AtomicReference<QueryData> currentData = new AtomicReference<>();
     private final AtomicReference<String> setCatalog = new AtomicReference<>();
     private final AtomicReference<String> setSchema = new AtomicReference<>();
     private final Map<String, String> setSessionProperties = new ConcurrentHashMap<>();
@@ -112,11 +113,15 @@ class StatementClientV1
     private final Duration requestTimeoutNanos;
     private final String user;
     private final boolean compressionDisabled;
+    private final boolean binaryResults;
     private final Map<String, String> addedSessionFunctions = new ConcurrentHashMap<>();
     private final Set<String> removedSessionFunctions = newConcurrentHashSet();
 
     private final AtomicReference<State> state = new AtomicReference<>(State.RUNNING);
 
+    // only used by the thread advancing the client
+    private BinaryDataDecoder binaryDataDecoder;
+
     public StatementClientV1(OkHttpClient httpClient, ClientSession session, String query)
     {
         requireNonNull(httpClient, "httpClient is null");
@@ -129,6 +134,7 @@ class StatementClientV1
         this.requestTimeoutNanos = session.getClientRequestTimeout();
         this.user = session.getUser();
         this.compressionDisabled = session.isCompressionDisabled();
+        this.binaryResults = session.isBinaryResults();
 
         Request request = buildQueryRequest(session, query);
 
@@ -147,7 +153,12 @@ class StatementClientV1
         if (url == null) {
             throw new ClientException("Invalid server URL: " + session.getServer());
         }
-        url = url.newBuilder().encodedPath("/v1/statement").build();
+        HttpUrl.Builder urlBuilder = url.newBuilder().encodedPath("/v1/statement");
+        if (session.isBinaryResults()) {
+            // the server keeps the parameter in the next URIs it returns
+            urlBuilder.addQueryParameter("binaryResults", "true");
+        }
+        url = urlBuilder.build();
 
         Request.Builder builder = prepareRequest(url)
                 .post(RequestBody.create(MEDIA_TYPE_TEXT, query));
@@ -264,7 +275,7 @@ class StatementClientV1
     public QueryData currentData()
     {
         checkState(isRunning(), "current position is not valid (cursor past end)");
-        return currentResults.get();
+        return currentData.get();
     }
 
     @Override
@@ -475,6 +486,19 @@ class StatementClientV1
         }
 
         currentResults.set(results);
+        currentData.set(decodeData(results));
+    }
+
+    private QueryData decodeData(QueryResults results)
+    {
+        if (!binaryResults || results.getBinaryData() == null) {
+            return results;
+        }
+        if (binaryDataDecoder == null) {
+            binaryDataDecoder = new BinaryDataDecoder(results.getColumns());
+        }
+        Iterable<List<Object>> data = binaryDataDecoder.decode(results.getBinaryData());
+        return () -> data;
     }
 
     private RuntimeException requestFailedException(String task, Request request, JsonResponse<QueryResults> response)
@@ -0,0 +1,114 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.client;
+
+import com.facebook.presto.common.Page;
+import com.facebook.presto.common.block.BlockBuilder;
+import com.facebook.presto.common.block.BlockEncodingManager;
+import com.facebook.presto.common.type.ArrayType;
+import com.facebook.presto.common.type.DecimalType;
+import com.facebook.presto.common.type.Type;
+import com.facebook.presto.spi.page.PagesSerde;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.DynamicSliceOutput;
+import org.testng.annotations.Test;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.DecimalType.createDecimalType;
+import static com.facebook.presto.common.type.DoubleType.DOUBLE;
+import static com.facebook.presto.common.type.VarcharType.VARCHAR;
+import static com.facebook.presto.spi.page.PagesSerdeUtil.writeSerializedPage;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class TestBinaryDataDecoder
+{
+    private static final DecimalType DECIMAL = createDecimalType(10, 2);
+    private static final ArrayType BIGINT_ARRAY = new ArrayType(BIGINT);
+
+    @Test
+    public void testDecode()
+    {
+        List<Type> types = ImmutableList.of(BIGINT, DOUBLE, VARCHAR, DECIMAL, BIGINT_ARRAY);
+        BlockBuilder[] blockBuilders = types.stream()
+                .map(type -> type.createBlockBuilder(null, 2))
+                .toArray(BlockBuilder[]::new);
+
+        BIGINT.writeLong(blockBuilders[0], 42);
+        DOUBLE.writeDouble(blockBuilders[1], 1.5);
+        VARCHAR.writeString(blockBuilders[2], "test string");
+        DECIMAL.writeLong(blockBuilders[3], 1234);
+        BlockBuilder arrayBuilder = blockBuilders[4].beginBlockEntry();
+        BIGINT.writeLong(arrayBuilder, 1);
+        arrayBuilder.appendNull();
+        blockBuilders[4].closeEntry();
+
+        for (BlockBuilder blockBuilder : blockBuilders) {
+            blockBuilder.appendNull();
+        }
+
+        Page page = new Page(2, blockBuilders[0].build(), blockBuilders[1].build(), blockBuilders[2].build(), blockBuilders[3].build(), blockBuilders[4].build());
+        List<Column> columns = types.stream()
+                .map(type -> new Column("column", type))
+                .collect(toImmutableList());
+
+        List<List<Object>> rows = ImmutableList.copyOf(new BinaryDataDecoder(columns).decode(ImmutableList.of(encode(page))));
+        assertEquals(rows.size(), 2);
+
+        assertEquals(rows.get(0), asList(42L, 1.5, "test string", "12.34", asList(1L, null)));
+        assertEquals(rows.get(1), asList(null, null, null, null, null));
+
+        BinaryRow row = (BinaryRow) rows.get(0);
+        assertTrue(row.hasLongValue(0));
+        assertFalse(row.hasLongValue(1));
+        assertEquals(row.getLong(0), 42);
+        assertTrue(row.hasDoubleValue(1));
+        assertEquals(row.getDouble(1), 1.5);
+
+        BinaryRow nullRow = (BinaryRow) rows.get(1);
+        assertTrue(nullRow.isNull(0));
+        assertEquals(nullRow.getLong(0), 0);
+        assertEquals(nullRow.getDouble(1), 0.0);
+    }
+
+    @Test
+    public void testDecodeWithoutData()
+    {
+        BinaryDataDecoder decoder = new BinaryDataDecoder(ImmutableList.of(new Column("column", BIGINT)));
+        assertNull(decoder.decode(null));
+        assertFalse(decoder.decode(ImmutableList.of()).iterator().hasNext());
+    }
+
+    @Test(expectedExceptions = ClientException.class, expectedExceptionsMessageRegExp = "Binary results are not supported for type timestamp")
+    public void testUnsupportedType()
+    {
+        new BinaryDataDecoder(ImmutableList.of(new Column("column", "timestamp", null)));
+    }
+
+    private static String encode(Page page)
+    {
+        PagesSerde pagesSerde = new PagesSerde(new BlockEncodingManager(), Optional.empty(), Optional.empty(), Optional.empty());
+        DynamicSliceOutput sliceOutput = new DynamicSliceOutput(1000);
+        writeSerializedPage(sliceOutput, pagesSerde.serialize(page));
+        return Base64.getEncoder().encodeToString(sliceOutput.slice().getBytes());
+    }
+}
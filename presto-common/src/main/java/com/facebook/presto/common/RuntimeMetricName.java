@@ -58,4 +58,10 @@ public class RuntimeMetricName
     public static final String WRITTEN_FILES_COUNT = "writtenFilesCount";
     public static final String HISTORY_OPTIMIZER_QUERY_REGISTRATION_GET_PLAN_NODE_HASHES = "historyOptimizerQueryRegistrationGetPlanNodeHashes";
     public static final String HISTORY_OPTIMIZER_QUERY_REGISTRATION_GET_STATISTICS = "historyOptimizerQueryRegistrationGetStatistics";
+    // Joins switched at runtime between broadcast and partitioned distribution based on the size of their build side.
+    public static final String RUNTIME_JOIN_DISTRIBUTION_SWITCHED_TO_PARTITIONED_COUNT = "runtimeJoinDistributionSwitchedToPartitionedCount";
+    public static final String RUNTIME_JOIN_DISTRIBUTION_SWITCHED_TO_REPLICATED_COUNT = "runtimeJoinDistributionSwitchedToReplicatedCount";
+    // Partial aggregations switched at runtime by the group key cardinality estimated over a sample of their input.
+    public static final String PARTIAL_AGGREGATION_DISABLED_BY_SAMPLE_COUNT = "partialAggregationDisabledBySampleCount";
+    public static final String PARTIAL_AGGREGATION_ENABLED_BY_SAMPLE_COUNT = "partialAggregationEnabledBySampleCount";
 }
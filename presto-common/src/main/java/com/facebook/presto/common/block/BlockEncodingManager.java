@@ -48,6 +48,9 @@ public final class BlockEncodingManager
         addBlockEncoding(new SingleRowBlockEncoding());
         addBlockEncoding(new RunLengthBlockEncoding());
         addBlockEncoding(new LazyBlockEncoding());
+        addBlockEncoding(new PackedLongArrayBlockEncoding());
+        addBlockEncoding(new PackedIntArrayBlockEncoding());
+        addBlockEncoding(new VariableWidthDictionaryBlockEncoding());
     }
 
     public void addBlockEncoding(BlockEncoding blockEncoding)
@@ -110,7 +113,7 @@ public final class BlockEncodingManager
         return new String(bytes, UTF_8);
     }
 
-    private static void writeLengthPrefixedString(SliceOutput output, String value)
+    static void writeLengthPrefixedString(SliceOutput output, String value)
     {
         byte[] bytes = value.getBytes(UTF_8);
         output.writeInt(bytes.length);
@@ -16,10 +16,15 @@ package com.facebook.presto.common.block;
 import io.airlift.slice.SliceInput;
 import io.airlift.slice.SliceOutput;
 
+import java.util.Arrays;
 import java.util.Optional;
 
 final class EncoderUtil
 {
+    private static final byte PLAIN_VALUES = 0;
+    private static final byte FRAME_OF_REFERENCE_VALUES = 1;
+    private static final byte DELTA_VALUES = 2;
+
     private EncoderUtil()
     {
     }
@@ -97,4 +102,169 @@ final class EncoderUtil
 
         return Optional.of(valueIsNull);
     }
+
+    /**
+     * Append the values with the encoding using the fewest bits per value: the plain values,
+     * the values minus their minimum (frame of reference), or the differences between consecutive
+     * values minus their minimum (delta). Integer overflows are fine as the values are decoded
+     * with the same wrapping arithmetic.
+     */
+    public static void encodeLongValues(SliceOutput sliceOutput, long[] values, int count)
+    {
+        if (count == 0) {
+            sliceOutput.writeByte(PLAIN_VALUES);
+            return;
+        }
+
+        long min = values[0];
+        long max = values[0];
+        long minDelta = 0;
+        long maxDelta = 0;
+        for (int i = 1; i < count; i++) {
+            long value = values[i];
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            long delta = value - values[i - 1];
+            if (i == 1) {
+                minDelta = delta;
+                maxDelta = delta;
+            }
+            else {
+                minDelta = Math.min(minDelta, delta);
+                maxDelta = Math.max(maxDelta, delta);
+            }
+        }
+
+        int frameOfReferenceBits = bitsRequired(max - min);
+        int deltaBits = bitsRequired(maxDelta - minDelta);
+        // delta encoding stores one more long than frame of reference
+        if (count > 1 && (long) deltaBits * (count - 1) + Long.SIZE < (long) frameOfReferenceBits * count && deltaBits < Long.SIZE) {
+            sliceOutput.writeByte(DELTA_VALUES);
+            sliceOutput.writeLong(values[0]);
+            sliceOutput.writeLong(minDelta);
+            sliceOutput.writeByte(deltaBits);
+            long[] deltas = new long[count - 1];
+            for (int i = 1; i < count; i++) {
+                deltas[i - 1] = values[i] - values[i - 1] - minDelta;
+            }
+            writePackedLongs(sliceOutput, deltas, count - 1, deltaBits);
+        }
+        else if (frameOfReferenceBits < Long.SIZE) {
+            sliceOutput.writeByte(FRAME_OF_REFERENCE_VALUES);
+            sliceOutput.writeLong(min);
+            sliceOutput.writeByte(frameOfReferenceBits);
+            long[] offsets = new long[count];
+            for (int i = 0; i < count; i++) {
+                offsets[i] = values[i] - min;
+            }
+            writePackedLongs(sliceOutput, offsets, count, frameOfReferenceBits);
+        }
+        else {
+            sliceOutput.writeByte(PLAIN_VALUES);
+            for (int i = 0; i < count; i++) {
+                sliceOutput.writeLong(values[i]);
+            }
+        }
+    }
+
+    /**
+     * Decode the values appended by encodeLongValues.
+     */
+    public static void decodeLongValues(SliceInput sliceInput, long[] values, int count)
+    {
+        byte encoding = sliceInput.readByte();
+        switch (encoding) {
+            case PLAIN_VALUES:
+                for (int i = 0; i < count; i++) {
+                    values[i] = sliceInput.readLong();
+                }
+                break;
+            case FRAME_OF_REFERENCE_VALUES: {
+                long min = sliceInput.readLong();
+                int bitWidth = sliceInput.readByte();
+                readPackedLongs(sliceInput, values, 0, count, bitWidth);
+                for (int i = 0; i < count; i++) {
+                    values[i] += min;
+                }
+                break;
+            }
+            case DELTA_VALUES: {
+                long first = sliceInput.readLong();
+                long minDelta = sliceInput.readLong();
+                int bitWidth = sliceInput.readByte();
+                values[0] = first;
+                readPackedLongs(sliceInput, values, 1, count - 1, bitWidth);
+                for (int i = 1; i < count; i++) {
+                    values[i] += values[i - 1] + minDelta;
+                }
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown values encoding: " + encoding);
+        }
+    }
+
+    /**
+     * Number of bits needed to store the unsigned value.
+     */
+    public static int bitsRequired(long value)
+    {
+        return Long.SIZE - Long.numberOfLeadingZeros(value);
+    }
+
+    /**
+     * Append the low bitWidth bits of each value, which must be less than 64.
+     */
+    public static void writePackedLongs(SliceOutput sliceOutput, long[] values, int count, int bitWidth)
+    {
+        if (bitWidth == 0) {
+            return;
+        }
+
+        long buffer = 0;
+        int bitsInBuffer = 0;
+        for (int i = 0; i < count; i++) {
+            long value = values[i];
+            buffer |= value << bitsInBuffer;
+            bitsInBuffer += bitWidth;
+            if (bitsInBuffer >= Long.SIZE) {
+                sliceOutput.writeLong(buffer);
+                bitsInBuffer -= Long.SIZE;
+                // keep the bits of the value which did not fit
+                buffer = bitsInBuffer == 0 ? 0 : value >>> (bitWidth - bitsInBuffer);
+            }
+        }
+        if (bitsInBuffer > 0) {
+            sliceOutput.writeLong(buffer);
+        }
+    }
+
+    /**
+     * Decode the values appended by writePackedLongs.
+     */
+    public static void readPackedLongs(SliceInput sliceInput, long[] values, int offset, int count, int bitWidth)
+    {
+        if (bitWidth == 0) {
+            Arrays.fill(values, offset, offset + count, 0);
+            return;
+        }
+
+        long mask = (1L << bitWidth) - 1;
+        long buffer = 0;
+        int bitsInBuffer = 0;
+        for (int i = offset; i < offset + count; i++) {
+            if (bitsInBuffer >= bitWidth) {
+                values[i] = buffer & mask;
+                buffer >>>= bitWidth;
+                bitsInBuffer -= bitWidth;
+            }
+            else {
+                long next = sliceInput.readLong();
+                values[i] = (buffer | (next << bitsInBuffer)) & mask;
+                int bitsUsed = bitWidth - bitsInBuffer;
+                buffer = next >>> bitsUsed;
+                bitsInBuffer = Long.SIZE - bitsUsed;
+            }
+        }
+    }
 }
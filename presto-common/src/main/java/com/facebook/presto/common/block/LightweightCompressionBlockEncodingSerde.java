@@ -0,0 +1,71 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.common.block;
+
+import io.airlift.slice.SliceInput;
+import io.airlift.slice.SliceOutput;
+
+import static com.facebook.presto.common.block.BlockEncodingManager.writeLengthPrefixedString;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes long, int and variable width blocks with encodings adapted to their values (bit packing
+ * and dictionaries), and other blocks with the encodings of the delegate. The blocks are tagged
+ * with the name of their encoding, so they can be read by any {@link BlockEncodingManager}.
+ */
+public final class LightweightCompressionBlockEncodingSerde
+        implements BlockEncodingSerde
+{
+    private static final BlockEncoding PACKED_LONG_ARRAY_BLOCK_ENCODING = new PackedLongArrayBlockEncoding();
+    private static final BlockEncoding PACKED_INT_ARRAY_BLOCK_ENCODING = new PackedIntArrayBlockEncoding();
+    private static final BlockEncoding VARIABLE_WIDTH_DICTIONARY_BLOCK_ENCODING = new VariableWidthDictionaryBlockEncoding();
+
+    private final BlockEncodingSerde delegate;
+
+    public LightweightCompressionBlockEncodingSerde(BlockEncodingSerde delegate)
+    {
+        this.delegate = requireNonNull(delegate, "delegate is null");
+    }
+
+    @Override
+    public Block readBlock(SliceInput input)
+    {
+        return delegate.readBlock(input);
+    }
+
+    @Override
+    public void writeBlock(SliceOutput output, Block block)
+    {
+        block = block.getLoadedBlock();
+
+        BlockEncoding blockEncoding;
+        switch (block.getEncodingName()) {
+            case LongArrayBlockEncoding.NAME:
+                blockEncoding = PACKED_LONG_ARRAY_BLOCK_ENCODING;
+                break;
+            case IntArrayBlockEncoding.NAME:
+                blockEncoding = PACKED_INT_ARRAY_BLOCK_ENCODING;
+                break;
+            case VariableWidthBlockEncoding.NAME:
+                blockEncoding = VARIABLE_WIDTH_DICTIONARY_BLOCK_ENCODING;
+                break;
+            default:
+                delegate.writeBlock(output, block);
+                return;
+        }
+
+        writeLengthPrefixedString(output, blockEncoding.getName());
+        blockEncoding.writeBlock(this, output, block);
+    }
+}
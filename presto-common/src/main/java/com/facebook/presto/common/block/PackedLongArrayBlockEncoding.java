@@ -0,0 +1,90 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.common.block;
+
+import io.airlift.slice.SliceInput;
+import io.airlift.slice.SliceOutput;
+
+import static com.facebook.presto.common.block.EncoderUtil.decodeLongValues;
+import static com.facebook.presto.common.block.EncoderUtil.decodeNullBits;
+import static com.facebook.presto.common.block.EncoderUtil.encodeLongValues;
+import static com.facebook.presto.common.block.EncoderUtil.encodeNullsAsBits;
+
+/**
+ * Encoding of long array blocks storing the non null values with frame of reference or delta bit packing.
+ * It is only used when requested through {@link LightweightCompressionBlockEncodingSerde}.
+ */
+public class PackedLongArrayBlockEncoding
+        implements BlockEncoding
+{
+    public static final String NAME = "LONG_ARRAY_PACKED";
+
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+
+    @Override
+    public void writeBlock(BlockEncodingSerde blockEncodingSerde, SliceOutput sliceOutput, Block block)
+    {
+        int positionCount = block.getPositionCount();
+        sliceOutput.appendInt(positionCount);
+
+        encodeNullsAsBits(sliceOutput, block);
+
+        long[] values = new long[positionCount];
+        int valueCount = 0;
+        boolean mayHaveNull = block.mayHaveNull();
+        for (int position = 0; position < positionCount; position++) {
+            if (!mayHaveNull || !block.isNull(position)) {
+                values[valueCount] = block.getLong(position);
+                valueCount++;
+            }
+        }
+        encodeLongValues(sliceOutput, values, valueCount);
+    }
+
+    @Override
+    public Block readBlock(BlockEncodingSerde blockEncodingSerde, SliceInput sliceInput)
+    {
+        int positionCount = sliceInput.readInt();
+
+        boolean[] valueIsNull = decodeNullBits(sliceInput, positionCount).orElse(null);
+
+        long[] values = new long[positionCount];
+        if (valueIsNull == null) {
+            decodeLongValues(sliceInput, values, positionCount);
+        }
+        else {
+            int valueCount = 0;
+            for (boolean isNull : valueIsNull) {
+                if (!isNull) {
+                    valueCount++;
+                }
+            }
+            long[] nonNullValues = new long[valueCount];
+            decodeLongValues(sliceInput, nonNullValues, valueCount);
+            int index = 0;
+            for (int position = 0; position < positionCount; position++) {
+                if (!valueIsNull[position]) {
+                    values[position] = nonNullValues[index];
+                    index++;
+                }
+            }
+        }
+
+        return new LongArrayBlock(0, positionCount, valueIsNull, values);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.common.block;
+
+import io.airlift.slice.Slice;
+import io.airlift.slice.SliceInput;
+import io.airlift.slice.SliceOutput;
+import io.airlift.slice.Slices;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.facebook.presto.common.block.EncoderUtil.bitsRequired;
+import static com.facebook.presto.common.block.EncoderUtil.decodeNullBits;
+import static com.facebook.presto.common.block.EncoderUtil.encodeNullsAsBits;
+import static com.facebook.presto.common.block.EncoderUtil.readPackedLongs;
+import static com.facebook.presto.common.block.EncoderUtil.writePackedLongs;
+import static io.airlift.slice.SizeOf.SIZE_OF_INT;
+
+/**
+ * Encoding of variable width blocks storing the distinct values once and bit packed ids, which
+ * is read back as a {@link DictionaryBlock}. Blocks with too many distinct values are written
+ * with the plain variable width encoding.
+ * It is only used when requested through {@link LightweightCompressionBlockEncodingSerde}.
+ */
+public class VariableWidthDictionaryBlockEncoding
+        implements BlockEncoding
+{
+    public static final String NAME = "VARIABLE_WIDTH_DICTIONARY";
+
+    private static final byte PLAIN = 0;
+    private static final byte DICTIONARY = 1;
+
+    private static final VariableWidthBlockEncoding VARIABLE_WIDTH_BLOCK_ENCODING = new VariableWidthBlockEncoding();
+
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+
+    @Override
+    public void writeBlock(BlockEncodingSerde blockEncodingSerde, SliceOutput sliceOutput, Block block)
+    {
+        int positionCount = block.getPositionCount();
+
+        // give up as soon as the dictionary would not save at least half of the values
+        int maxDictionarySize = positionCount / 2;
+        Map<Slice, Integer> dictionaryIds = new HashMap<>();
+        List<Slice> dictionary = new ArrayList<>();
+        long[] ids = new long[positionCount];
+        int valueCount = 0;
+        boolean mayHaveNull = block.mayHaveNull();
+        for (int position = 0; position < positionCount; position++) {
+            if (mayHaveNull && block.isNull(position)) {
+                continue;
+            }
+            Slice value = block.getSlice(position, 0, block.getSliceLength(position));
+            Integer id = dictionaryIds.get(value);
+            if (id == null) {
+                if (dictionary.size() >= maxDictionarySize) {
+                    sliceOutput.writeByte(PLAIN);
+                    VARIABLE_WIDTH_BLOCK_ENCODING.writeBlock(blockEncodingSerde, sliceOutput, block);
+                    return;
+                }
+                id = dictionary.size();
+                dictionaryIds.put(value, id);
+                dictionary.add(value);
+            }
+            ids[valueCount] = id;
+            valueCount++;
+        }
+
+        sliceOutput.writeByte(DICTIONARY);
+        sliceOutput.appendInt(positionCount);
+        encodeNullsAsBits(sliceOutput, block);
+
+        sliceOutput.appendInt(dictionary.size());
+        int totalLength = 0;
+        for (Slice value : dictionary) {
+            totalLength += value.length();
+            sliceOutput.appendInt(totalLength);
+        }
+        sliceOutput.appendInt(totalLength);
+        for (Slice value : dictionary) {
+            sliceOutput.writeBytes(value);
+        }
+
+        int bitWidth = bitsRequired(Math.max(dictionary.size() - 1, 0));
+        sliceOutput.writeByte(bitWidth);
+        writePackedLongs(sliceOutput, ids, valueCount, bitWidth);
+    }
+
+    @Override
+    public Block readBlock(BlockEncodingSerde blockEncodingSerde, SliceInput sliceInput)
+    {
+        byte encoding = sliceInput.readByte();
+        if (encoding == PLAIN) {
+            return VARIABLE_WIDTH_BLOCK_ENCODING.readBlock(blockEncodingSerde, sliceInput);
+        }
+        if (encoding != DICTIONARY) {
+            throw new IllegalArgumentException("Unknown variable width encoding: " + encoding);
+        }
+
+        int positionCount = sliceInput.readInt();
+        boolean[] valueIsNull = decodeNullBits(sliceInput, positionCount).orElse(null);
+
+        int dictionarySize = sliceInput.readInt();
+        // null values point to an extra null entry at the end of the dictionary
+        int nullId = dictionarySize;
+        int[] offsets = new int[dictionarySize + 2];
+        sliceInput.readBytes(Slices.wrappedIntArray(offsets), SIZE_OF_INT, dictionarySize * SIZE_OF_INT);
+        offsets[dictionarySize + 1] = offsets[dictionarySize];
+        Slice slice = sliceInput.readSlice(sliceInput.readInt());
+
+        int valueCount = positionCount;
+        if (valueIsNull != null) {
+            for (boolean isNull : valueIsNull) {
+                if (isNull) {
+                    valueCount--;
+                }
+            }
+        }
+        int bitWidth = sliceInput.readByte();
+        long[] packedIds = new long[valueCount];
+        readPackedLongs(sliceInput, packedIds, 0, valueCount, bitWidth);
+
+        int[] ids = new int[positionCount];
+        int index = 0;
+        for (int position = 0; position < positionCount; position++) {
+            if (valueIsNull != null && valueIsNull[position]) {
+                ids[position] = nullId;
+            }
+            else {
+                ids[position] = (int) packedIds[index];
+                index++;
+            }
+        }
+
+        boolean[] dictionaryIsNull = new boolean[dictionarySize + 1];
+        dictionaryIsNull[nullId] = true;
+        Block dictionaryBlock = new VariableWidthBlock(0, dictionarySize + 1, slice, offsets, dictionaryIsNull);
+        return new DictionaryBlock(positionCount, dictionaryBlock, ids);
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.common.predicate;
+
+import com.facebook.presto.common.block.Block;
+import com.facebook.presto.common.type.Type;
+import io.airlift.slice.Slice;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.Arrays;
+
+import static com.facebook.presto.common.array.ByteArrayUtils.hash;
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.DateType.DATE;
+import static com.facebook.presto.common.type.IntegerType.INTEGER;
+import static com.facebook.presto.common.type.SmallintType.SMALLINT;
+import static com.facebook.presto.common.type.TinyintType.TINYINT;
+import static com.facebook.presto.common.type.Varchars.isVarcharType;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static java.lang.String.format;
+
+/**
+ * Split block Bloom filter (as used by Parquet), where all the bits of a value are set in a single
+ * 256-bit block, so that a lookup touches a single cache line.
+ * <p>
+ * The values are hashed the same way as they are presented to a {@link TupleDomainFilter}, i.e. as
+ * longs for integral types and as bytes for varchar, so a filter built from blocks can be probed
+ * by the readers directly. A filter must not be modified once it is shared with other threads.
+ */
+public final class BlockedBloomFilter
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(BlockedBloomFilter.class).instanceSize();
+
+    private static final int WORDS_PER_BLOCK = 8;
+    private static final int BYTES_PER_BLOCK = WORDS_PER_BLOCK * Integer.BYTES;
+    private static final int[] SALTS = {
+            0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d,
+            0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31};
+
+    // 10 bits per value keeps the false positive rate at about 1%
+    public static final int BITS_PER_VALUE = 10;
+
+    private final int[] words;
+    private final int blockCount;
+
+    private BlockedBloomFilter(int[] words)
+    {
+        this.words = words;
+        this.blockCount = words.length / WORDS_PER_BLOCK;
+    }
+
+    public static BlockedBloomFilter create(long sizeInBytes)
+    {
+        if (sizeInBytes < BYTES_PER_BLOCK || sizeInBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(format("Invalid bloom filter size: %s", sizeInBytes));
+        }
+        return new BlockedBloomFilter(new int[(int) (sizeInBytes / BYTES_PER_BLOCK) * WORDS_PER_BLOCK]);
+    }
+
+    public static boolean isSupportedType(Type type)
+    {
+        return type == BIGINT || type == INTEGER || type == SMALLINT || type == TINYINT || type == DATE || isVarcharType(type);
+    }
+
+    /**
+     * @return the number of distinct values the filter holds before its false positive rate degrades
+     */
+    public long getCapacity()
+    {
+        return (long) words.length * Integer.SIZE / BITS_PER_VALUE;
+    }
+
+    public long getSizeInBytes()
+    {
+        return (long) words.length * Integer.BYTES;
+    }
+
+    public long getRetainedSizeInBytes()
+    {
+        return INSTANCE_SIZE + sizeOf(words);
+    }
+
+    public void add(Type type, Block block, int position)
+    {
+        put(hashPosition(type, block, position));
+    }
+
+    public void put(long hash)
+    {
+        int blockOffset = blockIndex(hash) * WORDS_PER_BLOCK;
+        int key = (int) hash;
+        for (int i = 0; i < WORDS_PER_BLOCK; i++) {
+            words[blockOffset + i] |= 1 << ((key * SALTS[i]) >>> 27);
+        }
+    }
+
+    public boolean mightContain(long hash)
+    {
+        int blockOffset = blockIndex(hash) * WORDS_PER_BLOCK;
+        int key = (int) hash;
+        for (int i = 0; i < WORDS_PER_BLOCK; i++) {
+            if ((words[blockOffset + i] & (1 << ((key * SALTS[i]) >>> 27))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean mightContain(Type type, Block block, int position)
+    {
+        return mightContain(hashPosition(type, block, position));
+    }
+
+    public boolean mightContainLong(long value)
+    {
+        return mightContain(hashLong(value));
+    }
+
+    public boolean mightContainBytes(byte[] buffer, int offset, int length)
+    {
+        return mightContain(hashBytes(buffer, offset, length));
+    }
+
+    public boolean mightContainValue(Type type, Object value)
+    {
+        return mightContain(hashValue(type, value));
+    }
+
+    public boolean isCompatible(BlockedBloomFilter other)
+    {
+        return words.length == other.words.length;
+    }
+
+    /**
+     * @return a filter containing the values of both filters
+     */
+    public BlockedBloomFilter union(BlockedBloomFilter other)
+    {
+        checkCompatible(other);
+        int[] result = Arrays.copyOf(words, words.length);
+        for (int i = 0; i < result.length; i++) {
+            result[i] |= other.words[i];
+        }
+        return new BlockedBloomFilter(result);
+    }
+
+    /**
+     * @return a filter that might contain the values contained in both filters
+     */
+    public BlockedBloomFilter intersect(BlockedBloomFilter other)
+    {
+        checkCompatible(other);
+        int[] result = Arrays.copyOf(words, words.length);
+        for (int i = 0; i < result.length; i++) {
+            result[i] &= other.words[i];
+        }
+        return new BlockedBloomFilter(result);
+    }
+
+    public BlockedBloomFilter copy()
+    {
+        return new BlockedBloomFilter(Arrays.copyOf(words, words.length));
+    }
+
+    private void checkCompatible(BlockedBloomFilter other)
+    {
+        if (!isCompatible(other)) {
+            throw new IllegalArgumentException(format("Bloom filters have different sizes: %s and %s", getSizeInBytes(), other.getSizeInBytes()));
+        }
+    }
+
+    private int blockIndex(long hash)
+    {
+        return (int) (((hash >>> 32) * blockCount) >>> 32);
+    }
+
+    public static long hashPosition(Type type, Block block, int position)
+    {
+        if (isVarcharType(type)) {
+            return hashSlice(type.getSlice(block, position));
+        }
+        return hashLong(type.getLong(block, position));
+    }
+
+    public static long hashValue(Type type, Object value)
+    {
+        if (isVarcharType(type)) {
+            return hashSlice((Slice) value);
+        }
+        return hashLong((long) value);
+    }
+
+    public static long hashLong(long value)
+    {
+        return mix(value);
+    }
+
+    public static long hashBytes(byte[] buffer, int offset, int length)
+    {
+        return mix(hash(buffer, offset, length));
+    }
+
+    private static long hashSlice(Slice slice)
+    {
+        if (slice.hasByteArray()) {
+            return hashBytes(slice.byteArray(), slice.byteArrayOffset(), slice.length());
+        }
+        return hashBytes(slice.getBytes(), 0, slice.length());
+    }
+
+    // finalization step of MurmurHash3
+    private static long mix(long value)
+    {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    @Override
+    public String toString()
+    {
+        return format("%s{sizeInBytes=%s}", getClass().getSimpleName(), getSizeInBytes());
+    }
+}
@@ -1321,6 +1321,81 @@ public interface TupleDomainFilter
         }
     }
 
+    /**
+     * Applies a Bloom filter of the allowed values on top of another filter,
+     * e.g. of the range of the allowed values.
+     */
+    class BloomFilterValues
+            extends AbstractTupleDomainFilter
+    {
+        private final TupleDomainFilter delegate;
+        private final BlockedBloomFilter bloomFilter;
+
+        private BloomFilterValues(TupleDomainFilter delegate, BlockedBloomFilter bloomFilter)
+        {
+            super(true, delegate.testNull());
+            this.delegate = requireNonNull(delegate, "delegate is null");
+            this.bloomFilter = requireNonNull(bloomFilter, "bloomFilter is null");
+        }
+
+        public static BloomFilterValues of(TupleDomainFilter delegate, BlockedBloomFilter bloomFilter)
+        {
+            checkArgument(delegate.isDeterministic(), "delegate must be deterministic");
+            return new BloomFilterValues(delegate, bloomFilter);
+        }
+
+        @Override
+        public boolean testLong(long value)
+        {
+            return delegate.testLong(value) && bloomFilter.mightContainLong(value);
+        }
+
+        @Override
+        public boolean testBytes(byte[] buffer, int offset, int length)
+        {
+            return delegate.testBytes(buffer, offset, length) && bloomFilter.mightContainBytes(buffer, offset, length);
+        }
+
+        @Override
+        public boolean testLength(int length)
+        {
+            return delegate.testLength(length);
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            BloomFilterValues that = (BloomFilterValues) o;
+            return delegate.equals(that.delegate) &&
+                    bloomFilter == that.bloomFilter;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(delegate, System.identityHashCode(bloomFilter));
+        }
+
+        @Override
+        public String toString()
+        {
+            StringBuilder sb = new StringBuilder(this.getClass().getName());
+            sb.append("{delegate=").append(delegate);
+            sb.append(", bloomFilter=").append(bloomFilter);
+            sb.append("}");
+
+            return sb.toString();
+        }
+    }
+
     class BigintMultiRange
             extends AbstractTupleDomainFilter
     {
@@ -0,0 +1,172 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.common.block;
+
+import com.facebook.presto.common.type.Type;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.SliceInput;
+import org.testng.annotations.Test;
+
+import static com.facebook.presto.common.block.TestVariableWidthBlockEncoding.PROPERTIES;
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.IntegerType.INTEGER;
+import static com.facebook.presto.common.type.VarcharType.VARCHAR;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestLightweightCompressionBlockEncodingSerde
+{
+    private final BlockEncodingSerde plainSerde = new TestingBlockEncodingSerde();
+    private final BlockEncodingSerde serde = new LightweightCompressionBlockEncodingSerde(plainSerde);
+
+    @Test
+    public void testLongFrameOfReference()
+    {
+        BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, 1000);
+        for (int i = 0; i < 1000; i++) {
+            BIGINT.writeLong(blockBuilder, 1_000_000_000L + (i * 7919) % 1000);
+        }
+        assertSmallerRoundTrip(BIGINT, blockBuilder.build());
+    }
+
+    @Test
+    public void testLongDelta()
+    {
+        // increasing timestamps
+        BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, 1000);
+        for (int i = 0; i < 1000; i++) {
+            BIGINT.writeLong(blockBuilder, 1_600_000_000_000L + i * 1000L + i % 3);
+        }
+        assertSmallerRoundTrip(BIGINT, blockBuilder.build());
+    }
+
+    @Test
+    public void testLongWithNulls()
+    {
+        BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, 1000);
+        for (int i = 0; i < 1000; i++) {
+            if (i % 5 == 0) {
+                blockBuilder.appendNull();
+            }
+            else {
+                BIGINT.writeLong(blockBuilder, -i);
+            }
+        }
+        assertSmallerRoundTrip(BIGINT, blockBuilder.build());
+    }
+
+    @Test
+    public void testLongExtremeValues()
+    {
+        BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, 4);
+        BIGINT.writeLong(blockBuilder, Long.MIN_VALUE);
+        BIGINT.writeLong(blockBuilder, Long.MAX_VALUE);
+        BIGINT.writeLong(blockBuilder, 0);
+        BIGINT.writeLong(blockBuilder, Long.MIN_VALUE);
+        assertRoundTrip(BIGINT, blockBuilder.build());
+
+        assertRoundTrip(BIGINT, BIGINT.createBlockBuilder(null, 0).build());
+        assertRoundTrip(BIGINT, BIGINT.createBlockBuilder(null, 1).appendNull().build());
+    }
+
+    @Test
+    public void testInt()
+    {
+        BlockBuilder blockBuilder = INTEGER.createBlockBuilder(null, 1000);
+        for (int i = 0; i < 1000; i++) {
+            if (i % 7 == 0) {
+                blockBuilder.appendNull();
+            }
+            else {
+                INTEGER.writeLong(blockBuilder, 18_000 + i / 10);
+            }
+        }
+        assertSmallerRoundTrip(INTEGER, blockBuilder.build());
+
+        blockBuilder = INTEGER.createBlockBuilder(null, 3);
+        INTEGER.writeLong(blockBuilder, Integer.MIN_VALUE);
+        INTEGER.writeLong(blockBuilder, Integer.MAX_VALUE);
+        INTEGER.writeLong(blockBuilder, Integer.MIN_VALUE);
+        assertRoundTrip(INTEGER, blockBuilder.build());
+    }
+
+    @Test
+    public void testVarcharDictionary()
+    {
+        String[] values = {"pending", "shipped", "delivered", "returned"};
+        BlockBuilder blockBuilder = VARCHAR.createBlockBuilder(null, 1000);
+        for (int i = 0; i < 1000; i++) {
+            if (i % 11 == 0) {
+                blockBuilder.appendNull();
+            }
+            else {
+                VARCHAR.writeString(blockBuilder, values[i % values.length]);
+            }
+        }
+        Block block = blockBuilder.build();
+        assertSmallerRoundTrip(VARCHAR, block);
+        assertTrue(roundTrip(block) instanceof DictionaryBlock);
+    }
+
+    @Test
+    public void testVarcharHighCardinality()
+    {
+        BlockBuilder blockBuilder = VARCHAR.createBlockBuilder(null, 100);
+        for (int i = 0; i < 100; i++) {
+            VARCHAR.writeString(blockBuilder, "value" + i);
+        }
+        Block block = blockBuilder.build();
+        assertRoundTrip(VARCHAR, block);
+        assertFalse(roundTrip(block) instanceof DictionaryBlock);
+    }
+
+    @Test
+    public void testOtherBlocks()
+    {
+        Block block = new RunLengthEncodedBlock(BIGINT.createBlockBuilder(null, 1).writeLong(42).build(), 100);
+        assertRoundTrip(BIGINT, block);
+        assertTrue(roundTrip(block) instanceof RunLengthEncodedBlock);
+    }
+
+    private void assertSmallerRoundTrip(Type type, Block block)
+    {
+        assertRoundTrip(type, block);
+
+        DynamicSliceOutput plainOutput = new DynamicSliceOutput(1024);
+        plainSerde.writeBlock(plainOutput, block);
+        DynamicSliceOutput output = new DynamicSliceOutput(1024);
+        serde.writeBlock(output, block);
+        assertTrue(output.size() < plainOutput.size(), "encoded size " + output.size() + " is not smaller than plain size " + plainOutput.size());
+    }
+
+    private void assertRoundTrip(Type type, Block expected)
+    {
+        Block actual = roundTrip(expected);
+        assertEquals(actual.getPositionCount(), expected.getPositionCount());
+        for (int position = 0; position < actual.getPositionCount(); position++) {
+            assertEquals(type.getObjectValue(PROPERTIES, actual, position), type.getObjectValue(PROPERTIES, expected, position));
+        }
+    }
+
+    private Block roundTrip(Block block)
+    {
+        DynamicSliceOutput output = new DynamicSliceOutput(1024);
+        serde.writeBlock(output, block);
+        SliceInput input = output.slice().getInput();
+        Block result = plainSerde.readBlock(input);
+        assertFalse(input.isReadable(), "block was not fully read");
+        return result;
+    }
+}
@@ -55,6 +55,9 @@ public final class TestingBlockEncodingSerde
         addBlockEncoding(new SingleRowBlockEncoding());
         addBlockEncoding(new RunLengthBlockEncoding());
         addBlockEncoding(new LazyBlockEncoding());
+        addBlockEncoding(new PackedLongArrayBlockEncoding());
+        addBlockEncoding(new PackedIntArrayBlockEncoding());
+        addBlockEncoding(new VariableWidthDictionaryBlockEncoding());
 
         for (BlockEncoding blockEncoding : requireNonNull(blockEncodings, "blockEncodings is null")) {
             addBlockEncoding(blockEncoding);
@@ -0,0 +1,150 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.common.predicate;
+
+import com.facebook.presto.common.block.Block;
+import com.facebook.presto.common.block.BlockBuilder;
+import io.airlift.slice.Slice;
+import org.testng.annotations.Test;
+
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.DoubleType.DOUBLE;
+import static com.facebook.presto.common.type.IntegerType.INTEGER;
+import static com.facebook.presto.common.type.VarcharType.VARCHAR;
+import static com.facebook.presto.common.type.VarcharType.createVarcharType;
+import static io.airlift.slice.Slices.utf8Slice;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestBlockedBloomFilter
+{
+    @Test
+    public void testLongs()
+    {
+        BlockedBloomFilter filter = BlockedBloomFilter.create(4096);
+        assertEquals(filter.getSizeInBytes(), 4096);
+        assertEquals(filter.getCapacity(), 4096 * 8 / BlockedBloomFilter.BITS_PER_VALUE);
+
+        BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, 1000);
+        for (int i = 0; i < 1000; i++) {
+            BIGINT.writeLong(blockBuilder, i * 2L);
+        }
+        Block block = blockBuilder.build();
+        for (int position = 0; position < block.getPositionCount(); position++) {
+            filter.add(BIGINT, block, position);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContainLong(i * 2L));
+            assertTrue(filter.mightContainValue(BIGINT, i * 2L));
+        }
+        assertFalsePositiveRate(filter, 1000);
+    }
+
+    @Test
+    public void testIntegerMatchesLong()
+    {
+        BlockBuilder blockBuilder = INTEGER.createBlockBuilder(null, 1);
+        INTEGER.writeLong(blockBuilder, -42);
+        BlockedBloomFilter filter = BlockedBloomFilter.create(1024);
+        filter.add(INTEGER, blockBuilder.build(), 0);
+
+        // the readers test integers as longs
+        assertTrue(filter.mightContainLong(-42));
+    }
+
+    @Test
+    public void testVarchars()
+    {
+        BlockBuilder blockBuilder = VARCHAR.createBlockBuilder(null, 100);
+        for (int i = 0; i < 100; i++) {
+            VARCHAR.writeSlice(blockBuilder, utf8Slice("value_" + i));
+        }
+        Block block = blockBuilder.build();
+
+        BlockedBloomFilter filter = BlockedBloomFilter.create(1024);
+        for (int position = 0; position < block.getPositionCount(); position++) {
+            filter.add(VARCHAR, block, position);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            Slice value = utf8Slice("value_" + i);
+            assertTrue(filter.mightContainValue(createVarcharType(10), value));
+            byte[] buffer = ("prefix" + value.toStringUtf8()).getBytes();
+            assertTrue(filter.mightContainBytes(buffer, 6, value.length()));
+        }
+
+        int falsePositives = 0;
+        for (int i = 100; i < 10_100; i++) {
+            if (filter.mightContainValue(VARCHAR, utf8Slice("value_" + i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 500, "too many false positives: " + falsePositives);
+    }
+
+    @Test
+    public void testUnionAndIntersect()
+    {
+        BlockedBloomFilter left = BlockedBloomFilter.create(1024);
+        BlockedBloomFilter right = BlockedBloomFilter.create(1024);
+        for (long value = 0; value < 50; value++) {
+            left.put(BlockedBloomFilter.hashLong(value));
+            right.put(BlockedBloomFilter.hashLong(value + 25));
+        }
+
+        BlockedBloomFilter union = left.union(right);
+        for (long value = 0; value < 75; value++) {
+            assertTrue(union.mightContainLong(value));
+        }
+
+        BlockedBloomFilter intersection = left.intersect(right);
+        for (long value = 25; value < 50; value++) {
+            assertTrue(intersection.mightContainLong(value));
+        }
+        assertFalsePositiveRate(intersection, 1000);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Bloom filters have different sizes: 1024 and 2048")
+    public void testUnionOfDifferentSizes()
+    {
+        BlockedBloomFilter.create(1024).union(BlockedBloomFilter.create(2048));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Invalid bloom filter size: 16")
+    public void testTooSmall()
+    {
+        BlockedBloomFilter.create(16);
+    }
+
+    @Test
+    public void testSupportedTypes()
+    {
+        assertTrue(BlockedBloomFilter.isSupportedType(BIGINT));
+        assertTrue(BlockedBloomFilter.isSupportedType(createVarcharType(3)));
+        assertFalse(BlockedBloomFilter.isSupportedType(DOUBLE));
+    }
+
+    private static void assertFalsePositiveRate(BlockedBloomFilter filter, int count)
+    {
+        int falsePositives = 0;
+        for (int i = 0; i < count; i++) {
+            if (filter.mightContainLong(-1 - i * 2L)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < count / 20, "too many false positives: " + falsePositives);
+    }
+}
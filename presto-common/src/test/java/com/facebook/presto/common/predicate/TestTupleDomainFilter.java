@@ -17,6 +17,7 @@ import com.facebook.presto.common.predicate.TupleDomainFilter.BigintMultiRange;
 import com.facebook.presto.common.predicate.TupleDomainFilter.BigintRange;
 import com.facebook.presto.common.predicate.TupleDomainFilter.BigintValuesUsingBitmask;
 import com.facebook.presto.common.predicate.TupleDomainFilter.BigintValuesUsingHashTable;
+import com.facebook.presto.common.predicate.TupleDomainFilter.BloomFilterValues;
 import com.facebook.presto.common.predicate.TupleDomainFilter.BooleanValue;
 import com.facebook.presto.common.predicate.TupleDomainFilter.BytesRange;
 import com.facebook.presto.common.predicate.TupleDomainFilter.BytesValues;
@@ -345,6 +346,29 @@ public class TestTupleDomainFilter
         assertTrue(filter.testBytes(toBytes("apple"), 0, 5));
     }
 
+    @Test
+    public void testBloomFilterValues()
+    {
+        BlockedBloomFilter bloomFilter = BlockedBloomFilter.create(1024);
+        for (long value = 10; value < 20; value++) {
+            bloomFilter.put(BlockedBloomFilter.hashLong(value));
+        }
+        bloomFilter.put(BlockedBloomFilter.hashBytes(toBytes("apple"), 0, 5));
+
+        TupleDomainFilter filter = BloomFilterValues.of(BigintRange.of(0, 15, false), bloomFilter);
+        assertTrue(filter.testLong(10));
+        assertTrue(filter.testLong(15));
+        assertFalse(filter.testLong(16));
+        assertFalse(filter.testLong(5));
+        assertFalse(filter.testNull());
+
+        filter = BloomFilterValues.of(TupleDomainFilter.IS_NOT_NULL, bloomFilter);
+        assertTrue(filter.testLong(19));
+        assertTrue(filter.testBytes(toBytes("apple"), 0, 5));
+        assertTrue(filter.testLength(6));
+        assertFalse(filter.testNull());
+    }
+
     private static byte[] sequentialBytes(byte base, int length)
     {
         byte[] bytes = new byte[length];
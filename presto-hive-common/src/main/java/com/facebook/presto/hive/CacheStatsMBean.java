@@ -17,6 +17,8 @@ import com.google.common.cache.Cache;
 import org.weakref.jmx.Managed;
 
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 public class CacheStatsMBean
 {
@@ -50,4 +52,22 @@ public class CacheStatsMBean
     {
         return cache.stats().hitRate();
     }
+
+    @Managed
+    public long getRequestCount()
+    {
+        return cache.stats().requestCount();
+    }
+
+    @Managed
+    public long getEvictionCount()
+    {
+        return cache.stats().evictionCount();
+    }
+
+    @Managed
+    public double getAverageLoadMillis()
+    {
+        return cache.stats().averageLoadPenalty() / NANOSECONDS.convert(1, MILLISECONDS);
+    }
 }
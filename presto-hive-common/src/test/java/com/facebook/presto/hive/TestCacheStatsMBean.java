@@ -0,0 +1,55 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.ExecutionException;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestCacheStatsMBean
+{
+    @Test
+    public void testStats()
+            throws ExecutionException
+    {
+        Cache<String, String> cache = CacheBuilder.newBuilder()
+                .maximumSize(1)
+                .recordStats()
+                .build();
+        CacheStatsMBean stats = new CacheStatsMBean(cache);
+
+        cache.get("a", () -> {
+            Thread.sleep(10);
+            return "a";
+        });
+        cache.get("a", () -> "unused");
+        // evicts "a"
+        cache.get("b", () -> "b");
+        assertEquals(cache.getIfPresent("c"), null);
+
+        assertEquals(stats.getSize(), 1);
+        assertEquals(stats.getRequestCount(), 4);
+        assertEquals(stats.getHitCount(), 1);
+        assertEquals(stats.getMissCount(), 3);
+        assertEquals(stats.getHitRate(), 0.25);
+        assertEquals(stats.getEvictionCount(), 1);
+        // two loads, one of which took at least 10ms
+        assertTrue(stats.getAverageLoadMillis() >= 5, "average load time is " + stats.getAverageLoadMillis());
+    }
+}
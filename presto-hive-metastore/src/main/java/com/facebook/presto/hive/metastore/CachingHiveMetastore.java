@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.hive.metastore;
 
+import com.facebook.airlift.log.Logger;
 import com.facebook.presto.common.predicate.Domain;
 import com.facebook.presto.common.type.Type;
 import com.facebook.presto.hive.ForCachingHiveMetastore;
@@ -30,6 +31,7 @@ import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.SetMultimap;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 import io.airlift.units.Duration;
@@ -86,7 +88,11 @@ public class CachingHiveMetastore
         ALL, PARTITION
     }
 
+    private static final Logger log = Logger.get(CachingHiveMetastore.class);
+    private static final int PARTITION_PREFETCH_BATCH_SIZE = 500;
+
     protected final ExtendedHiveMetastore delegate;
+    private final ExecutorService executor;
 
     private final LoadingCache<KeyAndContext<String>, Optional<Database>> databaseCache;
     private final LoadingCache<KeyAndContext<String>, List<String>> databaseNamesCache;
@@ -108,6 +114,7 @@ public class CachingHiveMetastore
     private final boolean partitionVersioningEnabled;
     private final double partitionCacheValidationPercentage;
     private final int partitionCacheColumnCountLimit;
+    private final boolean partitionPrefetchEnabled;
 
     @Inject
     public CachingHiveMetastore(
@@ -154,7 +161,8 @@ public class CachingHiveMetastore
                 metastoreCacheScope,
                 partitionCacheValidationPercentage,
                 partitionCacheColumnCountLimit,
-                metastoreCacheStats);
+                metastoreCacheStats,
+                true);
     }
 
     public static CachingHiveMetastore memoizeMetastore(ExtendedHiveMetastore delegate, boolean isMetastoreImpersonationEnabled, long maximumSize, int partitionCacheMaxColumnCount)
@@ -170,7 +178,8 @@ public class CachingHiveMetastore
                 ALL,
                 0.0,
                 partitionCacheMaxColumnCount,
-                NOOP_METASTORE_CACHE_STATS);
+                NOOP_METASTORE_CACHE_STATS,
+                false);
     }
 
     private CachingHiveMetastore(
@@ -184,15 +193,17 @@ public class CachingHiveMetastore
             MetastoreCacheScope metastoreCacheScope,
             double partitionCacheValidationPercentage,
             int partitionCacheColumnCountLimit,
-            MetastoreCacheStats metastoreCacheStats)
+            MetastoreCacheStats metastoreCacheStats,
+            boolean partitionPrefetchEnabled)
     {
         this.delegate = requireNonNull(delegate, "delegate is null");
-        requireNonNull(executor, "executor is null");
+        this.executor = requireNonNull(executor, "executor is null");
         this.metastoreImpersonationEnabled = metastoreImpersonationEnabled;
         this.partitionVersioningEnabled = partitionVersioningEnabled;
         this.partitionCacheValidationPercentage = partitionCacheValidationPercentage;
         this.partitionCacheColumnCountLimit = partitionCacheColumnCountLimit;
         this.metastoreCacheStats = metastoreCacheStats;
+        this.partitionPrefetchEnabled = partitionPrefetchEnabled && maximumSize > 0 && expiresAfterWriteMillis.orElse(Long.MAX_VALUE) > 0;
 
         OptionalLong cacheExpiresAfterWriteMillis;
         OptionalLong cacheRefreshMills;
@@ -259,6 +270,7 @@ public class CachingHiveMetastore
                         return loadPartitionColumnStatistics(keys);
                     }
                 }, executor));
+        metastoreCacheStats.setPartitionStatisticsCache(partitionStatisticsCache);
 
         tableCache = newCacheBuilder(cacheExpiresAfterWriteMillis, cacheRefreshMills, cacheMaxSize)
                 .build(asyncReloading(CacheLoader.from(this::loadTable), executor));
@@ -810,6 +822,48 @@ public class CachingHiveMetastore
         return partitionsByName.build();
     }
 
+    @Override
+    public void prefetchPartitions(MetastoreContext metastoreContext, String databaseName, String tableName, List<String> partitionNames)
+    {
+        if (!partitionPrefetchEnabled) {
+            // per-query memoizing caches load on the caller thread, so leave the bulk load to the shared cache below
+            delegate.prefetchPartitions(metastoreContext, databaseName, tableName, partitionNames);
+            return;
+        }
+
+        // containsKey does not count towards the hit and miss statistics of the caches
+        List<KeyAndContext<HivePartitionName>> missingPartitions = new ArrayList<>();
+        List<KeyAndContext<HivePartitionName>> missingStatistics = new ArrayList<>();
+        for (String partitionName : partitionNames) {
+            KeyAndContext<HivePartitionName> key = getCachingKey(metastoreContext, hivePartitionName(databaseName, tableName, partitionName));
+            if (!partitionCache.asMap().containsKey(key)) {
+                missingPartitions.add(key);
+            }
+            if (!partitionStatisticsCache.asMap().containsKey(key)) {
+                missingStatistics.add(key);
+            }
+        }
+
+        for (List<KeyAndContext<HivePartitionName>> batch : Lists.partition(missingPartitions, PARTITION_PREFETCH_BATCH_SIZE)) {
+            executor.execute(() -> prefetch(partitionCache, batch, databaseName, tableName));
+        }
+        for (List<KeyAndContext<HivePartitionName>> batch : Lists.partition(missingStatistics, PARTITION_PREFETCH_BATCH_SIZE)) {
+            executor.execute(() -> prefetch(partitionStatisticsCache, batch, databaseName, tableName));
+        }
+    }
+
+    private <V> void prefetch(LoadingCache<KeyAndContext<HivePartitionName>, V> cache, List<KeyAndContext<HivePartitionName>> keys, String databaseName, String tableName)
+    {
+        try {
+            getAll(cache, keys);
+            metastoreCacheStats.addPrefetchedPartitions(keys.size());
+        }
+        catch (RuntimeException e) {
+            // prefetching is best effort, the same failure is reported when the partitions are actually read
+            log.debug(e, "Failed to prefetch %s partitions of %s.%s", keys.size(), databaseName, tableName);
+        }
+    }
+
     private Optional<Partition> loadPartitionByName(KeyAndContext<HivePartitionName> partitionName)
     {
         return delegate.getPartition(
@@ -146,6 +146,14 @@ public interface ExtendedHiveMetastore
         return ImmutableList.of();
     }
 
+    /**
+     * Hints that the given partitions and their statistics are about to be read.
+     * Caching implementations may load them in bulk in the background; this call must not block.
+     */
+    default void prefetchPartitions(MetastoreContext metastoreContext, String databaseName, String tableName, List<String> partitionNames)
+    {
+    }
+
     // Different metastore systems could implement this commit batch size differently based on different underlying database capacity.
     // Default batch partition commit size is set to 10.
     default int getPartitionCommitBatchSize()
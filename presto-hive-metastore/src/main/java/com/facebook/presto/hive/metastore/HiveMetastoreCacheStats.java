@@ -18,13 +18,18 @@ import com.google.common.cache.LoadingCache;
 import org.weakref.jmx.Managed;
 import org.weakref.jmx.Nested;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
 public class HiveMetastoreCacheStats
         implements MetastoreCacheStats
 {
     private final CounterStat partitionsWithColumnCountGreaterThanThreshold = new CounterStat();
+    private final CounterStat prefetchedPartitions = new CounterStat();
     private LoadingCache<?, ?> tableCache;
     private LoadingCache<?, ?> partitionNamesCache;
     private LoadingCache<?, ?> partitionCache;
+    private LoadingCache<?, ?> partitionStatisticsCache;
 
     @Override
     public void setTableCache(LoadingCache<?, ?> tableCache)
@@ -44,12 +49,24 @@ public class HiveMetastoreCacheStats
         this.partitionCache = partitionCache;
     }
 
+    @Override
+    public void setPartitionStatisticsCache(LoadingCache<?, ?> partitionStatisticsCache)
+    {
+        this.partitionStatisticsCache = partitionStatisticsCache;
+    }
+
     @Override
     public void incrementPartitionsWithColumnCountGreaterThanThreshold()
     {
         partitionsWithColumnCountGreaterThanThreshold.update(1);
     }
 
+    @Override
+    public void addPrefetchedPartitions(long count)
+    {
+        prefetchedPartitions.update(count);
+    }
+
     @Managed
     @Override
     public long getTableCacheHit()
@@ -78,6 +95,13 @@ public class HiveMetastoreCacheStats
         return tableCache.size();
     }
 
+    @Managed
+    @Override
+    public double getTableCacheAverageLoadMillis()
+    {
+        return averageLoadMillis(tableCache);
+    }
+
     @Managed
     @Override
     public long getPartitionNamesCacheHit()
@@ -134,6 +158,48 @@ public class HiveMetastoreCacheStats
         return partitionCache.size();
     }
 
+    @Managed
+    @Override
+    public double getPartitionCacheAverageLoadMillis()
+    {
+        return averageLoadMillis(partitionCache);
+    }
+
+    @Managed
+    @Override
+    public long getPartitionStatisticsCacheHit()
+    {
+        return partitionStatisticsCache.stats().hitCount();
+    }
+
+    @Managed
+    @Override
+    public long getPartitionStatisticsCacheMiss()
+    {
+        return partitionStatisticsCache.stats().missCount();
+    }
+
+    @Managed
+    @Override
+    public long getPartitionStatisticsCacheEviction()
+    {
+        return partitionStatisticsCache.stats().evictionCount();
+    }
+
+    @Managed
+    @Override
+    public long getPartitionStatisticsCacheSize()
+    {
+        return partitionStatisticsCache.size();
+    }
+
+    @Managed
+    @Override
+    public double getPartitionStatisticsCacheAverageLoadMillis()
+    {
+        return averageLoadMillis(partitionStatisticsCache);
+    }
+
     @Managed
     @Nested
     @Override
@@ -141,4 +207,17 @@ public class HiveMetastoreCacheStats
     {
         return partitionsWithColumnCountGreaterThanThreshold;
     }
+
+    @Managed
+    @Nested
+    @Override
+    public CounterStat getPrefetchedPartitions()
+    {
+        return prefetchedPartitions;
+    }
+
+    private static double averageLoadMillis(LoadingCache<?, ?> cache)
+    {
+        return cache.stats().averageLoadPenalty() / NANOSECONDS.convert(1, MILLISECONDS);
+    }
 }
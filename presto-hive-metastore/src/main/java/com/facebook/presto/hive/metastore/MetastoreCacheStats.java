@@ -24,8 +24,12 @@ public interface MetastoreCacheStats
 
     void setPartitionCache(LoadingCache<?, ?> partitionCache);
 
+    void setPartitionStatisticsCache(LoadingCache<?, ?> partitionStatisticsCache);
+
     void incrementPartitionsWithColumnCountGreaterThanThreshold();
 
+    void addPrefetchedPartitions(long count);
+
     long getTableCacheHit();
 
     long getTableCacheMiss();
@@ -34,6 +38,8 @@ public interface MetastoreCacheStats
 
     long getTableCacheSize();
 
+    double getTableCacheAverageLoadMillis();
+
     long getPartitionNamesCacheHit();
 
     long getPartitionNamesCacheMiss();
@@ -50,5 +56,19 @@ public interface MetastoreCacheStats
 
     long getPartitionCacheSize();
 
+    double getPartitionCacheAverageLoadMillis();
+
+    long getPartitionStatisticsCacheHit();
+
+    long getPartitionStatisticsCacheMiss();
+
+    long getPartitionStatisticsCacheEviction();
+
+    long getPartitionStatisticsCacheSize();
+
+    double getPartitionStatisticsCacheAverageLoadMillis();
+
+    CounterStat getPrefetchedPartitions();
+
     CounterStat getPartitionsWithColumnCountGreaterThanThreshold();
 }
@@ -36,11 +36,21 @@ public class NoopMetastoreCacheStats
     {
     }
 
+    @Override
+    public void setPartitionStatisticsCache(LoadingCache<?, ?> partitionStatisticsCache)
+    {
+    }
+
     @Override
     public void incrementPartitionsWithColumnCountGreaterThanThreshold()
     {
     }
 
+    @Override
+    public void addPrefetchedPartitions(long count)
+    {
+    }
+
     public long getTableCacheHit()
     {
         return 0;
@@ -61,6 +71,11 @@ public class NoopMetastoreCacheStats
         return 0;
     }
 
+    public double getTableCacheAverageLoadMillis()
+    {
+        return 0;
+    }
+
     public long getPartitionNamesCacheHit()
     {
         return 0;
@@ -101,6 +116,42 @@ public class NoopMetastoreCacheStats
         return 0;
     }
 
+    public double getPartitionCacheAverageLoadMillis()
+    {
+        return 0;
+    }
+
+    public long getPartitionStatisticsCacheHit()
+    {
+        return 0;
+    }
+
+    public long getPartitionStatisticsCacheMiss()
+    {
+        return 0;
+    }
+
+    public long getPartitionStatisticsCacheEviction()
+    {
+        return 0;
+    }
+
+    public long getPartitionStatisticsCacheSize()
+    {
+        return 0;
+    }
+
+    public double getPartitionStatisticsCacheAverageLoadMillis()
+    {
+        return 0;
+    }
+
+    @Override
+    public CounterStat getPrefetchedPartitions()
+    {
+        return null;
+    }
+
     @Override
     public CounterStat getPartitionsWithColumnCountGreaterThanThreshold()
     {
@@ -244,6 +244,14 @@ public class SemiTransactionalHiveMetastore
         }
     }
 
+    /**
+     * Warms the shared metastore cache only, so it does not need to see the changes made within this transaction.
+     */
+    public void prefetchPartitions(MetastoreContext metastoreContext, String databaseName, String tableName, List<String> partitionNames)
+    {
+        delegate.prefetchPartitions(metastoreContext, databaseName, tableName, partitionNames);
+    }
+
     public synchronized Map<String, PartitionStatistics> getPartitionStatistics(MetastoreContext metastoreContext, String databaseName, String tableName, Set<String> partitionNames)
     {
         checkReadable();
@@ -0,0 +1,178 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.facebook.presto.common.Page;
+import com.facebook.presto.common.RuntimeStats;
+import com.facebook.presto.common.block.Block;
+import com.facebook.presto.common.block.LazyBlock;
+import com.facebook.presto.common.predicate.BlockedBloomFilter;
+import com.facebook.presto.common.type.Type;
+import com.facebook.presto.common.type.TypeManager;
+import com.facebook.presto.spi.ConnectorPageSource;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static com.facebook.presto.common.predicate.BlockedBloomFilter.isSupportedType;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Drops the rows whose values are not in the Bloom filters of the dynamic filters,
+ * for the readers which cannot apply the filters themselves.
+ */
+public class BloomFilteringPageSource
+        implements ConnectorPageSource
+{
+    private final ConnectorPageSource delegate;
+    private final int[] channels;
+    private final Type[] types;
+    private final BlockedBloomFilter[] bloomFilters;
+
+    public BloomFilteringPageSource(List<HiveColumnHandle> columns, Map<String, BlockedBloomFilter> bloomFilters, TypeManager typeManager, ConnectorPageSource delegate)
+    {
+        requireNonNull(columns, "columns is null");
+        requireNonNull(bloomFilters, "bloomFilters is null");
+        requireNonNull(typeManager, "typeManager is null");
+        this.delegate = requireNonNull(delegate, "delegate is null");
+
+        int filterCount = 0;
+        int[] channels = new int[columns.size()];
+        Type[] types = new Type[columns.size()];
+        BlockedBloomFilter[] filters = new BlockedBloomFilter[columns.size()];
+        for (int channel = 0; channel < columns.size(); channel++) {
+            HiveColumnHandle column = columns.get(channel);
+            BlockedBloomFilter bloomFilter = bloomFilters.get(column.getName());
+            Type type = typeManager.getType(column.getTypeSignature());
+            if (bloomFilter != null && isSupportedType(type)) {
+                channels[filterCount] = channel;
+                types[filterCount] = type;
+                filters[filterCount] = bloomFilter;
+                filterCount++;
+            }
+        }
+        this.channels = Arrays.copyOf(channels, filterCount);
+        this.types = Arrays.copyOf(types, filterCount);
+        this.bloomFilters = Arrays.copyOf(filters, filterCount);
+    }
+
+    public static boolean hasFilters(List<HiveColumnHandle> columns, Map<String, BlockedBloomFilter> bloomFilters)
+    {
+        return columns.stream().anyMatch(column -> bloomFilters.containsKey(column.getName()));
+    }
+
+    @Override
+    public Page getNextPage()
+    {
+        Page page = delegate.getNextPage();
+        if (page == null || page.getPositionCount() == 0) {
+            return page;
+        }
+
+        int positionCount = page.getPositionCount();
+        int[] positions = new int[positionCount];
+        for (int i = 0; i < positionCount; i++) {
+            positions[i] = i;
+        }
+
+        for (int i = 0; i < channels.length && positionCount > 0; i++) {
+            positionCount = filterBlock(page.getBlock(channels[i]), types[i], bloomFilters[i], positions, positionCount);
+        }
+
+        if (positionCount == page.getPositionCount()) {
+            return page;
+        }
+
+        Block[] blocks = new Block[page.getChannelCount()];
+        for (int channel = 0; channel < blocks.length; channel++) {
+            blocks[channel] = getPositions(page.getBlock(channel), positions, positionCount);
+        }
+        return new Page(positionCount, blocks);
+    }
+
+    private static Block getPositions(Block block, int[] positions, int positionCount)
+    {
+        if (block instanceof LazyBlock && !((LazyBlock) block).isLoaded()) {
+            // keep the columns which are not filtered on lazy
+            return new LazyBlock(positionCount, lazyBlock -> lazyBlock.setBlock(block.getPositions(positions, 0, positionCount)));
+        }
+        return block.getPositions(positions, 0, positionCount);
+    }
+
+    private static int filterBlock(Block block, Type type, BlockedBloomFilter bloomFilter, int[] positions, int positionCount)
+    {
+        int outputPositionsCount = 0;
+        for (int i = 0; i < positionCount; i++) {
+            int position = positions[i];
+            // join doesn't match rows with null key column values
+            if (!block.isNull(position) && bloomFilter.mightContain(type, block, position)) {
+                positions[outputPositionsCount] = position;
+                outputPositionsCount++;
+            }
+        }
+        return outputPositionsCount;
+    }
+
+    @Override
+    public long getCompletedBytes()
+    {
+        return delegate.getCompletedBytes();
+    }
+
+    @Override
+    public long getCompletedPositions()
+    {
+        return delegate.getCompletedPositions();
+    }
+
+    @Override
+    public long getReadTimeNanos()
+    {
+        return delegate.getReadTimeNanos();
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return delegate.isFinished();
+    }
+
+    @Override
+    public long getSystemMemoryUsage()
+    {
+        return delegate.getSystemMemoryUsage();
+    }
+
+    @Override
+    public CompletableFuture<?> isBlocked()
+    {
+        return delegate.isBlocked();
+    }
+
+    @Override
+    public RuntimeStats getRuntimeStats()
+    {
+        return delegate.getRuntimeStats();
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        delegate.close();
+    }
+}
@@ -28,12 +28,15 @@ import org.weakref.jmx.Managed;
 
 import javax.inject.Inject;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
@@ -42,8 +45,10 @@ import static java.util.Objects.requireNonNull;
 public class CachingDirectoryLister
         implements DirectoryLister
 {
-    private final Cache<Path, List<HiveFileInfo>> cache;
+    private final Cache<Path, DirectoryListing> cache;
     private final CachedTableChecker cachedTableChecker;
+    private final boolean validationEnabled;
+    private final AtomicLong staleCount = new AtomicLong();
 
     protected final DirectoryLister delegate;
 
@@ -54,19 +59,26 @@ public class CachingDirectoryLister
                 delegate,
                 hiveClientConfig.getFileStatusCacheExpireAfterWrite(),
                 hiveClientConfig.getFileStatusCacheMaxSize(),
-                hiveClientConfig.getFileStatusCacheTables());
+                hiveClientConfig.getFileStatusCacheTables(),
+                hiveClientConfig.isFileStatusCacheValidationEnabled());
     }
 
     public CachingDirectoryLister(DirectoryLister delegate, Duration expireAfterWrite, long maxSize, List<String> tables)
+    {
+        this(delegate, expireAfterWrite, maxSize, tables, false);
+    }
+
+    public CachingDirectoryLister(DirectoryLister delegate, Duration expireAfterWrite, long maxSize, List<String> tables, boolean validationEnabled)
     {
         this.delegate = requireNonNull(delegate, "delegate is null");
         cache = CacheBuilder.newBuilder()
                 .maximumWeight(maxSize)
-                .weigher((Weigher<Path, List<HiveFileInfo>>) (key, value) -> value.size())
+                .weigher((Weigher<Path, DirectoryListing>) (key, value) -> value.getFiles().size())
                 .expireAfterWrite(expireAfterWrite.toMillis(), TimeUnit.MILLISECONDS)
                 .recordStats()
                 .build();
         this.cachedTableChecker = new CachedTableChecker(requireNonNull(tables, "tables is null"));
+        this.validationEnabled = validationEnabled;
     }
 
     @Override
@@ -81,20 +93,41 @@ public class CachingDirectoryLister
         if (hiveDirectoryContext.isCacheable()) {
             // DO NOT USE Caching, when cache is disabled.
             // This is useful for debugging issues, when cache is explicitly disabled via session property.
-            List<HiveFileInfo> files = cache.getIfPresent(path);
-            if (files != null) {
-                return files.iterator();
+            DirectoryListing listing = cache.getIfPresent(path);
+            if (listing != null) {
+                if (!validationEnabled || listing.getDirectoryModificationTime().equals(getModificationTime(fileSystem, path))) {
+                    return listing.getFiles().iterator();
+                }
+                // files were added to or removed from this directory since it was listed
+                staleCount.incrementAndGet();
+                cache.invalidate(path);
             }
         }
 
-        Iterator<HiveFileInfo> iterator = delegate.list(fileSystem, table, path, partition, namenodeStats, hiveDirectoryContext);
         if (hiveDirectoryContext.isCacheable() && cachedTableChecker.isCachedTable(table.getSchemaTableName())) {
-            return cachingIterator(iterator, path);
+            // take the modification time before listing, so that a change made while listing invalidates the entry on its next use
+            OptionalLong directoryModificationTime = validationEnabled ? getModificationTime(fileSystem, path) : OptionalLong.empty();
+            Iterator<HiveFileInfo> iterator = delegate.list(fileSystem, table, path, partition, namenodeStats, hiveDirectoryContext);
+            if (!validationEnabled || directoryModificationTime.isPresent()) {
+                return cachingIterator(iterator, path, directoryModificationTime);
+            }
+            return iterator;
         }
-        return iterator;
+        return delegate.list(fileSystem, table, path, partition, namenodeStats, hiveDirectoryContext);
     }
 
-    private Iterator<HiveFileInfo> cachingIterator(Iterator<HiveFileInfo> iterator, Path path)
+    private static OptionalLong getModificationTime(ExtendedFileSystem fileSystem, Path path)
+    {
+        try {
+            return OptionalLong.of(fileSystem.getFileStatus(path).getModificationTime());
+        }
+        catch (IOException e) {
+            // the listing itself reports the failure
+            return OptionalLong.empty();
+        }
+    }
+
+    private Iterator<HiveFileInfo> cachingIterator(Iterator<HiveFileInfo> iterator, Path path, OptionalLong directoryModificationTime)
     {
         return new Iterator<HiveFileInfo>()
         {
@@ -105,7 +138,7 @@ public class CachingDirectoryLister
             {
                 boolean hasNext = iterator.hasNext();
                 if (!hasNext) {
-                    cache.put(path, ImmutableList.copyOf(files));
+                    cache.put(path, new DirectoryListing(ImmutableList.copyOf(files), directoryModificationTime));
                 }
                 return hasNext;
             }
@@ -156,6 +189,34 @@ public class CachingDirectoryLister
         return cache.stats().requestCount();
     }
 
+    @Managed
+    public long getStaleCount()
+    {
+        return staleCount.get();
+    }
+
+    private static class DirectoryListing
+    {
+        private final List<HiveFileInfo> files;
+        private final OptionalLong directoryModificationTime;
+
+        public DirectoryListing(List<HiveFileInfo> files, OptionalLong directoryModificationTime)
+        {
+            this.files = requireNonNull(files, "files is null");
+            this.directoryModificationTime = requireNonNull(directoryModificationTime, "directoryModificationTime is null");
+        }
+
+        public List<HiveFileInfo> getFiles()
+        {
+            return files;
+        }
+
+        public OptionalLong getDirectoryModificationTime()
+        {
+            return directoryModificationTime;
+        }
+    }
+
     private static class CachedTableChecker
     {
         private final Set<SchemaTableName> cachedTableNames;
@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.hive;
 
+import com.facebook.airlift.stats.CounterStat;
 import com.facebook.airlift.stats.DistributionStat;
 import com.facebook.airlift.stats.TimeStat;
 import org.weakref.jmx.Managed;
@@ -29,6 +30,9 @@ public class FileFormatDataSourceStats
     private final TimeStat time100KBto1MB = new TimeStat(MILLISECONDS);
     private final TimeStat time1MBto10MB = new TimeStat(MILLISECONDS);
     private final TimeStat time10MBPlus = new TimeStat(MILLISECONDS);
+    private final CounterStat parquetBloomFilterSkippedRowGroups = new CounterStat();
+    private final TimeStat ioWaitTime = new TimeStat(MILLISECONDS);
+    private final CounterStat prefetchedBytes = new CounterStat();
 
     @Managed
     @Nested
@@ -72,6 +76,27 @@ public class FileFormatDataSourceStats
         return time10MBPlus;
     }
 
+    @Managed
+    @Nested
+    public CounterStat getParquetBloomFilterSkippedRowGroups()
+    {
+        return parquetBloomFilterSkippedRowGroups;
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getIoWaitTime()
+    {
+        return ioWaitTime;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getPrefetchedBytes()
+    {
+        return prefetchedBytes;
+    }
+
     public void readDataBytesPerSecond(long bytes, long nanos)
     {
         readBytes.add(bytes);
@@ -93,4 +118,22 @@ public class FileFormatDataSourceStats
     {
         maxCombinedBytesPerRow.add(bytes);
     }
+
+    public void addParquetBloomFilterSkippedRowGroups(long count)
+    {
+        parquetBloomFilterSkippedRowGroups.update(count);
+    }
+
+    /**
+     * Time a reader thread was blocked reading data, either from storage or waiting for a prefetch to complete.
+     */
+    public void addIoWaitTime(long nanos)
+    {
+        ioWaitTime.add(nanos, NANOSECONDS);
+    }
+
+    public void addPrefetchedBytes(long bytes)
+    {
+        prefetchedBytes.update(bytes);
+    }
 }
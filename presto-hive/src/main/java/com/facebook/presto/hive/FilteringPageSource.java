@@ -216,7 +216,10 @@ public class FilteringPageSource
         delegate.close();
     }
 
-    private static int filterBlock(Block block, Type type, TupleDomainFilter filter, int[] positions, int positionCount)
+    /**
+     * Keeps the first positionCount entries of positions that pass the filter, and returns their number.
+     */
+    public static int filterBlock(Block block, Type type, TupleDomainFilter filter, int[] positions, int positionCount)
     {
         int outputPositionsCount = 0;
         for (int i = 0; i < positionCount; i++) {
@@ -183,6 +183,7 @@ public class HiveClientConfig
     private Duration fileStatusCacheExpireAfterWrite = new Duration(0, TimeUnit.SECONDS);
     private long fileStatusCacheMaxSize;
     private List<String> fileStatusCacheTables = ImmutableList.of();
+    private boolean fileStatusCacheValidationEnabled;
 
     private DataSize pageFileStripeMaxSize = new DataSize(24, MEGABYTE);
     private boolean parquetBatchReadOptimizationEnabled;
@@ -216,6 +217,7 @@ public class HiveClientConfig
     private boolean userDefinedTypeEncodingEnabled;
 
     private boolean columnIndexFilterEnabled;
+    private boolean parquetBloomFilterEnabled;
     private boolean fileSplittable = true;
     private Protocol thriftProtocol = Protocol.BINARY;
     private DataSize thriftBufferSize = new DataSize(128, BYTE);
@@ -228,6 +230,11 @@ public class HiveClientConfig
     private boolean parallelParsingOfPartitionValuesEnabled;
     private int maxParallelParsingConcurrency = 100;
 
+    private boolean readPrefetchEnabled;
+    private DataSize readPrefetchMaxBufferedSize = new DataSize(64, MEGABYTE);
+    private DataSize readPrefetchMaxRequestSize = new DataSize(8, MEGABYTE);
+    private boolean partitionMetadataPrefetchEnabled;
+
     @Min(0)
     public int getMaxInitialSplits()
     {
@@ -1072,6 +1079,19 @@ public class HiveClientConfig
         return this;
     }
 
+    public boolean isFileStatusCacheValidationEnabled()
+    {
+        return fileStatusCacheValidationEnabled;
+    }
+
+    @Config("hive.file-status-cache-validation-enabled")
+    @ConfigDescription("Re-list a cached directory when its modification time has changed. Requires a file system that maintains directory modification times, such as HDFS")
+    public HiveClientConfig setFileStatusCacheValidationEnabled(boolean fileStatusCacheValidationEnabled)
+    {
+        this.fileStatusCacheValidationEnabled = fileStatusCacheValidationEnabled;
+        return this;
+    }
+
     public enum HdfsAuthenticationType
     {
         NONE,
@@ -1758,6 +1778,19 @@ public class HiveClientConfig
         return this.columnIndexFilterEnabled;
     }
 
+    @Config("hive.parquet-bloom-filter-enabled")
+    @ConfigDescription("enable pruning parquet row groups using column bloom filters")
+    public HiveClientConfig setParquetBloomFilterEnabled(boolean parquetBloomFilterEnabled)
+    {
+        this.parquetBloomFilterEnabled = parquetBloomFilterEnabled;
+        return this;
+    }
+
+    public boolean isParquetBloomFilterEnabled()
+    {
+        return this.parquetBloomFilterEnabled;
+    }
+
     @Config("hive.size-based-split-weights-enabled")
     public HiveClientConfig setSizeBasedSplitWeightsEnabled(boolean sizeBasedSplitWeightsEnabled)
     {
@@ -1914,4 +1947,59 @@ public class HiveClientConfig
     {
         return this.maxParallelParsingConcurrency;
     }
+
+    @Config("hive.read-prefetch.enabled")
+    @ConfigDescription("Read the next ORC stripe or Parquet row group in the background with concurrent coalesced range reads")
+    public HiveClientConfig setReadPrefetchEnabled(boolean readPrefetchEnabled)
+    {
+        this.readPrefetchEnabled = readPrefetchEnabled;
+        return this;
+    }
+
+    public boolean isReadPrefetchEnabled()
+    {
+        return readPrefetchEnabled;
+    }
+
+    @NotNull
+    public DataSize getReadPrefetchMaxBufferedSize()
+    {
+        return readPrefetchMaxBufferedSize;
+    }
+
+    @Config("hive.read-prefetch.max-buffered-size")
+    @ConfigDescription("Maximum number of prefetched bytes held in memory per file reader")
+    public HiveClientConfig setReadPrefetchMaxBufferedSize(DataSize readPrefetchMaxBufferedSize)
+    {
+        this.readPrefetchMaxBufferedSize = readPrefetchMaxBufferedSize;
+        return this;
+    }
+
+    @NotNull
+    @MinDataSize("1kB")
+    public DataSize getReadPrefetchMaxRequestSize()
+    {
+        return readPrefetchMaxRequestSize;
+    }
+
+    @Config("hive.read-prefetch.max-request-size")
+    @ConfigDescription("Maximum size of a single prefetch request; larger ranges are split into concurrent requests")
+    public HiveClientConfig setReadPrefetchMaxRequestSize(DataSize readPrefetchMaxRequestSize)
+    {
+        this.readPrefetchMaxRequestSize = readPrefetchMaxRequestSize;
+        return this;
+    }
+
+    @Config("hive.partition-metadata-prefetch-enabled")
+    @ConfigDescription("Load partitions and partition statistics into the metastore cache in the background as soon as partitions are enumerated")
+    public HiveClientConfig setPartitionMetadataPrefetchEnabled(boolean partitionMetadataPrefetchEnabled)
+    {
+        this.partitionMetadataPrefetchEnabled = partitionMetadataPrefetchEnabled;
+        return this;
+    }
+
+    public boolean isPartitionMetadataPrefetchEnabled()
+    {
+        return partitionMetadataPrefetchEnabled;
+    }
 }
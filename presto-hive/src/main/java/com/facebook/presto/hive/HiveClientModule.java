@@ -60,6 +60,8 @@ import com.facebook.presto.orc.metadata.RowGroupIndex;
 import com.facebook.presto.parquet.ParquetDataSourceId;
 import com.facebook.presto.parquet.cache.CachingParquetMetadataSource;
 import com.facebook.presto.parquet.cache.MetadataReader;
+import com.facebook.presto.parquet.cache.ParquetBloomFilterId;
+import com.facebook.presto.parquet.cache.ParquetBloomFilterMetadata;
 import com.facebook.presto.parquet.cache.ParquetCacheConfig;
 import com.facebook.presto.parquet.cache.ParquetFileMetadata;
 import com.facebook.presto.parquet.cache.ParquetMetadataSource;
@@ -96,6 +98,7 @@ import static com.facebook.airlift.json.smile.SmileCodecBinder.smileCodecBinder;
 import static com.facebook.drift.codec.guice.ThriftCodecBinder.thriftCodecBinder;
 import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
 import static com.google.inject.multibindings.Multibinder.newSetBinder;
+import static java.lang.Math.max;
 import static java.lang.Math.toIntExact;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newFixedThreadPool;
@@ -181,6 +184,7 @@ public class HiveClientModule
         smileCodecBinder(binder).bindSmileCodec(PartitionUpdate.class);
 
         binder.bind(FileFormatDataSourceStats.class).in(Scopes.SINGLETON);
+        binder.bind(ReadPrefetcherFactory.class).in(Scopes.SINGLETON);
         newExporter(binder).export(FileFormatDataSourceStats.class).as(generatedNameOf(FileFormatDataSourceStats.class, connectorId));
 
         binder.bind(EncryptionLibrary.class).annotatedWith(ForCryptoService.class).to(UnsupportedEncryptionLibrary.class).in(Scopes.SINGLETON);
@@ -258,6 +262,17 @@ public class HiveClientModule
         return newCachedThreadPool(daemonThreadsNamed("hive-metadata-updater-" + hiveClientId + "-%s"));
     }
 
+    @ForReadPrefetch
+    @Singleton
+    @Provides
+    public ExecutorService createReadPrefetchExecutor(HiveConnectorId hiveClientId)
+    {
+        // reads are blocking; the per reader concurrency is bounded by the prefetch buffer size
+        return newFixedThreadPool(
+                max(16, 2 * Runtime.getRuntime().availableProcessors()),
+                daemonThreadsNamed("hive-read-prefetch-" + hiveClientId + "-%s"));
+    }
+
     @ForFileRename
     @Singleton
     @Provides
@@ -359,7 +374,18 @@ public class HiveClientModule
                     .recordStats()
                     .build();
             CacheStatsMBean cacheStatsMBean = new CacheStatsMBean(cache);
-            parquetMetadataSource = new CachingParquetMetadataSource(cache, parquetMetadataSource);
+            Optional<Cache<ParquetBloomFilterId, ParquetBloomFilterMetadata>> bloomFilterCache = Optional.empty();
+            if (parquetCacheConfig.getBloomFilterCacheSize().toBytes() > 0) {
+                Cache<ParquetBloomFilterId, ParquetBloomFilterMetadata> cacheForBloomFilters = CacheBuilder.newBuilder()
+                        .maximumWeight(parquetCacheConfig.getBloomFilterCacheSize().toBytes())
+                        .weigher((id, metadata) -> ((ParquetBloomFilterMetadata) metadata).getRetainedSize())
+                        .expireAfterAccess(parquetCacheConfig.getMetadataCacheTtlSinceLastAccess().toMillis(), MILLISECONDS)
+                        .recordStats()
+                        .build();
+                exporter.export(generatedNameOf(CacheStatsMBean.class, connectorId + "_ParquetBloomFilter"), new CacheStatsMBean(cacheForBloomFilters));
+                bloomFilterCache = Optional.of(cacheForBloomFilters);
+            }
+            parquetMetadataSource = new CachingParquetMetadataSource(cache, bloomFilterCache, parquetMetadataSource);
             exporter.export(generatedNameOf(CacheStatsMBean.class, connectorId + "_ParquetMetadata"), cacheStatsMBean);
         }
         return parquetMetadataSource;
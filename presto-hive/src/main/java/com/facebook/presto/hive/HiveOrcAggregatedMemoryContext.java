@@ -30,7 +30,7 @@ public class HiveOrcAggregatedMemoryContext
         this(newSimpleAggregatedMemoryContext());
     }
 
-    private HiveOrcAggregatedMemoryContext(AggregatedMemoryContext delegate)
+    public HiveOrcAggregatedMemoryContext(AggregatedMemoryContext delegate)
     {
         this.delegate = requireNonNull(delegate, "delegate is null");
     }
@@ -16,6 +16,7 @@ package com.facebook.presto.hive;
 import com.facebook.presto.common.Subfield;
 import com.facebook.presto.common.Subfield.NestedField;
 import com.facebook.presto.common.Subfield.PathElement;
+import com.facebook.presto.common.predicate.BlockedBloomFilter;
 import com.facebook.presto.common.predicate.Domain;
 import com.facebook.presto.common.predicate.NullableValue;
 import com.facebook.presto.common.predicate.TupleDomain;
@@ -61,6 +62,7 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.function.Function;
 
+import static com.facebook.presto.common.predicate.BlockedBloomFilter.isSupportedType;
 import static com.facebook.presto.hive.HiveBucketing.getHiveBucketFilter;
 import static com.facebook.presto.hive.HiveCoercer.createCoercer;
 import static com.facebook.presto.hive.HiveColumnHandle.ColumnType.AGGREGATED;
@@ -220,6 +222,10 @@ public class HivePageSourceProvider
                 rowExpressionService,
                 encryptionInformation);
         if (pageSource.isPresent()) {
+            Map<String, BlockedBloomFilter> bloomFilters = getDynamicFilterBloomFilters(splitContext);
+            if (BloomFilteringPageSource.hasFilters(selectedColumns, bloomFilters)) {
+                return new BloomFilteringPageSource(selectedColumns, bloomFilters, typeManager, pageSource.get());
+            }
             return pageSource.get();
         }
         throw new IllegalStateException("Could not find a file reader for split " + hiveSplit);
@@ -309,6 +315,7 @@ public class HivePageSourceProvider
                     session,
                     split.getFileSplit(),
                     split.getStorage(),
+                    layout.getSchemaTableName(),
                     toColumnHandles(columnMappings, true),
                     prefilledValues,
                     coercers,
@@ -316,6 +323,7 @@ public class HivePageSourceProvider
                     outputColumns,
                     splitContext.getDynamicFilterPredicate().map(filter -> filter.transform(
                             handle -> new Subfield(((HiveColumnHandle) handle).getName())).intersect(layout.getDomainPredicate())).orElse(layout.getDomainPredicate()),
+                    getDynamicFilterBloomFilters(splitContext),
                     optimizedRemainingPredicate,
                     hiveStorageTimeZone,
                     new HiveFileContext(
@@ -600,6 +608,14 @@ public class HivePageSourceProvider
         return Optional.empty();
     }
 
+    private static Map<String, BlockedBloomFilter> getDynamicFilterBloomFilters(SplitContext splitContext)
+    {
+        // partition keys are handled by shouldSkipPartition
+        return splitContext.getDynamicFilterBloomFilters().entrySet().stream()
+                .filter(entry -> ((HiveColumnHandle) entry.getKey()).getColumnType() == REGULAR)
+                .collect(toImmutableMap(entry -> ((HiveColumnHandle) entry.getKey()).getName(), Map.Entry::getValue));
+    }
+
     private static boolean shouldSkipBucket(HiveTableLayoutHandle hiveLayout, HiveSplit hiveSplit, SplitContext splitContext)
     {
         if (!splitContext.getDynamicFilterPredicate().isPresent()
@@ -640,6 +656,10 @@ public class HivePageSourceProvider
             if (allowedDomain != null && !allowedDomain.includesNullableValue(value.getValue())) {
                 return true;
             }
+            BlockedBloomFilter bloomFilter = splitContext.getDynamicFilterBloomFilters().get(hiveColumnHandle);
+            if (bloomFilter != null && !value.isNull() && isSupportedType(type) && !bloomFilter.mightContainValue(type, value.getValue())) {
+                return true;
+            }
         }
         return false;
     }
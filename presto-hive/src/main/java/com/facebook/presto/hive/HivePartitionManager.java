@@ -71,6 +71,7 @@ import static com.facebook.presto.hive.HiveSessionProperties.getMaxBucketsForGro
 import static com.facebook.presto.hive.HiveSessionProperties.getMinBucketCountToNotIgnoreTableBucketing;
 import static com.facebook.presto.hive.HiveSessionProperties.isOfflineDataDebugModeEnabled;
 import static com.facebook.presto.hive.HiveSessionProperties.isParallelParsingOfPartitionValuesEnabled;
+import static com.facebook.presto.hive.HiveSessionProperties.isPartitionMetadataPrefetchEnabled;
 import static com.facebook.presto.hive.HiveSessionProperties.shouldIgnoreTableBucketing;
 import static com.facebook.presto.hive.HiveUtil.getPartitionKeyColumnHandles;
 import static com.facebook.presto.hive.HiveUtil.parsePartitionValue;
@@ -265,6 +266,16 @@ public class HivePartitionManager
 
         List<HivePartition> partitions = getPartitionsAsList(getPartitionsIterator(metastore, tableHandle, constraint, session).iterator());
 
+        if (isPartitionMetadataPrefetchEnabled(session) && !partitionColumns.isEmpty() && !partitions.isEmpty()) {
+            // statistics are read during planning and the partitions themselves during split generation,
+            // so start loading both in bulk while the rest of the plan is being optimized
+            MetastoreContext context = new MetastoreContext(session.getIdentity(), session.getQueryId(), session.getClientInfo(), session.getSource(), getMetastoreHeaders(session), isUserDefinedTypeEncodingEnabled(session), metastore.getColumnConverterProvider());
+            List<String> partitionNames = partitions.stream()
+                    .map(HivePartition::getPartitionId)
+                    .collect(toImmutableList());
+            metastore.prefetchPartitions(context, hiveTableHandle.getSchemaName(), hiveTableHandle.getTableName(), partitionNames);
+        }
+
         Optional<HiveBucketHandle> hiveBucketHandle = getBucketHandle(table, session, effectivePredicate);
         Optional<HiveBucketFilter> bucketFilter = hiveBucketHandle.flatMap(value -> getHiveBucketFilter(table, effectivePredicate));
 
@@ -138,6 +138,7 @@ public final class HiveSessionProperties
     private static final String DWRF_WRITER_STRIPE_CACHE_ENABLED = "dwrf_writer_stripe_cache_enabled";
     private static final String DWRF_WRITER_STRIPE_CACHE_SIZE = "dwrf_writer_stripe_cache_size";
     public static final String USE_COLUMN_INDEX_FILTER = "use_column_index_filter";
+    public static final String USE_PARQUET_BLOOM_FILTER = "use_parquet_bloom_filter";
     public static final String SIZE_BASED_SPLIT_WEIGHTS_ENABLED = "size_based_split_weights_enabled";
     public static final String MINIMUM_ASSIGNED_SPLIT_WEIGHT = "minimum_assigned_split_weight";
     private static final String USE_RECORD_PAGE_SOURCE_FOR_CUSTOM_SPLIT = "use_record_page_source_for_custom_split";
@@ -147,6 +148,10 @@ public final class HiveSessionProperties
     private static final String READ_TABLE_CONSTRAINTS = "read_table_constraints";
     public static final String READ_MASKED_VALUE_ENABLED = "read_null_masked_parquet_encrypted_value_enabled";
     public static final String PARALLEL_PARSING_OF_PARTITION_VALUES_ENABLED = "parallel_parsing_of_partition_values_enabled";
+    public static final String READ_PREFETCH_ENABLED = "read_prefetch_enabled";
+    private static final String READ_PREFETCH_MAX_BUFFERED_SIZE = "read_prefetch_max_buffered_size";
+    private static final String READ_PREFETCH_MAX_REQUEST_SIZE = "read_prefetch_max_request_size";
+    public static final String PARTITION_METADATA_PREFETCH_ENABLED = "partition_metadata_prefetch_enabled";
     private final List<PropertyMetadata<?>> sessionProperties;
 
     @Inject
@@ -662,6 +667,11 @@ public final class HiveSessionProperties
                         "should use column index statistics filtering",
                         hiveClientConfig.getReadColumnIndexFilter(),
                         false),
+                booleanProperty(
+                        USE_PARQUET_BLOOM_FILTER,
+                        "should use parquet bloom filters to skip row groups",
+                        hiveClientConfig.isParquetBloomFilterEnabled(),
+                        false),
                 booleanProperty(
                         SIZE_BASED_SPLIT_WEIGHTS_ENABLED,
                         "Enable estimating split weights based on size in bytes",
@@ -711,6 +721,26 @@ public final class HiveSessionProperties
                         PARALLEL_PARSING_OF_PARTITION_VALUES_ENABLED,
                         "Enables parallel parsing of partition values from partition names using thread pool",
                         hiveClientConfig.isParallelParsingOfPartitionValuesEnabled(),
+                        false),
+                booleanProperty(
+                        READ_PREFETCH_ENABLED,
+                        "Read the next ORC stripe or Parquet row group in the background with concurrent coalesced range reads",
+                        hiveClientConfig.isReadPrefetchEnabled(),
+                        false),
+                dataSizeSessionProperty(
+                        READ_PREFETCH_MAX_BUFFERED_SIZE,
+                        "Maximum number of prefetched bytes held in memory per file reader",
+                        hiveClientConfig.getReadPrefetchMaxBufferedSize(),
+                        false),
+                dataSizeSessionProperty(
+                        READ_PREFETCH_MAX_REQUEST_SIZE,
+                        "Maximum size of a single prefetch request",
+                        hiveClientConfig.getReadPrefetchMaxRequestSize(),
+                        false),
+                booleanProperty(
+                        PARTITION_METADATA_PREFETCH_ENABLED,
+                        "Load partitions and partition statistics into the metastore cache in the background as soon as partitions are enumerated",
+                        hiveClientConfig.isPartitionMetadataPrefetchEnabled(),
                         false));
     }
 
@@ -1202,6 +1232,11 @@ public final class HiveSessionProperties
         return session.getProperty(USE_COLUMN_INDEX_FILTER, Boolean.class);
     }
 
+    public static boolean isParquetBloomFilterEnabled(ConnectorSession session)
+    {
+        return session.getProperty(USE_PARQUET_BLOOM_FILTER, Boolean.class);
+    }
+
     public static boolean isSizeBasedSplitWeightsEnabled(ConnectorSession session)
     {
         return session.getProperty(SIZE_BASED_SPLIT_WEIGHTS_ENABLED, Boolean.class);
@@ -1246,4 +1281,24 @@ public final class HiveSessionProperties
     {
         return session.getProperty(PARALLEL_PARSING_OF_PARTITION_VALUES_ENABLED, Boolean.class);
     }
+
+    public static boolean isReadPrefetchEnabled(ConnectorSession session)
+    {
+        return session.getProperty(READ_PREFETCH_ENABLED, Boolean.class);
+    }
+
+    public static DataSize getReadPrefetchMaxBufferedSize(ConnectorSession session)
+    {
+        return session.getProperty(READ_PREFETCH_MAX_BUFFERED_SIZE, DataSize.class);
+    }
+
+    public static DataSize getReadPrefetchMaxRequestSize(ConnectorSession session)
+    {
+        return session.getProperty(READ_PREFETCH_MAX_REQUEST_SIZE, DataSize.class);
+    }
+
+    public static boolean isPartitionMetadataPrefetchEnabled(ConnectorSession session)
+    {
+        return session.getProperty(PARTITION_METADATA_PREFETCH_ENABLED, Boolean.class);
+    }
 }
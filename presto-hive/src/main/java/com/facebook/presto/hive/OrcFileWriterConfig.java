@@ -21,6 +21,7 @@ import com.facebook.presto.orc.metadata.DwrfStripeCacheMode;
 import com.facebook.presto.orc.writer.StreamLayoutFactory;
 import io.airlift.units.DataSize;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
 import java.util.OptionalInt;
@@ -56,6 +57,7 @@ public class OrcFileWriterConfig
     private boolean isStringDictionarySortingEnabled = OrcWriterOptions.DEFAULT_STRING_DICTIONARY_SORTING_ENABLED;
     private boolean isFlatMapWriterEnabled = DEFAULT_FLAT_MAP_WRITER_ENABLED;
     private boolean addHostnameToFileMetadataEnabled = true;
+    private int columnWriterParallelism = 1;
 
     public OrcWriterOptions.Builder toOrcWriterOptionsBuilder()
     {
@@ -297,6 +299,20 @@ public class OrcFileWriterConfig
         return this;
     }
 
+    @Min(1)
+    public int getColumnWriterParallelism()
+    {
+        return columnWriterParallelism;
+    }
+
+    @Config("hive.orc.writer.column-writer-parallelism")
+    @ConfigDescription("Number of threads encoding the columns of a single ORC/DWRF writer. Threads beyond the writing thread come from a pool shared by all writers.")
+    public OrcFileWriterConfig setColumnWriterParallelism(int columnWriterParallelism)
+    {
+        this.columnWriterParallelism = columnWriterParallelism;
+        return this;
+    }
+
     private static StreamLayoutFactory getStreamLayoutFactory(StreamLayoutType type)
     {
         switch (type) {
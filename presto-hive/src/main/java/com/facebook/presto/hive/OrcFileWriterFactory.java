@@ -49,6 +49,7 @@ import org.joda.time.DateTimeZone;
 import org.weakref.jmx.Flatten;
 import org.weakref.jmx.Managed;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 
 import java.io.IOException;
@@ -60,9 +61,11 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Supplier;
 import java.util.stream.IntStream;
 
+import static com.facebook.airlift.concurrent.Threads.daemonThreadsNamed;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_INVALID_METADATA;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_UNSUPPORTED_FORMAT;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_WRITER_OPEN_ERROR;
@@ -87,15 +90,18 @@ import static com.facebook.presto.hive.HiveSessionProperties.isStringDictionaryS
 import static com.facebook.presto.hive.HiveType.toHiveTypes;
 import static com.facebook.presto.orc.OrcEncoding.DWRF;
 import static com.facebook.presto.orc.OrcEncoding.ORC;
+import static com.facebook.presto.orc.OrcWriterOptions.DEFAULT_BLOOM_FILTER_FPP;
 import static com.facebook.presto.orc.OrcWriterOptions.DEFAULT_MAX_FLATTENED_MAP_KEY_COUNT;
 import static com.facebook.presto.orc.metadata.KeyProvider.CRYPTO_SERVICE;
 import static com.facebook.presto.orc.metadata.KeyProvider.UNKNOWN;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static java.lang.Boolean.parseBoolean;
+import static java.lang.Math.max;
 import static java.lang.String.format;
 import static java.util.Locale.ENGLISH;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.stream.Collectors.toList;
 import static org.apache.hadoop.hive.metastore.api.hive_metastoreConstants.META_TABLE_COLUMNS;
 import static org.apache.hadoop.hive.metastore.api.hive_metastoreConstants.META_TABLE_COLUMN_TYPES;
@@ -129,9 +135,22 @@ public class OrcFileWriterFactory
      */
     static final String ORC_MAP_STATISTICS_KEY = "orc.map.statistics";
 
+    /**
+     * A comma separated list of column names, stored in the table properties,
+     * indicating which columns should have row group bloom filters written.
+     */
+    static final String ORC_BLOOM_FILTER_COLUMNS_KEY = "orc.bloom.filter.columns";
+
+    /**
+     * A double value, stored in the table properties as a string, indicating
+     * the false positive probability of the written bloom filters.
+     */
+    static final String ORC_BLOOM_FILTER_FPP_KEY = "orc.bloom.filter.fpp";
+
     private static final String HOSTNAME_METADATA_KEY = "orc.writer.host";
     private static final Supplier<Optional<String>> HOSTNAME = Suppliers.memoize(OrcFileWriterFactory::getHostname);
     private static final Splitter FLAT_MAP_COLUMN_NUMBERS_SPLITTER = Splitter.on(',').omitEmptyStrings().trimResults();
+    private static final Splitter COLUMN_NAMES_SPLITTER = Splitter.on(',').omitEmptyStrings().trimResults();
 
     private final DateTimeZone hiveStorageTimeZone;
     private final HdfsEnvironment hdfsEnvironment;
@@ -142,6 +161,7 @@ public class OrcFileWriterFactory
     private final OrcWriterStats stats = new OrcWriterStats();
     private final OrcFileWriterConfig orcFileWriterConfig;
     private final DwrfEncryptionProvider dwrfEncryptionProvider;
+    private final Optional<ExecutorService> columnWriterExecutor;
 
     @Inject
     public OrcFileWriterFactory(
@@ -183,6 +203,21 @@ public class OrcFileWriterFactory
         this.readStats = requireNonNull(readStats, "stats is null");
         this.orcFileWriterConfig = requireNonNull(orcFileWriterConfig, "orcFileWriterConfig is null");
         this.dwrfEncryptionProvider = requireNonNull(dwrfEncryptionProvider, "DwrfEncryptionProvider is null").toDwrfEncryptionProvider();
+
+        // the column writer threads are shared by all writers, the writing thread always encodes one group of columns itself
+        if (orcFileWriterConfig.getColumnWriterParallelism() > 1) {
+            int threads = max(orcFileWriterConfig.getColumnWriterParallelism(), Runtime.getRuntime().availableProcessors());
+            this.columnWriterExecutor = Optional.of(newFixedThreadPool(threads, daemonThreadsNamed("hive-orc-column-writer-%s")));
+        }
+        else {
+            this.columnWriterExecutor = Optional.empty();
+        }
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        columnWriterExecutor.ifPresent(ExecutorService::shutdownNow);
     }
 
     @Managed
@@ -270,7 +305,7 @@ public class OrcFileWriterFactory
                 metadata.put(HOSTNAME_METADATA_KEY, HOSTNAME.get().get());
             }
 
-            OrcWriterOptions orcWriterOptions = buildOrcWriterOptions(session, schema);
+            OrcWriterOptions orcWriterOptions = buildOrcWriterOptions(session, schema, orcEncoding);
 
             return Optional.of(new OrcFileWriter(
                     dataSink,
@@ -295,14 +330,18 @@ public class OrcFileWriterFactory
     }
 
     @VisibleForTesting
-    OrcWriterOptions buildOrcWriterOptions(ConnectorSession session, Properties schema)
+    OrcWriterOptions buildOrcWriterOptions(ConnectorSession session, Properties schema, OrcEncoding orcEncoding)
     {
         boolean mapStatisticsEnabled = isMapStatisticsEnabled(schema);
         int flatMapKeyLimit = getFlatMapKeyLimit(schema);
         Set<Integer> flattenedColumns = getFlattenedColumns(schema, session);
+        // DWRF has no bloom filter streams, so the table bloom filter properties only apply to ORC files
+        Set<Integer> bloomFilterColumns = orcEncoding == ORC ? getBloomFilterColumns(schema) : ImmutableSet.of();
 
-        return orcFileWriterConfig
-                .toOrcWriterOptionsBuilder()
+        OrcWriterOptions.Builder builder = orcFileWriterConfig.toOrcWriterOptionsBuilder();
+        columnWriterExecutor.ifPresent(executor -> builder.withColumnWriterExecutor(executor, orcFileWriterConfig.getColumnWriterParallelism()));
+
+        return builder
                 .withFlushPolicy(DefaultOrcWriterFlushPolicy.builder()
                         .withStripeMinSize(getOrcOptimizedWriterMinStripeSize(session))
                         .withStripeMaxSize(getOrcOptimizedWriterMaxStripeSize(session))
@@ -319,6 +358,8 @@ public class OrcFileWriterFactory
                 .withFlattenedColumns(flattenedColumns)
                 .withMaxFlattenedMapKeyCount(flatMapKeyLimit)
                 .withMapStatisticsEnabled(mapStatisticsEnabled)
+                .withBloomFilterColumns(bloomFilterColumns)
+                .withBloomFilterFpp(getBloomFilterFpp(schema))
                 .withCompressionLevel(getCompressionLevel(session))
                 .build();
     }
@@ -411,6 +452,37 @@ public class OrcFileWriterFactory
         return flattenedColumns;
     }
 
+    private static Set<Integer> getBloomFilterColumns(Properties schema)
+    {
+        String bloomFilterColumns = schema.getProperty(ORC_BLOOM_FILTER_COLUMNS_KEY);
+        if (bloomFilterColumns == null) {
+            return ImmutableSet.of();
+        }
+
+        List<String> columnNames = COLUMN_NAMES_SPLITTER.splitToList(schema.getProperty(META_TABLE_COLUMNS, "").toLowerCase(ENGLISH));
+        ImmutableSet.Builder<Integer> bloomFilterColumnsBuilder = ImmutableSet.builder();
+        for (String columnName : COLUMN_NAMES_SPLITTER.split(bloomFilterColumns.toLowerCase(ENGLISH))) {
+            int columnIndex = columnNames.indexOf(columnName);
+            if (columnIndex < 0) {
+                String tableName = schema.getProperty(META_TABLE_NAME);
+                throw new PrestoException(
+                        HIVE_INVALID_METADATA,
+                        format("Bloom filter column '%s' does not exist in table '%s'", columnName, tableName));
+            }
+            bloomFilterColumnsBuilder.add(columnIndex);
+        }
+        return bloomFilterColumnsBuilder.build();
+    }
+
+    private static double getBloomFilterFpp(Properties schema)
+    {
+        String value = schema.getProperty(ORC_BLOOM_FILTER_FPP_KEY);
+        if (value == null) {
+            return DEFAULT_BLOOM_FILTER_FPP;
+        }
+        return Double.parseDouble(value.trim());
+    }
+
     private boolean isMapStatisticsEnabled(Properties schema)
     {
         return parseBoolean(schema.getProperty(ORC_MAP_STATISTICS_KEY, "false"));
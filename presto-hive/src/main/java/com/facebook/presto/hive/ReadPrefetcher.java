@@ -0,0 +1,281 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.facebook.presto.memory.context.LocalMemoryContext;
+import com.google.common.collect.ImmutableList;
+import io.airlift.units.DataSize;
+import org.apache.hadoop.fs.FSDataInputStream;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Throwables.throwIfUnchecked;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads ranges of a file in the background, ahead of the reader, using concurrent positional reads.
+ * <p>
+ * Every call to {@link #prefetch(List)} starts a new generation of ranges. Only the current and the
+ * previous generations are kept, so a reader which hints the next stripe or row group when it starts
+ * decoding the current one is served from memory for both. Nearby ranges are coalesced, ranges larger
+ * than the maximum request size are split into requests read concurrently, and ranges which would
+ * exceed the maximum buffered size are not prefetched and are read directly by the reader instead.
+ * The buffered bytes are accounted in the memory context of the reader.
+ * <p>
+ * This class is not thread safe; it must be used by the thread reading the file.
+ */
+public class ReadPrefetcher
+{
+    private static final long MAX_MERGE_DISTANCE_BYTES = new DataSize(1, MEGABYTE).toBytes();
+
+    private final FSDataInputStream inputStream;
+    private final long maxBufferedBytes;
+    private final int maxRequestBytes;
+    private final Executor executor;
+    private final LocalMemoryContext memoryContext;
+    private final FileFormatDataSourceStats stats;
+
+    private List<PrefetchRequest> previous = ImmutableList.of();
+    private List<PrefetchRequest> current = ImmutableList.of();
+
+    public ReadPrefetcher(
+            FSDataInputStream inputStream,
+            DataSize maxBufferedSize,
+            DataSize maxRequestSize,
+            Executor executor,
+            LocalMemoryContext memoryContext,
+            FileFormatDataSourceStats stats)
+    {
+        this.inputStream = requireNonNull(inputStream, "inputStream is null");
+        this.maxBufferedBytes = requireNonNull(maxBufferedSize, "maxBufferedSize is null").toBytes();
+        this.maxRequestBytes = toIntExact(requireNonNull(maxRequestSize, "maxRequestSize is null").toBytes());
+        checkArgument(maxRequestBytes > 0, "maxRequestSize must be positive");
+        this.executor = requireNonNull(executor, "executor is null");
+        this.memoryContext = requireNonNull(memoryContext, "memoryContext is null");
+        this.stats = requireNonNull(stats, "stats is null");
+    }
+
+    /**
+     * Starts reading the given ranges, and drops the ranges prefetched before the previous call.
+     */
+    public void prefetch(List<Range> ranges)
+    {
+        previous.forEach(PrefetchRequest::cancel);
+        previous = current;
+
+        long previousBytes = previous.stream().mapToLong(PrefetchRequest::getLength).sum();
+        current = createRequests(ranges, maxBufferedBytes - previousBytes);
+        memoryContext.setBytes(previousBytes + current.stream().mapToLong(PrefetchRequest::getLength).sum());
+    }
+
+    /**
+     * Copies the requested bytes from the prefetched ranges, waiting for them to be read if needed.
+     *
+     * @return false if the beginning of the requested range was not prefetched
+     */
+    public boolean read(long position, byte[] buffer, int bufferOffset, int bufferLength)
+            throws IOException
+    {
+        int copied = 0;
+        while (copied < bufferLength) {
+            Optional<PrefetchRequest> request = find(position + copied);
+            if (!request.isPresent()) {
+                if (copied == 0) {
+                    return false;
+                }
+                // the rest of the range was not prefetched
+                inputStream.readFully(position + copied, buffer, bufferOffset + copied, bufferLength - copied);
+                return true;
+            }
+            copied += request.get().copyTo(position + copied, buffer, bufferOffset + copied, bufferLength - copied);
+        }
+        return true;
+    }
+
+    public void close()
+    {
+        previous.forEach(PrefetchRequest::cancel);
+        current.forEach(PrefetchRequest::cancel);
+        previous = ImmutableList.of();
+        current = ImmutableList.of();
+        memoryContext.close();
+    }
+
+    private List<PrefetchRequest> createRequests(List<Range> ranges, long availableBytes)
+    {
+        long bufferedBytes = 0;
+        ImmutableList.Builder<PrefetchRequest> requests = ImmutableList.builder();
+        for (Range range : coalesce(ranges)) {
+            for (long offset = range.getOffset(); offset < range.getEnd(); offset += maxRequestBytes) {
+                int length = toIntExact(min(maxRequestBytes, range.getEnd() - offset));
+                if (bufferedBytes + length > availableBytes) {
+                    return requests.build();
+                }
+                bufferedBytes += length;
+                requests.add(new PrefetchRequest(offset, length));
+            }
+        }
+        return requests.build();
+    }
+
+    private Optional<PrefetchRequest> find(long position)
+    {
+        for (PrefetchRequest request : current) {
+            if (request.contains(position)) {
+                return Optional.of(request);
+            }
+        }
+        for (PrefetchRequest request : previous) {
+            if (request.contains(position)) {
+                return Optional.of(request);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static List<Range> coalesce(List<Range> ranges)
+    {
+        List<Range> sortedRanges = new ArrayList<>(ranges);
+        sortedRanges.sort(Comparator.comparingLong(Range::getOffset));
+
+        List<Range> result = new ArrayList<>();
+        Range last = null;
+        for (Range range : sortedRanges) {
+            if (last != null && range.getOffset() <= last.getEnd() + MAX_MERGE_DISTANCE_BYTES) {
+                last = new Range(last.getOffset(), max(last.getEnd(), range.getEnd()) - last.getOffset());
+            }
+            else {
+                if (last != null) {
+                    result.add(last);
+                }
+                last = range;
+            }
+        }
+        if (last != null) {
+            result.add(last);
+        }
+        return result;
+    }
+
+    private class PrefetchRequest
+    {
+        private final long offset;
+        private final byte[] buffer;
+        private final CompletableFuture<Void> future;
+
+        public PrefetchRequest(long offset, int length)
+        {
+            this.offset = offset;
+            this.buffer = new byte[length];
+            this.future = CompletableFuture.runAsync(() -> {
+                try {
+                    long start = System.nanoTime();
+                    inputStream.readFully(offset, buffer, 0, length);
+                    stats.readDataBytesPerSecond(length, System.nanoTime() - start);
+                    stats.addPrefetchedBytes(length);
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, executor);
+        }
+
+        public long getLength()
+        {
+            return buffer.length;
+        }
+
+        public boolean contains(long position)
+        {
+            return offset <= position && position < offset + buffer.length;
+        }
+
+        public int copyTo(long position, byte[] target, int targetOffset, int maxLength)
+                throws IOException
+        {
+            try {
+                future.join();
+            }
+            catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) cause).getCause();
+                }
+                throwIfUnchecked(cause);
+                throw new RuntimeException(cause);
+            }
+            int sourceOffset = toIntExact(position - offset);
+            int length = min(maxLength, buffer.length - sourceOffset);
+            System.arraycopy(buffer, sourceOffset, target, targetOffset, length);
+            return length;
+        }
+
+        public void cancel()
+        {
+            future.cancel(false);
+        }
+    }
+
+    public static final class Range
+    {
+        private final long offset;
+        private final long length;
+
+        public Range(long offset, long length)
+        {
+            checkArgument(offset >= 0, "offset is negative");
+            checkArgument(length > 0, "length must be at least 1");
+            this.offset = offset;
+            this.length = length;
+        }
+
+        public long getOffset()
+        {
+            return offset;
+        }
+
+        public long getLength()
+        {
+            return length;
+        }
+
+        public long getEnd()
+        {
+            return offset + length;
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("offset", offset)
+                    .add("length", length)
+                    .toString();
+        }
+    }
+}
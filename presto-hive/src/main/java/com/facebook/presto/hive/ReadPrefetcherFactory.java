@@ -0,0 +1,67 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.facebook.presto.memory.context.AggregatedMemoryContext;
+import com.facebook.presto.spi.ConnectorSession;
+import org.apache.hadoop.fs.FSDataInputStream;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import static com.facebook.presto.hive.HiveSessionProperties.getReadPrefetchMaxBufferedSize;
+import static com.facebook.presto.hive.HiveSessionProperties.getReadPrefetchMaxRequestSize;
+import static com.facebook.presto.hive.HiveSessionProperties.isReadPrefetchEnabled;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Creates the {@link ReadPrefetcher}s of the Hive readers. All prefetchers of a connector share its read prefetch executor.
+ */
+public class ReadPrefetcherFactory
+{
+    private final ExecutorService executorService;
+
+    @Inject
+    public ReadPrefetcherFactory(@ForReadPrefetch ExecutorService executorService)
+    {
+        this.executorService = requireNonNull(executorService, "executorService is null");
+    }
+
+    /**
+     * Returns a prefetcher for the input stream if read prefetching is enabled for the session.
+     * The bytes buffered by the prefetcher are accounted in {@code memoryContext}, the system memory context of the page source.
+     */
+    public Optional<ReadPrefetcher> createReadPrefetcher(ConnectorSession session, FSDataInputStream inputStream, FileFormatDataSourceStats stats, AggregatedMemoryContext memoryContext)
+    {
+        if (!isReadPrefetchEnabled(session)) {
+            return Optional.empty();
+        }
+        return Optional.of(new ReadPrefetcher(
+                inputStream,
+                getReadPrefetchMaxBufferedSize(session),
+                getReadPrefetchMaxRequestSize(session),
+                executorService,
+                memoryContext.newLocalMemoryContext(ReadPrefetcher.class.getSimpleName()),
+                stats));
+    }
+
+    @PreDestroy
+    public void stop()
+    {
+        executorService.shutdownNow();
+    }
+}
@@ -14,17 +14,22 @@
 package com.facebook.presto.hive.orc;
 
 import com.facebook.presto.hive.FileFormatDataSourceStats;
+import com.facebook.presto.hive.ReadPrefetcher;
 import com.facebook.presto.orc.AbstractOrcDataSource;
+import com.facebook.presto.orc.DiskRange;
 import com.facebook.presto.orc.OrcDataSourceId;
 import com.facebook.presto.spi.PrestoException;
 import io.airlift.units.DataSize;
 import org.apache.hadoop.fs.FSDataInputStream;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
 
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_FILESYSTEM_ERROR;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_MISSING_DATA;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_UNKNOWN_ERROR;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 
@@ -33,6 +38,7 @@ public class HdfsOrcDataSource
 {
     private final FSDataInputStream inputStream;
     private final FileFormatDataSourceStats stats;
+    private final Optional<ReadPrefetcher> prefetcher;
 
     public HdfsOrcDataSource(
             OrcDataSourceId id,
@@ -43,16 +49,40 @@ public class HdfsOrcDataSource
             boolean lazyReadSmallRanges,
             FSDataInputStream inputStream,
             FileFormatDataSourceStats stats)
+    {
+        this(id, size, maxMergeDistance, maxReadSize, streamBufferSize, lazyReadSmallRanges, inputStream, stats, Optional.empty());
+    }
+
+    public HdfsOrcDataSource(
+            OrcDataSourceId id,
+            long size,
+            DataSize maxMergeDistance,
+            DataSize maxReadSize,
+            DataSize streamBufferSize,
+            boolean lazyReadSmallRanges,
+            FSDataInputStream inputStream,
+            FileFormatDataSourceStats stats,
+            Optional<ReadPrefetcher> prefetcher)
     {
         super(id, size, maxMergeDistance, maxReadSize, streamBufferSize, lazyReadSmallRanges);
         this.inputStream = requireNonNull(inputStream, "inputStream is null");
         this.stats = requireNonNull(stats, "stats is null");
+        this.prefetcher = requireNonNull(prefetcher, "prefetcher is null");
+    }
+
+    @Override
+    public void prefetch(List<DiskRange> diskRanges)
+    {
+        prefetcher.ifPresent(readPrefetcher -> readPrefetcher.prefetch(diskRanges.stream()
+                .map(diskRange -> new ReadPrefetcher.Range(diskRange.getOffset(), diskRange.getLength()))
+                .collect(toImmutableList())));
     }
 
     @Override
     public void close()
             throws IOException
     {
+        prefetcher.ifPresent(ReadPrefetcher::close);
         inputStream.close();
     }
 
@@ -61,8 +91,11 @@ public class HdfsOrcDataSource
     {
         try {
             long readStart = System.nanoTime();
-            inputStream.readFully(position, buffer, bufferOffset, bufferLength);
-            stats.readDataBytesPerSecond(bufferLength, System.nanoTime() - readStart);
+            if (!prefetcher.isPresent() || !prefetcher.get().read(position, buffer, bufferOffset, bufferLength)) {
+                inputStream.readFully(position, buffer, bufferOffset, bufferLength);
+                stats.readDataBytesPerSecond(bufferLength, System.nanoTime() - readStart);
+            }
+            stats.addIoWaitTime(System.nanoTime() - readStart);
         }
         catch (PrestoException e) {
             // just in case there is a Presto wrapper or hook
@@ -14,7 +14,9 @@
 package com.facebook.presto.hive.parquet;
 
 import com.facebook.presto.hive.FileFormatDataSourceStats;
+import com.facebook.presto.hive.ReadPrefetcher;
 import com.facebook.presto.parquet.AbstractParquetDataSource;
+import com.facebook.presto.parquet.DiskRange;
 import com.facebook.presto.parquet.ParquetDataSourceId;
 import com.facebook.presto.spi.PrestoException;
 import org.apache.hadoop.fs.FSDataInputStream;
@@ -29,11 +31,13 @@ import org.apache.parquet.internal.hadoop.metadata.IndexReference;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
 
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_CANNOT_OPEN_SPLIT;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_FILESYSTEM_ERROR;
 import static com.google.common.base.Strings.nullToEmpty;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 
@@ -42,18 +46,34 @@ public class HdfsParquetDataSource
 {
     private final FSDataInputStream inputStream;
     private final FileFormatDataSourceStats stats;
+    private final Optional<ReadPrefetcher> prefetcher;
 
     public HdfsParquetDataSource(ParquetDataSourceId id, FSDataInputStream inputStream, FileFormatDataSourceStats stats)
+    {
+        this(id, inputStream, stats, Optional.empty());
+    }
+
+    public HdfsParquetDataSource(ParquetDataSourceId id, FSDataInputStream inputStream, FileFormatDataSourceStats stats, Optional<ReadPrefetcher> prefetcher)
     {
         super(id);
         this.stats = requireNonNull(stats, "stats is null");
         this.inputStream = requireNonNull(inputStream, "inputStream is null");
+        this.prefetcher = requireNonNull(prefetcher, "prefetcher is null");
+    }
+
+    @Override
+    public void prefetch(List<DiskRange> diskRanges)
+    {
+        prefetcher.ifPresent(readPrefetcher -> readPrefetcher.prefetch(diskRanges.stream()
+                .map(diskRange -> new ReadPrefetcher.Range(diskRange.getOffset(), diskRange.getLength()))
+                .collect(toImmutableList())));
     }
 
     @Override
     public void close()
             throws IOException
     {
+        prefetcher.ifPresent(ReadPrefetcher::close);
         inputStream.close();
     }
 
@@ -62,8 +82,11 @@ public class HdfsParquetDataSource
     {
         try {
             long start = System.nanoTime();
-            inputStream.readFully(position, buffer, bufferOffset, bufferLength);
-            stats.readDataBytesPerSecond(bufferLength, System.nanoTime() - start);
+            if (!prefetcher.isPresent() || !prefetcher.get().read(position, buffer, bufferOffset, bufferLength)) {
+                inputStream.readFully(position, buffer, bufferOffset, bufferLength);
+                stats.readDataBytesPerSecond(bufferLength, System.nanoTime() - start);
+            }
+            stats.addIoWaitTime(System.nanoTime() - start);
         }
         catch (PrestoException e) {
             // just in case there is a Presto wrapper or hook
@@ -115,6 +138,11 @@ public class HdfsParquetDataSource
 
     public static HdfsParquetDataSource buildHdfsParquetDataSource(FSDataInputStream inputStream, Path path, FileFormatDataSourceStats stats)
     {
-        return new HdfsParquetDataSource(new ParquetDataSourceId(path.toString()), inputStream, stats);
+        return buildHdfsParquetDataSource(inputStream, path, stats, Optional.empty());
+    }
+
+    public static HdfsParquetDataSource buildHdfsParquetDataSource(FSDataInputStream inputStream, Path path, FileFormatDataSourceStats stats, Optional<ReadPrefetcher> prefetcher)
+    {
+        return new HdfsParquetDataSource(new ParquetDataSourceId(path.toString()), inputStream, stats, prefetcher);
     }
 }
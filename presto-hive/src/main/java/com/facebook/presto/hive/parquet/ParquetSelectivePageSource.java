@@ -0,0 +1,336 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.parquet;
+
+import com.facebook.presto.common.InvalidFunctionArgumentException;
+import com.facebook.presto.common.Page;
+import com.facebook.presto.common.RuntimeStats;
+import com.facebook.presto.common.block.Block;
+import com.facebook.presto.common.block.LazyBlock;
+import com.facebook.presto.common.block.RunLengthEncodedBlock;
+import com.facebook.presto.common.predicate.FilterFunction;
+import com.facebook.presto.common.predicate.TupleDomainFilter;
+import com.facebook.presto.common.type.Type;
+import com.facebook.presto.spi.ConnectorPageSource;
+import com.facebook.presto.spi.PrestoException;
+import com.google.common.collect.ImmutableList;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static com.facebook.presto.hive.FilteringPageSource.filterBlock;
+import static com.facebook.presto.spi.StandardErrorCode.INVALID_FUNCTION_ARGUMENT;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.System.nanoTime;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Applies pushed down filters to the batches of a {@link ParquetPageSource} column by column.
+ * The blocks of the Parquet page source are lazy, so a column is only decoded when a filter needs
+ * it or when the output is consumed, and columns of batches without surviving rows are never decoded.
+ */
+public class ParquetSelectivePageSource
+        implements ConnectorPageSource
+{
+    private final ConnectorPageSource delegate;
+    private final List<Type> types;
+    // channel of each column in the pages of the delegate, or -1 for prefilled columns
+    private final int[] delegateChannels;
+    private final Object[] prefilledValues;
+    private final List<ColumnFilter> columnFilters;
+    private final List<FunctionFilter> functionFilters;
+    private final int[] outputColumns;
+    private final boolean adaptiveFilterReordering;
+
+    private int[] positions = new int[0];
+    private RuntimeException[] errors = new RuntimeException[0];
+
+    /**
+     * @param types types of all columns, including prefilled and filter only columns
+     * @param delegateChannels channel of each column in the pages of the delegate, or -1 for prefilled columns
+     * @param prefilledValues values of the prefilled columns, indexed by column
+     * @param domainFilters filters on entire columns, keyed by column
+     * @param filterFunctions filter functions, with input channels referring to columns
+     * @param outputColumns columns to return, in output order
+     */
+    public ParquetSelectivePageSource(
+            ConnectorPageSource delegate,
+            List<Type> types,
+            int[] delegateChannels,
+            Object[] prefilledValues,
+            Map<Integer, TupleDomainFilter> domainFilters,
+            List<FilterFunction> filterFunctions,
+            List<Integer> outputColumns,
+            boolean adaptiveFilterReordering)
+    {
+        this.delegate = requireNonNull(delegate, "delegate is null");
+        this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
+        this.delegateChannels = requireNonNull(delegateChannels, "delegateChannels is null").clone();
+        this.prefilledValues = requireNonNull(prefilledValues, "prefilledValues is null").clone();
+        checkArgument(delegateChannels.length == types.size() && prefilledValues.length == types.size(), "types, delegateChannels and prefilledValues must have the same size");
+
+        this.columnFilters = new ArrayList<>();
+        requireNonNull(domainFilters, "domainFilters is null").forEach((column, filter) -> columnFilters.add(new ColumnFilter(column, filter)));
+        this.functionFilters = new ArrayList<>();
+        requireNonNull(filterFunctions, "filterFunctions is null").forEach(function -> functionFilters.add(new FunctionFilter(function)));
+        this.outputColumns = requireNonNull(outputColumns, "outputColumns is null").stream().mapToInt(Integer::intValue).toArray();
+        this.adaptiveFilterReordering = adaptiveFilterReordering;
+    }
+
+    @Override
+    public Page getNextPage()
+    {
+        Page page = delegate.getNextPage();
+        if (page == null || page.getPositionCount() == 0) {
+            return page;
+        }
+
+        try {
+            return filterPage(page);
+        }
+        catch (InvalidFunctionArgumentException e) {
+            closeWithSuppression(e);
+            throw new PrestoException(INVALID_FUNCTION_ARGUMENT, e.getMessage(), e);
+        }
+        catch (RuntimeException e) {
+            closeWithSuppression(e);
+            throw e;
+        }
+    }
+
+    private Page filterPage(Page page)
+    {
+        int batchSize = page.getPositionCount();
+        Block[] blocks = new Block[types.size()];
+        if (positions.length < batchSize) {
+            positions = new int[batchSize];
+            errors = new RuntimeException[batchSize];
+        }
+        for (int i = 0; i < batchSize; i++) {
+            positions[i] = i;
+        }
+
+        int positionCount = batchSize;
+        for (ColumnFilter columnFilter : columnFilters) {
+            long start = nanoTime();
+            int inputCount = positionCount;
+            positionCount = filterBlock(getBlock(page, blocks, columnFilter.getColumn()), types.get(columnFilter.getColumn()), columnFilter.getFilter(), positions, positionCount);
+            columnFilter.recordBatch(inputCount, positionCount, nanoTime() - start);
+            if (positionCount == 0) {
+                break;
+            }
+        }
+
+        if (positionCount > 0 && !functionFilters.isEmpty()) {
+            Arrays.fill(errors, 0, positionCount, null);
+            for (FunctionFilter functionFilter : functionFilters) {
+                long start = nanoTime();
+                int inputCount = positionCount;
+                int[] inputChannels = functionFilter.getFunction().getInputChannels();
+                Block[] inputBlocks = new Block[inputChannels.length];
+                for (int i = 0; i < inputChannels.length; i++) {
+                    inputBlocks[i] = getBlock(page, blocks, inputChannels[i]);
+                }
+                positionCount = functionFilter.getFunction().filter(new Page(batchSize, inputBlocks), positions, positionCount, errors);
+                functionFilter.recordBatch(inputCount, positionCount, nanoTime() - start);
+                if (positionCount == 0) {
+                    break;
+                }
+            }
+            for (int i = 0; i < positionCount; i++) {
+                if (errors[i] != null) {
+                    throw errors[i];
+                }
+            }
+        }
+
+        if (adaptiveFilterReordering) {
+            columnFilters.sort(Comparator.comparingDouble(FilterStats::getCost));
+            functionFilters.sort(Comparator.comparingDouble(FilterStats::getCost));
+        }
+
+        if (positionCount == 0) {
+            return new Page(0);
+        }
+
+        Block[] outputBlocks = new Block[outputColumns.length];
+        if (positionCount == batchSize) {
+            for (int i = 0; i < outputColumns.length; i++) {
+                outputBlocks[i] = getBlock(page, blocks, outputColumns[i]);
+            }
+            return new Page(batchSize, outputBlocks);
+        }
+
+        int[] outputPositions = Arrays.copyOf(positions, positionCount);
+        for (int i = 0; i < outputColumns.length; i++) {
+            int column = outputColumns[i];
+            if (delegateChannels[column] < 0) {
+                outputBlocks[i] = RunLengthEncodedBlock.create(types.get(column), prefilledValues[column], positionCount);
+                continue;
+            }
+            Block block = getBlock(page, blocks, column);
+            if (block instanceof LazyBlock && !((LazyBlock) block).isLoaded()) {
+                // keep columns which are not used by the filters lazy, they may not be needed at all
+                LazyBlock lazyBlock = (LazyBlock) block;
+                outputBlocks[i] = new LazyBlock(positionCount, lazyOutput -> lazyOutput.setBlock(lazyBlock.getLoadedBlock().getPositions(outputPositions, 0, outputPositions.length)));
+            }
+            else {
+                outputBlocks[i] = block.getPositions(outputPositions, 0, positionCount);
+            }
+        }
+        return new Page(positionCount, outputBlocks);
+    }
+
+    private Block getBlock(Page page, Block[] blocks, int column)
+    {
+        if (blocks[column] == null) {
+            int channel = delegateChannels[column];
+            if (channel < 0) {
+                blocks[column] = RunLengthEncodedBlock.create(types.get(column), prefilledValues[column], page.getPositionCount());
+            }
+            else {
+                blocks[column] = page.getBlock(channel);
+            }
+        }
+        return blocks[column];
+    }
+
+    private void closeWithSuppression(Throwable throwable)
+    {
+        requireNonNull(throwable, "throwable is null");
+        try {
+            close();
+        }
+        catch (IOException | RuntimeException e) {
+            // Self-suppression not permitted
+            if (e != throwable) {
+                throwable.addSuppressed(e);
+            }
+        }
+    }
+
+    @Override
+    public long getCompletedBytes()
+    {
+        return delegate.getCompletedBytes();
+    }
+
+    @Override
+    public long getCompletedPositions()
+    {
+        return delegate.getCompletedPositions();
+    }
+
+    @Override
+    public long getReadTimeNanos()
+    {
+        return delegate.getReadTimeNanos();
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return delegate.isFinished();
+    }
+
+    @Override
+    public long getSystemMemoryUsage()
+    {
+        return delegate.getSystemMemoryUsage();
+    }
+
+    @Override
+    public RuntimeStats getRuntimeStats()
+    {
+        return delegate.getRuntimeStats();
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        delegate.close();
+    }
+
+    private abstract static class FilterStats
+    {
+        private long inputPositions;
+        private long outputPositions;
+        private long nanos;
+
+        public void recordBatch(int inputPositions, int outputPositions, long nanos)
+        {
+            this.inputPositions += inputPositions;
+            this.outputPositions += outputPositions;
+            this.nanos += nanos;
+        }
+
+        /**
+         * Time spent per dropped position. Running the filters by increasing cost drops
+         * the rows that are going to be filtered out with the least amount of work.
+         */
+        public double getCost()
+        {
+            if (inputPositions == 0) {
+                return 0;
+            }
+            double nanosPerPosition = (double) nanos / inputPositions;
+            double dropRate = 1 - (double) outputPositions / inputPositions;
+            return nanosPerPosition / Math.max(dropRate, 0.01);
+        }
+    }
+
+    private static class ColumnFilter
+            extends FilterStats
+    {
+        private final int column;
+        private final TupleDomainFilter filter;
+
+        public ColumnFilter(int column, TupleDomainFilter filter)
+        {
+            this.column = column;
+            this.filter = requireNonNull(filter, "filter is null");
+        }
+
+        public int getColumn()
+        {
+            return column;
+        }
+
+        public TupleDomainFilter getFilter()
+        {
+            return filter;
+        }
+    }
+
+    private static class FunctionFilter
+            extends FilterStats
+    {
+        private final FilterFunction function;
+
+        public FunctionFilter(FilterFunction function)
+        {
+            this.function = requireNonNull(function, "function is null");
+        }
+
+        public FilterFunction getFunction()
+        {
+            return function;
+        }
+    }
+}
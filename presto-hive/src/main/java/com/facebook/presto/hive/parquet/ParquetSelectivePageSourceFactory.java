@@ -14,32 +14,69 @@
 package com.facebook.presto.hive.parquet;
 
 import com.facebook.presto.common.Subfield;
+import com.facebook.presto.common.predicate.BlockedBloomFilter;
+import com.facebook.presto.common.predicate.FilterFunction;
 import com.facebook.presto.common.predicate.TupleDomain;
+import com.facebook.presto.common.predicate.TupleDomainFilter;
+import com.facebook.presto.common.predicate.TupleDomainFilter.BloomFilterValues;
+import com.facebook.presto.common.type.Type;
+import com.facebook.presto.common.type.TypeManager;
+import com.facebook.presto.expressions.DefaultRowExpressionTraversalVisitor;
 import com.facebook.presto.hive.BucketAdaptation;
 import com.facebook.presto.hive.EncryptionInformation;
+import com.facebook.presto.hive.FileFormatDataSourceStats;
+import com.facebook.presto.hive.HdfsEnvironment;
 import com.facebook.presto.hive.HiveCoercer;
 import com.facebook.presto.hive.HiveColumnHandle;
 import com.facebook.presto.hive.HiveFileContext;
 import com.facebook.presto.hive.HiveFileSplit;
 import com.facebook.presto.hive.HiveSelectivePageSourceFactory;
+import com.facebook.presto.hive.ReadPrefetcherFactory;
 import com.facebook.presto.hive.metastore.Storage;
 import com.facebook.presto.spi.ConnectorPageSource;
 import com.facebook.presto.spi.ConnectorSession;
-import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.SchemaTableName;
+import com.facebook.presto.spi.function.StandardFunctionResolution;
+import com.facebook.presto.spi.relation.DeterminismEvaluator;
+import com.facebook.presto.spi.relation.InputReferenceExpression;
+import com.facebook.presto.spi.relation.PredicateCompiler;
 import com.facebook.presto.spi.relation.RowExpression;
+import com.facebook.presto.spi.relation.RowExpressionService;
+import com.facebook.presto.spi.relation.VariableReferenceExpression;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import org.apache.hadoop.conf.Configuration;
 import org.joda.time.DateTimeZone;
 
 import javax.inject.Inject;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
-import static com.facebook.presto.spi.StandardErrorCode.NOT_SUPPORTED;
+import static com.facebook.presto.common.predicate.TupleDomainFilter.IS_NOT_NULL;
+import static com.facebook.presto.common.predicate.TupleDomainFilterUtils.toFilter;
+import static com.facebook.presto.expressions.DynamicFilters.extractDynamicFilters;
+import static com.facebook.presto.expressions.LogicalRowExpressions.TRUE_CONSTANT;
+import static com.facebook.presto.expressions.LogicalRowExpressions.and;
+import static com.facebook.presto.expressions.LogicalRowExpressions.binaryExpression;
+import static com.facebook.presto.expressions.LogicalRowExpressions.extractConjuncts;
+import static com.facebook.presto.expressions.RowExpressionNodeInliner.replaceExpression;
+import static com.facebook.presto.hive.HiveColumnHandle.ColumnType.REGULAR;
+import static com.facebook.presto.hive.HiveSessionProperties.isAdaptiveFilterReorderingEnabled;
+import static com.facebook.presto.hive.HiveUtil.typedPartitionKey;
+import static com.facebook.presto.hive.parquet.ParquetPageSourceFactory.createParquetPageSource;
+import static com.facebook.presto.spi.relation.SpecialFormExpression.Form.AND;
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.Objects.requireNonNull;
 
 public class ParquetSelectivePageSourceFactory
         implements HiveSelectivePageSourceFactory
@@ -49,9 +86,31 @@ public class ParquetSelectivePageSourceFactory
             .add("parquet.hive.serde.ParquetHiveSerDe")
             .build();
 
+    private final TypeManager typeManager;
+    private final StandardFunctionResolution functionResolution;
+    private final RowExpressionService rowExpressionService;
+    private final HdfsEnvironment hdfsEnvironment;
+    private final FileFormatDataSourceStats stats;
+    private final ReadPrefetcherFactory readPrefetcherFactory;
+    private final ParquetMetadataSource parquetMetadataSource;
+
     @Inject
-    public ParquetSelectivePageSourceFactory()
+    public ParquetSelectivePageSourceFactory(
+            TypeManager typeManager,
+            StandardFunctionResolution functionResolution,
+            RowExpressionService rowExpressionService,
+            HdfsEnvironment hdfsEnvironment,
+            FileFormatDataSourceStats stats,
+            ParquetMetadataSource parquetMetadataSource,
+            ReadPrefetcherFactory readPrefetcherFactory)
     {
+        this.typeManager = requireNonNull(typeManager, "typeManager is null");
+        this.functionResolution = requireNonNull(functionResolution, "functionResolution is null");
+        this.rowExpressionService = requireNonNull(rowExpressionService, "rowExpressionService is null");
+        this.hdfsEnvironment = requireNonNull(hdfsEnvironment, "hdfsEnvironment is null");
+        this.stats = requireNonNull(stats, "stats is null");
+        this.readPrefetcherFactory = requireNonNull(readPrefetcherFactory, "readPrefetcherFactory is null");
+        this.parquetMetadataSource = requireNonNull(parquetMetadataSource, "parquetMetadataSource is null");
     }
 
     @Override
@@ -60,12 +119,14 @@ public class ParquetSelectivePageSourceFactory
             ConnectorSession session,
             HiveFileSplit fileSplit,
             Storage storage,
+            SchemaTableName tableName,
             List<HiveColumnHandle> columns,
             Map<Integer, String> prefilledValues,
             Map<Integer, HiveCoercer> coercers,
             Optional<BucketAdaptation> bucketAdaptation,
             List<Integer> outputColumns,
             TupleDomain<Subfield> domainPredicate,
+            Map<String, BlockedBloomFilter> dynamicFilterBloomFilters,
             RowExpression remainingPredicate,
             DateTimeZone hiveStorageTimeZone,
             HiveFileContext hiveFileContext,
@@ -77,6 +138,158 @@ public class ParquetSelectivePageSourceFactory
             return Optional.empty();
         }
         checkState(!appendRowNumberEnabled, "append row number is not supported for Parquet Reader");
-        throw new PrestoException(NOT_SUPPORTED, "Parquet reader doesn't support filter pushdown yet");
+        checkArgument(!domainPredicate.isNone(), "Unexpected NONE domain");
+
+        // coercions, bucket adaptation, filters on subfields and synthesized columns are handled by the batch reader and FilteringPageSource
+        if (!coercers.isEmpty() || bucketAdaptation.isPresent()) {
+            return Optional.empty();
+        }
+        if (domainPredicate.getDomains().get().keySet().stream().anyMatch(subfield -> !subfield.getPath().isEmpty())) {
+            return Optional.empty();
+        }
+        if (columns.stream().anyMatch(column -> column.getColumnType() != REGULAR && !prefilledValues.containsKey(column.getHiveColumnIndex()))) {
+            return Optional.empty();
+        }
+
+        List<Type> types = columns.stream()
+                .map(column -> typeManager.getType(column.getTypeSignature()))
+                .collect(toImmutableList());
+        Map<String, Integer> columnPositions = new HashMap<>();
+        Map<Integer, Integer> hiveColumnPositions = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            columnPositions.put(columns.get(i).getName(), i);
+            hiveColumnPositions.put(columns.get(i).getHiveColumnIndex(), i);
+        }
+
+        ImmutableList.Builder<HiveColumnHandle> readColumns = ImmutableList.builder();
+        int[] delegateChannels = new int[columns.size()];
+        Object[] typedPrefilledValues = new Object[columns.size()];
+        int channel = 0;
+        for (int i = 0; i < columns.size(); i++) {
+            HiveColumnHandle column = columns.get(i);
+            if (prefilledValues.containsKey(column.getHiveColumnIndex())) {
+                delegateChannels[i] = -1;
+                typedPrefilledValues[i] = typedPartitionKey(prefilledValues.get(column.getHiveColumnIndex()), types.get(i), column.getName(), hiveStorageTimeZone);
+            }
+            else {
+                delegateChannels[i] = channel++;
+                readColumns.add(column);
+            }
+        }
+        List<HiveColumnHandle> physicalColumns = readColumns.build();
+
+        Map<String, HiveColumnHandle> physicalColumnsByName = physicalColumns.stream()
+                .collect(toImmutableMap(HiveColumnHandle::getName, column -> column));
+        TupleDomain<HiveColumnHandle> effectivePredicate = domainPredicate.transform(subfield -> physicalColumnsByName.get(subfield.getRootName()));
+
+        Map<Integer, TupleDomainFilter> domainFilters = toTupleDomainFilters(domainPredicate, dynamicFilterBloomFilters, columnPositions);
+
+        Map<VariableReferenceExpression, InputReferenceExpression> variableToInput = columnPositions.entrySet().stream()
+                .collect(toImmutableMap(
+                        entry -> new VariableReferenceExpression(Optional.empty(), entry.getKey(), types.get(entry.getValue())),
+                        entry -> new InputReferenceExpression(Optional.empty(), entry.getValue(), types.get(entry.getValue()))));
+        List<FilterFunction> filterFunctions = toFilterFunctions(replaceExpression(remainingPredicate, variableToInput), session, rowExpressionService.getDeterminismEvaluator(), rowExpressionService.getPredicateCompiler());
+
+        List<Integer> outputPositions = outputColumns.stream()
+                .map(hiveColumnPositions::get)
+                .collect(toImmutableList());
+
+        ConnectorPageSource parquetPageSource = createParquetPageSource(
+                hdfsEnvironment,
+                session,
+                configuration,
+                fileSplit,
+                physicalColumns,
+                tableName,
+                typeManager,
+                functionResolution,
+                effectivePredicate,
+                stats,
+                readPrefetcherFactory,
+                hiveFileContext,
+                parquetMetadataSource);
+
+        return Optional.of(new ParquetSelectivePageSource(
+                parquetPageSource,
+                types,
+                delegateChannels,
+                typedPrefilledValues,
+                domainFilters,
+                filterFunctions,
+                outputPositions,
+                isAdaptiveFilterReorderingEnabled(session)));
+    }
+
+    private static Map<Integer, TupleDomainFilter> toTupleDomainFilters(TupleDomain<Subfield> domainPredicate, Map<String, BlockedBloomFilter> bloomFilters, Map<String, Integer> columnPositions)
+    {
+        Map<Integer, TupleDomainFilter> filters = new LinkedHashMap<>();
+        domainPredicate.getDomains().get().forEach((subfield, domain) -> filters.put(columnPositions.get(subfield.getRootName()), toFilter(domain)));
+
+        for (Map.Entry<String, BlockedBloomFilter> entry : bloomFilters.entrySet()) {
+            Integer position = columnPositions.get(entry.getKey());
+            if (position != null) {
+                filters.put(position, BloomFilterValues.of(filters.getOrDefault(position, IS_NOT_NULL), entry.getValue()));
+            }
+        }
+        return ImmutableMap.copyOf(filters);
+    }
+
+    /**
+     * Split filter expression into groups of conjuncts that depend on the same set of inputs,
+     * then compile each group into FilterFunction.
+     */
+    private static List<FilterFunction> toFilterFunctions(RowExpression filter, ConnectorSession session, DeterminismEvaluator determinismEvaluator, PredicateCompiler predicateCompiler)
+    {
+        if (TRUE_CONSTANT.equals(filter)) {
+            return ImmutableList.of();
+        }
+
+        // dynamic filters are applied through the domain predicate and the Bloom filters
+        filter = and(extractDynamicFilters(filter).getStaticConjuncts());
+        if (TRUE_CONSTANT.equals(filter)) {
+            return ImmutableList.of();
+        }
+
+        List<RowExpression> conjuncts = extractConjuncts(filter);
+        if (!isAdaptiveFilterReorderingEnabled(session) || conjuncts.size() == 1) {
+            return ImmutableList.of(toFilterFunction(filter, session, determinismEvaluator, predicateCompiler));
+        }
+
+        // Use LinkedHashMap to preserve user-specified order of conjuncts. This will be the initial order in which filters are applied.
+        Map<Set<Integer>, List<RowExpression>> inputsToConjuncts = new LinkedHashMap<>();
+        for (RowExpression conjunct : conjuncts) {
+            inputsToConjuncts.computeIfAbsent(extractInputs(conjunct), k -> new ArrayList<>()).add(conjunct);
+        }
+
+        return inputsToConjuncts.values().stream()
+                .map(expressions -> binaryExpression(AND, expressions))
+                .map(predicate -> toFilterFunction(predicate, session, determinismEvaluator, predicateCompiler))
+                .collect(toImmutableList());
+    }
+
+    private static FilterFunction toFilterFunction(RowExpression predicate, ConnectorSession session, DeterminismEvaluator determinismEvaluator, PredicateCompiler predicateCompiler)
+    {
+        return new FilterFunction(
+                session.getSqlFunctionProperties(),
+                determinismEvaluator.isDeterministic(predicate),
+                predicateCompiler.compilePredicate(session.getSqlFunctionProperties(), session.getSessionFunctions(), predicate).get());
+    }
+
+    private static Set<Integer> extractInputs(RowExpression expression)
+    {
+        ImmutableSet.Builder<Integer> inputs = ImmutableSet.builder();
+        expression.accept(new InputReferenceBuilderVisitor(), inputs);
+        return inputs.build();
+    }
+
+    private static class InputReferenceBuilderVisitor
+            extends DefaultRowExpressionTraversalVisitor<ImmutableSet.Builder<Integer>>
+    {
+        @Override
+        public Void visitInputReference(InputReferenceExpression input, ImmutableSet.Builder<Integer> builder)
+        {
+            builder.add(input.getField());
+            return null;
+        }
     }
 }
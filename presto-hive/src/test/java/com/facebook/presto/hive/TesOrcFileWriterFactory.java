@@ -14,6 +14,7 @@
 package com.facebook.presto.hive;
 
 import com.facebook.presto.cache.CacheConfig;
+import com.facebook.presto.orc.OrcEncoding;
 import com.facebook.presto.orc.OrcWriterOptions;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.testing.TestingConnectorSession;
@@ -25,11 +26,16 @@ import java.util.Properties;
 import static com.facebook.presto.hive.HiveTestUtils.HIVE_CLIENT_CONFIG;
 import static com.facebook.presto.hive.HiveTestUtils.METASTORE_CLIENT_CONFIG;
 import static com.facebook.presto.hive.HiveTestUtils.getDefaultOrcFileWriterFactory;
+import static com.facebook.presto.hive.OrcFileWriterFactory.ORC_BLOOM_FILTER_COLUMNS_KEY;
+import static com.facebook.presto.hive.OrcFileWriterFactory.ORC_BLOOM_FILTER_FPP_KEY;
 import static com.facebook.presto.hive.OrcFileWriterFactory.ORC_FLAT_MAP_COLUMN_NUMBERS_KEY;
 import static com.facebook.presto.hive.OrcFileWriterFactory.ORC_FLAT_MAP_KEY_LIMIT_KEY;
 import static com.facebook.presto.hive.OrcFileWriterFactory.ORC_FLAT_MAP_WRITER_ENABLED_KEY;
 import static com.facebook.presto.hive.OrcFileWriterFactory.ORC_MAP_STATISTICS_KEY;
+import static com.facebook.presto.orc.OrcEncoding.DWRF;
+import static com.facebook.presto.orc.OrcEncoding.ORC;
 import static com.facebook.presto.orc.OrcWriterOptions.DEFAULT_MAX_FLATTENED_MAP_KEY_COUNT;
+import static org.apache.hadoop.hive.metastore.api.hive_metastoreConstants.META_TABLE_COLUMNS;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
@@ -88,7 +94,28 @@ public class TesOrcFileWriterFactory
         assertTrue(orcWriterOptions.isMapStatisticsEnabled());
     }
 
+    @Test
+    public void testBloomFilterColumns()
+    {
+        Properties serDe = new Properties();
+        serDe.setProperty(META_TABLE_COLUMNS, "a,b,c");
+        serDe.setProperty(ORC_BLOOM_FILTER_COLUMNS_KEY, "c,A");
+        serDe.setProperty(ORC_BLOOM_FILTER_FPP_KEY, "0.01");
+
+        OrcWriterOptions orcWriterOptions = getOrcWriterOptions(serDe);
+        assertEquals(orcWriterOptions.getBloomFilterColumns(), ImmutableSet.of(0, 2));
+        assertEquals(orcWriterOptions.getBloomFilterFpp(), 0.01);
+
+        orcWriterOptions = getOrcWriterOptions(serDe, DWRF);
+        assertEquals(orcWriterOptions.getBloomFilterColumns(), ImmutableSet.of());
+    }
+
     private static OrcWriterOptions getOrcWriterOptions(Properties serDe)
+    {
+        return getOrcWriterOptions(serDe, ORC);
+    }
+
+    private static OrcWriterOptions getOrcWriterOptions(Properties serDe, OrcEncoding orcEncoding)
     {
         OrcFileWriterConfig orcFileWriterConfig = new OrcFileWriterConfig();
         orcFileWriterConfig.setFlatMapWriterEnabled(true);
@@ -99,6 +126,6 @@ public class TesOrcFileWriterFactory
                 new ParquetFileWriterConfig(),
                 new CacheConfig());
         ConnectorSession session = new TestingConnectorSession(sessionProperties.getSessionProperties());
-        return orcFileWriterFactory.buildOrcWriterOptions(session, serDe);
+        return orcFileWriterFactory.buildOrcWriterOptions(session, serDe, orcEncoding);
     }
 }
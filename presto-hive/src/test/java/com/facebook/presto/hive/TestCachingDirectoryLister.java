@@ -0,0 +1,141 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.facebook.presto.hive.metastore.Column;
+import com.facebook.presto.hive.metastore.StorageFormat;
+import com.facebook.presto.hive.metastore.Table;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.Duration;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.HadoopExtendedFileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.hive.HiveTestUtils.SESSION;
+import static com.facebook.presto.hive.HiveType.HIVE_STRING;
+import static com.facebook.presto.hive.NestedDirectoryPolicy.IGNORED;
+import static com.facebook.presto.hive.metastore.PrestoTableType.MANAGED_TABLE;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.testng.Assert.assertEquals;
+
+@Test(singleThreaded = true)
+public class TestCachingDirectoryLister
+{
+    private static final Table TABLE = Table.builder()
+            .setDatabaseName("test_dbname")
+            .setOwner("testOwner")
+            .setTableName("test_table")
+            .setTableType(MANAGED_TABLE)
+            .setDataColumns(ImmutableList.of(new Column("col1", HIVE_STRING, Optional.empty(), Optional.empty())))
+            .setParameters(ImmutableMap.of())
+            .withStorage(storage -> storage
+                    .setStorageFormat(StorageFormat.create(
+                            "com.facebook.hive.orc.OrcSerde",
+                            "org.apache.hadoop.hive.ql.io.RCFileInputFormat",
+                            "org.apache.hadoop.hive.ql.io.RCFileInputFormat"))
+                    .setLocation("file:///test_dbname/test_table"))
+            .build();
+    private static final HiveDirectoryContext DIRECTORY_CONTEXT = new HiveDirectoryContext(IGNORED, true, SESSION.getIdentity(), ImmutableMap.of());
+
+    private File directory;
+    private HadoopExtendedFileSystem fileSystem;
+
+    @BeforeMethod
+    public void setUp()
+            throws IOException
+    {
+        directory = Files.createTempDirectory("lister").toFile();
+        RawLocalFileSystem localFileSystem = new RawLocalFileSystem();
+        localFileSystem.initialize(directory.toURI(), new Configuration(false));
+        fileSystem = new HadoopExtendedFileSystem(localFileSystem);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown()
+            throws IOException
+    {
+        fileSystem.close();
+        deleteRecursively(directory.toPath(), ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testListingWithoutValidationIsNotRefreshed()
+            throws IOException
+    {
+        CachingDirectoryLister lister = new CachingDirectoryLister(new HadoopDirectoryLister(), new Duration(5, MINUTES), 1000, ImmutableList.of("*"), false);
+        Path path = new Path(directory.toURI());
+
+        addFile("file1", 1_000);
+        assertEquals(list(lister, path), ImmutableList.of("file1"));
+
+        addFile("file2", 2_000);
+        assertEquals(list(lister, path), ImmutableList.of("file1"));
+        assertEquals(lister.getHitCount(), 1);
+        assertEquals(lister.getStaleCount(), 0);
+    }
+
+    @Test
+    public void testListingIsRefreshedWhenDirectoryChanges()
+            throws IOException
+    {
+        CachingDirectoryLister lister = new CachingDirectoryLister(new HadoopDirectoryLister(), new Duration(5, MINUTES), 1000, ImmutableList.of("*"), true);
+        Path path = new Path(directory.toURI());
+
+        addFile("file1", 1_000);
+        assertEquals(list(lister, path), ImmutableList.of("file1"));
+        assertEquals(list(lister, path), ImmutableList.of("file1"));
+        assertEquals(lister.getHitCount(), 1);
+
+        addFile("file2", 2_000);
+        assertEquals(list(lister, path), ImmutableList.of("file1", "file2"));
+        assertEquals(lister.getStaleCount(), 1);
+
+        // the refreshed listing is cached again
+        assertEquals(list(lister, path), ImmutableList.of("file1", "file2"));
+        assertEquals(lister.getHitCount(), 3);
+        assertEquals(lister.getStaleCount(), 1);
+    }
+
+    private void addFile(String name, long directoryModificationTime)
+            throws IOException
+    {
+        Files.write(new File(directory, name).toPath(), new byte[] {1});
+        // set the directory modification time explicitly, as the local file system may only track whole seconds
+        fileSystem.setTimes(new Path(directory.toURI()), directoryModificationTime, -1);
+    }
+
+    private List<String> list(CachingDirectoryLister lister, Path path)
+    {
+        ImmutableList.Builder<HiveFileInfo> files = ImmutableList.builder();
+        lister.list(fileSystem, TABLE, path, Optional.empty(), new NamenodeStats(), DIRECTORY_CONTEXT).forEachRemaining(files::add);
+        return files.build().stream()
+                .map(file -> file.getPath().getName())
+                .sorted()
+                .collect(toImmutableList());
+    }
+}
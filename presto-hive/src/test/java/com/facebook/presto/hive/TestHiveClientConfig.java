@@ -141,6 +141,7 @@ public class TestHiveClientConfig
                 .setFileStatusCacheExpireAfterWrite(new Duration(0, TimeUnit.SECONDS))
                 .setFileStatusCacheMaxSize(0)
                 .setFileStatusCacheTables("")
+                .setFileStatusCacheValidationEnabled(false)
                 .setPageFileStripeMaxSize(new DataSize(24, Unit.MEGABYTE))
                 .setParquetBatchReaderVerificationEnabled(false)
                 .setParquetBatchReadOptimizationEnabled(false)
@@ -160,6 +161,7 @@ public class TestHiveClientConfig
                 .setMaterializedViewMissingPartitionsThreshold(100)
                 .setLooseMemoryAccountingEnabled(false)
                 .setReadColumnIndexFilter(false)
+                .setParquetBloomFilterEnabled(false)
                 .setSizeBasedSplitWeightsEnabled(true)
                 .setMinimumAssignedSplitWeight(0.05)
                 .setUserDefinedTypeEncodingEnabled(false)
@@ -172,7 +174,11 @@ public class TestHiveClientConfig
                 .setCopyOnFirstWriteConfigurationEnabled(true)
                 .setPartitionFilteringFromMetastoreEnabled(true)
                 .setParallelParsingOfPartitionValuesEnabled(false)
-                .setMaxParallelParsingConcurrency(100));
+                .setMaxParallelParsingConcurrency(100)
+                .setReadPrefetchEnabled(false)
+                .setReadPrefetchMaxBufferedSize(new DataSize(64, Unit.MEGABYTE))
+                .setReadPrefetchMaxRequestSize(new DataSize(8, Unit.MEGABYTE))
+                .setPartitionMetadataPrefetchEnabled(false));
     }
 
     @Test
@@ -272,6 +278,7 @@ public class TestHiveClientConfig
                 .put("hive.file-status-cache-tables", "foo.bar1, foo.bar2")
                 .put("hive.file-status-cache-size", "1000")
                 .put("hive.file-status-cache-expire-time", "30m")
+                .put("hive.file-status-cache-validation-enabled", "true")
                 .put("hive.pagefile.writer.stripe-max-size", "1kB")
                 .put("hive.parquet-batch-read-optimization-enabled", "true")
                 .put("hive.enable-parquet-batch-reader-verification", "true")
@@ -291,6 +298,7 @@ public class TestHiveClientConfig
                 .put("hive.verbose-runtime-stats-enabled", "true")
                 .put("hive.materialized-view-missing-partitions-threshold", "50")
                 .put("hive.parquet-column-index-filter-enabled", "true")
+                .put("hive.parquet-bloom-filter-enabled", "true")
                 .put("hive.size-based-split-weights-enabled", "false")
                 .put("hive.user-defined-type-encoding-enabled", "true")
                 .put("hive.minimum-assigned-split-weight", "1.0")
@@ -304,6 +312,10 @@ public class TestHiveClientConfig
                 .put("hive.partition-filtering-from-metastore-enabled", "false")
                 .put("hive.parallel-parsing-of-partition-values-enabled", "true")
                 .put("hive.max-parallel-parsing-concurrency", "200")
+                .put("hive.read-prefetch.enabled", "true")
+                .put("hive.read-prefetch.max-buffered-size", "128MB")
+                .put("hive.read-prefetch.max-request-size", "4MB")
+                .put("hive.partition-metadata-prefetch-enabled", "true")
                 .build();
 
         HiveClientConfig expected = new HiveClientConfig()
@@ -399,6 +411,7 @@ public class TestHiveClientConfig
                 .setFileStatusCacheTables("foo.bar1,foo.bar2")
                 .setFileStatusCacheMaxSize(1000)
                 .setFileStatusCacheExpireAfterWrite(new Duration(30, TimeUnit.MINUTES))
+                .setFileStatusCacheValidationEnabled(true)
                 .setPageFileStripeMaxSize(new DataSize(1, Unit.KILOBYTE))
                 .setParquetBatchReaderVerificationEnabled(true)
                 .setParquetBatchReadOptimizationEnabled(true)
@@ -418,6 +431,7 @@ public class TestHiveClientConfig
                 .setMaterializedViewMissingPartitionsThreshold(50)
                 .setLooseMemoryAccountingEnabled(true)
                 .setReadColumnIndexFilter(true)
+                .setParquetBloomFilterEnabled(true)
                 .setSizeBasedSplitWeightsEnabled(false)
                 .setMinimumAssignedSplitWeight(1.0)
                 .setUserDefinedTypeEncodingEnabled(true)
@@ -430,7 +444,11 @@ public class TestHiveClientConfig
                 .setCopyOnFirstWriteConfigurationEnabled(false)
                 .setPartitionFilteringFromMetastoreEnabled(false)
                 .setParallelParsingOfPartitionValuesEnabled(true)
-                .setMaxParallelParsingConcurrency(200);
+                .setMaxParallelParsingConcurrency(200)
+                .setReadPrefetchEnabled(true)
+                .setReadPrefetchMaxBufferedSize(new DataSize(128, Unit.MEGABYTE))
+                .setReadPrefetchMaxRequestSize(new DataSize(4, Unit.MEGABYTE))
+                .setPartitionMetadataPrefetchEnabled(true);
 
         ConfigAssertions.assertFullMapping(properties, expected);
     }
@@ -85,10 +85,12 @@ import static com.facebook.presto.SystemSessionProperties.EXCHANGE_MATERIALIZATI
 import static com.facebook.presto.SystemSessionProperties.GROUPED_EXECUTION;
 import static com.facebook.presto.SystemSessionProperties.INLINE_SQL_FUNCTIONS;
 import static com.facebook.presto.SystemSessionProperties.JOIN_DISTRIBUTION_TYPE;
+import static com.facebook.presto.SystemSessionProperties.JOIN_MAX_BROADCAST_TABLE_SIZE;
 import static com.facebook.presto.SystemSessionProperties.JOIN_REORDERING_STRATEGY;
 import static com.facebook.presto.SystemSessionProperties.LOG_INVOKED_FUNCTION_NAMES_ENABLED;
 import static com.facebook.presto.SystemSessionProperties.PARTIAL_MERGE_PUSHDOWN_STRATEGY;
 import static com.facebook.presto.SystemSessionProperties.PARTITIONING_PROVIDER_CATALOG;
+import static com.facebook.presto.SystemSessionProperties.RUNTIME_OPTIMIZER_ENABLED;
 import static com.facebook.presto.common.predicate.Marker.Bound.EXACTLY;
 import static com.facebook.presto.common.type.BigintType.BIGINT;
 import static com.facebook.presto.common.type.BooleanType.BOOLEAN;
@@ -3546,6 +3548,33 @@ public class TestHiveIntegrationSmokeTest
         assertQuery(bucketingExecutionDisabled, "SELECT orderkey, COUNT(*) lines FROM lineitem GROUP BY orderkey", assertRemoteMaterializedExchangesCount(1));
     }
 
+    @Test
+    public void testRuntimeJoinDistributionSelection()
+    {
+        // the join distribution is only switched at runtime for ungrouped stages
+        Session runtimeOptimizerSession = Session.builder(materializeExchangesSession)
+                .setSystemProperty(GROUPED_EXECUTION, "false")
+                .setSystemProperty(RUNTIME_OPTIMIZER_ENABLED, "true")
+                .setSystemProperty(JOIN_DISTRIBUTION_TYPE, "AUTOMATIC")
+                .build();
+
+        // whichever distribution the joins end up with at runtime, the results must not change
+        for (String maxBroadcastTableSize : ImmutableList.of("1B", "1GB")) {
+            Session session = Session.builder(runtimeOptimizerSession)
+                    .setSystemProperty(JOIN_MAX_BROADCAST_TABLE_SIZE, maxBroadcastTableSize)
+                    .build();
+            assertQuery(session, "SELECT * FROM lineitem JOIN orders ON lineitem.orderkey = orders.orderkey");
+            assertQuery(session, "SELECT * FROM lineitem LEFT JOIN (SELECT * FROM orders WHERE orderkey % 7 = 0) o ON lineitem.orderkey = o.orderkey");
+            assertQuery(session, "SELECT * FROM (SELECT * FROM orders WHERE orderkey % 7 = 0) o RIGHT JOIN lineitem ON lineitem.orderkey = o.orderkey");
+            assertQuery(
+                    session,
+                    "SELECT l.orderkey, l.linenumber, o.totalprice FROM lineitem l JOIN (SELECT orderkey, max(totalprice) totalprice FROM orders GROUP BY orderkey) o ON l.orderkey = o.orderkey");
+            assertQuery(
+                    session,
+                    "SELECT c.custkey, count(*) FROM customer c JOIN orders o ON c.custkey = o.custkey GROUP BY c.custkey");
+        }
+    }
+
     private void testMaterializedPartitioning(Session materializeExchangesSession)
     {
         // Simple smoke tests for materialized partitioning
@@ -5577,7 +5606,7 @@ public class TestHiveIntegrationSmokeTest
     }
 
     @Test
-    public void testParquetSelectivePageSourceFails()
+    public void testParquetSelectivePageSource()
     {
         assertUpdate("CREATE TABLE test_parquet_filter_pushdoown (a BIGINT, b BOOLEAN) WITH (format = 'parquet')");
         assertUpdate(getSession(), "INSERT INTO test_parquet_filter_pushdoown VALUES (1, true)", 1);
@@ -5602,9 +5631,13 @@ public class TestHiveIntegrationSmokeTest
                 .setCatalogSessionProperty("hive", "pushdown_filter_enabled", "true")
                 .setCatalogSessionProperty("hive", "parquet_pushdown_filter_enabled", "true")
                 .build();
-        assertQueryFails(parquetFilterPushdownSession, "SELECT a FROM test_parquet_filter_pushdoown", "Parquet reader doesn't support filter pushdown yet");
-        assertQueryFails(parquetFilterPushdownSession, "SELECT a FROM test_parquet_filter_pushdoown WHERE b = true", "Parquet reader doesn't support filter pushdown yet");
-        assertQueryFails(parquetFilterPushdownSession, "SELECT a FROM test_parquet_filter_pushdoown WHERE b = false", "Parquet reader doesn't support filter pushdown yet");
+        assertQuery(parquetFilterPushdownSession, "SELECT a FROM test_parquet_filter_pushdoown", "select 1");
+        assertQuery(parquetFilterPushdownSession, "SELECT a FROM test_parquet_filter_pushdoown WHERE b = true", "select 1");
+        assertQueryReturnsEmptyResult(parquetFilterPushdownSession, "SELECT a FROM test_parquet_filter_pushdoown WHERE b = false");
+        assertQuery(parquetFilterPushdownSession, "SELECT b FROM test_parquet_filter_pushdoown WHERE a + 1 = 2", "select true");
+        assertQueryReturnsEmptyResult(parquetFilterPushdownSession, "SELECT b FROM test_parquet_filter_pushdoown WHERE a + 1 = 3");
+
+        assertUpdate("DROP TABLE test_parquet_filter_pushdoown");
     }
 
     private void testPageFileCompression(String compression)
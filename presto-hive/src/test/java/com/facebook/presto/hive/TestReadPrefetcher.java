@@ -0,0 +1,156 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.facebook.presto.hive.ReadPrefetcher.Range;
+import com.facebook.presto.memory.context.AggregatedMemoryContext;
+import com.google.common.collect.ImmutableList;
+import io.airlift.units.DataSize;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+
+import static com.facebook.airlift.concurrent.Threads.daemonThreadsNamed;
+import static com.facebook.presto.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestReadPrefetcher
+{
+    private static final int FILE_SIZE = 64 * 1024;
+
+    private File file;
+    private byte[] data;
+    private RawLocalFileSystem fileSystem;
+    private ExecutorService executor;
+
+    @BeforeClass
+    public void setUp()
+            throws IOException
+    {
+        file = File.createTempFile("prefetch", ".bin");
+        data = new byte[FILE_SIZE];
+        new Random(42).nextBytes(data);
+        Files.write(file.toPath(), data);
+
+        fileSystem = new RawLocalFileSystem();
+        fileSystem.initialize(file.toURI(), new Configuration(false));
+
+        executor = newCachedThreadPool(daemonThreadsNamed("test-read-prefetch-%s"));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+            throws IOException
+    {
+        executor.shutdownNow();
+        fileSystem.close();
+        file.delete();
+    }
+
+    @Test
+    public void testReadPrefetchedRanges()
+            throws IOException
+    {
+        FileFormatDataSourceStats stats = new FileFormatDataSourceStats();
+        try (FSDataInputStream inputStream = fileSystem.open(new Path(file.toURI()))) {
+            ReadPrefetcher prefetcher = createPrefetcher(inputStream, new DataSize(FILE_SIZE, BYTE), new DataSize(1000, BYTE), newSimpleAggregatedMemoryContext(), stats);
+            prefetcher.prefetch(ImmutableList.of(new Range(10_000, 5_000), new Range(100, 2_000)));
+
+            // spans several requests of the same range
+            assertRead(prefetcher, 10_500, 3_000);
+            assertRead(prefetcher, 100, 2_000);
+            // the end of the range is not prefetched and is read directly
+            assertRead(prefetcher, 14_000, 2_000);
+            assertFalse(prefetcher.read(20_000, new byte[10], 0, 10));
+
+            // the ranges are close enough to be coalesced
+            assertRead(prefetcher, 100, 14_900);
+            assertEquals(stats.getPrefetchedBytes().getTotalCount(), 14_900);
+            prefetcher.close();
+        }
+    }
+
+    @Test
+    public void testCoalesceNearbyRanges()
+            throws IOException
+    {
+        try (FSDataInputStream inputStream = fileSystem.open(new Path(file.toURI()))) {
+            ReadPrefetcher prefetcher = createPrefetcher(inputStream, new DataSize(FILE_SIZE, BYTE), new DataSize(FILE_SIZE, BYTE), newSimpleAggregatedMemoryContext(), new FileFormatDataSourceStats());
+            prefetcher.prefetch(ImmutableList.of(new Range(200, 100), new Range(0, 100)));
+
+            // the gap between the ranges is read as well
+            assertRead(prefetcher, 0, 300);
+            assertFalse(prefetcher.read(300, new byte[10], 0, 10));
+            prefetcher.close();
+        }
+    }
+
+    @Test
+    public void testMaxBufferedSize()
+            throws IOException
+    {
+        try (FSDataInputStream inputStream = fileSystem.open(new Path(file.toURI()))) {
+            AggregatedMemoryContext memoryContext = newSimpleAggregatedMemoryContext();
+            ReadPrefetcher prefetcher = createPrefetcher(inputStream, new DataSize(3_000, BYTE), new DataSize(1_000, BYTE), memoryContext, new FileFormatDataSourceStats());
+            prefetcher.prefetch(ImmutableList.of(new Range(0, 2_000)));
+            assertEquals(memoryContext.getBytes(), 2_000);
+            prefetcher.prefetch(ImmutableList.of(new Range(30_000, 2_000)));
+            assertEquals(memoryContext.getBytes(), 3_000);
+
+            // both generations are kept, but the second one only partially fits
+            assertRead(prefetcher, 0, 2_000);
+            assertRead(prefetcher, 30_000, 1_000);
+            assertFalse(prefetcher.read(31_000, new byte[10], 0, 10));
+
+            // the oldest generation is dropped
+            prefetcher.prefetch(ImmutableList.of(new Range(40_000, 1_000)));
+            assertEquals(memoryContext.getBytes(), 2_000);
+            assertFalse(prefetcher.read(0, new byte[10], 0, 10));
+            assertRead(prefetcher, 30_000, 1_000);
+            assertRead(prefetcher, 40_000, 1_000);
+
+            // the buffers are released when the reader is closed
+            prefetcher.close();
+            assertEquals(memoryContext.getBytes(), 0);
+        }
+    }
+
+    private ReadPrefetcher createPrefetcher(FSDataInputStream inputStream, DataSize maxBufferedSize, DataSize maxRequestSize, AggregatedMemoryContext memoryContext, FileFormatDataSourceStats stats)
+    {
+        return new ReadPrefetcher(inputStream, maxBufferedSize, maxRequestSize, executor, memoryContext.newLocalMemoryContext(ReadPrefetcher.class.getSimpleName()), stats);
+    }
+
+    private void assertRead(ReadPrefetcher prefetcher, int position, int length)
+            throws IOException
+    {
+        byte[] buffer = new byte[length + 2];
+        assertTrue(prefetcher.read(position, buffer, 1, length));
+        assertEquals(Arrays.copyOfRange(buffer, 1, length + 1), Arrays.copyOfRange(data, position, position + length));
+    }
+}
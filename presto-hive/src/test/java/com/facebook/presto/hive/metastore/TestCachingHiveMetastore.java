@@ -58,6 +58,7 @@ import static com.facebook.presto.hive.metastore.thrift.MockHiveMetastoreClient.
 import static com.facebook.presto.hive.metastore.thrift.MockHiveMetastoreClient.TEST_TABLE;
 import static com.facebook.presto.hive.metastore.thrift.MockHiveMetastoreClient.TEST_TABLE_WITH_CONSTRAINTS;
 import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.function.UnaryOperator.identity;
 import static org.testng.Assert.assertEquals;
@@ -396,6 +397,49 @@ public class TestCachingHiveMetastore
         assertEquals(mockClient.getAccessCount(), 4);
     }
 
+    @Test
+    public void testPrefetchPartitions()
+    {
+        MockHiveMetastoreClient mockClient = new MockHiveMetastoreClient();
+        MockHiveCluster mockHiveCluster = new MockHiveCluster(mockClient);
+        MetastoreClientConfig metastoreClientConfig = new MetastoreClientConfig();
+        ThriftHiveMetastore thriftHiveMetastore = new ThriftHiveMetastore(mockHiveCluster, metastoreClientConfig, HDFS_ENVIRONMENT);
+        // a direct executor makes the background prefetch complete before prefetchPartitions returns
+        CachingHiveMetastore prefetchingMetastore = new CachingHiveMetastore(
+                new BridgingHiveMetastore(thriftHiveMetastore, new HivePartitionMutator()),
+                newDirectExecutorService(),
+                false,
+                new Duration(5, TimeUnit.MINUTES),
+                new Duration(1, TimeUnit.MINUTES),
+                1000,
+                false,
+                MetastoreCacheScope.ALL,
+                0.0,
+                metastoreClientConfig.getPartitionCacheColumnCountLimit(),
+                NOOP_METASTORE_CACHE_STATS);
+
+        prefetchingMetastore.prefetchPartitions(TEST_METASTORE_CONTEXT, TEST_DATABASE, TEST_TABLE, ImmutableList.of(TEST_PARTITION1, TEST_PARTITION2));
+        int accessCount = mockClient.getAccessCount();
+        assertTrue(accessCount > 0);
+
+        // Both partitions are already cached, so reading them should not hit the client
+        assertEquals(prefetchingMetastore.getPartitionsByNames(TEST_METASTORE_CONTEXT, TEST_DATABASE, TEST_TABLE, ImmutableList.of(TEST_PARTITION1, TEST_PARTITION2)).size(), 2);
+        assertEquals(mockClient.getAccessCount(), accessCount);
+
+        // Prefetching cached partitions again is a no-op
+        prefetchingMetastore.prefetchPartitions(TEST_METASTORE_CONTEXT, TEST_DATABASE, TEST_TABLE, ImmutableList.of(TEST_PARTITION1, TEST_PARTITION2));
+        assertEquals(mockClient.getAccessCount(), accessCount);
+
+        // A memoizing metastore leaves the bulk load to the metastore it wraps
+        CachingHiveMetastore memoizingMetastore = CachingHiveMetastore.memoizeMetastore(prefetchingMetastore, false, 1000, metastoreClientConfig.getPartitionCacheColumnCountLimit());
+        prefetchingMetastore.flushCache();
+        memoizingMetastore.prefetchPartitions(TEST_METASTORE_CONTEXT, TEST_DATABASE, TEST_TABLE, ImmutableList.of(TEST_PARTITION1));
+        int memoizedAccessCount = mockClient.getAccessCount();
+        assertTrue(memoizedAccessCount > accessCount);
+        assertEquals(prefetchingMetastore.getPartitionsByNames(TEST_METASTORE_CONTEXT, TEST_DATABASE, TEST_TABLE, ImmutableList.of(TEST_PARTITION1)).size(), 1);
+        assertEquals(mockClient.getAccessCount(), memoizedAccessCount);
+    }
+
     @Test
     public void testListRoles()
             throws Exception
@@ -0,0 +1,451 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.parquet;
+
+import com.facebook.presto.cache.CacheConfig;
+import com.facebook.presto.common.Page;
+import com.facebook.presto.common.Subfield;
+import com.facebook.presto.common.block.Block;
+import com.facebook.presto.common.block.BlockBuilder;
+import com.facebook.presto.common.block.LazyBlock;
+import com.facebook.presto.common.block.RunLengthEncodedBlock;
+import com.facebook.presto.common.predicate.Domain;
+import com.facebook.presto.common.predicate.TupleDomain;
+import com.facebook.presto.common.predicate.TupleDomainFilter;
+import com.facebook.presto.common.predicate.TupleDomainFilter.BigintRange;
+import com.facebook.presto.common.type.Type;
+import com.facebook.presto.hive.FileFormatDataSourceStats;
+import com.facebook.presto.hive.HiveClientConfig;
+import com.facebook.presto.hive.HiveColumnHandle;
+import com.facebook.presto.hive.HiveFileContext;
+import com.facebook.presto.hive.HiveFileSplit;
+import com.facebook.presto.hive.HiveSessionProperties;
+import com.facebook.presto.hive.HiveType;
+import com.facebook.presto.hive.OrcFileWriterConfig;
+import com.facebook.presto.hive.ParquetFileWriterConfig;
+import com.facebook.presto.hive.metastore.Storage;
+import com.facebook.presto.hive.metastore.StorageFormat;
+import com.facebook.presto.parquet.cache.MetadataReader;
+import com.facebook.presto.spi.ConnectorPageSource;
+import com.facebook.presto.spi.ConnectorSession;
+import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.SchemaTableName;
+import com.facebook.presto.testing.TestingConnectorSession;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.schema.MessageType;
+import org.joda.time.DateTimeZone;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.VarcharType.VARCHAR;
+import static com.facebook.presto.expressions.LogicalRowExpressions.TRUE_CONSTANT;
+import static com.facebook.presto.hive.BaseHiveColumnHandle.ColumnType.REGULAR;
+import static com.facebook.presto.hive.CacheQuota.NO_CACHE_CONSTRAINTS;
+import static com.facebook.presto.hive.HiveStorageFormat.PARQUET;
+import static com.facebook.presto.hive.HiveTestUtils.FUNCTION_AND_TYPE_MANAGER;
+import static com.facebook.presto.hive.HiveTestUtils.FUNCTION_RESOLUTION;
+import static com.facebook.presto.hive.HiveTestUtils.HDFS_ENVIRONMENT;
+import static com.facebook.presto.hive.HiveTestUtils.READ_PREFETCHER_FACTORY;
+import static com.facebook.presto.hive.HiveTestUtils.ROW_EXPRESSION_SERVICE;
+import static com.facebook.presto.hive.HiveType.HIVE_LONG;
+import static com.facebook.presto.hive.HiveType.HIVE_STRING;
+import static com.google.common.io.Files.createTempDir;
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static org.apache.parquet.schema.MessageTypeParser.parseMessageType;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class TestParquetSelectivePageSource
+{
+    private static final int POSITIONS = 10;
+    private static final BigintRange ALL_VALUES = BigintRange.of(Long.MIN_VALUE, Long.MAX_VALUE, false);
+    private static final BigintRange NO_VALUES = BigintRange.of(-1, -1, false);
+    private static final SchemaTableName TABLE_NAME = new SchemaTableName("test_schema", "test_table");
+
+    private File temporaryDirectory;
+    private File parquetFile;
+
+    @BeforeClass
+    public void setUp()
+            throws IOException
+    {
+        temporaryDirectory = createTempDir();
+        parquetFile = new File(temporaryDirectory, "bloom_filter.parquet");
+
+        // a single row group holding the even numbers from 0 to 198 with a Bloom filter on the column,
+        // without dictionary encoding so that the row group cannot be pruned with the dictionary
+        MessageType schema = parseMessageType("message test { optional int64 c; }");
+        SimpleGroupFactory groupFactory = new SimpleGroupFactory(schema);
+        try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(new Path(parquetFile.toURI()))
+                .withType(schema)
+                .withConf(new Configuration(false))
+                .withDictionaryEncoding(false)
+                .withBloomFilterEnabled("c", true)
+                .build()) {
+            for (long value = 0; value < 200; value += 2) {
+                writer.write(groupFactory.newGroup().append("c", value));
+            }
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+            throws IOException
+    {
+        deleteRecursively(temporaryDirectory.toPath(), ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testAdaptiveFilterReordering()
+    {
+        // the first filter keeps every row and is slow, the second one drops every row
+        AtomicInteger slowColumnLoads = new AtomicInteger();
+        assertEquals(readPositionCount(createFilterReorderingPageSource(slowColumnLoads, true)), 0);
+        // the second filter runs first after the first batch, so the slow column is not loaded anymore
+        assertEquals(slowColumnLoads.get(), 1);
+
+        slowColumnLoads.set(0);
+        assertEquals(readPositionCount(createFilterReorderingPageSource(slowColumnLoads, false)), 0);
+        assertEquals(slowColumnLoads.get(), 3);
+    }
+
+    private static ConnectorPageSource createFilterReorderingPageSource(AtomicInteger slowColumnLoads, boolean adaptiveFilterReordering)
+    {
+        ImmutableList.Builder<Page> pages = ImmutableList.builder();
+        for (int i = 0; i < 3; i++) {
+            pages.add(new Page(
+                    lazyBlock(createSequenceBlock(0), slowColumnLoads, 10),
+                    lazyBlock(createSequenceBlock(0), new AtomicInteger(), 0)));
+        }
+        return new ParquetSelectivePageSource(
+                new LazyPagesPageSource(pages.build()),
+                ImmutableList.of(BIGINT, BIGINT),
+                new int[] {0, 1},
+                new Object[2],
+                ImmutableMap.of(0, ALL_VALUES, 1, NO_VALUES),
+                ImmutableList.of(),
+                ImmutableList.of(0, 1),
+                adaptiveFilterReordering);
+    }
+
+    @Test
+    public void testPrefilledColumns()
+    {
+        AtomicInteger loads = new AtomicInteger();
+
+        // the prefilled column is filtered and returned as a run-length encoded block
+        Page page = createPrefilledPageSource(loads, ImmutableMap.of(0, BigintRange.of(7, 7, false), 1, BigintRange.of(2, 5, false))).getNextPage();
+        assertEquals(page.getPositionCount(), 4);
+        assertTrue(page.getBlock(0) instanceof RunLengthEncodedBlock);
+        assertEquals(page.getBlock(0).getPositionCount(), 4);
+        assertEquals(BIGINT.getLong(page.getBlock(0), 0), 7);
+        assertBlockValues(page.getBlock(1), 2, 3, 4, 5);
+
+        // every row passes
+        page = createPrefilledPageSource(loads, ImmutableMap.of()).getNextPage();
+        assertEquals(page.getPositionCount(), POSITIONS);
+        assertTrue(page.getBlock(0) instanceof RunLengthEncodedBlock);
+        assertEquals(page.getBlock(0).getPositionCount(), POSITIONS);
+        assertEquals(BIGINT.getLong(page.getBlock(0), 0), 7);
+
+        // the filter on the prefilled column drops the batch before the regular column is loaded
+        loads.set(0);
+        page = createPrefilledPageSource(loads, ImmutableMap.of(0, BigintRange.of(8, 8, false), 1, ALL_VALUES)).getNextPage();
+        assertEquals(page.getPositionCount(), 0);
+        assertEquals(loads.get(), 0);
+    }
+
+    private static ConnectorPageSource createPrefilledPageSource(AtomicInteger loads, Map<Integer, TupleDomainFilter> domainFilters)
+    {
+        return new ParquetSelectivePageSource(
+                new LazyPagesPageSource(ImmutableList.of(new Page(lazyBlock(createSequenceBlock(0), loads, 0)))),
+                ImmutableList.of(BIGINT, BIGINT),
+                new int[] {-1, 0},
+                new Object[] {7L, null},
+                domainFilters,
+                ImmutableList.of(),
+                ImmutableList.of(0, 1),
+                false);
+    }
+
+    @Test
+    public void testLazyOutputColumns()
+    {
+        AtomicInteger filterColumnLoads = new AtomicInteger();
+        AtomicInteger outputColumnLoads = new AtomicInteger();
+
+        // the output column is not used by the filter and stays lazy
+        Page page = createLazyOutputPageSource(filterColumnLoads, outputColumnLoads, BigintRange.of(3, 5, false)).getNextPage();
+        assertEquals(page.getPositionCount(), 3);
+        assertEquals(filterColumnLoads.get(), 1);
+        assertTrue(page.getBlock(0) instanceof LazyBlock);
+        assertFalse(((LazyBlock) page.getBlock(0)).isLoaded());
+        assertEquals(outputColumnLoads.get(), 0);
+        assertBlockValues(((LazyBlock) page.getBlock(0)).getLoadedBlock(), 103, 104, 105);
+        assertEquals(outputColumnLoads.get(), 1);
+
+        // the lazy block of the delegate is returned as is when every row passes
+        outputColumnLoads.set(0);
+        page = createLazyOutputPageSource(filterColumnLoads, outputColumnLoads, ALL_VALUES).getNextPage();
+        assertEquals(page.getPositionCount(), POSITIONS);
+        assertFalse(((LazyBlock) page.getBlock(0)).isLoaded());
+        assertEquals(outputColumnLoads.get(), 0);
+
+        // the output column is never loaded when no row passes
+        page = createLazyOutputPageSource(filterColumnLoads, outputColumnLoads, NO_VALUES).getNextPage();
+        assertEquals(page.getPositionCount(), 0);
+        assertEquals(outputColumnLoads.get(), 0);
+    }
+
+    private static ConnectorPageSource createLazyOutputPageSource(AtomicInteger filterColumnLoads, AtomicInteger outputColumnLoads, TupleDomainFilter filter)
+    {
+        return new ParquetSelectivePageSource(
+                new LazyPagesPageSource(ImmutableList.of(new Page(
+                        lazyBlock(createSequenceBlock(0), filterColumnLoads, 0),
+                        lazyBlock(createSequenceBlock(100), outputColumnLoads, 0)))),
+                ImmutableList.of(BIGINT, BIGINT),
+                new int[] {0, 1},
+                new Object[2],
+                ImmutableMap.of(0, filter),
+                ImmutableList.of(),
+                ImmutableList.of(1),
+                false);
+    }
+
+    @Test
+    public void testBloomFilterRowGroupSkipping()
+            throws IOException
+    {
+        FileFormatDataSourceStats stats = new FileFormatDataSourceStats();
+
+        // 51 is within the range of the row group statistics, but not in the Bloom filter
+        try (ConnectorPageSource pageSource = createParquetPageSource(stats, HIVE_LONG, BIGINT, 51L)) {
+            assertEquals(readValues(pageSource), ImmutableList.of());
+        }
+        assertEquals(stats.getParquetBloomFilterSkippedRowGroups().getTotalCount(), 1);
+
+        try (ConnectorPageSource pageSource = createParquetPageSource(stats, HIVE_LONG, BIGINT, 50L)) {
+            assertEquals(readValues(pageSource), ImmutableList.of(50L));
+        }
+        assertEquals(stats.getParquetBloomFilterSkippedRowGroups().getTotalCount(), 1);
+    }
+
+    @Test
+    public void testTableNameInSchemaMismatchError()
+    {
+        try {
+            createParquetPageSource(new FileFormatDataSourceStats(), HIVE_STRING, VARCHAR, null);
+            fail("expected exception");
+        }
+        catch (PrestoException e) {
+            assertTrue(e.getMessage().contains("of table " + TABLE_NAME + " is declared as type string"), e.getMessage());
+        }
+    }
+
+    private ConnectorPageSource createParquetPageSource(FileFormatDataSourceStats stats, HiveType hiveType, Type type, Long value)
+    {
+        ConnectorSession session = new TestingConnectorSession(new HiveSessionProperties(
+                new HiveClientConfig().setParquetBloomFilterEnabled(true),
+                new OrcFileWriterConfig(),
+                new ParquetFileWriterConfig(),
+                new CacheConfig()).getSessionProperties());
+        ParquetSelectivePageSourceFactory pageSourceFactory = new ParquetSelectivePageSourceFactory(
+                FUNCTION_AND_TYPE_MANAGER,
+                FUNCTION_RESOLUTION,
+                ROW_EXPRESSION_SERVICE,
+                HDFS_ENVIRONMENT,
+                stats,
+                new MetadataReader(),
+                READ_PREFETCHER_FACTORY);
+
+        JobConf configuration = new JobConf(new Configuration(false));
+        configuration.set("fs.file.impl", "org.apache.hadoop.fs.RawLocalFileSystem");
+        HiveColumnHandle column = new HiveColumnHandle("c", hiveType, type.getTypeSignature(), 0, REGULAR, Optional.empty(), Optional.empty());
+        TupleDomain<Subfield> domainPredicate = value == null ? TupleDomain.all() : TupleDomain.withColumnDomains(ImmutableMap.of(new Subfield("c"), Domain.singleValue(type, value)));
+
+        return pageSourceFactory.createPageSource(
+                configuration,
+                session,
+                new HiveFileSplit(parquetFile.getAbsolutePath(), 0, parquetFile.length(), parquetFile.length(), 0, Optional.empty(), ImmutableMap.of()),
+                new Storage(
+                        StorageFormat.create(PARQUET.getSerDe(), PARQUET.getInputFormat(), PARQUET.getOutputFormat()),
+                        "location",
+                        Optional.empty(),
+                        false,
+                        ImmutableMap.of(),
+                        ImmutableMap.of()),
+                TABLE_NAME,
+                ImmutableList.of(column),
+                ImmutableMap.of(),
+                ImmutableMap.of(),
+                Optional.empty(),
+                ImmutableList.of(0),
+                domainPredicate,
+                ImmutableMap.of(),
+                TRUE_CONSTANT,
+                DateTimeZone.UTC,
+                new HiveFileContext(
+                        false,
+                        NO_CACHE_CONSTRAINTS,
+                        Optional.empty(),
+                        OptionalLong.of(parquetFile.length()),
+                        OptionalLong.of(0),
+                        OptionalLong.of(parquetFile.length()),
+                        0,
+                        false),
+                Optional.empty(),
+                false,
+                false)
+                .get();
+    }
+
+    private static List<Long> readValues(ConnectorPageSource pageSource)
+    {
+        ImmutableList.Builder<Long> values = ImmutableList.builder();
+        while (!pageSource.isFinished()) {
+            Page page = pageSource.getNextPage();
+            if (page == null) {
+                continue;
+            }
+            Block block = page.getBlock(0).getLoadedBlock();
+            for (int position = 0; position < page.getPositionCount(); position++) {
+                values.add(BIGINT.getLong(block, position));
+            }
+        }
+        return values.build();
+    }
+
+    private static int readPositionCount(ConnectorPageSource pageSource)
+    {
+        int positionCount = 0;
+        while (!pageSource.isFinished()) {
+            Page page = pageSource.getNextPage();
+            if (page != null) {
+                positionCount += page.getPositionCount();
+            }
+        }
+        return positionCount;
+    }
+
+    private static Block createSequenceBlock(long start)
+    {
+        BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, POSITIONS);
+        for (int i = 0; i < POSITIONS; i++) {
+            BIGINT.writeLong(blockBuilder, start + i);
+        }
+        return blockBuilder.build();
+    }
+
+    private static LazyBlock lazyBlock(Block block, AtomicInteger loads, long loadMillis)
+    {
+        return new LazyBlock(block.getPositionCount(), lazyBlock -> {
+            loads.incrementAndGet();
+            if (loadMillis > 0) {
+                try {
+                    Thread.sleep(loadMillis);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+            }
+            lazyBlock.setBlock(block);
+        });
+    }
+
+    private static void assertBlockValues(Block block, long... expected)
+    {
+        assertEquals(block.getPositionCount(), expected.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(BIGINT.getLong(block, i), expected[i]);
+        }
+    }
+
+    /**
+     * Unlike {@link com.facebook.presto.spi.FixedPageSource}, does not load the lazy blocks of the pages up front.
+     */
+    private static class LazyPagesPageSource
+            implements ConnectorPageSource
+    {
+        private final Iterator<Page> pages;
+
+        public LazyPagesPageSource(List<Page> pages)
+        {
+            this.pages = pages.iterator();
+        }
+
+        @Override
+        public long getCompletedBytes()
+        {
+            return 0;
+        }
+
+        @Override
+        public long getCompletedPositions()
+        {
+            return 0;
+        }
+
+        @Override
+        public long getReadTimeNanos()
+        {
+            return 0;
+        }
+
+        @Override
+        public boolean isFinished()
+        {
+            return !pages.hasNext();
+        }
+
+        @Override
+        public Page getNextPage()
+        {
+            return pages.hasNext() ? pages.next() : null;
+        }
+
+        @Override
+        public long getSystemMemoryUsage()
+        {
+            return 0;
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+}
@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.jdbc;
 
+import com.facebook.presto.client.BinaryRow;
 import com.facebook.presto.client.Column;
 import com.facebook.presto.client.IntervalDayTime;
 import com.facebook.presto.client.IntervalYearMonth;
@@ -193,6 +194,10 @@ public class PrestoResultSet
     public byte getByte(int columnIndex)
             throws SQLException
     {
+        BinaryRow binaryRow = binaryRow(columnIndex);
+        if (binaryRow != null && binaryRow.hasLongValue(columnIndex - 1)) {
+            return (byte) binaryLong(binaryRow, columnIndex);
+        }
         return toNumber(column(columnIndex)).byteValue();
     }
 
@@ -200,6 +205,10 @@ public class PrestoResultSet
     public short getShort(int columnIndex)
             throws SQLException
     {
+        BinaryRow binaryRow = binaryRow(columnIndex);
+        if (binaryRow != null && binaryRow.hasLongValue(columnIndex - 1)) {
+            return (short) binaryLong(binaryRow, columnIndex);
+        }
         return toNumber(column(columnIndex)).shortValue();
     }
 
@@ -207,6 +216,10 @@ public class PrestoResultSet
     public int getInt(int columnIndex)
             throws SQLException
     {
+        BinaryRow binaryRow = binaryRow(columnIndex);
+        if (binaryRow != null && binaryRow.hasLongValue(columnIndex - 1)) {
+            return (int) binaryLong(binaryRow, columnIndex);
+        }
         return toNumber(column(columnIndex)).intValue();
     }
 
@@ -214,6 +227,10 @@ public class PrestoResultSet
     public long getLong(int columnIndex)
             throws SQLException
     {
+        BinaryRow binaryRow = binaryRow(columnIndex);
+        if (binaryRow != null && binaryRow.hasLongValue(columnIndex - 1)) {
+            return binaryLong(binaryRow, columnIndex);
+        }
         return toNumber(column(columnIndex)).longValue();
     }
 
@@ -221,6 +238,10 @@ public class PrestoResultSet
     public float getFloat(int columnIndex)
             throws SQLException
     {
+        BinaryRow binaryRow = binaryRow(columnIndex);
+        if (binaryRow != null && binaryRow.hasDoubleValue(columnIndex - 1)) {
+            return (float) binaryDouble(binaryRow, columnIndex);
+        }
         return toNumber(column(columnIndex)).floatValue();
     }
 
@@ -228,6 +249,10 @@ public class PrestoResultSet
     public double getDouble(int columnIndex)
             throws SQLException
     {
+        BinaryRow binaryRow = binaryRow(columnIndex);
+        if (binaryRow != null && binaryRow.hasDoubleValue(columnIndex - 1)) {
+            return binaryDouble(binaryRow, columnIndex);
+        }
         return toNumber(column(columnIndex)).doubleValue();
     }
 
@@ -387,42 +412,42 @@ public class PrestoResultSet
     public byte getByte(String columnLabel)
             throws SQLException
     {
-        return toNumber(column(columnLabel)).byteValue();
+        return getByte(columnIndex(columnLabel));
     }
 
     @Override
     public short getShort(String columnLabel)
             throws SQLException
     {
-        return toNumber(column(columnLabel)).shortValue();
+        return getShort(columnIndex(columnLabel));
     }
 
     @Override
     public int getInt(String columnLabel)
             throws SQLException
     {
-        return toNumber(column(columnLabel)).intValue();
+        return getInt(columnIndex(columnLabel));
     }
 
     @Override
     public long getLong(String columnLabel)
             throws SQLException
     {
-        return toNumber(column(columnLabel)).longValue();
+        return getLong(columnIndex(columnLabel));
     }
 
     @Override
     public float getFloat(String columnLabel)
             throws SQLException
     {
-        return toNumber(column(columnLabel)).floatValue();
+        return getFloat(columnIndex(columnLabel));
     }
 
     @Override
     public double getDouble(String columnLabel)
             throws SQLException
     {
-        return toNumber(column(columnLabel)).doubleValue();
+        return getDouble(columnIndex(columnLabel));
     }
 
     @Override
@@ -1681,6 +1706,33 @@ public class PrestoResultSet
         return value;
     }
 
+    /**
+     * Returns the current row if it is a row of binary results, whose numeric values can be read without boxing.
+     */
+    private BinaryRow binaryRow(int index)
+            throws SQLException
+    {
+        checkOpen();
+        checkValidRow();
+        if ((index <= 0) || (index > resultSetMetaData.getColumnCount())) {
+            throw new SQLException("Invalid column index: " + index);
+        }
+        List<Object> currentRow = row.get();
+        return (currentRow instanceof BinaryRow) ? (BinaryRow) currentRow : null;
+    }
+
+    private long binaryLong(BinaryRow binaryRow, int index)
+    {
+        wasNull.set(binaryRow.isNull(index - 1));
+        return binaryRow.getLong(index - 1);
+    }
+
+    private double binaryDouble(BinaryRow binaryRow, int index)
+    {
+        wasNull.set(binaryRow.isNull(index - 1));
+        return binaryRow.getDouble(index - 1);
+    }
+
     private ColumnInfo columnInfo(int index)
             throws SQLException
     {
@@ -0,0 +1,275 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.jdbc;
+
+import com.facebook.airlift.log.Logging;
+import com.facebook.presto.server.testing.TestingPrestoServer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.facebook.presto.jdbc.TestPrestoDriver.closeQuietly;
+import static java.lang.String.format;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+@Test(singleThreaded = true)
+public class TestJdbcBinaryResults
+{
+    private static final String EXCHANGE_COMPRESSION = "sessionProperties=exchange_compression:true;exchange_checksum:true";
+
+    private TestingPrestoServer server;
+
+    @BeforeClass
+    public void setupServer()
+            throws Exception
+    {
+        Logging.initialize();
+        server = new TestingPrestoServer();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void teardownServer()
+    {
+        closeQuietly(server);
+    }
+
+    @DataProvider
+    public Object[][] sessions()
+    {
+        return new Object[][] {{""}, {EXCHANGE_COMPRESSION}};
+    }
+
+    @Test(dataProvider = "sessions")
+    public void testPrimitiveTypes(String properties)
+            throws Exception
+    {
+        assertSameResults(properties, "SELECT " +
+                "true, " +
+                "CAST(NULL AS boolean), " +
+                "TINYINT '-12', " +
+                "SMALLINT '345', " +
+                "123456, " +
+                "BIGINT '9876543210', " +
+                "REAL '1.5', " +
+                "2.25E0, " +
+                "DECIMAL '12.34', " +
+                "DECIMAL '1234567890123456789.0123456789', " +
+                "'abc', " +
+                "CAST('ab' AS char(4)), " +
+                "X'0102FF', " +
+                "JSON '{\"a\":1}', " +
+                "DATE '2024-02-29', " +
+                "CAST(NULL AS varchar)");
+    }
+
+    @Test(dataProvider = "sessions")
+    public void testStructuralTypes(String properties)
+            throws Exception
+    {
+        assertSameResults(properties, "SELECT " +
+                "ARRAY[1, 2, NULL], " +
+                "ARRAY[ARRAY['a'], NULL], " +
+                "MAP(ARRAY['a', 'b'], ARRAY[1.5E0, NULL]), " +
+                "CAST(ROW(1, 'x') AS ROW(id bigint, name varchar)), " +
+                "CAST(NULL AS array(bigint))");
+    }
+
+    @Test(dataProvider = "sessions")
+    public void testMultiplePages(String properties)
+            throws Exception
+    {
+        assertSameResults(properties, "SELECT x, x * 0.5E0, CAST(x AS varchar), x % 3 = 0, IF(x % 7 = 0, NULL, x) " +
+                "FROM UNNEST(sequence(1, 5000)) t(x) " +
+                "ORDER BY x");
+    }
+
+    @Test(dataProvider = "sessions")
+    public void testUnboxedAccessors(String properties)
+            throws Exception
+    {
+        String sql = "SELECT 42, BIGINT '9876543210', CAST(NULL AS bigint), 1.5E0, REAL '2.5', CAST(NULL AS double), TINYINT '7', CAST(NULL AS integer)";
+        for (boolean binaryResults : new boolean[] {false, true}) {
+            try (Connection connection = createConnection(binaryResults, properties);
+                    Statement statement = connection.createStatement();
+                    ResultSet rs = statement.executeQuery(sql)) {
+                assertTrue(rs.next());
+
+                assertEquals(rs.getLong(1), 42);
+                assertFalse(rs.wasNull());
+                assertEquals(rs.getInt(1), 42);
+                assertEquals(rs.getDouble(1), 42.0);
+                assertFalse(rs.wasNull());
+
+                assertEquals(rs.getLong(2), 9876543210L);
+                assertFalse(rs.wasNull());
+
+                assertEquals(rs.getLong(3), 0);
+                assertTrue(rs.wasNull());
+                assertEquals(rs.getDouble(3), 0.0);
+                assertTrue(rs.wasNull());
+
+                assertEquals(rs.getDouble(4), 1.5);
+                assertFalse(rs.wasNull());
+                assertEquals(rs.getLong(4), 1);
+                assertFalse(rs.wasNull());
+
+                assertEquals(rs.getDouble(5), 2.5);
+                assertEquals(rs.getFloat(5), 2.5f);
+                assertFalse(rs.wasNull());
+
+                assertEquals(rs.getDouble(6), 0.0);
+                assertTrue(rs.wasNull());
+                assertEquals(rs.getLong(6), 0);
+                assertTrue(rs.wasNull());
+
+                assertEquals(rs.getByte(7), 7);
+                assertFalse(rs.wasNull());
+
+                assertEquals(rs.getInt(8), 0);
+                assertTrue(rs.wasNull());
+
+                assertFalse(rs.next());
+            }
+        }
+    }
+
+    @Test(dataProvider = "sessions")
+    public void testUnsupportedType(String properties)
+            throws Exception
+    {
+        assertUnsupported(properties, "SELECT TIMESTAMP '2020-01-02 03:04:05'", "timestamp");
+        assertUnsupported(properties, "SELECT INTERVAL '1' DAY", "interval day to second");
+    }
+
+    private void assertSameResults(String properties, String sql)
+            throws SQLException
+    {
+        List<List<Object>> expected = readRows(false, properties, sql);
+        List<List<Object>> actual = readRows(true, properties, sql);
+        assertFalse(expected.isEmpty());
+        assertEquals(actual, expected);
+    }
+
+    private List<List<Object>> readRows(boolean binaryResults, String properties, String sql)
+            throws SQLException
+    {
+        List<List<Object>> rows = new ArrayList<>();
+        try (Connection connection = createConnection(binaryResults, properties);
+                Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(sql)) {
+            int columnCount = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                List<Object> row = new ArrayList<>();
+                for (int column = 1; column <= columnCount; column++) {
+                    row.add(normalize(rs.getObject(column)));
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private void assertUnsupported(String properties, String sql, String type)
+            throws SQLException
+    {
+        try (Connection connection = createConnection(true, properties);
+                Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery(sql)) {
+                while (rs.next()) {
+                    // drain the results
+                }
+            }
+            fail("expected binary results for type " + type + " to fail");
+        }
+        catch (SQLException e) {
+            String expectedMessage = "Binary results are not supported for type " + type;
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (expectedMessage.equals(cause.getMessage())) {
+                    return;
+                }
+            }
+            throw new AssertionError("expected failure with message: " + expectedMessage, e);
+        }
+    }
+
+    /**
+     * Converts values that do not implement value equality (byte arrays and JDBC arrays)
+     * so rows from the two result formats can be compared directly.
+     */
+    private static Object normalize(Object value)
+            throws SQLException
+    {
+        if (value instanceof byte[]) {
+            return ByteBuffer.wrap((byte[]) value);
+        }
+        if (value instanceof Array) {
+            return normalize(((Array) value).getArray());
+        }
+        if (value instanceof Object[]) {
+            List<Object> list = new ArrayList<>();
+            for (Object element : (Object[]) value) {
+                list.add(normalize(element));
+            }
+            return list;
+        }
+        if (value instanceof List) {
+            List<Object> list = new ArrayList<>();
+            for (Object element : (List<?>) value) {
+                list.add(normalize(element));
+            }
+            return list;
+        }
+        if (value instanceof Map) {
+            Map<Object, Object> map = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                map.put(normalize(entry.getKey()), normalize(entry.getValue()));
+            }
+            return map;
+        }
+        return value;
+    }
+
+    private Connection createConnection(boolean binaryResults, String properties)
+            throws SQLException
+    {
+        List<String> parameters = new ArrayList<>();
+        if (binaryResults) {
+            parameters.add("binaryResults=true");
+        }
+        if (!properties.isEmpty()) {
+            parameters.add(properties);
+        }
+        String url = format("jdbc:presto://%s", server.getAddress());
+        if (!parameters.isEmpty()) {
+            url += "?" + String.join("&", parameters);
+        }
+        return DriverManager.getConnection(url, "test", null);
+    }
+}
@@ -82,6 +82,8 @@ public class ArbitraryOutputBuffer
 
     private final AtomicLong totalPagesAdded = new AtomicLong();
     private final AtomicLong totalRowsAdded = new AtomicLong();
+    private final AtomicLong totalUncompressedBytesAdded = new AtomicLong();
+    private final AtomicLong totalSerializedBytesAdded = new AtomicLong();
 
     private final LifespanSerializedPageTracker pageTracker;
 
@@ -162,6 +164,8 @@ public class ArbitraryOutputBuffer
                 totalBufferedPages,
                 totalRowsAdded.get(),
                 totalPagesAdded.get(),
+                totalUncompressedBytesAdded.get(),
+                totalSerializedBytesAdded.get(),
                 infos.build());
     }
 
@@ -233,10 +237,14 @@ public class ArbitraryOutputBuffer
         ImmutableList.Builder<SerializedPageReference> references = ImmutableList.builderWithExpectedSize(pages.size());
         long bytesAdded = 0;
         long rowCount = 0;
+        long uncompressedBytes = 0;
+        long serializedBytes = 0;
         for (SerializedPage page : pages) {
             long retainedSize = page.getRetainedSizeInBytes();
             bytesAdded += retainedSize;
             rowCount += page.getPositionCount();
+            uncompressedBytes += page.getUnencodedSizeInBytes();
+            serializedBytes += page.getSizeInBytes();
             // create page reference counts with an initial single reference
             references.add(new SerializedPageReference(page, 1, lifespan));
         }
@@ -248,6 +256,8 @@ public class ArbitraryOutputBuffer
         // update stats
         totalRowsAdded.addAndGet(rowCount);
         totalPagesAdded.addAndGet(serializedPageReferences.size());
+        totalUncompressedBytesAdded.addAndGet(uncompressedBytes);
+        totalSerializedBytesAdded.addAndGet(serializedBytes);
         pageTracker.incrementLifespanPageCount(lifespan, serializedPageReferences.size());
 
         // add pages to the buffer (this will increase the reference count by one)
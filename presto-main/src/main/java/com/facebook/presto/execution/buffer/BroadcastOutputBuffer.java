@@ -72,6 +72,8 @@ public class BroadcastOutputBuffer
 
     private final AtomicLong totalPagesAdded = new AtomicLong();
     private final AtomicLong totalRowsAdded = new AtomicLong();
+    private final AtomicLong totalUncompressedBytesAdded = new AtomicLong();
+    private final AtomicLong totalSerializedBytesAdded = new AtomicLong();
     private final AtomicLong totalBufferedPages = new AtomicLong();
 
     public BroadcastOutputBuffer(
@@ -140,6 +142,8 @@ public class BroadcastOutputBuffer
                 totalBufferedPages.get(),
                 totalRowsAdded.get(),
                 totalPagesAdded.get(),
+                totalUncompressedBytesAdded.get(),
+                totalSerializedBytesAdded.get(),
                 buffers.stream()
                         .map(ClientBuffer::getInfo)
                         .collect(toImmutableList()));
@@ -220,6 +224,8 @@ public class BroadcastOutputBuffer
         long rowCount = pages.stream().mapToLong(SerializedPage::getPositionCount).sum();
         totalRowsAdded.addAndGet(rowCount);
         totalPagesAdded.addAndGet(pages.size());
+        totalUncompressedBytesAdded.addAndGet(pages.stream().mapToLong(SerializedPage::getUnencodedSizeInBytes).sum());
+        totalSerializedBytesAdded.addAndGet(pages.stream().mapToLong(SerializedPage::getSizeInBytes).sum());
         totalBufferedPages.addAndGet(pages.size());
         pageTracker.incrementLifespanPageCount(lifespan, pages.size());
 
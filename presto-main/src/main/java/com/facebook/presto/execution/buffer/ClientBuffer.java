@@ -25,11 +25,13 @@ import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.Immutable;
 import javax.annotation.concurrent.ThreadSafe;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -59,18 +61,22 @@ class ClientBuffer
     private final AtomicLong currentSequenceId = new AtomicLong();
 
     @GuardedBy("this")
-    private final LinkedList<SerializedPageReference> pages = new LinkedList<>();
+    private final ArrayDeque<SerializedPageReference> pages = new ArrayDeque<>();
 
-    @GuardedBy("this")
-    private boolean noMorePages;
+    // Pages added by producers, which never take the lock of this buffer unless a read is waiting for data.
+    // The reader moves them to pages while holding the lock.
+    private final Queue<SerializedPageReference> enqueuedPages = new ConcurrentLinkedQueue<>();
+
+    // written while holding the lock, but read without it by producers
+    private volatile boolean noMorePages;
 
     // destroyed is set when the client sends a DELETE to the buffer
     // this is an acknowledgement that the client has observed the end of the buffer
     @GuardedBy("this")
     private final AtomicBoolean destroyed = new AtomicBoolean();
 
-    @GuardedBy("this")
-    private PendingRead pendingRead;
+    // written while holding the lock, but read without it by producers
+    private volatile PendingRead pendingRead;
 
     public ClientBuffer(String taskInstanceId, OutputBufferId bufferId, PagesReleasedListener onPagesReleased)
     {
@@ -113,14 +119,13 @@ class ClientBuffer
         List<SerializedPageReference> removedPages;
         PendingRead pendingRead;
         synchronized (this) {
-            removedPages = ImmutableList.copyOf(pages);
-            pages.clear();
-
-            bufferedBytes.getAndSet(0);
-
             noMorePages = true;
+            // destroyed must be set before the enqueued pages are removed, so that a producer
+            // adding pages concurrently either sees it or has its pages removed here
             destroyed.set(true);
 
+            removedPages = removeAllPages();
+
             pendingRead = this.pendingRead;
             this.pendingRead = null;
         }
@@ -134,27 +139,47 @@ class ClientBuffer
 
     public void enqueuePages(Collection<SerializedPageReference> pages)
     {
-        PendingRead pendingRead;
-        synchronized (this) {
-            // ignore pages after no more pages is set
-            // this can happen with limit queries
-            if (noMorePages) {
-                return;
-            }
+        // ignore pages after no more pages is set
+        // this can happen with limit queries
+        if (noMorePages) {
+            return;
+        }
 
-            addPages(pages);
+        // stats are updated before the pages are visible to the reader, which may acknowledge them right away
+        addReferences(pages);
+        enqueuedPages.addAll(pages);
 
-            pendingRead = this.pendingRead;
-            this.pendingRead = null;
+        if (destroyed.get()) {
+            // the buffer was destroyed concurrently, so the pages may have been added after destroy removed all pages
+            List<SerializedPageReference> removedPages;
+            synchronized (this) {
+                removedPages = removeAllPages();
+            }
+            dereferencePages(removedPages, onPagesReleased);
+            return;
         }
 
         // we just added a page, so process the pending read
-        if (pendingRead != null) {
-            processRead(pendingRead);
+        if (this.pendingRead != null) {
+            PendingRead pendingRead;
+            synchronized (this) {
+                pendingRead = this.pendingRead;
+                this.pendingRead = null;
+            }
+            if (pendingRead != null) {
+                processRead(pendingRead);
+            }
         }
     }
 
     private synchronized void addPages(Collection<SerializedPageReference> pages)
+    {
+        addReferences(pages);
+        drainEnqueuedPages();
+        this.pages.addAll(pages);
+    }
+
+    private void addReferences(Collection<SerializedPageReference> pages)
     {
         long rowCount = 0;
         long bytesAdded = 0;
@@ -166,12 +191,35 @@ class ClientBuffer
             bytesAdded += page.getRetainedSizeInBytes();
         }
 
-        this.pages.addAll(pages);
         rowsAdded.addAndGet(rowCount);
         pagesAdded.addAndGet(pageCount);
         bufferedBytes.addAndGet(bytesAdded);
     }
 
+    @GuardedBy("this")
+    private void drainEnqueuedPages()
+    {
+        SerializedPageReference page;
+        while ((page = enqueuedPages.poll()) != null) {
+            pages.add(page);
+        }
+    }
+
+    @GuardedBy("this")
+    private List<SerializedPageReference> removeAllPages()
+    {
+        drainEnqueuedPages();
+        List<SerializedPageReference> removedPages = ImmutableList.copyOf(pages);
+        pages.clear();
+
+        long bytesRemoved = 0;
+        for (SerializedPageReference removedPage : removedPages) {
+            bytesRemoved += removedPage.getRetainedSizeInBytes();
+        }
+        verify(bufferedBytes.addAndGet(-bytesRemoved) >= 0);
+        return removedPages;
+    }
+
     public ListenableFuture<BufferResult> getPages(long sequenceId, DataSize maxSize)
     {
         return getPages(sequenceId, maxSize, Optional.empty());
@@ -194,13 +242,21 @@ class ClientBuffer
 
                 // Return results immediately if we have data, there will be no more data, or this is
                 // an out of order request
+                drainEnqueuedPages();
                 if (!pages.isEmpty() || noMorePages || sequenceId != currentSequenceId.get()) {
                     return immediateFuture(processRead(sequenceId, maxSize));
                 }
 
                 // otherwise, wait for more data to arrive
-                pendingRead = new PendingRead(taskInstanceId, sequenceId, maxSize);
-                return pendingRead.getResultFuture();
+                PendingRead pendingRead = new PendingRead(taskInstanceId, sequenceId, maxSize);
+                this.pendingRead = pendingRead;
+
+                // a producer that enqueued pages before the pending read was published did not see it, so check again
+                if (enqueuedPages.isEmpty()) {
+                    return pendingRead.getResultFuture();
+                }
+                this.pendingRead = null;
+                return immediateFuture(processRead(sequenceId, maxSize));
             }
         }
         finally {
@@ -275,6 +331,7 @@ class ClientBuffer
                 return false;
             }
 
+            drainEnqueuedPages();
             if (!pages.isEmpty()) {
                 return false;
             }
@@ -340,6 +397,8 @@ class ClientBuffer
         //   when the buffer is destroyed.
         //
 
+        drainEnqueuedPages();
+
         // if request is for pages before the current position, just return an empty result
         if (sequenceId < currentSequenceId.get()) {
             return emptyResults(taskInstanceId, sequenceId, false);
@@ -397,6 +456,7 @@ class ClientBuffer
                 return;
             }
 
+            drainEnqueuedPages();
             int pagesToRemove = toIntExact(sequenceId - oldCurrentSequenceId);
             checkArgument(pagesToRemove <= pages.size(), "Invalid sequence id");
             removedPages = ImmutableList.builderWithExpectedSize(pagesToRemove);
@@ -40,6 +40,8 @@ public class DiscardingOutputBuffer
 
     private final AtomicLong totalPagesAdded = new AtomicLong();
     private final AtomicLong totalRowsAdded = new AtomicLong();
+    private final AtomicLong totalUncompressedBytesAdded = new AtomicLong();
+    private final AtomicLong totalSerializedBytesAdded = new AtomicLong();
 
     public DiscardingOutputBuffer(OutputBuffers outputBuffers, StateMachine<BufferState> state)
     {
@@ -61,6 +63,8 @@ public class DiscardingOutputBuffer
                 0,
                 totalRowsAdded.get(),
                 totalPagesAdded.get(),
+                totalUncompressedBytesAdded.get(),
+                totalSerializedBytesAdded.get(),
                 ImmutableList.of());
     }
 
@@ -131,6 +135,8 @@ public class DiscardingOutputBuffer
         long rowCount = pages.stream().mapToLong(SerializedPage::getPositionCount).sum();
         totalRowsAdded.addAndGet(rowCount);
         totalPagesAdded.addAndGet(pages.size());
+        totalUncompressedBytesAdded.addAndGet(pages.stream().mapToLong(SerializedPage::getUnencodedSizeInBytes).sum());
+        totalSerializedBytesAdded.addAndGet(pages.stream().mapToLong(SerializedPage::getSizeInBytes).sum());
     }
 
     @Override
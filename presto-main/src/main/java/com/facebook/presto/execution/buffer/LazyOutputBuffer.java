@@ -140,6 +140,8 @@ public class LazyOutputBuffer
                     0,
                     0,
                     0,
+                    0,
+                    0,
                     ImmutableList.of());
         }
         return outputBuffer.getInfo();
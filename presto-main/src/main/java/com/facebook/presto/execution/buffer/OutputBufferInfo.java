@@ -36,6 +36,8 @@ public final class OutputBufferInfo
     private final long totalBufferedPages;
     private final long totalRowsSent;
     private final long totalPagesSent;
+    private final long totalUncompressedBytesSent;
+    private final long totalSerializedBytesSent;
     private final List<BufferInfo> buffers;
 
     @JsonCreator
@@ -49,6 +51,8 @@ public final class OutputBufferInfo
             @JsonProperty("totalBufferedPages") long totalBufferedPages,
             @JsonProperty("totalRowsSent") long totalRowsSent,
             @JsonProperty("totalPagesSent") long totalPagesSent,
+            @JsonProperty("totalUncompressedBytesSent") long totalUncompressedBytesSent,
+            @JsonProperty("totalSerializedBytesSent") long totalSerializedBytesSent,
             @JsonProperty("buffers") List<BufferInfo> buffers)
     {
         this.type = type;
@@ -59,6 +63,8 @@ public final class OutputBufferInfo
         this.totalBufferedPages = totalBufferedPages;
         this.totalRowsSent = totalRowsSent;
         this.totalPagesSent = totalPagesSent;
+        this.totalUncompressedBytesSent = totalUncompressedBytesSent;
+        this.totalSerializedBytesSent = totalSerializedBytesSent;
         this.buffers = ImmutableList.copyOf(buffers);
     }
 
@@ -125,9 +131,29 @@ public final class OutputBufferInfo
         return totalPagesSent;
     }
 
+    /**
+     * Size of the pages added to the buffer before block encoding and compression
+     */
+    @JsonProperty
+    @ThriftField(10)
+    public long getTotalUncompressedBytesSent()
+    {
+        return totalUncompressedBytesSent;
+    }
+
+    /**
+     * Size of the pages added to the buffer as sent over the network
+     */
+    @JsonProperty
+    @ThriftField(11)
+    public long getTotalSerializedBytesSent()
+    {
+        return totalSerializedBytesSent;
+    }
+
     public OutputBufferInfo summarize()
     {
-        return new OutputBufferInfo(type, state, canAddBuffers, canAddPages, totalBufferedBytes, totalBufferedPages, totalRowsSent, totalPagesSent, ImmutableList.of());
+        return new OutputBufferInfo(type, state, canAddBuffers, canAddPages, totalBufferedBytes, totalBufferedPages, totalRowsSent, totalPagesSent, totalUncompressedBytesSent, totalSerializedBytesSent, ImmutableList.of());
     }
 
     @Override
@@ -147,6 +173,8 @@ public final class OutputBufferInfo
                 Objects.equals(totalBufferedPages, that.totalBufferedPages) &&
                 Objects.equals(totalRowsSent, that.totalRowsSent) &&
                 Objects.equals(totalPagesSent, that.totalPagesSent) &&
+                Objects.equals(totalUncompressedBytesSent, that.totalUncompressedBytesSent) &&
+                Objects.equals(totalSerializedBytesSent, that.totalSerializedBytesSent) &&
                 Objects.equals(state, that.state) &&
                 Objects.equals(buffers, that.buffers);
     }
@@ -154,7 +182,7 @@ public final class OutputBufferInfo
     @Override
     public int hashCode()
     {
-        return Objects.hash(state, canAddBuffers, canAddPages, totalBufferedBytes, totalBufferedPages, totalRowsSent, totalPagesSent, buffers);
+        return Objects.hash(state, canAddBuffers, canAddPages, totalBufferedBytes, totalBufferedPages, totalRowsSent, totalPagesSent, totalUncompressedBytesSent, totalSerializedBytesSent, buffers);
     }
 
     @Override
@@ -169,6 +197,8 @@ public final class OutputBufferInfo
                 .add("totalBufferedPages", totalBufferedPages)
                 .add("totalRowsSent", totalRowsSent)
                 .add("totalPagesSent", totalPagesSent)
+                .add("totalUncompressedBytesSent", totalUncompressedBytesSent)
+                .add("totalSerializedBytesSent", totalSerializedBytesSent)
                 .add("buffers", buffers)
                 .toString();
     }
@@ -46,8 +46,8 @@ public class OutputBufferMemoryManager
     private final AtomicLong bufferedBytes = new AtomicLong();
     private final AtomicLong peakMemoryUsage = new AtomicLong();
 
-    @GuardedBy("this")
-    private boolean closed;
+    // written while holding the lock, but read without it on the update fast path
+    private volatile boolean closed;
     @Nullable
     @GuardedBy("this")
     private SettableFuture<?> bufferBlockedFuture; // null indicates "no listener registered"
@@ -55,6 +55,8 @@ public class OutputBufferMemoryManager
     private ListenableFuture<?> blockedOnMemory = NOT_BLOCKED;
 
     private final AtomicBoolean blockOnFull = new AtomicBoolean(true);
+    // set while a thread propagates the buffered bytes to the memory context
+    private final AtomicBoolean updatingMemoryContext = new AtomicBoolean();
 
     private final Supplier<LocalMemoryContext> systemMemoryContextSupplier;
     private final Executor notificationExecutor;
@@ -77,18 +79,43 @@ public class OutputBufferMemoryManager
             return;
         }
 
+        // If closed is true, that means the task is completed. In that state,
+        // the output buffers already ignore the newly added pages, and therefore
+        // we can also safely ignore any calls after OutputBufferMemoryManager is closed.
+        if (closed) {
+            return;
+        }
+
+        long currentBufferedBytes = bufferedBytes.addAndGet(bytesAdded);
+        peakMemoryUsage.accumulateAndGet(currentBufferedBytes, Math::max);
+
+        // Producers and readers of all partitions update the buffered bytes concurrently, so only one thread
+        // at a time propagates them to the memory context, and the others return without taking the lock.
+        // The updating thread re-checks the buffered bytes after giving up that role, so no update is lost.
+        while (updatingMemoryContext.compareAndSet(false, true)) {
+            long updatedBufferedBytes;
+            try {
+                updatedBufferedBytes = bufferedBytes.get();
+                updateMemoryContext(systemMemoryContext, updatedBufferedBytes);
+            }
+            finally {
+                updatingMemoryContext.set(false);
+            }
+            if (bufferedBytes.get() == updatedBufferedBytes) {
+                return;
+            }
+        }
+    }
+
+    private void updateMemoryContext(LocalMemoryContext systemMemoryContext, long currentBufferedBytes)
+    {
         ListenableFuture<?> waitForMemory = null;
         SettableFuture<?> notifyUnblocked = null;
-        long currentBufferedBytes;
         synchronized (this) {
-            // If closed is true, that means the task is completed. In that state,
-            // the output buffers already ignore the newly added pages, and therefore
-            // we can also safely ignore any calls after OutputBufferMemoryManager is closed.
             if (closed) {
                 return;
             }
 
-            currentBufferedBytes = bufferedBytes.addAndGet(bytesAdded);
             ListenableFuture<?> blockedOnMemory = systemMemoryContext.setBytes(currentBufferedBytes);
             if (!blockedOnMemory.isDone()) {
                 if (this.blockedOnMemory != blockedOnMemory) {
@@ -107,7 +134,6 @@ public class OutputBufferMemoryManager
                 }
             }
         }
-        peakMemoryUsage.accumulateAndGet(currentBufferedBytes, Math::max);
         // Notify listeners outside of the critical section
         notifyListener(notifyUnblocked);
         if (waitForMemory != null) {
@@ -22,16 +22,20 @@ import io.airlift.compress.Compressor;
 import io.airlift.compress.Decompressor;
 import io.airlift.compress.lz4.Lz4Compressor;
 import io.airlift.compress.lz4.Lz4Decompressor;
+import io.airlift.compress.zstd.ZstdCompressor;
+import io.airlift.compress.zstd.ZstdDecompressor;
 
 import java.nio.ByteBuffer;
 import java.util.Optional;
 
+import static com.facebook.presto.execution.buffer.CompressionCodec.LZ4;
+import static com.facebook.presto.execution.buffer.CompressionCodec.NONE;
 import static java.util.Objects.requireNonNull;
 
 public class PagesSerdeFactory
 {
     private final BlockEncodingSerde blockEncodingSerde;
-    private final boolean compressionEnabled;
+    private final CompressionCodec compressionCodec;
     private final boolean checksumEnabled;
 
     public PagesSerdeFactory(BlockEncodingSerde blockEncodingSerde, boolean compressionEnabled)
@@ -40,9 +44,14 @@ public class PagesSerdeFactory
     }
 
     public PagesSerdeFactory(BlockEncodingSerde blockEncodingSerde, boolean compressionEnabled, boolean checksumEnabled)
+    {
+        this(blockEncodingSerde, compressionEnabled ? LZ4 : NONE, checksumEnabled);
+    }
+
+    public PagesSerdeFactory(BlockEncodingSerde blockEncodingSerde, CompressionCodec compressionCodec, boolean checksumEnabled)
     {
         this.blockEncodingSerde = requireNonNull(blockEncodingSerde, "blockEncodingSerde is null");
-        this.compressionEnabled = compressionEnabled;
+        this.compressionCodec = requireNonNull(compressionCodec, "compressionCodec is null");
         this.checksumEnabled = checksumEnabled;
     }
 
@@ -58,60 +67,68 @@ public class PagesSerdeFactory
 
     private PagesSerde createPagesSerdeInternal(Optional<SpillCipher> spillCipher)
     {
-        if (compressionEnabled) {
-            return new PagesSerde(
-                    blockEncodingSerde,
-                    Optional.of(new PageCompressor()
-                    {
-                        Compressor compressor = new Lz4Compressor();
-                        @Override
-                        public int maxCompressedLength(int uncompressedSize)
-                        {
-                            return compressor.maxCompressedLength(uncompressedSize);
-                        }
+        switch (compressionCodec) {
+            case NONE:
+                return new PagesSerde(blockEncodingSerde, Optional.empty(), Optional.empty(), spillCipher, checksumEnabled);
+            case LZ4:
+                return createPagesSerde(new Lz4Compressor(), new Lz4Decompressor(), spillCipher);
+            case ZSTD:
+                return createPagesSerde(new ZstdCompressor(), new ZstdDecompressor(), spillCipher);
+            default:
+                throw new IllegalArgumentException("Unsupported compression codec: " + compressionCodec);
+        }
+    }
 
-                        @Override
-                        public int compress(
-                                byte[] input,
-                                int inputOffset,
-                                int inputLength,
-                                byte[] output,
-                                int outputOffset,
-                                int maxOutputLength)
-                        {
-                            return compressor.compress(input, inputOffset, inputLength, output, outputOffset, maxOutputLength);
-                        }
+    private PagesSerde createPagesSerde(Compressor compressor, Decompressor decompressor, Optional<SpillCipher> spillCipher)
+    {
+        return new PagesSerde(
+                blockEncodingSerde,
+                Optional.of(new PageCompressor()
+                {
+                    @Override
+                    public int maxCompressedLength(int uncompressedSize)
+                    {
+                        return compressor.maxCompressedLength(uncompressedSize);
+                    }
 
-                        @Override
-                        public void compress(ByteBuffer input, ByteBuffer output)
-                        {
-                            compressor.compress(input, output);
-                        }
-                    }),
-                    Optional.of(new PageDecompressor()
+                    @Override
+                    public int compress(
+                            byte[] input,
+                            int inputOffset,
+                            int inputLength,
+                            byte[] output,
+                            int outputOffset,
+                            int maxOutputLength)
                     {
-                        Decompressor decompressor = new Lz4Decompressor();
-                        @Override
-                        public int decompress(
-                                byte[] input,
-                                int inputOffset,
-                                int inputLength,
-                                byte[] output,
-                                int outputOffset,
-                                int maxOutputLength)
-                        {
-                            return decompressor.decompress(input, inputOffset, inputLength, output, outputOffset, maxOutputLength);
-                        }
+                        return compressor.compress(input, inputOffset, inputLength, output, outputOffset, maxOutputLength);
+                    }
 
-                        @Override
-                        public void decompress(ByteBuffer input, ByteBuffer output)
-                        {
-                            decompressor.decompress(input, output);
-                        }
-                    }),
-                    spillCipher, checksumEnabled);
-        }
+                    @Override
+                    public void compress(ByteBuffer input, ByteBuffer output)
+                    {
+                        compressor.compress(input, output);
+                    }
+                }),
+                Optional.of(new PageDecompressor()
+                {
+                    @Override
+                    public int decompress(
+                            byte[] input,
+                            int inputOffset,
+                            int inputLength,
+                            byte[] output,
+                            int outputOffset,
+                            int maxOutputLength)
+                    {
+                        return decompressor.decompress(input, inputOffset, inputLength, output, outputOffset, maxOutputLength);
+                    }
 
-        return new PagesSerde(blockEncodingSerde, Optional.empty(), Optional.empty(), spillCipher, checksumEnabled);
+                    @Override
+                    public void decompress(ByteBuffer input, ByteBuffer output)
+                    {
+                        decompressor.decompress(input, output);
+                    }
+                }),
+                spillCipher, checksumEnabled);
     }
 }
@@ -54,6 +54,8 @@ public class PartitionedOutputBuffer
 
     private final AtomicLong totalPagesAdded = new AtomicLong();
     private final AtomicLong totalRowsAdded = new AtomicLong();
+    private final AtomicLong totalUncompressedBytesAdded = new AtomicLong();
+    private final AtomicLong totalSerializedBytesAdded = new AtomicLong();
 
     public PartitionedOutputBuffer(
             String taskInstanceId,
@@ -140,6 +142,8 @@ public class PartitionedOutputBuffer
                 totalBufferedPages,
                 totalRowsAdded.get(),
                 totalPagesAdded.get(),
+                totalUncompressedBytesAdded.get(),
+                totalSerializedBytesAdded.get(),
                 infos.build());
     }
 
@@ -193,10 +197,14 @@ public class PartitionedOutputBuffer
         ImmutableList.Builder<SerializedPageReference> references = ImmutableList.builderWithExpectedSize(pages.size());
         long bytesAdded = 0;
         long rowCount = 0;
+        long uncompressedBytes = 0;
+        long serializedBytes = 0;
         for (SerializedPage page : pages) {
             long retainedSize = page.getRetainedSizeInBytes();
             bytesAdded += retainedSize;
             rowCount += page.getPositionCount();
+            uncompressedBytes += page.getUnencodedSizeInBytes();
+            serializedBytes += page.getSizeInBytes();
             // create page reference counts with an initial single reference
             references.add(new SerializedPageReference(page, 1, lifespan));
         }
@@ -208,6 +216,8 @@ public class PartitionedOutputBuffer
         // update stats
         totalRowsAdded.addAndGet(rowCount);
         totalPagesAdded.addAndGet(serializedPageReferences.size());
+        totalUncompressedBytesAdded.addAndGet(uncompressedBytes);
+        totalSerializedBytesAdded.addAndGet(serializedBytes);
         pageTracker.incrementLifespanPageCount(lifespan, serializedPageReferences.size());
 
         // add pages to the buffer (this will increase the reference count by one)
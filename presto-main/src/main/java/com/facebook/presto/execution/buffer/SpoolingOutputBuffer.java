@@ -93,6 +93,8 @@ public class SpoolingOutputBuffer
     private final AtomicLong totalBufferedPages = new AtomicLong();
     private final AtomicLong totalPagesAdded = new AtomicLong();
     private final AtomicLong totalRowsAdded = new AtomicLong();
+    private final AtomicLong totalUncompressedBytesAdded = new AtomicLong();
+    private final AtomicLong totalSerializedBytesAdded = new AtomicLong();
 
     private final OutputBufferId outputBufferId = new OutputBufferId(0);
 
@@ -155,6 +157,8 @@ public class SpoolingOutputBuffer
                 totalBufferedPages.get(),
                 totalRowsAdded.get(),
                 totalPagesAdded.get(),
+                totalUncompressedBytesAdded.get(),
+                totalSerializedBytesAdded.get(),
                 ImmutableList.of());
     }
 
@@ -226,6 +230,8 @@ public class SpoolingOutputBuffer
             totalBufferedPages.addAndGet(pagesAdded);
             totalPagesAdded.addAndGet(pagesAdded);
             totalRowsAdded.addAndGet(getPagesRows(pages));
+            totalUncompressedBytesAdded.addAndGet(pages.stream().mapToLong(SerializedPage::getUnencodedSizeInBytes).sum());
+            totalSerializedBytesAdded.addAndGet(pages.stream().mapToLong(SerializedPage::getSizeInBytes).sum());
 
             totalInMemoryBytes.addAndGet(bytesAdded);
 
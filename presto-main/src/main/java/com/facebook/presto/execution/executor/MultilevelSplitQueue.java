@@ -20,20 +20,19 @@ import com.google.common.collect.ImmutableList;
 import org.weakref.jmx.Managed;
 import org.weakref.jmx.Nested;
 
-import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 import javax.inject.Inject;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.LongAdder;
 
 import static com.google.common.base.Preconditions.checkArgument;
-import static com.google.common.base.Preconditions.checkState;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -43,16 +42,18 @@ public class MultilevelSplitQueue
     static final int[] LEVEL_THRESHOLD_SECONDS = {0, 1, 10, 60, 300};
     static final long LEVEL_CONTRIBUTION_CAP = SECONDS.toNanos(30);
 
-    @GuardedBy("lock")
-    private final List<PriorityQueue<PrioritizedSplitRunner>> levelWaitingSplits;
+    // Splits are only mutated outside of the queue, so their ordering is stable while they are queued
+    private final List<ConcurrentSkipListSet<PrioritizedSplitRunner>> levelWaitingSplits;
 
-    private final AtomicLong[] levelScheduledTime = new AtomicLong[LEVEL_THRESHOLD_SECONDS.length];
+    // Updated by every runner thread at the end of each quanta, so the counters are striped to avoid contention
+    private final LongAdder[] levelScheduledTime = new LongAdder[LEVEL_THRESHOLD_SECONDS.length];
 
     private final AtomicLong[] levelMinPriority;
     private final List<CounterStat> selectedLevelCounters;
 
-    private final ReentrantLock lock = new ReentrantLock();
-    private final Condition notEmpty = lock.newCondition();
+    // One permit per queued split, a split removed before being taken may leave an extra permit behind
+    private final Semaphore availableSplits = new Semaphore(0);
+    private final AtomicInteger waitingSplitsCount = new AtomicInteger();
 
     private final double levelTimeMultiplier;
 
@@ -69,9 +70,9 @@ public class MultilevelSplitQueue
         ImmutableList.Builder<CounterStat> counters = ImmutableList.builder();
 
         for (int i = 0; i < LEVEL_THRESHOLD_SECONDS.length; i++) {
-            levelScheduledTime[i] = new AtomicLong();
+            levelScheduledTime[i] = new LongAdder();
             levelMinPriority[i] = new AtomicLong(-1);
-            levelWaitingSplits.add(new PriorityQueue<>());
+            levelWaitingSplits.add(new ConcurrentSkipListSet<>());
             counters.add(new CounterStat());
         }
 
@@ -82,7 +83,7 @@ public class MultilevelSplitQueue
 
     private void addLevelTime(int level, long nanos)
     {
-        levelScheduledTime[level].addAndGet(nanos);
+        levelScheduledTime[level].add(nanos);
     }
 
     /**
@@ -101,24 +102,25 @@ public class MultilevelSplitQueue
 
         split.setReady();
         int level = split.getPriority().getLevel();
-        lock.lock();
-        try {
-            if (levelWaitingSplits.get(level).isEmpty()) {
-                // Accesses to levelScheduledTime are not synchronized, so we have a data race
-                // here - our level time math will be off. However, the staleness is bounded by
-                // the fact that only running splits that complete during this computation
-                // can update the level time. Therefore, this is benign.
-                long level0Time = getLevel0TargetTime();
-                long levelExpectedTime = (long) (level0Time / Math.pow(levelTimeMultiplier, level));
-                long delta = levelExpectedTime - levelScheduledTime[level].get();
-                levelScheduledTime[level].addAndGet(delta);
-            }
+        ConcurrentSkipListSet<PrioritizedSplitRunner> waitingSplits = levelWaitingSplits.get(level);
+        if (waitingSplits.isEmpty()) {
+            // Accesses to levelScheduledTime are not synchronized, so we have a data race
+            // here - our level time math will be off. However, the staleness is bounded by
+            // the fact that only running splits that complete during this computation
+            // can update the level time. Therefore, this is benign.
+            long level0Time = getLevel0TargetTime();
+            long levelExpectedTime = (long) (level0Time / Math.pow(levelTimeMultiplier, level));
+            long delta = levelExpectedTime - levelScheduledTime[level].sum();
+            levelScheduledTime[level].add(delta);
+        }
 
-            levelWaitingSplits.get(level).offer(split);
-            notEmpty.signal();
+        // count the split before it becomes visible, so that a concurrent poll never drives the count below zero
+        waitingSplitsCount.incrementAndGet();
+        if (waitingSplits.add(split)) {
+            availableSplits.release();
         }
-        finally {
-            lock.unlock();
+        else {
+            waitingSplitsCount.decrementAndGet();
         }
     }
 
@@ -126,27 +128,23 @@ public class MultilevelSplitQueue
             throws InterruptedException
     {
         while (true) {
-            lock.lockInterruptibly();
-            try {
-                PrioritizedSplitRunner result;
-                while ((result = pollSplit()) == null) {
-                    notEmpty.await();
-                }
+            availableSplits.acquire();
+            PrioritizedSplitRunner result = pollSplit();
+            if (result == null) {
+                // the split backing the permit was removed
+                continue;
+            }
 
-                if (result.updateLevelPriority()) {
-                    offer(result);
-                    continue;
-                }
+            if (result.updateLevelPriority()) {
+                offer(result);
+                continue;
+            }
 
-                int selectedLevel = result.getPriority().getLevel();
-                levelMinPriority[selectedLevel].set(result.getPriority().getLevelPriority());
-                selectedLevelCounters.get(selectedLevel).update(1);
+            int selectedLevel = result.getPriority().getLevel();
+            levelMinPriority[selectedLevel].set(result.getPriority().getLevelPriority());
+            selectedLevelCounters.get(selectedLevel).update(1);
 
-                return result;
-            }
-            finally {
-                lock.unlock();
-            }
+            return result;
         }
     }
 
@@ -157,45 +155,49 @@ public class MultilevelSplitQueue
      * This function selects the level that has the lowest ratio of actual to the target time
      * with the objective of minimizing deviation from the target scheduled time. From this level,
      * we pick the split with the lowest priority.
+     * <p>
+     * Runner threads select splits concurrently, so the selected level may be drained by another
+     * thread before the split is polled, in which case the selection is retried.
      */
-    @GuardedBy("lock")
     private PrioritizedSplitRunner pollSplit()
     {
-        long targetScheduledTime = getLevel0TargetTime();
-        double worstRatio = 1;
-        int selectedLevel = -1;
-        for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
-            if (!levelWaitingSplits.get(level).isEmpty()) {
-                long levelTime = levelScheduledTime[level].get();
-                double ratio = levelTime == 0 ? 0 : targetScheduledTime / (1.0 * levelTime);
-                if (selectedLevel == -1 || ratio > worstRatio) {
-                    worstRatio = ratio;
-                    selectedLevel = level;
+        while (true) {
+            long targetScheduledTime = getLevel0TargetTime();
+            double worstRatio = 1;
+            int selectedLevel = -1;
+            for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
+                if (!levelWaitingSplits.get(level).isEmpty()) {
+                    long levelTime = levelScheduledTime[level].sum();
+                    double ratio = levelTime == 0 ? 0 : targetScheduledTime / (1.0 * levelTime);
+                    if (selectedLevel == -1 || ratio > worstRatio) {
+                        worstRatio = ratio;
+                        selectedLevel = level;
+                    }
                 }
+
+                targetScheduledTime /= levelTimeMultiplier;
             }
 
-            targetScheduledTime /= levelTimeMultiplier;
-        }
+            if (selectedLevel == -1) {
+                return null;
+            }
 
-        if (selectedLevel == -1) {
-            return null;
+            PrioritizedSplitRunner result = levelWaitingSplits.get(selectedLevel).pollFirst();
+            if (result != null) {
+                waitingSplitsCount.decrementAndGet();
+                return result;
+            }
         }
-
-        PrioritizedSplitRunner result = levelWaitingSplits.get(selectedLevel).poll();
-        checkState(result != null, "pollSplit cannot return null");
-
-        return result;
     }
 
-    @GuardedBy("lock")
     private long getLevel0TargetTime()
     {
-        long level0TargetTime = levelScheduledTime[0].get();
+        long level0TargetTime = levelScheduledTime[0].sum();
         double currentMultiplier = levelTimeMultiplier;
 
         for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
             currentMultiplier /= levelTimeMultiplier;
-            long levelTime = levelScheduledTime[level].get();
+            long levelTime = levelScheduledTime[level].sum();
             level0TargetTime = Math.max(level0TargetTime, (long) (levelTime / currentMultiplier));
         }
 
@@ -247,27 +249,19 @@ public class MultilevelSplitQueue
     public void remove(PrioritizedSplitRunner split)
     {
         checkArgument(split != null, "split is null");
-        lock.lock();
-        try {
-            for (PriorityQueue<PrioritizedSplitRunner> level : levelWaitingSplits) {
-                level.remove(split);
+        for (ConcurrentSkipListSet<PrioritizedSplitRunner> level : levelWaitingSplits) {
+            if (level.remove(split)) {
+                waitingSplitsCount.decrementAndGet();
+                // best effort, if a runner thread already holds the permit it will find no split and wait again
+                availableSplits.tryAcquire();
             }
         }
-        finally {
-            lock.unlock();
-        }
     }
 
     public void removeAll(Collection<PrioritizedSplitRunner> splits)
     {
-        lock.lock();
-        try {
-            for (PriorityQueue<PrioritizedSplitRunner> level : levelWaitingSplits) {
-                level.removeAll(splits);
-            }
-        }
-        finally {
-            lock.unlock();
+        for (PrioritizedSplitRunner split : splits) {
+            remove(split);
         }
     }
 
@@ -279,17 +273,7 @@ public class MultilevelSplitQueue
 
     public int size()
     {
-        lock.lock();
-        try {
-            int total = 0;
-            for (PriorityQueue<PrioritizedSplitRunner> level : levelWaitingSplits) {
-                total += level.size();
-            }
-            return total;
-        }
-        finally {
-            lock.unlock();
-        }
+        return waitingSplitsCount.get();
     }
 
     public static int computeLevel(long threadUsageNanos)
@@ -307,7 +291,7 @@ public class MultilevelSplitQueue
     @VisibleForTesting
     long getLevelScheduledTime(int level)
     {
-        return levelScheduledTime[level].longValue();
+        return levelScheduledTime[level].sum();
     }
 
     @Managed
@@ -0,0 +1,503 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.scheduler;
+
+import com.facebook.airlift.log.Logger;
+import com.facebook.presto.Session;
+import com.facebook.presto.metadata.Metadata;
+import com.facebook.presto.metadata.TableLayout.TablePartitioning;
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.SchemaTableName;
+import com.facebook.presto.spi.plan.FilterNode;
+import com.facebook.presto.spi.plan.PlanNode;
+import com.facebook.presto.spi.plan.ProjectNode;
+import com.facebook.presto.spi.plan.TableScanNode;
+import com.facebook.presto.spi.relation.RowExpression;
+import com.facebook.presto.spi.relation.VariableReferenceExpression;
+import com.facebook.presto.sql.planner.Partitioning;
+import com.facebook.presto.sql.planner.PartitioningHandle;
+import com.facebook.presto.sql.planner.PartitioningScheme;
+import com.facebook.presto.sql.planner.PlanFragment;
+import com.facebook.presto.sql.planner.plan.ExchangeNode;
+import com.facebook.presto.sql.planner.plan.JoinNode;
+import com.facebook.presto.sql.planner.plan.PlanFragmentId;
+import com.facebook.presto.sql.planner.plan.RemoteSourceNode;
+import com.facebook.presto.sql.planner.plan.SemiJoinNode;
+import com.facebook.presto.sql.planner.plan.SimplePlanRewriter;
+import com.facebook.presto.sql.planner.plan.TableWriterNode;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ListMultimap;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static com.facebook.presto.SystemSessionProperties.getJoinDistributionType;
+import static com.facebook.presto.SystemSessionProperties.getJoinMaxBroadcastTableSize;
+import static com.facebook.presto.common.RuntimeMetricName.RUNTIME_JOIN_DISTRIBUTION_SWITCHED_TO_PARTITIONED_COUNT;
+import static com.facebook.presto.common.RuntimeMetricName.RUNTIME_JOIN_DISTRIBUTION_SWITCHED_TO_REPLICATED_COUNT;
+import static com.facebook.presto.common.RuntimeUnit.NONE;
+import static com.facebook.presto.sql.analyzer.FeaturesConfig.JoinDistributionType.AUTOMATIC;
+import static com.facebook.presto.sql.planner.SchedulingOrderVisitor.scheduleOrder;
+import static com.facebook.presto.sql.planner.SystemPartitioningHandle.FIXED_BROADCAST_DISTRIBUTION;
+import static com.facebook.presto.sql.planner.SystemPartitioningHandle.SOURCE_DISTRIBUTION;
+import static com.facebook.presto.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
+import static com.facebook.presto.sql.planner.plan.ExchangeNode.Type.REPARTITION;
+import static com.facebook.presto.sql.planner.plan.ExchangeNode.Type.REPLICATE;
+import static com.facebook.presto.sql.planner.plan.JoinNode.DistributionType.PARTITIONED;
+import static com.facebook.presto.sql.planner.plan.JoinNode.DistributionType.REPLICATED;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.INNER;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.LEFT;
+import static com.facebook.presto.sql.planner.plan.SimplePlanRewriter.rewriteWith;
+import static com.facebook.presto.sql.planner.planPrinter.PlanPrinter.jsonFragmentPlan;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static com.google.common.collect.Iterables.getOnlyElement;
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+import static java.util.function.Function.identity;
+
+/**
+ * Switches joins between broadcast and partitioned distribution right before a section is scheduled.
+ * The decision is based on the actual output of the stages of the finished child sections: a stage
+ * producing the build side that only reads, filters and prunes materialized exchanges cannot output
+ * more than the stages that wrote them did. Build sides reading anything else are left untouched.
+ * The stage reading the build side and the stage producing it are rewritten in place, no stage is
+ * added or removed:
+ * <ul>
+ * <li>a broadcast join whose build side is larger than the maximum broadcast size becomes a partitioned
+ * join when its probe side is already partitioned on the join keys with the partitioning of the stage,
+ * either by a repartitioning exchange or by the table layout of a bucketed table, and the build side is
+ * repartitioned with the same partitioning instead of being broadcast</li>
+ * <li>a partitioned join whose build side fits the maximum broadcast size becomes a broadcast join,
+ * and the build side is broadcast instead of being repartitioned</li>
+ * </ul>
+ */
+public class RuntimeJoinDistributionSelector
+{
+    private static final Logger log = Logger.get(RuntimeJoinDistributionSelector.class);
+
+    private final Metadata metadata;
+
+    public RuntimeJoinDistributionSelector(Metadata metadata)
+    {
+        this.metadata = requireNonNull(metadata, "metadata is null");
+    }
+
+    /**
+     * Returns the rewritten fragments of the section keyed by the fragments they replace.
+     *
+     * @param finishedStageOutputs the output of the finished stage running the given fragment, if any
+     */
+    public Map<PlanFragment, PlanFragment> selectJoinDistributions(StreamingPlanSection section, Session session, Function<PlanFragmentId, Optional<StageOutput>> finishedStageOutputs)
+    {
+        Map<PlanFragment, PlanFragment> rewrittenFragments = new HashMap<>();
+        if (getJoinDistributionType(session) != AUTOMATIC) {
+            return rewrittenFragments;
+        }
+        ListMultimap<SchemaTableName, PlanFragmentId> materializingFragments = getMaterializingFragments(section.getChildren());
+        selectJoinDistributions(section.getPlan(), session, new BuildOutputProvider(session, materializingFragments, finishedStageOutputs), rewrittenFragments);
+        return rewrittenFragments;
+    }
+
+    private void selectJoinDistributions(StreamingSubPlan subPlan, Session session, BuildOutputProvider buildOutputProvider, Map<PlanFragment, PlanFragment> rewrittenFragments)
+    {
+        // the output partitioning of the fragment may have been changed already by the rewrite of its parent
+        PlanFragment fragment = rewrittenFragments.getOrDefault(subPlan.getFragment(), subPlan.getFragment());
+        if (!fragment.getStageExecutionDescriptor().isStageGroupedExecution()) {
+            Map<PlanFragmentId, StreamingSubPlan> children = subPlan.getChildren().stream()
+                    .collect(toImmutableMap(child -> child.getFragment().getId(), identity()));
+            Rewriter rewriter = new Rewriter(session, buildOutputProvider, fragment, children, rewrittenFragments);
+            PlanNode newRoot = rewriteWith(rewriter, fragment.getRoot());
+            if (newRoot != fragment.getRoot()) {
+                rewrittenFragments.put(subPlan.getFragment(), new PlanFragment(
+                        fragment.getId(),
+                        newRoot,
+                        fragment.getVariables(),
+                        fragment.getPartitioning(),
+                        scheduleOrder(newRoot),
+                        fragment.getPartitioningScheme(),
+                        fragment.getStageExecutionDescriptor(),
+                        fragment.isOutputTableWriterFragment(),
+                        fragment.getStatsAndCosts(),
+                        Optional.of(jsonFragmentPlan(newRoot, fragment.getVariables(), fragment.getStatsAndCosts(), metadata.getFunctionAndTypeManager(), session))));
+            }
+        }
+
+        for (StreamingSubPlan child : subPlan.getChildren()) {
+            selectJoinDistributions(child, session, buildOutputProvider, rewrittenFragments);
+        }
+    }
+
+    /**
+     * Maps the tables written by the given sections to the fragments producing the rows written to them.
+     */
+    private static ListMultimap<SchemaTableName, PlanFragmentId> getMaterializingFragments(List<StreamingPlanSection> sections)
+    {
+        ImmutableListMultimap.Builder<SchemaTableName, PlanFragmentId> materializingFragments = ImmutableListMultimap.builder();
+        for (StreamingPlanSection section : sections) {
+            addMaterializingFragments(section.getPlan(), materializingFragments);
+        }
+        return materializingFragments.build();
+    }
+
+    private static void addMaterializingFragments(StreamingSubPlan subPlan, ImmutableListMultimap.Builder<SchemaTableName, PlanFragmentId> materializingFragments)
+    {
+        List<TableWriterNode> writers = searchFrom(subPlan.getFragment().getRoot())
+                .where(TableWriterNode.class::isInstance)
+                .findAll();
+        for (TableWriterNode writer : writers) {
+            List<RemoteSourceNode> remoteSources = searchFrom(writer.getSource())
+                    .where(RemoteSourceNode.class::isInstance)
+                    .findAll();
+            // writers reading their input directly cannot be told apart from the rest of their stage
+            if (writer.getTarget().isPresent() && !remoteSources.isEmpty()) {
+                SchemaTableName table = writer.getTarget().get().getSchemaTableName();
+                remoteSources.forEach(remoteSource -> materializingFragments.putAll(table, remoteSource.getSourceFragmentIds()));
+            }
+        }
+        for (StreamingSubPlan child : subPlan.getChildren()) {
+            addMaterializingFragments(child, materializingFragments);
+        }
+    }
+
+    private Optional<Partitioning> getProbePartitioning(JoinNode join, PlanFragment fragment, Map<PlanFragmentId, StreamingSubPlan> children, Map<PlanFragment, PlanFragment> rewrittenFragments, Session session)
+    {
+        // walk down to the node producing the rows of the probe side, all the nodes on the way keep their partitioning
+        PlanNode node = join.getLeft();
+        while (true) {
+            if (node instanceof RemoteSourceNode) {
+                return getRemoteSourcePartitioning((RemoteSourceNode) node, fragment, children, rewrittenFragments);
+            }
+            if (node instanceof TableScanNode) {
+                return getTableScanPartitioning((TableScanNode) node, fragment, session);
+            }
+            if (node instanceof JoinNode && (((JoinNode) node).getType() == INNER || ((JoinNode) node).getType() == LEFT)) {
+                node = ((JoinNode) node).getLeft();
+            }
+            else if (node instanceof SemiJoinNode) {
+                node = ((SemiJoinNode) node).getSource();
+            }
+            else if (node.getSources().size() == 1) {
+                node = getOnlyElement(node.getSources());
+            }
+            else {
+                return Optional.empty();
+            }
+        }
+    }
+
+    private static Optional<Partitioning> getRemoteSourcePartitioning(RemoteSourceNode remoteSource, PlanFragment fragment, Map<PlanFragmentId, StreamingSubPlan> children, Map<PlanFragment, PlanFragment> rewrittenFragments)
+    {
+        if (remoteSource.getExchangeType() != REPARTITION) {
+            return Optional.empty();
+        }
+        Optional<Partitioning> remoteSourcePartitioning = Optional.empty();
+        for (PlanFragmentId sourceFragmentId : remoteSource.getSourceFragmentIds()) {
+            StreamingSubPlan source = children.get(sourceFragmentId);
+            if (source == null) {
+                return Optional.empty();
+            }
+            PartitioningScheme scheme = rewrittenFragments.getOrDefault(source.getFragment(), source.getFragment()).getPartitioningScheme();
+            if (!scheme.getPartitioning().getHandle().equals(fragment.getPartitioning()) ||
+                    !scheme.getPartitioning().getArguments().stream().allMatch(VariableReferenceExpression.class::isInstance) ||
+                    scheme.getOutputLayout().size() != remoteSource.getOutputVariables().size()) {
+                return Optional.empty();
+            }
+            // the output layout of the source fragment lines up with the output of the remote source
+            List<VariableReferenceExpression> outputLayout = scheme.getOutputLayout();
+            Map<VariableReferenceExpression, VariableReferenceExpression> layoutToOutput = new HashMap<>();
+            for (int i = 0; i < outputLayout.size(); i++) {
+                layoutToOutput.put(outputLayout.get(i), remoteSource.getOutputVariables().get(i));
+            }
+            Partitioning partitioning = scheme.getPartitioning().translateVariable(layoutToOutput::get);
+            if (remoteSourcePartitioning.isPresent() && !remoteSourcePartitioning.get().equals(partitioning)) {
+                return Optional.empty();
+            }
+            remoteSourcePartitioning = Optional.of(partitioning);
+        }
+        return remoteSourcePartitioning;
+    }
+
+    private Optional<Partitioning> getTableScanPartitioning(TableScanNode tableScan, PlanFragment fragment, Session session)
+    {
+        Optional<TablePartitioning> tablePartitioning = metadata.getLayout(session, tableScan.getTable()).getTablePartitioning();
+        if (!tablePartitioning.isPresent() || !tablePartitioning.get().getPartitioningHandle().equals(fragment.getPartitioning())) {
+            return Optional.empty();
+        }
+        Map<ColumnHandle, VariableReferenceExpression> columnToVariable = tableScan.getAssignments().entrySet().stream()
+                .collect(toImmutableMap(Map.Entry::getValue, Map.Entry::getKey, (first, second) -> first));
+        ImmutableList.Builder<VariableReferenceExpression> partitioningVariables = ImmutableList.builder();
+        for (ColumnHandle column : tablePartitioning.get().getPartitioningColumns()) {
+            VariableReferenceExpression variable = columnToVariable.get(column);
+            if (variable == null) {
+                return Optional.empty();
+            }
+            partitioningVariables.add(variable);
+        }
+        return Optional.of(Partitioning.create(tablePartitioning.get().getPartitioningHandle(), partitioningVariables.build()));
+    }
+
+    private Optional<PartitioningScheme> getPartitionedBuildScheme(JoinNode join, PlanFragment fragment, PlanFragment buildFragment, Map<PlanFragmentId, StreamingSubPlan> children, Map<PlanFragment, PlanFragment> rewrittenFragments, Session session)
+    {
+        PartitioningHandle partitioningHandle = fragment.getPartitioning();
+        if (partitioningHandle.isSingleNode() || partitioningHandle.equals(SOURCE_DISTRIBUTION) || join.getCriteria().isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<Partitioning> probePartitioning = getProbePartitioning(join, fragment, children, rewrittenFragments, session);
+        if (!probePartitioning.isPresent()) {
+            return Optional.empty();
+        }
+
+        // every partitioning column of the probe side has to be a join key, which is then replaced by its build side counterpart
+        Map<VariableReferenceExpression, VariableReferenceExpression> probeToBuild = new HashMap<>();
+        join.getCriteria().forEach(clause -> probeToBuild.putIfAbsent(clause.getLeft(), clause.getRight()));
+        ImmutableList.Builder<VariableReferenceExpression> buildPartitioningVariables = ImmutableList.builder();
+        for (RowExpression argument : probePartitioning.get().getArguments()) {
+            VariableReferenceExpression buildVariable = probeToBuild.get(argument);
+            if (buildVariable == null) {
+                return Optional.empty();
+            }
+            buildPartitioningVariables.add(buildVariable);
+        }
+        List<VariableReferenceExpression> buildOutputLayout = buildFragment.getPartitioningScheme().getOutputLayout();
+        Partitioning buildPartitioning = Partitioning.create(partitioningHandle, buildPartitioningVariables.build());
+        if (!buildOutputLayout.containsAll(buildPartitioning.getVariableReferences())) {
+            return Optional.empty();
+        }
+        return Optional.of(new PartitioningScheme(buildPartitioning, buildOutputLayout));
+    }
+
+    private static Optional<PartitioningScheme> getReplicatedBuildScheme(JoinNode join, PlanFragment fragment, PlanFragment buildFragment)
+    {
+        PartitioningScheme buildPartitioningScheme = buildFragment.getPartitioningScheme();
+        // a broadcast join cannot produce the unmatched rows of the build side
+        if ((join.getType() != INNER && join.getType() != LEFT) ||
+                buildPartitioningScheme.isReplicateNullsAndAny() ||
+                !buildPartitioningScheme.getPartitioning().getHandle().equals(fragment.getPartitioning())) {
+            return Optional.empty();
+        }
+        return Optional.of(new PartitioningScheme(
+                Partitioning.create(FIXED_BROADCAST_DISTRIBUTION, ImmutableList.of()),
+                buildPartitioningScheme.getOutputLayout()));
+    }
+
+    private static Optional<RemoteSourceNode> getBuildRemoteSource(PlanNode build)
+    {
+        if (build instanceof RemoteSourceNode) {
+            return Optional.of((RemoteSourceNode) build);
+        }
+        if (build instanceof ExchangeNode && ((ExchangeNode) build).getScope().isLocal() && build.getSources().size() == 1) {
+            return getBuildRemoteSource(getOnlyElement(build.getSources()));
+        }
+        return Optional.empty();
+    }
+
+    private static PlanNode replaceBuildRemoteSource(PlanNode build, ExchangeNode.Type exchangeType)
+    {
+        if (build instanceof RemoteSourceNode) {
+            RemoteSourceNode remoteSource = (RemoteSourceNode) build;
+            return new RemoteSourceNode(
+                    remoteSource.getSourceLocation(),
+                    remoteSource.getId(),
+                    remoteSource.getStatsEquivalentPlanNode(),
+                    remoteSource.getSourceFragmentIds(),
+                    remoteSource.getOutputVariables(),
+                    remoteSource.isEnsureSourceOrdering(),
+                    remoteSource.getOrderingScheme(),
+                    exchangeType);
+        }
+        return build.replaceChildren(ImmutableList.of(replaceBuildRemoteSource(getOnlyElement(build.getSources()), exchangeType)));
+    }
+
+    private class Rewriter
+            extends SimplePlanRewriter<Void>
+    {
+        private final Session session;
+        private final BuildOutputProvider buildOutputProvider;
+        private final PlanFragment fragment;
+        private final Map<PlanFragmentId, StreamingSubPlan> children;
+        private final Map<PlanFragment, PlanFragment> rewrittenFragments;
+
+        private Rewriter(Session session, BuildOutputProvider buildOutputProvider, PlanFragment fragment, Map<PlanFragmentId, StreamingSubPlan> children, Map<PlanFragment, PlanFragment> rewrittenFragments)
+        {
+            this.session = requireNonNull(session, "session is null");
+            this.buildOutputProvider = requireNonNull(buildOutputProvider, "buildOutputProvider is null");
+            this.fragment = requireNonNull(fragment, "fragment is null");
+            this.children = requireNonNull(children, "children is null");
+            this.rewrittenFragments = requireNonNull(rewrittenFragments, "rewrittenFragments is null");
+        }
+
+        @Override
+        public PlanNode visitJoin(JoinNode node, RewriteContext<Void> context)
+        {
+            JoinNode join = (JoinNode) context.defaultRewrite(node);
+            if (!join.getDistributionType().isPresent()) {
+                return join;
+            }
+
+            Optional<RemoteSourceNode> buildSource = getBuildRemoteSource(join.getRight());
+            if (!buildSource.isPresent() || buildSource.get().getSourceFragmentIds().size() != 1) {
+                return join;
+            }
+            StreamingSubPlan buildSubPlan = children.get(getOnlyElement(buildSource.get().getSourceFragmentIds()));
+            if (buildSubPlan == null || rewrittenFragments.containsKey(buildSubPlan.getFragment())) {
+                return join;
+            }
+            PlanFragment buildFragment = buildSubPlan.getFragment();
+
+            Optional<StageOutput> buildOutput = buildOutputProvider.getMaximumOutput(buildFragment);
+            if (!buildOutput.isPresent()) {
+                return join;
+            }
+            long buildSizeInBytes = buildOutput.get().getOutputDataSizeInBytes();
+            long maxBroadcastSizeInBytes = getJoinMaxBroadcastTableSize(session).toBytes();
+
+            JoinNode.DistributionType distributionType;
+            ExchangeNode.Type exchangeType;
+            Optional<PartitioningScheme> buildPartitioningScheme;
+            String metricName;
+            if (join.getDistributionType().get() == REPLICATED && buildSource.get().getExchangeType() == REPLICATE && buildSizeInBytes > maxBroadcastSizeInBytes) {
+                distributionType = PARTITIONED;
+                exchangeType = REPARTITION;
+                buildPartitioningScheme = getPartitionedBuildScheme(join, fragment, buildFragment, children, rewrittenFragments, session);
+                metricName = RUNTIME_JOIN_DISTRIBUTION_SWITCHED_TO_PARTITIONED_COUNT;
+            }
+            else if (join.getDistributionType().get() == PARTITIONED && buildSource.get().getExchangeType() == REPARTITION && buildSizeInBytes <= maxBroadcastSizeInBytes) {
+                distributionType = REPLICATED;
+                exchangeType = REPLICATE;
+                buildPartitioningScheme = getReplicatedBuildScheme(join, fragment, buildFragment);
+                metricName = RUNTIME_JOIN_DISTRIBUTION_SWITCHED_TO_REPLICATED_COUNT;
+            }
+            else {
+                return join;
+            }
+            if (!buildPartitioningScheme.isPresent()) {
+                return join;
+            }
+
+            rewrittenFragments.put(buildFragment, new PlanFragment(
+                    buildFragment.getId(),
+                    buildFragment.getRoot(),
+                    buildFragment.getVariables(),
+                    buildFragment.getPartitioning(),
+                    buildFragment.getTableScanSchedulingOrder(),
+                    buildPartitioningScheme.get(),
+                    buildFragment.getStageExecutionDescriptor(),
+                    buildFragment.isOutputTableWriterFragment(),
+                    buildFragment.getStatsAndCosts(),
+                    buildFragment.getJsonRepresentation()));
+            session.getRuntimeStats().addMetricValue(metricName, NONE, 1);
+            log.debug(format("Build size: %s bytes, %s rows, max broadcast size: %s => switched JoinNode ID: %s from %s to %s distribution.",
+                    buildSizeInBytes,
+                    buildOutput.get().getOutputPositions(),
+                    maxBroadcastSizeInBytes,
+                    join.getId(),
+                    join.getDistributionType().get(),
+                    distributionType));
+
+            return ((JoinNode) join.replaceChildren(ImmutableList.of(join.getLeft(), replaceBuildRemoteSource(join.getRight(), exchangeType))))
+                    .withDistributionType(distributionType);
+        }
+    }
+
+    /**
+     * Bounds the output of the stages producing build sides by the actual output of the finished stages
+     * that produced the materialized exchanges they read. Filters and projections pruning columns can only
+     * make the output smaller, so the bound is exact when the stage does nothing but read the exchanges.
+     */
+    private class BuildOutputProvider
+    {
+        private final Session session;
+        private final ListMultimap<SchemaTableName, PlanFragmentId> materializingFragments;
+        private final Function<PlanFragmentId, Optional<StageOutput>> finishedStageOutputs;
+
+        private BuildOutputProvider(Session session, ListMultimap<SchemaTableName, PlanFragmentId> materializingFragments, Function<PlanFragmentId, Optional<StageOutput>> finishedStageOutputs)
+        {
+            this.session = requireNonNull(session, "session is null");
+            this.materializingFragments = requireNonNull(materializingFragments, "materializingFragments is null");
+            this.finishedStageOutputs = requireNonNull(finishedStageOutputs, "finishedStageOutputs is null");
+        }
+
+        public Optional<StageOutput> getMaximumOutput(PlanFragment buildFragment)
+        {
+            if (materializingFragments.isEmpty() || searchFrom(buildFragment.getRoot()).where(node -> !isOutputBoundedByInput(node)).matches()) {
+                return Optional.empty();
+            }
+            List<TableScanNode> tableScans = searchFrom(buildFragment.getRoot())
+                    .where(TableScanNode.class::isInstance)
+                    .findAll();
+            if (tableScans.isEmpty()) {
+                return Optional.empty();
+            }
+
+            long outputDataSizeInBytes = 0;
+            long outputPositions = 0;
+            for (TableScanNode tableScan : tableScans) {
+                SchemaTableName table = metadata.getTableMetadata(session, tableScan.getTable()).getTable();
+                List<PlanFragmentId> fragmentIds = materializingFragments.get(table);
+                if (fragmentIds.isEmpty()) {
+                    return Optional.empty();
+                }
+                for (PlanFragmentId fragmentId : fragmentIds) {
+                    Optional<StageOutput> stageOutput = finishedStageOutputs.apply(fragmentId);
+                    if (!stageOutput.isPresent()) {
+                        return Optional.empty();
+                    }
+                    outputDataSizeInBytes += stageOutput.get().getOutputDataSizeInBytes();
+                    outputPositions += stageOutput.get().getOutputPositions();
+                }
+            }
+            return Optional.of(new StageOutput(outputDataSizeInBytes, outputPositions));
+        }
+
+        private boolean isOutputBoundedByInput(PlanNode node)
+        {
+            if (node instanceof ProjectNode) {
+                return ((ProjectNode) node).getAssignments().getExpressions().stream().allMatch(VariableReferenceExpression.class::isInstance);
+            }
+            if (node instanceof ExchangeNode) {
+                return ((ExchangeNode) node).getScope().isLocal();
+            }
+            return node instanceof TableScanNode || node instanceof FilterNode;
+        }
+    }
+
+    public static class StageOutput
+    {
+        private final long outputDataSizeInBytes;
+        private final long outputPositions;
+
+        public StageOutput(long outputDataSizeInBytes, long outputPositions)
+        {
+            checkArgument(outputDataSizeInBytes >= 0, "outputDataSizeInBytes is negative");
+            checkArgument(outputPositions >= 0, "outputPositions is negative");
+            this.outputDataSizeInBytes = outputDataSizeInBytes;
+            this.outputPositions = outputPositions;
+        }
+
+        public long getOutputDataSizeInBytes()
+        {
+            return outputDataSizeInBytes;
+        }
+
+        public long getOutputPositions()
+        {
+            return outputPositions;
+        }
+    }
+}
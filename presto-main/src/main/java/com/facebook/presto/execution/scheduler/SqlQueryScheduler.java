@@ -29,11 +29,13 @@ import com.facebook.presto.execution.RemoteTaskFactory;
 import com.facebook.presto.execution.SqlStageExecution;
 import com.facebook.presto.execution.StageExecutionInfo;
 import com.facebook.presto.execution.StageExecutionState;
+import com.facebook.presto.execution.StageExecutionStats;
 import com.facebook.presto.execution.StageId;
 import com.facebook.presto.execution.StageInfo;
 import com.facebook.presto.execution.TaskId;
 import com.facebook.presto.execution.buffer.OutputBuffers;
 import com.facebook.presto.execution.buffer.OutputBuffers.OutputBufferId;
+import com.facebook.presto.execution.scheduler.RuntimeJoinDistributionSelector.StageOutput;
 import com.facebook.presto.metadata.FunctionAndTypeManager;
 import com.facebook.presto.metadata.InternalNodeManager;
 import com.facebook.presto.metadata.Metadata;
@@ -145,6 +147,7 @@ public class SqlQueryScheduler
     private final PlanChecker planChecker;
     private final Metadata metadata;
     private final SqlParser sqlParser;
+    private final RuntimeJoinDistributionSelector joinDistributionSelector;
 
     private final StreamingPlanSection sectionedPlan;
     private final boolean summarizeTaskInfo;
@@ -248,6 +251,7 @@ public class SqlQueryScheduler
         this.planChecker = requireNonNull(planChecker, "planChecker is null");
         this.metadata = requireNonNull(metadata, "metadata is null");
         this.sqlParser = requireNonNull(sqlParser, "sqlParser is null");
+        this.joinDistributionSelector = new RuntimeJoinDistributionSelector(metadata);
         this.plan.compareAndSet(null, requireNonNull(plan, "plan is null"));
         this.sectionedPlan = extractStreamingSections(plan);
         this.summarizeTaskInfo = summarizeTaskInfo;
@@ -453,8 +457,9 @@ public class SqlQueryScheduler
 
     /**
      * A general purpose utility function to invoke runtime cost-based optimizer.
-     * (right now there is only one plan optimizer which determines if the probe and build side of a JoinNode should be swapped
-     * based on the statistics of the temporary table holding materialized exchange outputs from finished children sections)
+     * (right now the runtime optimizations determine if the probe and build side of a JoinNode should be swapped, and if a JoinNode
+     * should switch between broadcast and partitioned distribution, based on the statistics of the temporary table holding
+     * materialized exchange outputs from finished children sections and on the actual output of the stages that wrote them)
      */
     private StreamingPlanSection tryCostBasedOptimize(StreamingPlanSection section)
     {
@@ -463,11 +468,17 @@ public class SqlQueryScheduler
             return section;
         }
 
+        // Switch join distribution types first, as it rewrites the partitioning of fragments across stage boundaries
+        Map<PlanFragment, PlanFragment> oldToNewFragment = new HashMap<>(
+                joinDistributionSelector.selectJoinDistributions(section, session, this::getFinishedStageOutput));
+        oldToNewFragment.values().forEach(newPlanFragment ->
+                planChecker.validatePlanFragment(newPlanFragment.getRoot(), session, metadata, sqlParser, TypeProvider.viewOf(variableAllocator.getVariables()), warningCollector));
+
         // Apply runtime optimization on each StreamingSubPlan's fragment
-        Map<PlanFragment, PlanFragment> oldToNewFragment = new HashMap<>();
         stream(forTree(StreamingSubPlan::getChildren).depthFirstPreOrder(section.getPlan()))
                 .forEach(currentSubPlan -> {
-                    Optional<PlanFragment> newPlanFragment = performRuntimeOptimizations(currentSubPlan);
+                    PlanFragment currentFragment = oldToNewFragment.getOrDefault(currentSubPlan.getFragment(), currentSubPlan.getFragment());
+                    Optional<PlanFragment> newPlanFragment = performRuntimeOptimizations(currentFragment);
                     if (newPlanFragment.isPresent()) {
                         planChecker.validatePlanFragment(newPlanFragment.get().getRoot(), session, metadata, sqlParser, TypeProvider.viewOf(variableAllocator.getVariables()), warningCollector);
                         oldToNewFragment.put(currentSubPlan.getFragment(), newPlanFragment.get());
@@ -491,9 +502,21 @@ public class SqlQueryScheduler
         return new StreamingPlanSection(rewriteStreamingSubPlan(section.getPlan(), oldToNewFragment), section.getChildren());
     }
 
-    private Optional<PlanFragment> performRuntimeOptimizations(StreamingSubPlan subPlan)
+    private Optional<StageOutput> getFinishedStageOutput(PlanFragmentId fragmentId)
+    {
+        StageId stageId = getStageId(fragmentId);
+        return getAllStagesExecutions()
+                .filter(stageExecution -> stageExecution.getStageExecutionId().getStageId().equals(stageId))
+                .filter(stageExecution -> stageExecution.getState() == FINISHED)
+                .reduce((first, second) -> second)
+                .map(stageExecution -> {
+                    StageExecutionStats stats = stageExecution.getStageExecutionInfo().getStats();
+                    return new StageOutput(stats.getOutputDataSize().toBytes(), stats.getOutputPositions());
+                });
+    }
+
+    private Optional<PlanFragment> performRuntimeOptimizations(PlanFragment fragment)
     {
-        PlanFragment fragment = subPlan.getFragment();
         PlanNode newRoot = fragment.getRoot();
         for (PlanOptimizer optimizer : runtimePlanOptimizers) {
             newRoot = optimizer.optimize(newRoot, session, TypeProvider.viewOf(variableAllocator.getVariables()), variableAllocator, idAllocator, warningCollector).getPlanNode();
@@ -47,6 +47,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 
+import static com.facebook.airlift.concurrent.MoreFutures.getFutureValue;
 import static com.facebook.presto.common.RuntimeMetricName.FRAGMENT_RESULT_CACHE_HIT;
 import static com.facebook.presto.common.RuntimeMetricName.FRAGMENT_RESULT_CACHE_MISS;
 import static com.facebook.presto.common.RuntimeUnit.NONE;
@@ -99,6 +100,7 @@ public class Driver
 
     private final AtomicReference<SettableFuture<?>> driverBlockedFuture = new AtomicReference<>();
 
+    private final AtomicReference<Optional<ListenableFuture<Optional<Iterator<Page>>>>> pendingCachedResult = new AtomicReference<>(Optional.empty());
     private final AtomicReference<Optional<Iterator<Page>>> cachedResult = new AtomicReference<>(Optional.empty());
     private final AtomicReference<Split> split = new AtomicReference<>();
     private final List<Page> outputPages = new ArrayList<>();
@@ -271,14 +273,12 @@ public class Driver
             Split split = newSplit.getSplit();
 
             if (fragmentResultCacheContext.get().isPresent() && !(split.getConnectorSplit() instanceof RemoteSplit)) {
-                checkState(!this.cachedResult.get().isPresent());
+                checkState(!this.cachedResult.get().isPresent() && !this.pendingCachedResult.get().isPresent());
                 this.fragmentResultCacheContext.set(this.fragmentResultCacheContext.get().map(context -> context.updateRuntimeInformation(split.getConnectorSplit())));
-                Optional<Iterator<Page>> pages = fragmentResultCacheContext.get().get()
+                ListenableFuture<Optional<Iterator<Page>>> pages = fragmentResultCacheContext.get().get()
                         .getFragmentResultCacheManager()
-                        .get(fragmentResultCacheContext.get().get().getHashedCanonicalPlanFragment(), split);
-                sourceOperator.getOperatorContext().getRuntimeStats().addMetricValue(
-                        pages.isPresent() ? FRAGMENT_RESULT_CACHE_HIT : FRAGMENT_RESULT_CACHE_MISS, NONE, 1);
-                this.cachedResult.set(pages);
+                        .getAsync(fragmentResultCacheContext.get().get().getHashedCanonicalPlanFragment(), split);
+                this.pendingCachedResult.set(Optional.of(pages));
                 this.split.set(split);
             }
 
@@ -396,6 +396,13 @@ public class Driver
         try {
             processNewSources();
 
+            // wait for the cached result to be read before deciding whether the operators have to run
+            Optional<ListenableFuture<?>> cachedResultBlocked = getCachedResultBlockedFuture();
+            if (cachedResultBlocked.isPresent()) {
+                driverContext.recordBlocked(cachedResultBlocked.get());
+                return cachedResultBlocked.get();
+            }
+
             // If there is only one operator, finish it
             // Some operators (LookupJoinOperator and HashBuildOperator) are broken and requires finish to be called continuously
             // TODO remove the second part of the if statement, when these operators are fixed
@@ -536,6 +543,26 @@ public class Driver
         }
     }
 
+    @GuardedBy("exclusiveLock")
+    private Optional<ListenableFuture<?>> getCachedResultBlockedFuture()
+    {
+        if (!pendingCachedResult.get().isPresent()) {
+            return Optional.empty();
+        }
+
+        ListenableFuture<Optional<Iterator<Page>>> pages = pendingCachedResult.get().get();
+        if (!pages.isDone()) {
+            return Optional.of(pages);
+        }
+
+        Optional<Iterator<Page>> result = getFutureValue(pages);
+        sourceOperator.orElseThrow(VerifyException::new).getOperatorContext().getRuntimeStats().addMetricValue(
+                result.isPresent() ? FRAGMENT_RESULT_CACHE_HIT : FRAGMENT_RESULT_CACHE_MISS, NONE, 1);
+        cachedResult.set(result);
+        pendingCachedResult.set(Optional.empty());
+        return Optional.empty();
+    }
+
     @GuardedBy("exclusiveLock")
     private void handleMemoryRevoke()
     {
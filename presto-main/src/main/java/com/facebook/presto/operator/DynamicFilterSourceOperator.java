@@ -16,6 +16,7 @@ package com.facebook.presto.operator;
 import com.facebook.presto.common.Page;
 import com.facebook.presto.common.block.Block;
 import com.facebook.presto.common.block.BlockBuilder;
+import com.facebook.presto.common.predicate.BlockedBloomFilter;
 import com.facebook.presto.common.predicate.Domain;
 import com.facebook.presto.common.predicate.TupleDomain;
 import com.facebook.presto.common.predicate.ValueSet;
@@ -29,9 +30,11 @@ import io.airlift.units.DataSize;
 import javax.annotation.Nullable;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
 
+import static com.facebook.presto.common.predicate.BlockedBloomFilter.isSupportedType;
 import static com.facebook.presto.common.predicate.Range.range;
 import static com.facebook.presto.common.type.DoubleType.DOUBLE;
 import static com.facebook.presto.common.type.RealType.REAL;
@@ -39,6 +42,7 @@ import static com.facebook.presto.common.type.TypeUtils.isFloatingPointNaN;
 import static com.facebook.presto.common.type.TypeUtils.readNativeValue;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
+import static io.airlift.units.DataSize.Unit.BYTE;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toSet;
 
@@ -46,7 +50,8 @@ import static java.util.stream.Collectors.toSet;
  * This operator acts as a simple "pass-through" pipe, while saving its input pages.
  * The collected pages' value are used for creating a run-time filtering constraint (for probe-side table scan in an inner join).
  * We record all values for the run-time filter only for small build-side pages (which should be the case when using "broadcast" join).
- * For large inputs on build side, we can optionally record the min and max values per channel for orderable types (except Double and Real).
+ * For large inputs on build side, we can optionally record the min and max values per channel for orderable types (except Double and Real),
+ * and a Bloom filter of the values per channel for integral and varchar types.
  */
 public class DynamicFilterSourceOperator
         implements Operator
@@ -92,6 +97,8 @@ public class DynamicFilterSourceOperator
         private final int maxFilterPositionsCount;
         private final DataSize maxFilterSize;
         private final int minMaxCollectionLimit;
+        private final Consumer<Map<String, BlockedBloomFilter>> bloomFiltersConsumer;
+        private final DataSize bloomFilterSize;
 
         private boolean closed;
 
@@ -103,6 +110,24 @@ public class DynamicFilterSourceOperator
                 int maxFilterPositionsCount,
                 DataSize maxFilterSize,
                 int minMaxCollectionLimit)
+        {
+            this(operatorId, planNodeId, dynamicPredicateConsumer, channels, maxFilterPositionsCount, maxFilterSize, minMaxCollectionLimit, bloomFilters -> {}, new DataSize(0, BYTE));
+        }
+
+        /**
+         * @param bloomFiltersConsumer notified with the Bloom filters, before the predicate is provided to dynamicPredicateConsumer
+         * @param bloomFilterSize size of the Bloom filter built per channel when there are too many values for the predicate; zero disables the Bloom filters
+         */
+        public DynamicFilterSourceOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                Consumer<TupleDomain<String>> dynamicPredicateConsumer,
+                List<Channel> channels,
+                int maxFilterPositionsCount,
+                DataSize maxFilterSize,
+                int minMaxCollectionLimit,
+                Consumer<Map<String, BlockedBloomFilter>> bloomFiltersConsumer,
+                DataSize bloomFilterSize)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -117,6 +142,8 @@ public class DynamicFilterSourceOperator
             this.maxFilterPositionsCount = maxFilterPositionsCount;
             this.maxFilterSize = maxFilterSize;
             this.minMaxCollectionLimit = minMaxCollectionLimit;
+            this.bloomFiltersConsumer = requireNonNull(bloomFiltersConsumer, "bloomFiltersConsumer is null");
+            this.bloomFilterSize = requireNonNull(bloomFilterSize, "bloomFilterSize is null");
         }
 
         @Override
@@ -130,7 +157,9 @@ public class DynamicFilterSourceOperator
                     planNodeId,
                     maxFilterPositionsCount,
                     maxFilterSize,
-                    minMaxCollectionLimit);
+                    minMaxCollectionLimit,
+                    bloomFiltersConsumer,
+                    bloomFilterSize);
         }
 
         @Override
@@ -153,6 +182,9 @@ public class DynamicFilterSourceOperator
     private final long maxFilterSizeInBytes;
     private final List<Channel> channels;
     private final List<Integer> minMaxChannels;
+    private final Consumer<Map<String, BlockedBloomFilter>> bloomFiltersConsumer;
+    private final long bloomFilterSizeInBytes;
+    private final List<Integer> bloomFilterChannels;
 
     private boolean finished;
     private Page current;
@@ -169,6 +201,11 @@ public class DynamicFilterSourceOperator
     @Nullable
     private Block[] maxValues;
 
+    // Built when the exact predicate becomes too large, dropped if there are too many values for the filter size.
+    @Nullable
+    private BlockedBloomFilter[] bloomFilters;
+    private long bloomFilterPositionsCount;
+
     private DynamicFilterSourceOperator(
             OperatorContext context,
             Consumer<TupleDomain<String>> dynamicPredicateConsumer,
@@ -176,7 +213,9 @@ public class DynamicFilterSourceOperator
             PlanNodeId planNodeId,
             int maxFilterPositionsCount,
             DataSize maxFilterSize,
-            int minMaxCollectionLimit)
+            int minMaxCollectionLimit,
+            Consumer<Map<String, BlockedBloomFilter>> bloomFiltersConsumer,
+            DataSize bloomFilterSize)
     {
         this.context = requireNonNull(context, "context is null");
         this.maxFilterPositionsCount = maxFilterPositionsCount;
@@ -187,13 +226,20 @@ public class DynamicFilterSourceOperator
 
         this.blockBuilders = new BlockBuilder[channels.size()];
         this.valueSets = new TypedSet[channels.size()];
+        this.bloomFiltersConsumer = requireNonNull(bloomFiltersConsumer, "bloomFiltersConsumer is null");
+        this.bloomFilterSizeInBytes = bloomFilterSize.toBytes();
+
         ImmutableList.Builder<Integer> minMaxChannelsBuilder = ImmutableList.builder();
+        ImmutableList.Builder<Integer> bloomFilterChannelsBuilder = ImmutableList.builder();
         for (int channelIndex = 0; channelIndex < channels.size(); ++channelIndex) {
             Type type = channels.get(channelIndex).getType();
             // Skipping DOUBLE and REAL in collectMinMaxValues to avoid dealing with NaN values
             if (minMaxCollectionLimit > 0 && type.isOrderable() && type != DOUBLE && type != REAL) {
                 minMaxChannelsBuilder.add(channelIndex);
             }
+            if (bloomFilterSizeInBytes > 0 && isSupportedType(type)) {
+                bloomFilterChannelsBuilder.add(channelIndex);
+            }
             this.blockBuilders[channelIndex] = type.createBlockBuilder(null, EXPECTED_BLOCK_BUILDER_SIZE);
             this.valueSets[channelIndex] = new TypedSet(
                     type,
@@ -204,6 +250,7 @@ public class DynamicFilterSourceOperator
         }
         this.minMaxCollectionLimit = minMaxCollectionLimit;
         minMaxChannels = minMaxChannelsBuilder.build();
+        bloomFilterChannels = bloomFilterChannelsBuilder.build();
         if (!minMaxChannels.isEmpty()) {
             minValues = new Block[channels.size()];
             maxValues = new Block[channels.size()];
@@ -229,6 +276,9 @@ public class DynamicFilterSourceOperator
         current = page;
         if (valueSets == null) {
             // the exact predicate became too large.
+            if (bloomFilters != null) {
+                addToBloomFilters(page);
+            }
             if (minValues == null) {
                 // there are too many rows to collect min/max range
                 return;
@@ -268,9 +318,14 @@ public class DynamicFilterSourceOperator
     private void handleTooLargePredicate()
     {
         // The resulting predicate is too large
+        if (!bloomFilterChannels.isEmpty()) {
+            createBloomFilters();
+        }
         if (minMaxChannels.isEmpty()) {
-            // allow all probe-side values to be read.
-            dynamicPredicateConsumer.accept(TupleDomain.all());
+            if (bloomFilters == null) {
+                // allow all probe-side values to be read.
+                dynamicPredicateConsumer.accept(TupleDomain.all());
+            }
         }
         else {
             if (minMaxCollectionLimit < 0) {
@@ -292,13 +347,85 @@ public class DynamicFilterSourceOperator
 
     private void handleMinMaxCollectionLimitExceeded()
     {
-        // allow all probe-side values to be read.
-        dynamicPredicateConsumer.accept(TupleDomain.all());
+        if (bloomFilters == null) {
+            // allow all probe-side values to be read.
+            dynamicPredicateConsumer.accept(TupleDomain.all());
+        }
         // Drop references to collected values.
         minValues = null;
         maxValues = null;
     }
 
+    private void createBloomFilters()
+    {
+        verify(blockBuilders != null && valueSets != null);
+        long positionsCount = 0;
+        BlockedBloomFilter[] filters = new BlockedBloomFilter[channels.size()];
+        for (Integer channelIndex : bloomFilterChannels) {
+            filters[channelIndex] = BlockedBloomFilter.create(bloomFilterSizeInBytes);
+            positionsCount = Math.max(positionsCount, valueSets[channelIndex].size());
+        }
+        if (positionsCount > filters[bloomFilterChannels.get(0)].getCapacity()) {
+            // there are already too many values for the filter size
+            return;
+        }
+        bloomFilters = filters;
+        bloomFilterPositionsCount = positionsCount;
+        for (Integer channelIndex : bloomFilterChannels) {
+            addToBloomFilter(blockBuilders[channelIndex].build(), channelIndex);
+        }
+    }
+
+    private void addToBloomFilters(Page page)
+    {
+        checkState(bloomFilters != null);
+        bloomFilterPositionsCount += page.getPositionCount();
+        if (checkBloomFiltersCapacity()) {
+            for (Integer channelIndex : bloomFilterChannels) {
+                addToBloomFilter(page.getBlock(channels.get(channelIndex).getIndex()), channelIndex);
+            }
+        }
+    }
+
+    private void addToBloomFilter(Block block, int channelIndex)
+    {
+        Type type = channels.get(channelIndex).getType();
+        BlockedBloomFilter bloomFilter = bloomFilters[channelIndex];
+        for (int position = 0; position < block.getPositionCount(); ++position) {
+            if (!block.isNull(position)) {
+                bloomFilter.add(type, block, position);
+            }
+        }
+    }
+
+    private boolean checkBloomFiltersCapacity()
+    {
+        // The number of positions is an upper bound of the number of distinct values in the filter
+        if (bloomFilterPositionsCount <= bloomFilters[bloomFilterChannels.get(0)].getCapacity()) {
+            return true;
+        }
+        // The filters would let through most of the probe-side values
+        bloomFilters = null;
+        if (minValues == null) {
+            // allow all probe-side values to be read.
+            dynamicPredicateConsumer.accept(TupleDomain.all());
+        }
+        return false;
+    }
+
+    private void notifyBloomFilters()
+    {
+        if (bloomFilters == null) {
+            return;
+        }
+        ImmutableMap.Builder<String, BlockedBloomFilter> bloomFiltersBuilder = ImmutableMap.builder();
+        for (Integer channelIndex : bloomFilterChannels) {
+            bloomFiltersBuilder.put(channels.get(channelIndex).getFilterId(), bloomFilters[channelIndex]);
+        }
+        bloomFilters = null;
+        bloomFiltersConsumer.accept(bloomFiltersBuilder.build());
+    }
+
     private void updateMinMaxValues(Block block, int channelIndex)
     {
         checkState(minValues != null && maxValues != null);
@@ -363,8 +490,12 @@ public class DynamicFilterSourceOperator
         if (valueSets == null) {
             if (minValues == null) {
                 // there were too many rows to collect min/max range
-                // dynamicPredicateConsumer was notified with 'all' in handleTooLargePredicate if there are no orderable types,
-                // else it was notified with 'all' in handleMinMaxCollectionLimitExceeded
+                if (bloomFilters != null) {
+                    notifyBloomFilters();
+                    dynamicPredicateConsumer.accept(TupleDomain.all());
+                }
+                // else dynamicPredicateConsumer was notified with 'all' in handleTooLargePredicate if there are no orderable types,
+                // in handleMinMaxCollectionLimitExceeded, or when the Bloom filters were dropped
                 return;
             }
             // valueSets became too large, create TupleDomain from min/max values
@@ -384,6 +515,7 @@ public class DynamicFilterSourceOperator
             }
             minValues = null;
             maxValues = null;
+            notifyBloomFilters();
             dynamicPredicateConsumer.accept(TupleDomain.withColumnDomains(domainsBuilder.build()));
             return;
         }
@@ -24,7 +24,9 @@ import com.facebook.presto.server.thrift.ThriftTaskClient;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.page.PageCodecMarker;
 import com.facebook.presto.spi.page.SerializedPage;
+import com.google.common.collect.ComparisonChain;
 import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Longs;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import io.airlift.units.DataSize;
@@ -37,11 +39,14 @@ import javax.annotation.concurrent.ThreadSafe;
 import java.io.Closeable;
 import java.net.URI;
 import java.util.ArrayList;
-import java.util.Deque;
-import java.util.LinkedList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -52,6 +57,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static com.facebook.presto.common.block.PageBuilderStatus.DEFAULT_MAX_PAGE_SIZE_IN_BYTES;
+import static com.facebook.presto.operator.ExchangeClientStatus.SOURCE_THROUGHPUT_HISTOGRAM_BOUNDS;
 import static com.facebook.presto.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
@@ -100,8 +106,22 @@ public class ExchangeClient
     private final ConcurrentMap<TaskId, URI> taskIdToLocationMap = new ConcurrentHashMap<>();
     private final Set<TaskId> removedRemoteSourceTaskIds = ConcurrentHashMap.newKeySet();
 
+    // Clients waiting for their next request, with the slowest sources first, so that they are drained first
+    // when the buffer space only allows some of them to be scheduled
     @GuardedBy("this")
-    private final Deque<PageBufferClient> queuedClients = new LinkedList<>();
+    private final PriorityQueue<QueuedClient> queuedClients = new PriorityQueue<>();
+    @GuardedBy("this")
+    private final Map<PageBufferClient, SourceStatistics> sourceStatistics = new HashMap<>();
+    @GuardedBy("this")
+    private long queuedClientSequence;
+    // throughput across all measured sources, used to rank the sources that have not returned any data yet
+    @GuardedBy("this")
+    @Nullable
+    private ExponentialMovingAverage throughputExponentialMovingAverage;
+    // the source statistics are dropped on close, so the histogram reported after that is taken beforehand
+    @GuardedBy("this")
+    @Nullable
+    private List<Long> closedSourceThroughputHistogram;
 
     private final Set<PageBufferClient> completedClients = newConcurrentHashSet();
     private final Set<PageBufferClient> removedClients = newConcurrentHashSet();
@@ -117,6 +137,10 @@ public class ExchangeClient
     @GuardedBy("this")
     private long successfulRequests;
     @GuardedBy("this")
+    private long uncompressedBytesReceived;
+    @GuardedBy("this")
+    private long serializedBytesReceived;
+    @GuardedBy("this")
     private final ExponentialMovingAverage responseSizeExponentialMovingAverage;
 
     private final AtomicBoolean closed = new AtomicBoolean();
@@ -124,6 +148,7 @@ public class ExchangeClient
 
     private final LocalMemoryContext systemMemoryContext;
     private final Executor pageBufferClientCallbackExecutor;
+    private final double responseSizeExponentialMovingAverageDecayingAlpha;
 
     // ExchangeClientStatus.mergeWith assumes all clients have the same bufferCapacity.
     // Please change that method accordingly when this assumption becomes not true.
@@ -154,6 +179,7 @@ public class ExchangeClient
         this.systemMemoryContext = systemMemoryContext;
         this.maxBufferRetainedSizeInBytes = Long.MIN_VALUE;
         this.pageBufferClientCallbackExecutor = requireNonNull(pageBufferClientCallbackExecutor, "pageBufferClientCallbackExecutor is null");
+        this.responseSizeExponentialMovingAverageDecayingAlpha = responseSizeExponentialMovingAverageDecayingAlpha;
         this.responseSizeExponentialMovingAverage = new ExponentialMovingAverage(responseSizeExponentialMovingAverageDecayingAlpha, DEFAULT_MAX_PAGE_SIZE_IN_BYTES);
     }
 
@@ -172,10 +198,41 @@ public class ExchangeClient
             if (bufferedPages > 0 && pageBuffer.peekLast() == NO_MORE_PAGES) {
                 bufferedPages--;
             }
-            return new ExchangeClientStatus(bufferRetainedSizeInBytes, maxBufferRetainedSizeInBytes, responseSizeExponentialMovingAverage.get(), successfulRequests, bufferedPages, noMoreLocations, pageBufferClientStatus);
+            return new ExchangeClientStatus(
+                    bufferRetainedSizeInBytes,
+                    maxBufferRetainedSizeInBytes,
+                    responseSizeExponentialMovingAverage.get(),
+                    successfulRequests,
+                    bufferedPages,
+                    noMoreLocations,
+                    uncompressedBytesReceived,
+                    serializedBytesReceived,
+                    pageBufferClientStatus,
+                    getSourceThroughputHistogram());
         }
     }
 
+    @GuardedBy("this")
+    private List<Long> getSourceThroughputHistogram()
+    {
+        if (closedSourceThroughputHistogram != null) {
+            return closedSourceThroughputHistogram;
+        }
+        long[] histogram = new long[SOURCE_THROUGHPUT_HISTOGRAM_BOUNDS.size() + 1];
+        for (SourceStatistics statistics : sourceStatistics.values()) {
+            OptionalDouble throughput = statistics.getThroughput();
+            if (!throughput.isPresent()) {
+                continue;
+            }
+            int bucket = 0;
+            while (bucket < SOURCE_THROUGHPUT_HISTOGRAM_BOUNDS.size() && throughput.getAsDouble() >= SOURCE_THROUGHPUT_HISTOGRAM_BOUNDS.get(bucket)) {
+                bucket++;
+            }
+            histogram[bucket]++;
+        }
+        return Longs.asList(histogram);
+    }
+
     public synchronized void addLocation(URI location, TaskId remoteSourceTaskId)
     {
         requireNonNull(location, "location is null");
@@ -223,7 +280,8 @@ public class ExchangeClient
                 pageBufferClientCallbackExecutor);
         allClients.put(location, client);
         checkState(taskIdToLocationMap.put(remoteSourceTaskId, location) == null, "Duplicate remoteSourceTaskId: " + remoteSourceTaskId);
-        queuedClients.add(client);
+        sourceStatistics.put(client, new SourceStatistics(responseSizeExponentialMovingAverageDecayingAlpha, responseSizeExponentialMovingAverage.get()));
+        enqueueClient(client);
 
         scheduleRequestIfNecessary();
     }
@@ -252,6 +310,7 @@ public class ExchangeClient
         closeQuietly(client);
         removedClients.add(client);
         completedClients.add(client);
+        sourceStatistics.remove(client);
     }
 
     public synchronized void noMoreLocations()
@@ -340,6 +399,9 @@ public class ExchangeClient
         for (PageBufferClient client : allClients.values()) {
             closeQuietly(client);
         }
+        closedSourceThroughputHistogram = getSourceThroughputHistogram();
+        queuedClients.clear();
+        sourceStatistics.clear();
         pageBuffer.clear();
         systemMemoryContext.setBytes(0);
         bufferRetainedSizeInBytes = 0;
@@ -379,22 +441,46 @@ public class ExchangeClient
         clientCount -= pendingClients;
 
         for (int i = 0; i < clientCount; ) {
-            PageBufferClient client = queuedClients.poll();
-            if (client == null) {
+            QueuedClient queuedClient = queuedClients.poll();
+            if (queuedClient == null) {
                 // no more clients available
                 return;
             }
-
+            PageBufferClient client = queuedClient.getClient();
             if (removedClients.contains(client)) {
                 continue;
             }
+            SourceStatistics statistics = sourceStatistics.get(client);
+            statistics.setQueued(false);
 
-            DataSize max = new DataSize(min(averageResponseSize * 2, maxResponseSize.toBytes()), BYTE);
+            // size the request by what this source returns, so that slow sources are not asked for as much as fast ones
+            long sourceAverageResponseSize = max(1, statistics.getAverageResponseSize());
+            DataSize max = new DataSize(min(sourceAverageResponseSize * 2, maxResponseSize.toBytes()), BYTE);
+            statistics.requestScheduled(System.nanoTime());
             client.scheduleRequest(max);
             i++;
         }
     }
 
+    @GuardedBy("this")
+    private void enqueueClient(PageBufferClient client)
+    {
+        SourceStatistics statistics = sourceStatistics.get(client);
+        statistics.setQueued(true);
+        double throughput;
+        if (statistics.isIdle()) {
+            // the source had nothing ready the last time, so ask the sources that are producing data first
+            throughput = Double.POSITIVE_INFINITY;
+        }
+        else {
+            // a source that has not returned any data yet is ranked as an average one rather than as the slowest,
+            // and all sources are ranked equally (in queueing order) until some throughput has been measured
+            double averageThroughput = throughputExponentialMovingAverage == null ? 0 : throughputExponentialMovingAverage.get();
+            throughput = statistics.getThroughput().orElse(averageThroughput);
+        }
+        queuedClients.add(new QueuedClient(client, throughput, queuedClientSequence++));
+    }
+
     public ListenableFuture<?> isBlocked()
     {
         // Fast path return without synchronizing
@@ -412,14 +498,16 @@ public class ExchangeClient
         }
     }
 
-    private boolean addPages(List<SerializedPage> pages)
+    private boolean addPages(PageBufferClient client, List<SerializedPage> pages)
     {
         // Compute stats before acquiring the lock
         long pagesRetainedSizeInBytes = 0;
         long responseSize = 0;
+        long uncompressedSize = 0;
         for (SerializedPage page : pages) {
             pagesRetainedSizeInBytes += page.getRetainedSizeInBytes();
             responseSize += page.getSizeInBytes();
+            uncompressedSize += page.getUncompressedSizeInBytes();
         }
 
         List<SettableFuture<?>> notify = ImmutableList.of();
@@ -441,7 +529,13 @@ public class ExchangeClient
             }
 
             successfulRequests++;
+            uncompressedBytesReceived += uncompressedSize;
+            serializedBytesReceived += responseSize;
             responseSizeExponentialMovingAverage.update(responseSize);
+            SourceStatistics statistics = sourceStatistics.get(client);
+            if (statistics != null) {
+                statistics.responseReceived(responseSize);
+            }
         }
         // Trigger notifications after releasing the lock
         notifyListeners(notify);
@@ -469,8 +563,21 @@ public class ExchangeClient
 
     private synchronized void requestComplete(PageBufferClient client)
     {
-        if (!queuedClients.contains(client)) {
-            queuedClients.add(client);
+        SourceStatistics statistics = sourceStatistics.get(client);
+        // statistics of removed sources are dropped, and removed sources are not requested again
+        if (statistics != null) {
+            OptionalLong throughput = statistics.requestCompleted(System.nanoTime());
+            if (throughput.isPresent()) {
+                if (throughputExponentialMovingAverage == null) {
+                    throughputExponentialMovingAverage = new ExponentialMovingAverage(responseSizeExponentialMovingAverageDecayingAlpha, throughput.getAsLong());
+                }
+                else {
+                    throughputExponentialMovingAverage.update(throughput.getAsLong());
+                }
+            }
+            if (!statistics.isQueued()) {
+                enqueueClient(client);
+            }
         }
         scheduleRequestIfNecessary();
     }
@@ -519,7 +626,7 @@ public class ExchangeClient
         {
             requireNonNull(client, "client is null");
             requireNonNull(pages, "pages is null");
-            return ExchangeClient.this.addPages(pages);
+            return ExchangeClient.this.addPages(client, pages);
         }
 
         @Override
@@ -568,6 +675,130 @@ public class ExchangeClient
         }
     }
 
+    private static class QueuedClient
+            implements Comparable<QueuedClient>
+    {
+        private final PageBufferClient client;
+        private final double throughput;
+        private final long sequence;
+
+        private QueuedClient(PageBufferClient client, double throughput, long sequence)
+        {
+            this.client = requireNonNull(client, "client is null");
+            this.throughput = throughput;
+            this.sequence = sequence;
+        }
+
+        public PageBufferClient getClient()
+        {
+            return client;
+        }
+
+        @Override
+        public int compareTo(QueuedClient other)
+        {
+            // slowest source first, and in the order the clients were queued among equally fast sources
+            return ComparisonChain.start()
+                    .compare(throughput, other.throughput)
+                    .compare(sequence, other.sequence)
+                    .result();
+        }
+    }
+
+    /**
+     * Response size and throughput of a single source, measured from the requests sent to it
+     */
+    private static class SourceStatistics
+    {
+        private final double alpha;
+        private final ExponentialMovingAverage responseSize;
+        @Nullable
+        private ExponentialMovingAverage throughput;
+        private long requestStartNanos;
+        private long requestBytes;
+        private boolean requestRunning;
+        private boolean queued;
+        private boolean idle;
+
+        public SourceStatistics(double alpha, long initialResponseSize)
+        {
+            this.alpha = alpha;
+            this.responseSize = new ExponentialMovingAverage(alpha, initialResponseSize);
+        }
+
+        public void requestScheduled(long nanoTime)
+        {
+            requestStartNanos = nanoTime;
+            requestBytes = 0;
+            requestRunning = true;
+        }
+
+        public void responseReceived(long bytes)
+        {
+            // empty responses mean the source had no data ready, which says nothing about the size it can return
+            if (bytes > 0) {
+                responseSize.update(bytes);
+            }
+            requestBytes += bytes;
+        }
+
+        /**
+         * @return the throughput measured by the completed request, if it returned any data
+         */
+        public OptionalLong requestCompleted(long nanoTime)
+        {
+            if (!requestRunning) {
+                return OptionalLong.empty();
+            }
+            requestRunning = false;
+
+            // requests are long polls, so an empty response only tells how long the source was waited on while it had
+            // nothing ready; counting it would make idle sources look like the slowest ones
+            idle = requestBytes == 0;
+            if (idle) {
+                return OptionalLong.empty();
+            }
+
+            // bytes per second, including the time the source spent producing the data
+            long bytesPerSecond = (long) (requestBytes * 1_000_000_000.0 / max(nanoTime - requestStartNanos, 1));
+            if (throughput == null) {
+                throughput = new ExponentialMovingAverage(alpha, bytesPerSecond);
+            }
+            else {
+                throughput.update(bytesPerSecond);
+            }
+            return OptionalLong.of(bytesPerSecond);
+        }
+
+        public long getAverageResponseSize()
+        {
+            return responseSize.get();
+        }
+
+        public OptionalDouble getThroughput()
+        {
+            if (throughput == null) {
+                return OptionalDouble.empty();
+            }
+            return OptionalDouble.of(throughput.get());
+        }
+
+        public boolean isIdle()
+        {
+            return idle;
+        }
+
+        public boolean isQueued()
+        {
+            return queued;
+        }
+
+        public void setQueued(boolean queued)
+        {
+            this.queued = queued;
+        }
+    }
+
     private static class ExponentialMovingAverage
     {
         private final double alpha;
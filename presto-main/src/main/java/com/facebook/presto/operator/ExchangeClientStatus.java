@@ -24,19 +24,35 @@ import com.google.common.collect.ImmutableList;
 import java.util.List;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Collections.nCopies;
 import static java.util.Objects.requireNonNull;
 
 @ThriftStruct
 public class ExchangeClientStatus
         implements Mergeable<ExchangeClientStatus>, OperatorInfo
 {
+    /**
+     * Upper bounds, in bytes per second, of the buckets of {@link #getSourceThroughputHistogram()}. The last bucket is unbounded.
+     */
+    public static final List<Long> SOURCE_THROUGHPUT_HISTOGRAM_BOUNDS = ImmutableList.of(
+            64L << 10,
+            256L << 10,
+            1L << 20,
+            4L << 20,
+            16L << 20,
+            64L << 20);
+
     private final long bufferedBytes;
     private final long maxBufferedBytes;
     private final long averageBytesPerRequest;
     private final long successfulRequestsCount;
     private final int bufferedPages;
     private final boolean noMoreLocations;
+    private final long uncompressedBytesReceived;
+    private final long serializedBytesReceived;
     private final List<PageBufferClientStatus> pageBufferClientStatuses;
+    private final List<Long> sourceThroughputHistogram;
 
     @JsonCreator
     @ThriftConstructor
@@ -47,7 +63,10 @@ public class ExchangeClientStatus
             @JsonProperty("successfulRequestsCount") long successfulRequestsCount,
             @JsonProperty("bufferedPages") int bufferedPages,
             @JsonProperty("noMoreLocations") boolean noMoreLocations,
-            @JsonProperty("pageBufferClientStatuses") List<PageBufferClientStatus> pageBufferClientStatuses)
+            @JsonProperty("uncompressedBytesReceived") long uncompressedBytesReceived,
+            @JsonProperty("serializedBytesReceived") long serializedBytesReceived,
+            @JsonProperty("pageBufferClientStatuses") List<PageBufferClientStatus> pageBufferClientStatuses,
+            @JsonProperty("sourceThroughputHistogram") List<Long> sourceThroughputHistogram)
     {
         this.bufferedBytes = bufferedBytes;
         this.maxBufferedBytes = maxBufferedBytes;
@@ -55,7 +74,17 @@ public class ExchangeClientStatus
         this.successfulRequestsCount = successfulRequestsCount;
         this.bufferedPages = bufferedPages;
         this.noMoreLocations = noMoreLocations;
+        this.uncompressedBytesReceived = uncompressedBytesReceived;
+        this.serializedBytesReceived = serializedBytesReceived;
         this.pageBufferClientStatuses = ImmutableList.copyOf(requireNonNull(pageBufferClientStatuses, "pageBufferClientStatuses is null"));
+        // statuses reported by workers that predate the histogram do not have it
+        if (sourceThroughputHistogram == null || sourceThroughputHistogram.isEmpty()) {
+            this.sourceThroughputHistogram = ImmutableList.copyOf(nCopies(SOURCE_THROUGHPUT_HISTOGRAM_BOUNDS.size() + 1, 0L));
+        }
+        else {
+            this.sourceThroughputHistogram = ImmutableList.copyOf(sourceThroughputHistogram);
+        }
+        checkArgument(this.sourceThroughputHistogram.size() == SOURCE_THROUGHPUT_HISTOGRAM_BOUNDS.size() + 1, "sourceThroughputHistogram must have one bucket more than there are bounds");
     }
 
     @JsonProperty
@@ -107,6 +136,37 @@ public class ExchangeClientStatus
         return pageBufferClientStatuses;
     }
 
+    /**
+     * Size of the received pages after block encoding, but before compression
+     */
+    @JsonProperty
+    @ThriftField(8)
+    public long getUncompressedBytesReceived()
+    {
+        return uncompressedBytesReceived;
+    }
+
+    /**
+     * Size of the received pages as sent over the network
+     */
+    @JsonProperty
+    @ThriftField(9)
+    public long getSerializedBytesReceived()
+    {
+        return serializedBytesReceived;
+    }
+
+    /**
+     * Number of sources by their average throughput, in the buckets bounded by {@link #SOURCE_THROUGHPUT_HISTOGRAM_BOUNDS}.
+     * Sources that have not completed a request yet are not counted.
+     */
+    @JsonProperty
+    @ThriftField(10)
+    public List<Long> getSourceThroughputHistogram()
+    {
+        return sourceThroughputHistogram;
+    }
+
     @Override
     public boolean isFinal()
     {
@@ -123,7 +183,10 @@ public class ExchangeClientStatus
                 .add("successfulRequestsCount", successfulRequestsCount)
                 .add("bufferedPages", bufferedPages)
                 .add("noMoreLocations", noMoreLocations)
+                .add("uncompressedBytesReceived", uncompressedBytesReceived)
+                .add("serializedBytesReceived", serializedBytesReceived)
                 .add("pageBufferClientStatuses", pageBufferClientStatuses)
+                .add("sourceThroughputHistogram", sourceThroughputHistogram)
                 .toString();
     }
 
@@ -137,7 +200,19 @@ public class ExchangeClientStatus
                 successfulRequestsCount + other.successfulRequestsCount,
                 bufferedPages + other.bufferedPages,
                 noMoreLocations && other.noMoreLocations, // if at least one has some locations, merge has some too
-                ImmutableList.of()); // pageBufferClientStatuses may be long, so we don't want to combine the lists
+                uncompressedBytesReceived + other.uncompressedBytesReceived,
+                serializedBytesReceived + other.serializedBytesReceived,
+                ImmutableList.of(), // pageBufferClientStatuses may be long, so we don't want to combine the lists
+                mergeHistograms(sourceThroughputHistogram, other.sourceThroughputHistogram));
+    }
+
+    private static List<Long> mergeHistograms(List<Long> histogram1, List<Long> histogram2)
+    {
+        ImmutableList.Builder<Long> merged = ImmutableList.builderWithExpectedSize(histogram1.size());
+        for (int i = 0; i < histogram1.size(); i++) {
+            merged.add(histogram1.get(i) + histogram2.get(i));
+        }
+        return merged.build();
     }
 
     private static long mergeAvgs(long value1, long count1, long value2, long count2)
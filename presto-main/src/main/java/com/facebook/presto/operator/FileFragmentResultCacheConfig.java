@@ -39,6 +39,7 @@ public class FileFragmentResultCacheConfig
     private DataSize maxInFlightSize = new DataSize(1, GIGABYTE);
     private DataSize maxSinglePagesSize = new DataSize(500, MEGABYTE);
     private DataSize maxCacheSize = new DataSize(100, GIGABYTE);
+    private boolean persistentIndexEnabled;
 
     public boolean isCachingEnabled()
     {
@@ -148,4 +149,17 @@ public class FileFragmentResultCacheConfig
         this.maxCacheSize = maxCacheSize;
         return this;
     }
+
+    public boolean isPersistentIndexEnabled()
+    {
+        return persistentIndexEnabled;
+    }
+
+    @Config("fragment-result-cache.persistent-index-enabled")
+    @ConfigDescription("Keep the cache index on disk so that cached results survive a restart")
+    public FileFragmentResultCacheConfig setPersistentIndexEnabled(boolean persistentIndexEnabled)
+    {
+        this.persistentIndexEnabled = persistentIndexEnabled;
+        return this;
+    }
 }
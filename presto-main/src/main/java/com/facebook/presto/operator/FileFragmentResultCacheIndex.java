@@ -0,0 +1,264 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.airlift.log.Logger;
+import com.facebook.presto.metadata.Split.SplitIdentifier;
+import com.facebook.presto.operator.FileFragmentResultCacheManager.CacheKey;
+import com.facebook.presto.spi.ConnectorId;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.newInputStream;
+import static java.nio.file.Files.newOutputStream;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Append-only log of the entries added to and removed from the fragment result cache.
+ * Replaying the log gives the entries that were cached when the worker stopped.
+ * The split identifiers of the keys must be strings, so that they can be written to the log.
+ */
+@ThreadSafe
+public class FileFragmentResultCacheIndex
+        implements Closeable
+{
+    private static final Logger log = Logger.get(FileFragmentResultCacheIndex.class);
+
+    public static final String INDEX_FILE_NAME = "fragment-result-cache.index";
+    private static final String INDEX_TEMPORARY_FILE_NAME = INDEX_FILE_NAME + ".tmp";
+
+    private static final byte PUT = 0;
+    private static final byte REMOVE = 1;
+
+    private final Path indexPath;
+    private final Path temporaryIndexPath;
+
+    @GuardedBy("this")
+    private DataOutputStream output;
+
+    public FileFragmentResultCacheIndex(Path baseDirectory)
+    {
+        requireNonNull(baseDirectory, "baseDirectory is null");
+        this.indexPath = baseDirectory.resolve(INDEX_FILE_NAME);
+        this.temporaryIndexPath = baseDirectory.resolve(INDEX_TEMPORARY_FILE_NAME);
+    }
+
+    public static boolean isIndexFile(Path path)
+    {
+        String fileName = path.getFileName().toString();
+        return fileName.equals(INDEX_FILE_NAME) || fileName.equals(INDEX_TEMPORARY_FILE_NAME);
+    }
+
+    /**
+     * Replays the log and returns the file name and size of the cached results, in the order they were cached.
+     */
+    public synchronized Map<CacheKey, IndexEntry> load()
+            throws IOException
+    {
+        Map<CacheKey, IndexEntry> entries = new LinkedHashMap<>();
+        if (Files.exists(indexPath)) {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(newInputStream(indexPath)))) {
+                while (true) {
+                    byte type;
+                    try {
+                        type = input.readByte();
+                    }
+                    catch (EOFException e) {
+                        break;
+                    }
+                    CacheKey key = new CacheKey(readString(input), new SplitIdentifier(new ConnectorId(readString(input)), readString(input)));
+                    if (type == PUT) {
+                        IndexEntry entry = new IndexEntry(readString(input), input.readLong());
+                        entries.remove(key);
+                        entries.put(key, entry);
+                    }
+                    else if (type == REMOVE) {
+                        entries.remove(key);
+                    }
+                    else {
+                        log.warn("Unknown record type %s in fragment result cache index %s, ignoring the rest of the index", type, indexPath);
+                        break;
+                    }
+                }
+            }
+            catch (EOFException e) {
+                // the last record was not fully written before the worker stopped
+                log.warn("Fragment result cache index %s is truncated, ignoring the last record", indexPath);
+            }
+        }
+        openOutput();
+        return entries;
+    }
+
+    /**
+     * Replaces the log with one containing only the given entries.
+     */
+    public synchronized void compact(Map<CacheKey, IndexEntry> entries)
+            throws IOException
+    {
+        closeOutput();
+        try (DataOutputStream temporaryOutput = new DataOutputStream(new BufferedOutputStream(newOutputStream(temporaryIndexPath)))) {
+            for (Map.Entry<CacheKey, IndexEntry> entry : entries.entrySet()) {
+                writePut(temporaryOutput, entry.getKey(), entry.getValue());
+            }
+        }
+        Files.move(temporaryIndexPath, indexPath, ATOMIC_MOVE, REPLACE_EXISTING);
+        openOutput();
+    }
+
+    public synchronized void recordPut(CacheKey key, IndexEntry entry)
+    {
+        if (output == null) {
+            return;
+        }
+        try {
+            writePut(output, key, entry);
+            output.flush();
+        }
+        catch (IOException e) {
+            handleWriteFailure(e);
+        }
+    }
+
+    public synchronized void recordRemoval(CacheKey key)
+    {
+        if (output == null) {
+            return;
+        }
+        try {
+            output.writeByte(REMOVE);
+            writeKey(output, key);
+            output.flush();
+        }
+        catch (IOException e) {
+            handleWriteFailure(e);
+        }
+    }
+
+    @Override
+    public synchronized void close()
+            throws IOException
+    {
+        closeOutput();
+    }
+
+    @GuardedBy("this")
+    private void openOutput()
+            throws IOException
+    {
+        output = new DataOutputStream(new BufferedOutputStream(newOutputStream(indexPath, CREATE, APPEND)));
+    }
+
+    @GuardedBy("this")
+    private void closeOutput()
+            throws IOException
+    {
+        if (output != null) {
+            output.close();
+            output = null;
+        }
+    }
+
+    @GuardedBy("this")
+    private void handleWriteFailure(IOException e)
+    {
+        // Stop writing to the index, the cached results will not be restored after a restart
+        log.warn(e, "Failed to write to fragment result cache index %s", indexPath);
+        try {
+            closeOutput();
+        }
+        catch (IOException ignored) {
+            output = null;
+        }
+        try {
+            Files.deleteIfExists(indexPath);
+        }
+        catch (IOException ignored) {
+            // ignore
+        }
+    }
+
+    private static void writePut(DataOutputStream output, CacheKey key, IndexEntry entry)
+            throws IOException
+    {
+        output.writeByte(PUT);
+        writeKey(output, key);
+        writeString(output, entry.getFileName());
+        output.writeLong(entry.getResultBytes());
+    }
+
+    private static void writeKey(DataOutputStream output, CacheKey key)
+            throws IOException
+    {
+        writeString(output, key.getSerializedPlan());
+        writeString(output, key.getSplitIdentifier().getConnectorId().getCatalogName());
+        writeString(output, (String) key.getSplitIdentifier().getSplitIdentifier());
+    }
+
+    private static void writeString(DataOutputStream output, String value)
+            throws IOException
+    {
+        byte[] bytes = value.getBytes(UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInputStream input)
+            throws IOException
+    {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    public static class IndexEntry
+    {
+        private final String fileName;
+        private final long resultBytes;
+
+        public IndexEntry(String fileName, long resultBytes)
+        {
+            this.fileName = requireNonNull(fileName, "fileName is null");
+            this.resultBytes = resultBytes;
+        }
+
+        public String getFileName()
+        {
+            return fileName;
+        }
+
+        public long getResultBytes()
+        {
+            return resultBytes;
+        }
+    }
+}
@@ -13,18 +13,28 @@
  */
 package com.facebook.presto.operator;
 
+import com.facebook.airlift.json.JsonObjectMapperProvider;
 import com.facebook.airlift.log.Logger;
 import com.facebook.presto.common.Page;
 import com.facebook.presto.common.block.BlockEncodingSerde;
 import com.facebook.presto.execution.buffer.PagesSerdeFactory;
 import com.facebook.presto.metadata.Split;
 import com.facebook.presto.metadata.Split.SplitIdentifier;
+import com.facebook.presto.operator.FileFragmentResultCacheIndex.IndexEntry;
 import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.page.PagesSerde;
+import com.facebook.presto.spi.page.SerializedPage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.RemovalListener;
 import com.google.common.cache.RemovalNotification;
 import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import io.airlift.slice.InputStreamSliceInput;
 import io.airlift.slice.OutputStreamSliceOutput;
 import io.airlift.slice.SliceOutput;
@@ -43,15 +53,26 @@ import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
+import static com.facebook.airlift.concurrent.MoreFutures.getFutureValue;
+import static com.facebook.presto.operator.FileFragmentResultCacheIndex.isIndexFile;
 import static com.facebook.presto.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
 import static com.facebook.presto.spi.page.PagesSerdeUtil.readPages;
+import static com.facebook.presto.spi.page.PagesSerdeUtil.readSerializedPages;
 import static com.facebook.presto.spi.page.PagesSerdeUtil.writePages;
+import static com.fasterxml.jackson.databind.SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS;
+import static com.google.common.cache.RemovalCause.REPLACED;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.google.common.primitives.Ints.saturatedCast;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
+import static java.lang.Math.max;
 import static java.nio.file.Files.newInputStream;
 import static java.nio.file.Files.newOutputStream;
 import static java.nio.file.StandardOpenOption.APPEND;
@@ -64,6 +85,9 @@ public class FileFragmentResultCacheManager
 {
     private static final Logger log = Logger.get(FileFragmentResultCacheManager.class);
 
+    // Sorted map entries make the JSON representation of split identifiers deterministic
+    private static final ObjectMapper SPLIT_IDENTIFIER_MAPPER = new JsonObjectMapperProvider().get().configure(ORDER_MAP_ENTRIES_BY_KEYS, true);
+
     private final Path baseDirectory;
     // Max size for the in-memory buffer.
     private final long maxInFlightBytes;
@@ -75,8 +99,10 @@ public class FileFragmentResultCacheManager
     private final FragmentCacheStats fragmentCacheStats;
     private final ExecutorService flushExecutor;
     private final ExecutorService removalExecutor;
+    private final ListeningExecutorService readExecutor;
 
     private final Cache<CacheKey, CacheEntry> cache;
+    private final Optional<FileFragmentResultCacheIndex> index;
 
     // TODO: Decouple CacheKey by encoding PlanNode and SplitIdentifier separately so we don't have to keep too many objects in memory
     @Inject
@@ -85,7 +111,8 @@ public class FileFragmentResultCacheManager
             BlockEncodingSerde blockEncodingSerde,
             FragmentCacheStats fragmentCacheStats,
             ExecutorService flushExecutor,
-            ExecutorService removalExecutor)
+            ExecutorService removalExecutor,
+            ExecutorService readExecutor)
     {
         requireNonNull(cacheConfig, "cacheConfig is null");
         requireNonNull(blockEncodingSerde, "blockEncodingSerde is null");
@@ -99,8 +126,20 @@ public class FileFragmentResultCacheManager
         this.fragmentCacheStats = requireNonNull(fragmentCacheStats, "fragmentCacheStats is null");
         this.flushExecutor = requireNonNull(flushExecutor, "flushExecutor is null");
         this.removalExecutor = requireNonNull(removalExecutor, "removalExecutor is null");
+        this.readExecutor = listeningDecorator(requireNonNull(readExecutor, "readExecutor is null"));
+        this.index = cacheConfig.isPersistentIndexEnabled() ? Optional.of(new FileFragmentResultCacheIndex(baseDirectory)) : Optional.empty();
+
+        // Least recently used entries are evicted when either the on-disk size or the number of entries exceeds its limit.
+        // Every entry weighs at least its share of the maximum cache size, which bounds the number of entries.
+        // Weights are counted in units of one or more bytes, so that the weight of an entry fits in an int.
+        long weightUnit = max(1, maxCacheBytes / (Integer.MAX_VALUE / 2));
+        long maxWeight = maxCacheBytes / weightUnit;
+        long minEntryWeight = cacheConfig.getMaxCachedEntries() == 0 ? maxWeight + 1 : maxWeight / cacheConfig.getMaxCachedEntries();
         this.cache = CacheBuilder.newBuilder()
-                .maximumSize(cacheConfig.getMaxCachedEntries())
+                .maximumWeight(maxWeight)
+                .weigher((CacheKey key, CacheEntry entry) -> saturatedCast(max((entry.getResultBytes() + weightUnit - 1) / weightUnit, minEntryWeight)))
+                // a single segment, so that the limits apply to the whole cache rather than to each segment
+                .concurrencyLevel(1)
                 .expireAfterAccess(cacheConfig.getCacheTtl().toMillis(), MILLISECONDS)
                 .removalListener(new CacheRemovalListener())
                 .recordStats()
@@ -114,6 +153,7 @@ public class FileFragmentResultCacheManager
             catch (IOException e) {
                 throw new PrestoException(GENERIC_INTERNAL_ERROR, "cannot create cache directory " + target, e);
             }
+            restoreCacheEntries();
         }
         else {
             File[] files = target.listFiles();
@@ -121,33 +161,88 @@ public class FileFragmentResultCacheManager
                 return;
             }
 
-            this.removalExecutor.submit(() -> Arrays.stream(files).forEach(file -> {
-                try {
-                    Files.delete(file.toPath());
-                }
-                catch (IOException e) {
-                    // ignore
+            Set<String> restoredFileNames = restoreCacheEntries();
+            this.removalExecutor.submit(() -> Arrays.stream(files)
+                    .filter(file -> !restoredFileNames.contains(file.getName()) && !(index.isPresent() && isIndexFile(file.toPath())))
+                    .forEach(file -> {
+                        try {
+                            Files.delete(file.toPath());
+                        }
+                        catch (IOException e) {
+                            // ignore
+                        }
+                    }));
+        }
+    }
+
+    /**
+     * Adds the entries of the persistent index whose files are intact back to the cache, and returns their file names.
+     */
+    private Set<String> restoreCacheEntries()
+    {
+        if (!index.isPresent()) {
+            return ImmutableSet.of();
+        }
+
+        try {
+            for (Map.Entry<CacheKey, IndexEntry> entry : index.get().load().entrySet()) {
+                Path path = baseDirectory.resolve(entry.getValue().getFileName());
+                File file = path.toFile();
+                if (file.isFile() && file.length() == entry.getValue().getResultBytes()) {
+                    cache.put(entry.getKey(), new CacheEntry(path, entry.getValue().getResultBytes()));
+                    fragmentCacheStats.incrementCacheEntries();
+                    fragmentCacheStats.addCacheSizeInBytes(entry.getValue().getResultBytes());
                 }
-            }));
+            }
+
+            ImmutableMap.Builder<CacheKey, IndexEntry> restoredEntries = ImmutableMap.builder();
+            cache.asMap().forEach((key, entry) -> restoredEntries.put(key, new IndexEntry(entry.getPath().getFileName().toString(), entry.getResultBytes())));
+            index.get().compact(restoredEntries.build());
         }
+        catch (IOException e) {
+            log.warn(e, "Failed to restore fragment result cache from %s", baseDirectory);
+        }
+        return cache.asMap().values().stream()
+                .map(entry -> entry.getPath().getFileName().toString())
+                .collect(toImmutableSet());
     }
 
     @Override
     public Future<?> put(String serializedPlan, Split split, List<Page> result)
     {
-        CacheKey key = new CacheKey(serializedPlan, split.getSplitIdentifier());
+        Optional<CacheKey> key = getCacheKey(serializedPlan, split);
         long resultSize = getPagesSize(result);
-        if (fragmentCacheStats.getInFlightBytes() + resultSize > maxInFlightBytes ||
-                cache.getIfPresent(key) != null ||
+        if (!key.isPresent() ||
+                fragmentCacheStats.getInFlightBytes() + resultSize > maxInFlightBytes ||
+                cache.getIfPresent(key.get()) != null ||
                 resultSize > maxSinglePagesBytes ||
                 // Here we use the logical size resultSize as an estimate for admission control.
-                fragmentCacheStats.getCacheSizeInBytes() + resultSize > maxCacheBytes) {
+                // Other entries are evicted to make room for the result, so it only needs to fit in an empty cache.
+                resultSize > maxCacheBytes) {
             return immediateFuture(null);
         }
 
         fragmentCacheStats.addInFlightBytes(resultSize);
         Path path = baseDirectory.resolve(randomUUID().toString().replaceAll("-", "_"));
-        return flushExecutor.submit(() -> cachePages(key, path, result, resultSize));
+        return flushExecutor.submit(() -> cachePages(key.get(), path, result, resultSize));
+    }
+
+    private Optional<CacheKey> getCacheKey(String serializedPlan, Split split)
+    {
+        SplitIdentifier splitIdentifier = split.getSplitIdentifier();
+        if (!index.isPresent()) {
+            return Optional.of(new CacheKey(serializedPlan, splitIdentifier));
+        }
+
+        // The key has to be written to the persistent index, so the split identifier is replaced by its JSON representation.
+        // Splits whose identifier cannot be serialized are not cached.
+        try {
+            String serializedSplitIdentifier = SPLIT_IDENTIFIER_MAPPER.writeValueAsString(splitIdentifier.getSplitIdentifier());
+            return Optional.of(new CacheKey(serializedPlan, new SplitIdentifier(splitIdentifier.getConnectorId(), serializedSplitIdentifier)));
+        }
+        catch (JsonProcessingException e) {
+            return Optional.empty();
+        }
     }
 
     private static long getPagesSize(List<Page> pages)
@@ -167,6 +262,7 @@ public class FileFragmentResultCacheManager
                 cache.put(key, new CacheEntry(path, resultPhysicalBytes));
                 fragmentCacheStats.incrementCacheEntries();
                 fragmentCacheStats.addCacheSizeInBytes(resultPhysicalBytes);
+                index.ifPresent(cacheIndex -> cacheIndex.recordPut(key, new IndexEntry(path.getFileName().toString(), resultPhysicalBytes)));
             }
             catch (UncheckedIOException | IOException e) {
                 log.warn(e, "%s encountered an error while writing to path %s", Thread.currentThread().getName(), path);
@@ -198,27 +294,78 @@ public class FileFragmentResultCacheManager
     @Override
     public Optional<Iterator<Page>> get(String serializedPlan, Split split)
     {
-        CacheKey key = new CacheKey(serializedPlan, split.getSplitIdentifier());
-        CacheEntry cacheEntry = cache.getIfPresent(key);
-        if (cacheEntry == null) {
-            fragmentCacheStats.incrementCacheMiss();
+        Optional<CacheEntry> cacheEntry = getCacheEntry(serializedPlan, split);
+        if (!cacheEntry.isPresent()) {
+            fragmentCacheStats.incrementCacheMiss(serializedPlan);
             return Optional.empty();
         }
 
         try {
-            InputStream inputStream = newInputStream(cacheEntry.getPath());
+            InputStream inputStream = newInputStream(cacheEntry.get().getPath());
             Iterator<Page> result = readPages(pagesSerdeFactory.createPagesSerde(), new InputStreamSliceInput(inputStream));
-            fragmentCacheStats.incrementCacheHit();
+            fragmentCacheStats.incrementCacheHit(serializedPlan);
             return Optional.of(closeWhenExhausted(result, inputStream));
         }
         catch (UncheckedIOException | IOException e) {
-            log.error(e, "read path %s error", cacheEntry.getPath());
+            log.error(e, "read path %s error", cacheEntry.get().getPath());
             // there might be a chance the file has been deleted. We would return cache miss in this case.
-            fragmentCacheStats.incrementCacheMiss();
+            fragmentCacheStats.incrementCacheMiss(serializedPlan);
             return Optional.empty();
         }
     }
 
+    /**
+     * Opens the cached result and reads its first page on the read executor. Each following page is read
+     * on the read executor while the previous one is being consumed, so that at most one page is read
+     * ahead of the caller.
+     */
+    @Override
+    public ListenableFuture<Optional<Iterator<Page>>> getAsync(String serializedPlan, Split split)
+    {
+        Optional<CacheEntry> cacheEntry = getCacheEntry(serializedPlan, split);
+        if (!cacheEntry.isPresent()) {
+            fragmentCacheStats.incrementCacheMiss(serializedPlan);
+            return immediateFuture(Optional.empty());
+        }
+
+        return readExecutor.submit(() -> {
+            InputStream inputStream = null;
+            try {
+                inputStream = newInputStream(cacheEntry.get().getPath());
+                ReadAheadPageIterator pages = new ReadAheadPageIterator(
+                        readSerializedPages(new InputStreamSliceInput(inputStream)),
+                        pagesSerdeFactory.createPagesSerde(),
+                        inputStream);
+                fragmentCacheStats.incrementCacheHit(serializedPlan);
+                return Optional.of(pages);
+            }
+            catch (UncheckedIOException | IOException e) {
+                log.error(e, "read path %s error", cacheEntry.get().getPath());
+                if (inputStream != null) {
+                    closeQuietly(inputStream);
+                }
+                // there might be a chance the file has been deleted. We would return cache miss in this case.
+                fragmentCacheStats.incrementCacheMiss(serializedPlan);
+                return Optional.empty();
+            }
+        });
+    }
+
+    private static void closeQuietly(Closeable closeable)
+    {
+        try {
+            closeable.close();
+        }
+        catch (IOException e) {
+            // ignore
+        }
+    }
+
+    private Optional<CacheEntry> getCacheEntry(String serializedPlan, Split split)
+    {
+        return getCacheKey(serializedPlan, split).map(cache::getIfPresent);
+    }
+
     @Managed
     public void invalidateAllCache()
     {
@@ -249,6 +396,53 @@ public class FileFragmentResultCacheManager
         };
     }
 
+    /**
+     * Iterates over the pages of a cached result, reading and deserializing the next page on the read
+     * executor when the current one is returned. The stream is closed once the result is exhausted.
+     */
+    private class ReadAheadPageIterator
+            extends AbstractIterator<Page>
+    {
+        private final Iterator<SerializedPage> serializedPages;
+        private final PagesSerde pagesSerde;
+        private final Closeable inputStream;
+        private ListenableFuture<Optional<Page>> nextPage;
+
+        // reads the first page on the calling thread, which is expected to be a read executor thread
+        private ReadAheadPageIterator(Iterator<SerializedPage> serializedPages, PagesSerde pagesSerde, Closeable inputStream)
+        {
+            this.serializedPages = requireNonNull(serializedPages, "serializedPages is null");
+            this.pagesSerde = requireNonNull(pagesSerde, "pagesSerde is null");
+            this.inputStream = requireNonNull(inputStream, "inputStream is null");
+            this.nextPage = immediateFuture(readNextPage());
+        }
+
+        @Override
+        protected Page computeNext()
+        {
+            Optional<Page> page = getFutureValue(nextPage);
+            if (!page.isPresent()) {
+                try {
+                    inputStream.close();
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return endOfData();
+            }
+            nextPage = readExecutor.submit(this::readNextPage);
+            return page.get();
+        }
+
+        private Optional<Page> readNextPage()
+        {
+            if (!serializedPages.hasNext()) {
+                return Optional.empty();
+            }
+            return Optional.of(pagesSerde.deserialize(serializedPages.next()));
+        }
+    }
+
     public static class CacheKey
     {
         private final String serializedPlan;
@@ -320,6 +514,9 @@ public class FileFragmentResultCacheManager
         public void onRemoval(RemovalNotification<CacheKey, CacheEntry> notification)
         {
             CacheEntry cacheEntry = notification.getValue();
+            if (notification.getCause() != REPLACED) {
+                index.ifPresent(cacheIndex -> cacheIndex.recordRemoval(notification.getKey()));
+            }
             removalExecutor.submit(() -> tryDeleteFile(cacheEntry.getPath()));
             fragmentCacheStats.incrementCacheRemoval();
             fragmentCacheStats.decrementCacheEntries();
@@ -0,0 +1,637 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.common.Page;
+import com.facebook.presto.common.PageBuilder;
+import com.facebook.presto.common.array.LongBigArray;
+import com.facebook.presto.common.block.Block;
+import com.facebook.presto.common.block.BlockBuilder;
+import com.facebook.presto.common.block.LongArrayBlock;
+import com.facebook.presto.common.block.RunLengthEncodedBlock;
+import com.facebook.presto.common.type.DecimalType;
+import com.facebook.presto.common.type.TimestampType;
+import com.facebook.presto.common.type.Type;
+import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.function.aggregation.GroupByIdBlock;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.DateType.DATE;
+import static com.facebook.presto.common.type.IntegerType.INTEGER;
+import static com.facebook.presto.common.type.SmallintType.SMALLINT;
+import static com.facebook.presto.common.type.TinyintType.TINYINT;
+import static com.facebook.presto.operator.scalar.CombineHashFunction.getHash;
+import static com.facebook.presto.spi.StandardErrorCode.GENERIC_INSUFFICIENT_RESOURCES;
+import static com.facebook.presto.sql.planner.PlannerUtils.INITIAL_HASH_VALUE;
+import static com.facebook.presto.type.TypeUtils.NULL_HASH_CODE;
+import static com.facebook.presto.util.HashCollisionsEstimator.estimateNumberOfHashCollisions;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static it.unimi.dsi.fastutil.HashCommon.arraySize;
+import static it.unimi.dsi.fastutil.HashCommon.murmurHash3;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Group by hash for multi-channel keys where every key type is fixed width and
+ * represented as a {@code long} whose bits fully determine equality.
+ * <p>
+ * The key values of each group are packed into a flat row layout of {@code channelCount + 1}
+ * longs: the first long is a bitmask of null channels and the rest are the channel values
+ * (zero for nulls). Input pages are unpacked into the same layout and hashed column by column
+ * for the whole page before probing, and the hash table positions of a batch of rows are computed
+ * ahead of the probes, so the probe loop does not go through a {@link PagesHashStrategy}.
+ */
+// This implementation assumes arrays used in the hash are always a power of 2
+public class FixedWidthGroupByHash
+        implements GroupByHash
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(FixedWidthGroupByHash.class).instanceSize();
+    private static final float FILL_RATIO = 0.75f;
+
+    // one bit of the null mask is used per channel
+    public static final int MAX_CHANNEL_COUNT = Long.SIZE - 1;
+
+    @VisibleForTesting
+    static final int BATCH_SIZE = 1024;
+
+    private final List<Type> types;
+    private final Type[] hashTypes;
+    private final int[] channels;
+    private final Optional<Integer> inputHashChannel;
+    private final int rowWidth;
+
+    private int hashCapacity;
+    private int maxFill;
+    private int mask;
+    private int[] groupIdsByHash;
+    private byte[] rawHashByHashPosition;
+
+    // packed key rows and raw hashes indexed by groupId
+    private final LongBigArray rowsByGroupId;
+    private final LongBigArray rawHashByGroupId;
+
+    private int nextGroupId;
+    private long hashCollisions;
+    private double expectedHashCollisions;
+
+    // reserve enough memory before rehash
+    private final UpdateMemory updateMemory;
+    private long preallocatedMemoryInBytes;
+    private long currentPageSizeInBytes;
+
+    public static boolean isSupported(List<? extends Type> hashTypes)
+    {
+        if (hashTypes.size() < 2 || hashTypes.size() > MAX_CHANNEL_COUNT) {
+            return false;
+        }
+        return hashTypes.stream().allMatch(FixedWidthGroupByHash::isSupportedType);
+    }
+
+    private static boolean isSupportedType(Type type)
+    {
+        // only types for which equality of the stored long is equivalent to "not distinct"
+        return type.equals(BIGINT) ||
+                type.equals(INTEGER) ||
+                type.equals(SMALLINT) ||
+                type.equals(TINYINT) ||
+                type.equals(DATE) ||
+                type instanceof TimestampType ||
+                (type instanceof DecimalType && ((DecimalType) type).isShort());
+    }
+
+    public FixedWidthGroupByHash(
+            List<? extends Type> hashTypes,
+            int[] hashChannels,
+            Optional<Integer> inputHashChannel,
+            int expectedSize,
+            UpdateMemory updateMemory)
+    {
+        requireNonNull(hashTypes, "hashTypes is null");
+        requireNonNull(hashChannels, "hashChannels is null");
+        checkArgument(hashTypes.size() == hashChannels.length, "hashTypes and hashChannels have different sizes");
+        checkArgument(isSupported(hashTypes), "hashTypes are not supported: %s", hashTypes);
+        checkArgument(expectedSize > 0, "expectedSize must be greater than zero");
+
+        this.hashTypes = hashTypes.toArray(new Type[0]);
+        this.channels = hashChannels.clone();
+        this.inputHashChannel = requireNonNull(inputHashChannel, "inputHashChannel is null");
+        this.types = inputHashChannel.isPresent() ? ImmutableList.copyOf(Iterables.concat(hashTypes, ImmutableList.of(BIGINT))) : ImmutableList.copyOf(hashTypes);
+        this.rowWidth = hashChannels.length + 1;
+
+        hashCapacity = arraySize(expectedSize, FILL_RATIO);
+        maxFill = calculateMaxFill(hashCapacity);
+        mask = hashCapacity - 1;
+        groupIdsByHash = new int[hashCapacity];
+        Arrays.fill(groupIdsByHash, -1);
+        rawHashByHashPosition = new byte[hashCapacity];
+
+        rowsByGroupId = new LongBigArray();
+        rowsByGroupId.ensureCapacity((long) maxFill * rowWidth);
+        rawHashByGroupId = new LongBigArray();
+        rawHashByGroupId.ensureCapacity(maxFill);
+
+        // This interface is used for actively reserving memory (push model) for rehash.
+        // The caller can also query memory usage on this object (pull model)
+        this.updateMemory = requireNonNull(updateMemory, "updateMemory is null");
+    }
+
+    @Override
+    public long getEstimatedSize()
+    {
+        return INSTANCE_SIZE +
+                sizeOf(groupIdsByHash) +
+                sizeOf(rawHashByHashPosition) +
+                rowsByGroupId.sizeOf() +
+                rawHashByGroupId.sizeOf() +
+                preallocatedMemoryInBytes;
+    }
+
+    @Override
+    public long getHashCollisions()
+    {
+        return hashCollisions;
+    }
+
+    @Override
+    public double getExpectedHashCollisions()
+    {
+        return expectedHashCollisions + estimateNumberOfHashCollisions(getGroupCount(), hashCapacity);
+    }
+
+    @Override
+    public List<Type> getTypes()
+    {
+        return types;
+    }
+
+    @Override
+    public int getGroupCount()
+    {
+        return nextGroupId;
+    }
+
+    @Override
+    public void appendValuesTo(int groupId, PageBuilder pageBuilder, int outputChannelOffset)
+    {
+        checkArgument(groupId >= 0, "groupId is negative");
+        appendKeysTo(groupId, pageBuilder, outputChannelOffset);
+        if (inputHashChannel.isPresent()) {
+            BIGINT.writeLong(pageBuilder.getBlockBuilder(outputChannelOffset + channels.length), rawHashByGroupId.get(groupId));
+        }
+    }
+
+    @Override
+    public Work<?> addPage(Page page)
+    {
+        currentPageSizeInBytes = page.getRetainedSizeInBytes();
+        if (isRunLengthEncoded(page)) {
+            return new AddPageWork(page, min(page.getPositionCount(), 1));
+        }
+        return new AddPageWork(page, page.getPositionCount());
+    }
+
+    @Override
+    public List<Page> getBufferedPages()
+    {
+        ImmutableList.Builder<Page> pages = ImmutableList.builder();
+        PageBuilder pageBuilder = new PageBuilder(ImmutableList.copyOf(hashTypes));
+        for (int groupId = 0; groupId < nextGroupId; groupId++) {
+            pageBuilder.declarePosition();
+            appendKeysTo(groupId, pageBuilder, 0);
+            if (pageBuilder.isFull()) {
+                pages.add(pageBuilder.build());
+                pageBuilder.reset();
+            }
+        }
+        if (!pageBuilder.isEmpty()) {
+            pages.add(pageBuilder.build());
+        }
+        return pages.build();
+    }
+
+    @Override
+    public Work<GroupByIdBlock> getGroupIds(Page page)
+    {
+        currentPageSizeInBytes = page.getRetainedSizeInBytes();
+        if (isRunLengthEncoded(page)) {
+            return new GetRunLengthEncodedGroupIdsWork(page);
+        }
+        return new GetGroupIdsWork(page);
+    }
+
+    @Override
+    public boolean contains(int position, Page page, int[] hashChannels)
+    {
+        long rawHash = INITIAL_HASH_VALUE;
+        for (int i = 0; i < hashChannels.length; i++) {
+            Block block = page.getBlock(hashChannels[i]);
+            rawHash = getHash(rawHash, block.isNull(position) ? NULL_HASH_CODE : hashTypes[i].hash(block, position));
+        }
+        return contains(position, page, hashChannels, rawHash);
+    }
+
+    @Override
+    public boolean contains(int position, Page page, int[] hashChannels, long rawHash)
+    {
+        long[] row = new long[rowWidth];
+        for (int i = 0; i < hashChannels.length; i++) {
+            Block block = page.getBlock(hashChannels[i]);
+            if (block.isNull(position)) {
+                row[0] |= 1L << i;
+            }
+            else {
+                row[i + 1] = hashTypes[i].getLong(block, position);
+            }
+        }
+
+        int hashPosition = getHashPosition(rawHash, mask);
+        // look for a slot containing this key
+        while (groupIdsByHash[hashPosition] != -1) {
+            if (rawHashByHashPosition[hashPosition] == (byte) rawHash && rowEquals(groupIdsByHash[hashPosition], row, 0)) {
+                return true;
+            }
+            // increment position and mask to handle wrap around
+            hashPosition = (hashPosition + 1) & mask;
+        }
+        return false;
+    }
+
+    @Override
+    public long getRawHash(int groupId)
+    {
+        return rawHashByGroupId.get(groupId);
+    }
+
+    @VisibleForTesting
+    @Override
+    public int getCapacity()
+    {
+        return hashCapacity;
+    }
+
+    private void appendKeysTo(int groupId, PageBuilder pageBuilder, int outputChannelOffset)
+    {
+        long rowOffset = (long) groupId * rowWidth;
+        long nullMask = rowsByGroupId.get(rowOffset);
+        for (int i = 0; i < hashTypes.length; i++) {
+            BlockBuilder blockBuilder = pageBuilder.getBlockBuilder(outputChannelOffset + i);
+            if ((nullMask & (1L << i)) != 0) {
+                blockBuilder.appendNull();
+            }
+            else {
+                hashTypes[i].writeLong(blockBuilder, rowsByGroupId.get(rowOffset + i + 1));
+            }
+        }
+    }
+
+    /**
+     * Unpacks the key channels of the first {@code positionCount} positions of the page
+     * into the row layout used by the hash, one channel at a time.
+     */
+    private long[] extractRows(Page page, int positionCount)
+    {
+        long[] rows = new long[toIntExact((long) positionCount * rowWidth)];
+        for (int i = 0; i < channels.length; i++) {
+            Block block = page.getBlock(channels[i]);
+            Type type = hashTypes[i];
+            long nullBit = 1L << i;
+            boolean mayHaveNull = block.mayHaveNull();
+            int rowOffset = 0;
+            for (int position = 0; position < positionCount; position++) {
+                if (mayHaveNull && block.isNull(position)) {
+                    rows[rowOffset] |= nullBit;
+                }
+                else {
+                    rows[rowOffset + i + 1] = type.getLong(block, position);
+                }
+                rowOffset += rowWidth;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Computes the raw hashes of the first {@code positionCount} positions of the page, one channel at a time.
+     * The hashes match the ones produced by {@link InterpretedHashGenerator} for the same channels.
+     */
+    private long[] computeRawHashes(Page page, int positionCount)
+    {
+        long[] rawHashes = new long[positionCount];
+        if (inputHashChannel.isPresent()) {
+            Block hashBlock = page.getBlock(inputHashChannel.get());
+            for (int position = 0; position < positionCount; position++) {
+                rawHashes[position] = BIGINT.getLong(hashBlock, position);
+            }
+            return rawHashes;
+        }
+
+        Arrays.fill(rawHashes, INITIAL_HASH_VALUE);
+        for (int i = 0; i < channels.length; i++) {
+            Block block = page.getBlock(channels[i]);
+            Type type = hashTypes[i];
+            boolean mayHaveNull = block.mayHaveNull();
+            for (int position = 0; position < positionCount; position++) {
+                long hash = mayHaveNull && block.isNull(position) ? NULL_HASH_CODE : type.hash(block, position);
+                rawHashes[position] = getHash(rawHashes[position], hash);
+            }
+        }
+        return rawHashes;
+    }
+
+    private int putIfAbsent(long[] rows, int row, long rawHash, int hashPosition)
+    {
+        int rowOffset = row * rowWidth;
+        byte rawHashByte = (byte) rawHash;
+
+        // look for an empty slot or a slot containing this key
+        while (true) {
+            int groupId = groupIdsByHash[hashPosition];
+            if (groupId == -1) {
+                return addNewGroup(hashPosition, rows, rowOffset, rawHash);
+            }
+            if (rawHashByHashPosition[hashPosition] == rawHashByte && rowEquals(groupId, rows, rowOffset)) {
+                return groupId;
+            }
+            // increment position and mask to handle wrap around
+            hashPosition = (hashPosition + 1) & mask;
+            hashCollisions++;
+        }
+    }
+
+    private boolean rowEquals(int groupId, long[] rows, int rowOffset)
+    {
+        long groupRowOffset = (long) groupId * rowWidth;
+        for (int i = 0; i < rowWidth; i++) {
+            if (rowsByGroupId.get(groupRowOffset + i) != rows[rowOffset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int addNewGroup(int hashPosition, long[] rows, int rowOffset, long rawHash)
+    {
+        // record group id in hash
+        int groupId = nextGroupId++;
+
+        long groupRowOffset = (long) groupId * rowWidth;
+        for (int i = 0; i < rowWidth; i++) {
+            rowsByGroupId.set(groupRowOffset + i, rows[rowOffset + i]);
+        }
+        rawHashByGroupId.set(groupId, rawHash);
+
+        groupIdsByHash[hashPosition] = groupId;
+        rawHashByHashPosition[hashPosition] = (byte) rawHash;
+
+        // rehash is left to the caller, since it invalidates the precomputed hash positions of the current batch
+        return groupId;
+    }
+
+    private boolean needRehash()
+    {
+        return nextGroupId >= maxFill;
+    }
+
+    private boolean tryRehash()
+    {
+        long newCapacityLong = hashCapacity * 2L;
+        if (newCapacityLong > Integer.MAX_VALUE) {
+            throw new PrestoException(GENERIC_INSUFFICIENT_RESOURCES, "Size of hash table cannot exceed 1 billion entries");
+        }
+        int newCapacity = toIntExact(newCapacityLong);
+
+        // An estimate of how much extra memory is needed before we can go ahead and expand the hash table.
+        // This includes the new capacity for groupIdsByHash and rawHashByHashPosition, the packed rows and raw hashes by groupId
+        // as well as the size of the current page
+        preallocatedMemoryInBytes = newCapacity * (long) (Integer.BYTES + Byte.BYTES) +
+                calculateMaxFill(newCapacity) * (long) (rowWidth + 1) * Long.BYTES +
+                currentPageSizeInBytes;
+        if (!updateMemory.update()) {
+            // reserved memory but has exceeded the limit
+            return false;
+        }
+
+        expectedHashCollisions += estimateNumberOfHashCollisions(getGroupCount(), hashCapacity);
+
+        int newMask = newCapacity - 1;
+        int[] newGroupIds = new int[newCapacity];
+        Arrays.fill(newGroupIds, -1);
+        byte[] newRawHashes = new byte[newCapacity];
+
+        for (int groupId = 0; groupId < nextGroupId; groupId++) {
+            long rawHash = rawHashByGroupId.get(groupId);
+
+            // find an empty slot for the group
+            int hashPosition = getHashPosition(rawHash, newMask);
+            while (newGroupIds[hashPosition] != -1) {
+                hashPosition = (hashPosition + 1) & newMask;
+                hashCollisions++;
+            }
+
+            // record the mapping
+            newGroupIds[hashPosition] = groupId;
+            newRawHashes[hashPosition] = (byte) rawHash;
+        }
+
+        mask = newMask;
+        hashCapacity = newCapacity;
+        maxFill = calculateMaxFill(newCapacity);
+        groupIdsByHash = newGroupIds;
+        rawHashByHashPosition = newRawHashes;
+        rowsByGroupId.ensureCapacity((long) maxFill * rowWidth);
+        rawHashByGroupId.ensureCapacity(maxFill);
+
+        preallocatedMemoryInBytes = 0;
+        // release temporary memory reservation
+        updateMemory.update();
+        return true;
+    }
+
+    private boolean isRunLengthEncoded(Page page)
+    {
+        for (int channel : channels) {
+            if (!(page.getBlock(channel) instanceof RunLengthEncodedBlock)) {
+                return false;
+            }
+        }
+        if (inputHashChannel.isPresent() && !(page.getBlock(inputHashChannel.get()) instanceof RunLengthEncodedBlock)) {
+            return false;
+        }
+        return true;
+    }
+
+    private static int getHashPosition(long rawHash, int mask)
+    {
+        return (int) (murmurHash3(rawHash) & mask);
+    }
+
+    private static int calculateMaxFill(int hashSize)
+    {
+        checkArgument(hashSize > 0, "hashSize must be greater than 0");
+        int maxFill = (int) Math.ceil(hashSize * FILL_RATIO);
+        if (maxFill == hashSize) {
+            maxFill--;
+        }
+        checkArgument(hashSize > maxFill, "hashSize must be larger than maxFill");
+        return maxFill;
+    }
+
+    private abstract class AbstractPageWork<T>
+            implements Work<T>
+    {
+        private final long[] rows;
+        private final long[] rawHashes;
+        private final int[] hashPositions;
+        protected final int positionCount;
+
+        protected int lastPosition;
+
+        protected AbstractPageWork(Page page, int positionCount)
+        {
+            requireNonNull(page, "page is null");
+            this.positionCount = positionCount;
+            this.rows = extractRows(page, positionCount);
+            this.rawHashes = computeRawHashes(page, positionCount);
+            this.hashPositions = new int[min(positionCount, BATCH_SIZE)];
+        }
+
+        @Override
+        public boolean process()
+        {
+            checkState(lastPosition <= positionCount, "position count out of bound");
+
+            while (lastPosition < positionCount) {
+                // needRehash() == true indicates we have reached capacity boundary and a rehash is needed.
+                // We can only proceed if tryRehash() successfully did a rehash.
+                if (needRehash() && !tryRehash()) {
+                    return false;
+                }
+
+                // compute the hash positions of the whole batch up front, so that probes of different rows
+                // are independent of each other and their memory accesses can overlap
+                int batchStart = lastPosition;
+                int batchEnd = min(positionCount, batchStart + BATCH_SIZE);
+                for (int position = batchStart; position < batchEnd; position++) {
+                    hashPositions[position - batchStart] = getHashPosition(rawHashes[position], mask);
+                }
+
+                // a rehash changes the mask, so the rest of the batch is recomputed on the next iteration
+                while (lastPosition < batchEnd && !needRehash()) {
+                    int groupId = putIfAbsent(rows, lastPosition, rawHashes[lastPosition], hashPositions[lastPosition - batchStart]);
+                    recordGroupId(lastPosition, groupId);
+                    lastPosition++;
+                }
+            }
+            return true;
+        }
+
+        protected abstract void recordGroupId(int position, int groupId);
+    }
+
+    private class AddPageWork
+            extends AbstractPageWork<Void>
+    {
+        public AddPageWork(Page page, int positionCount)
+        {
+            super(page, positionCount);
+        }
+
+        @Override
+        protected void recordGroupId(int position, int groupId)
+        {
+        }
+
+        @Override
+        public Void getResult()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private class GetGroupIdsWork
+            extends AbstractPageWork<GroupByIdBlock>
+    {
+        private final long[] groupIds;
+
+        private boolean finished;
+
+        public GetGroupIdsWork(Page page)
+        {
+            super(page, page.getPositionCount());
+            this.groupIds = new long[page.getPositionCount()];
+        }
+
+        @Override
+        protected void recordGroupId(int position, int groupId)
+        {
+            groupIds[position] = groupId;
+        }
+
+        @Override
+        public GroupByIdBlock getResult()
+        {
+            checkState(lastPosition == positionCount, "process has not yet finished");
+            checkState(!finished, "result has produced");
+            finished = true;
+            return new GroupByIdBlock(nextGroupId, new LongArrayBlock(positionCount, Optional.empty(), groupIds));
+        }
+    }
+
+    private class GetRunLengthEncodedGroupIdsWork
+            extends AbstractPageWork<GroupByIdBlock>
+    {
+        private final int pagePositionCount;
+
+        private int groupId = -1;
+        private boolean resultProduced;
+
+        public GetRunLengthEncodedGroupIdsWork(Page page)
+        {
+            // Only needs to process the first row since it is Run Length Encoded
+            super(page, min(page.getPositionCount(), 1));
+            this.pagePositionCount = page.getPositionCount();
+        }
+
+        @Override
+        protected void recordGroupId(int position, int groupId)
+        {
+            this.groupId = groupId;
+        }
+
+        @Override
+        public GroupByIdBlock getResult()
+        {
+            checkState(lastPosition == positionCount, "process has not yet finished");
+            checkState(!resultProduced, "result has produced");
+            resultProduced = true;
+
+            return new GroupByIdBlock(
+                    nextGroupId,
+                    new RunLengthEncodedBlock(
+                            BIGINT.createFixedSizeBlockBuilder(1).writeLong(groupId).build(),
+                            pagePositionCount));
+        }
+    }
+}
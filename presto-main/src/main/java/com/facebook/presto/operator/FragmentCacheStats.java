@@ -13,12 +13,21 @@
  */
 package com.facebook.presto.operator;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.weakref.jmx.Managed;
 
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
 
+import static com.google.common.base.Throwables.throwIfUnchecked;
+
 public class FragmentCacheStats
 {
+    // Only the most recently used plans are tracked, plan fragments are hashed so the keys are small
+    private static final int MAX_TRACKED_PLANS = 10_000;
+
     private final AtomicLong hit = new AtomicLong();
     private final AtomicLong miss = new AtomicLong();
     private final AtomicLong inFlightBytes = new AtomicLong();
@@ -28,16 +37,32 @@ public class FragmentCacheStats
     // Total on-disk size in bytes.
     private final AtomicLong cacheSizeInBytes = new AtomicLong();
 
+    private final Cache<String, PlanCacheStats> planCacheStats = CacheBuilder.newBuilder()
+            .maximumSize(MAX_TRACKED_PLANS)
+            .build();
+
     public void incrementCacheHit()
     {
         hit.getAndIncrement();
     }
 
+    public void incrementCacheHit(String serializedPlan)
+    {
+        incrementCacheHit();
+        getOrCreatePlanCacheStats(serializedPlan).hit.getAndIncrement();
+    }
+
     public void incrementCacheMiss()
     {
         miss.getAndIncrement();
     }
 
+    public void incrementCacheMiss(String serializedPlan)
+    {
+        incrementCacheMiss();
+        getOrCreatePlanCacheStats(serializedPlan).miss.getAndIncrement();
+    }
+
     public void addInFlightBytes(long bytes)
     {
         inFlightBytes.addAndGet(bytes);
@@ -63,6 +88,62 @@ public class FragmentCacheStats
         cacheEntries.getAndDecrement();
     }
 
+    public Optional<PlanCacheStats> getPlanCacheStats(String serializedPlan)
+    {
+        return Optional.ofNullable(planCacheStats.getIfPresent(serializedPlan));
+    }
+
+    private PlanCacheStats getOrCreatePlanCacheStats(String serializedPlan)
+    {
+        try {
+            return planCacheStats.get(serializedPlan, PlanCacheStats::new);
+        }
+        catch (ExecutionException e) {
+            throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    @Managed
+    public long getTrackedPlans()
+    {
+        return planCacheStats.size();
+    }
+
+    /**
+     * Number of tracked plans that were served from the cache at least once.
+     */
+    @Managed
+    public long getTrackedPlansWithHits()
+    {
+        return planCacheStats.asMap().values().stream()
+                .filter(stats -> stats.getCacheHit() > 0)
+                .count();
+    }
+
+    /**
+     * Number of tracked plans that were looked up but never served from the cache, for which caching only adds overhead.
+     */
+    @Managed
+    public long getTrackedPlansWithoutHits()
+    {
+        return planCacheStats.asMap().values().stream()
+                .filter(stats -> stats.getCacheHit() == 0 && stats.getCacheMiss() > 0)
+                .count();
+    }
+
+    /**
+     * Highest hit rate among the tracked plans.
+     */
+    @Managed
+    public double getMaxPlanCacheHitRate()
+    {
+        return planCacheStats.asMap().values().stream()
+                .mapToDouble(PlanCacheStats::getCacheHitRate)
+                .max()
+                .orElse(0);
+    }
+
     @Managed
     public long getCacheHit()
     {
@@ -98,4 +179,27 @@ public class FragmentCacheStats
     {
         return cacheSizeInBytes.get();
     }
+
+    public static class PlanCacheStats
+    {
+        private final AtomicLong hit = new AtomicLong();
+        private final AtomicLong miss = new AtomicLong();
+
+        public long getCacheHit()
+        {
+            return hit.get();
+        }
+
+        public long getCacheMiss()
+        {
+            return miss.get();
+        }
+
+        public double getCacheHitRate()
+        {
+            long hits = hit.get();
+            long total = hits + miss.get();
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
 }
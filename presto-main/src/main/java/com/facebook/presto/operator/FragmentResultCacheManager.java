@@ -15,15 +15,26 @@ package com.facebook.presto.operator;
 
 import com.facebook.presto.common.Page;
 import com.facebook.presto.metadata.Split;
+import com.google.common.util.concurrent.ListenableFuture;
 
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.Future;
 
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+
 public interface FragmentResultCacheManager
 {
     Future<?> put(String serializedPlan, Split split, List<Page> result);
 
     Optional<Iterator<Page>> get(String serializedPlan, Split split);
+
+    /**
+     * Same as {@link #get(String, Split)}, but the cached result is read without blocking the caller.
+     */
+    default ListenableFuture<Optional<Iterator<Page>>> getAsync(String serializedPlan, Split split)
+    {
+        return immediateFuture(get(serializedPlan, split));
+    }
 }
@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.operator;
 
+import com.facebook.airlift.stats.cardinality.HyperLogLog;
 import com.facebook.presto.common.Page;
 import com.facebook.presto.common.PageBuilder;
 import com.facebook.presto.common.block.Block;
@@ -35,6 +36,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.primitives.Ints;
 import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.slice.XxHash64;
 import io.airlift.units.DataSize;
 
 import java.util.List;
@@ -43,6 +45,9 @@ import java.util.OptionalInt;
 import java.util.OptionalLong;
 import java.util.stream.Collectors;
 
+import static com.facebook.presto.common.RuntimeMetricName.PARTIAL_AGGREGATION_DISABLED_BY_SAMPLE_COUNT;
+import static com.facebook.presto.common.RuntimeMetricName.PARTIAL_AGGREGATION_ENABLED_BY_SAMPLE_COUNT;
+import static com.facebook.presto.common.RuntimeUnit.NONE;
 import static com.facebook.presto.operator.aggregation.builder.InMemoryHashAggregationBuilder.toTypes;
 import static com.facebook.presto.sql.planner.PlannerUtils.INITIAL_HASH_VALUE;
 import static com.facebook.presto.type.TypeUtils.NULL_HASH_CODE;
@@ -51,12 +56,15 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
 
 public class HashAggregationOperator
         implements Operator
 {
     private static final double MERGE_WITH_MEMORY_RATIO = 0.9;
+    private static final int GROUP_KEY_SAMPLE_BUCKETS = 2048;
 
     public static class HashAggregationOperatorFactory
             implements OperatorFactory
@@ -316,6 +324,14 @@ public class HashAggregationOperator
     private long inputRowsProcessed;
     private long uniqueRowsProduced;
 
+    // estimates the number of distinct group keys over the first rows processed in each partial aggregation mode
+    private final Optional<HashGenerator> sampleHashGenerator;
+    private HyperLogLog groupKeySample;
+    private long sampledRows;
+    private boolean sampledWithPartialAggregationDisabled;
+    private boolean sampleCompleted;
+    private boolean partialAggregationModeChanged;
+
     public HashAggregationOperator(
             OperatorContext operatorContext,
             List<Type> groupByTypes,
@@ -365,6 +381,9 @@ public class HashAggregationOperator
         this.hashCollisionsCounter = new HashCollisionsCounter(operatorContext);
         operatorContext.setInfoSupplier(hashCollisionsCounter);
         this.useSystemMemory = useSystemMemory;
+        this.sampleHashGenerator = partialAggregationController.isPresent() && !groupByChannels.isEmpty()
+                ? Optional.of(hashChannel.isPresent() ? new PrecomputedHashGenerator(hashChannel.get()) : new InterpretedHashGenerator(groupByTypes, groupByChannels))
+                : Optional.empty();
 
         checkState(ImmutableSet.copyOf(groupByChannels).containsAll(preGroupedChannels), "groupByChannels must include all channels in preGroupedChannels");
         this.preGroupedHashStrategy = preGroupedChannels.isEmpty()
@@ -398,6 +417,7 @@ public class HashAggregationOperator
     // - 3. Aggregation builder has not been triggered or has finished processing.
     // - 4. If this is partial aggregation then it must have not reached the memory limit.
     // - 5. If running in segmented aggregation mode, there must be no remaining page to process.
+    // - 6. If this is partial aggregation then it must not be waiting to flush for switching between aggregating and passing rows through.
     @Override
     public boolean needsInput()
     {
@@ -405,7 +425,8 @@ public class HashAggregationOperator
                 && unfinishedWork == null
                 && outputPages == null
                 && !partialAggregationReachedMemoryLimit()
-                && remainingPageForSegmentedAggregation == null;
+                && remainingPageForSegmentedAggregation == null
+                && !partialAggregationModeChanged;
     }
 
     @Override
@@ -417,6 +438,7 @@ public class HashAggregationOperator
         inputProcessed = true;
 
         initializeAggregationBuilderIfNeeded();
+        sampleGroupKeys(page);
         processInputPage(page);
 
         // process the current page; save the unfinished work if we are waiting for memory
@@ -481,6 +503,10 @@ public class HashAggregationOperator
                 return null;
             }
 
+            if (partialAggregationReachedMemoryLimit() && !(aggregationBuilder instanceof SkipAggregationBuilder) && groupKeySample != null && sampledRows > 0) {
+                // the partial aggregation buffer cannot hold more groups, so decide on the rows sampled so far
+                completeGroupKeySample();
+            }
             outputPages = aggregationBuilder.buildResult();
         }
 
@@ -569,6 +595,7 @@ public class HashAggregationOperator
         inputBytesProcessed = 0;
         inputRowsProcessed = 0;
         uniqueRowsProduced = 0;
+        partialAggregationModeChanged = false;
 
         outputPages = null;
         if (aggregationBuilder != null) {
@@ -582,6 +609,52 @@ public class HashAggregationOperator
         operatorContext.localRevocableMemoryContext().setBytes(0);
     }
 
+    private void sampleGroupKeys(Page page)
+    {
+        if (!sampleHashGenerator.isPresent()) {
+            return;
+        }
+
+        boolean partialAggregationDisabled = aggregationBuilder instanceof SkipAggregationBuilder;
+        if (groupKeySample == null || sampledWithPartialAggregationDisabled != partialAggregationDisabled) {
+            if (sampleCompleted && sampledWithPartialAggregationDisabled == partialAggregationDisabled) {
+                // this mode has been sampled already, sample again only after the mode changes
+                return;
+            }
+            groupKeySample = HyperLogLog.newInstance(GROUP_KEY_SAMPLE_BUCKETS);
+            sampledRows = 0;
+            sampledWithPartialAggregationDisabled = partialAggregationDisabled;
+            sampleCompleted = false;
+        }
+
+        HashGenerator hashGenerator = sampleHashGenerator.get();
+        int positionCount = toIntExact(min(page.getPositionCount(), partialAggregationController.get().getSampleRows() - sampledRows));
+        for (int position = 0; position < positionCount; position++) {
+            // combined hashes of the group keys are not uniformly distributed enough for the sketch on their own
+            groupKeySample.addHash(XxHash64.hash(hashGenerator.hashPosition(position, page)));
+        }
+        sampledRows += positionCount;
+
+        if (sampledRows >= partialAggregationController.get().getSampleRows()) {
+            completeGroupKeySample();
+        }
+    }
+
+    private void completeGroupKeySample()
+    {
+        boolean partialAggregationDisabled = partialAggregationController.get().onSample(sampledRows, groupKeySample.cardinality());
+        if (partialAggregationDisabled != sampledWithPartialAggregationDisabled) {
+            operatorContext.getRuntimeStats().addMetricValue(
+                    partialAggregationDisabled ? PARTIAL_AGGREGATION_DISABLED_BY_SAMPLE_COUNT : PARTIAL_AGGREGATION_ENABLED_BY_SAMPLE_COUNT,
+                    NONE,
+                    1);
+            // flush what has been buffered so far, so that the next input is processed in the new mode
+            partialAggregationModeChanged = true;
+        }
+        groupKeySample = null;
+        sampleCompleted = true;
+    }
+
     private void processRemainingPageForSegmentedAggregation()
     {
         // Running in segmented aggregation mode, reopen the aggregation builder and process the remaining page.
@@ -645,9 +718,10 @@ public class HashAggregationOperator
     // - received finish() signal (no more input to come).
     // - it is a partial aggregation and has reached memory limit
     // - running in segmented aggregation mode and at least one segment has been fully processed
+    // - it is a partial aggregation that switches between aggregating and passing rows through
     private boolean shouldFlush()
     {
-        return finishing || partialAggregationReachedMemoryLimit() || remainingPageForSegmentedAggregation != null;
+        return finishing || partialAggregationReachedMemoryLimit() || remainingPageForSegmentedAggregation != null || partialAggregationModeChanged;
     }
 
     private boolean partialAggregationReachedMemoryLimit()
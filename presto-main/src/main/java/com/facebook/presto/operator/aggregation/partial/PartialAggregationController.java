@@ -17,6 +17,7 @@ import io.airlift.units.DataSize;
 
 import java.util.OptionalLong;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 public class PartialAggregationController
@@ -32,9 +33,19 @@ public class PartialAggregationController
      * Re-enable partial aggregation periodically, in case later data can be partially aggregated more effectively.
      */
     private static final double ENABLE_AGGREGATION_BUFFER_SIZE_TO_INPUT_BYTES_RATIO = DISABLE_AGGREGATION_BUFFER_SIZE_TO_INPUT_BYTES_RATIO * 200;
+    /**
+     * Number of rows for which each operator estimates the number of distinct group keys, after starting and after every change of mode.
+     */
+    private static final long DEFAULT_SAMPLE_ROWS = 100_000;
+    /**
+     * A sample taken while partial aggregation is disabled re-enables it only when its estimated unique rows ratio is well below the threshold,
+     * so that operators do not keep switching back and forth on data that is close to the threshold.
+     */
+    private static final double ENABLE_UNIQUE_ROWS_RATIO_FACTOR = 0.5;
 
     private final DataSize maxPartialAggregationMemorySize;
     private final double uniqueRowsRatioThreshold;
+    private final long sampleRows;
 
     private volatile boolean partialAggregationDisabled;
     private long totalBytesProcessed;
@@ -42,9 +53,16 @@ public class PartialAggregationController
     private long totalUniqueRowsProduced;
 
     public PartialAggregationController(DataSize maxPartialAggregationMemorySize, double uniqueRowsRatioThreshold)
+    {
+        this(maxPartialAggregationMemorySize, uniqueRowsRatioThreshold, DEFAULT_SAMPLE_ROWS);
+    }
+
+    public PartialAggregationController(DataSize maxPartialAggregationMemorySize, double uniqueRowsRatioThreshold, long sampleRows)
     {
         this.maxPartialAggregationMemorySize = requireNonNull(maxPartialAggregationMemorySize, "maxPartialMemory is null");
         this.uniqueRowsRatioThreshold = uniqueRowsRatioThreshold;
+        checkArgument(sampleRows > 0, "sampleRows must be positive");
+        this.sampleRows = sampleRows;
     }
 
     public boolean isPartialAggregationDisabled()
@@ -52,6 +70,30 @@ public class PartialAggregationController
         return partialAggregationDisabled;
     }
 
+    public long getSampleRows()
+    {
+        return sampleRows;
+    }
+
+    /**
+     * Decides on the estimated number of distinct group keys in a sample of rows, without waiting for the partial aggregation buffer to flush.
+     *
+     * @return whether partial aggregation is disabled after taking the sample into account
+     */
+    public synchronized boolean onSample(long rowsSampled, long estimatedUniqueRows)
+    {
+        double uniqueRowsRatio = (double) estimatedUniqueRows / rowsSampled;
+        if (!partialAggregationDisabled && uniqueRowsRatio > uniqueRowsRatioThreshold) {
+            resetTotals();
+            partialAggregationDisabled = true;
+        }
+        else if (partialAggregationDisabled && uniqueRowsRatio < uniqueRowsRatioThreshold * ENABLE_UNIQUE_ROWS_RATIO_FACTOR) {
+            resetTotals();
+            partialAggregationDisabled = false;
+        }
+        return partialAggregationDisabled;
+    }
+
     public synchronized void onFlush(long bytesProcessed, long rowsProcessed, OptionalLong uniqueRowsProduced)
     {
         if (!partialAggregationDisabled && !uniqueRowsProduced.isPresent()) {
@@ -68,13 +110,18 @@ public class PartialAggregationController
         }
 
         if (partialAggregationDisabled && totalBytesProcessed >= maxPartialAggregationMemorySize.toBytes() * ENABLE_AGGREGATION_BUFFER_SIZE_TO_INPUT_BYTES_RATIO) {
-            totalBytesProcessed = 0;
-            totalRowsProcessed = 0;
-            totalUniqueRowsProduced = 0;
+            resetTotals();
             partialAggregationDisabled = false;
         }
     }
 
+    private void resetTotals()
+    {
+        totalBytesProcessed = 0;
+        totalRowsProcessed = 0;
+        totalUniqueRowsProduced = 0;
+    }
+
     private boolean shouldDisablePartialAggregation()
     {
         return totalBytesProcessed >= maxPartialAggregationMemorySize.toBytes() * DISABLE_AGGREGATION_BUFFER_SIZE_TO_INPUT_BYTES_RATIO
@@ -83,6 +130,6 @@ public class PartialAggregationController
 
     public PartialAggregationController duplicate()
     {
-        return new PartialAggregationController(maxPartialAggregationMemorySize, uniqueRowsRatioThreshold);
+        return new PartialAggregationController(maxPartialAggregationMemorySize, uniqueRowsRatioThreshold, sampleRows);
     }
 }
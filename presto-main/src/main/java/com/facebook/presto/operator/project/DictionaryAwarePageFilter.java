@@ -19,17 +19,24 @@ import com.facebook.presto.common.block.DictionaryBlock;
 import com.facebook.presto.common.block.RunLengthEncodedBlock;
 import com.facebook.presto.common.function.SqlFunctionProperties;
 
+import java.util.List;
 import java.util.Optional;
 
+import static com.facebook.presto.operator.project.DictionaryInputs.getDictionaries;
+import static com.facebook.presto.operator.project.DictionaryInputs.isSameDictionaries;
 import static com.google.common.base.Verify.verify;
 import static java.util.Objects.requireNonNull;
 
+/**
+ * Evaluates the filter once per dictionary entry when all its inputs are dictionary blocks sharing
+ * the same source (and therefore the same ids), and once per page when all its inputs are RLE blocks.
+ */
 public class DictionaryAwarePageFilter
         implements PageFilter
 {
     private final PageFilter filter;
 
-    private Block lastInputDictionary;
+    private List<Block> lastInputDictionaries;
     private Optional<boolean[]> lastOutputDictionary;
     private long lastDictionaryUsageCount;
 
@@ -38,7 +45,7 @@ public class DictionaryAwarePageFilter
         this.filter = requireNonNull(filter, "filter is null");
 
         verify(filter.isDeterministic(), "filter must be deterministic");
-        verify(filter.getInputChannels().size() == 1, "filter must have only one input");
+        verify(filter.getInputChannels().size() > 0, "filter must have at least one input");
     }
 
     @Override
@@ -56,11 +63,15 @@ public class DictionaryAwarePageFilter
     @Override
     public SelectedPositions filter(SqlFunctionProperties properties, Page page)
     {
-        Block block = page.getBlock(0).getLoadedBlock();
+        Block[] blocks = new Block[page.getChannelCount()];
+        for (int channel = 0; channel < blocks.length; channel++) {
+            blocks[channel] = page.getBlock(channel).getLoadedBlock();
+        }
+        Block block = blocks[0];
+        Optional<List<Block>> dictionaries = getDictionaries(blocks);
 
-        if (block instanceof RunLengthEncodedBlock) {
-            Block value = ((RunLengthEncodedBlock) block).getValue();
-            Optional<boolean[]> selectedPosition = processDictionary(properties, value);
+        if (dictionaries.isPresent() && block instanceof RunLengthEncodedBlock) {
+            Optional<boolean[]> selectedPosition = processDictionary(properties, dictionaries.get());
             // single value block is always considered effective, but the processing could have thrown
             // in that case we fallback and process again so the correct error message sent
             if (selectedPosition.isPresent()) {
@@ -68,10 +79,10 @@ public class DictionaryAwarePageFilter
             }
         }
 
-        if (block instanceof DictionaryBlock) {
+        if (dictionaries.isPresent() && block instanceof DictionaryBlock) {
             DictionaryBlock dictionaryBlock = (DictionaryBlock) block;
             // Attempt to process the dictionary.  If dictionary is processing has not been considered effective, an empty response will be returned
-            Optional<boolean[]> selectedDictionaryPositions = processDictionary(properties, dictionaryBlock.getDictionary());
+            Optional<boolean[]> selectedDictionaryPositions = processDictionary(properties, dictionaries.get());
             // record the usage count regardless of dictionary processing choice, so we have stats for next time
             lastDictionaryUsageCount += page.getPositionCount();
             // if dictionary was processed, produce a dictionary block; otherwise do normal processing
@@ -80,27 +91,28 @@ public class DictionaryAwarePageFilter
             }
         }
 
-        return filter.filter(properties, new Page(block));
+        return filter.filter(properties, new Page(page.getPositionCount(), blocks));
     }
 
-    private Optional<boolean[]> processDictionary(SqlFunctionProperties properties, Block dictionary)
+    private Optional<boolean[]> processDictionary(SqlFunctionProperties properties, List<Block> dictionaries)
     {
-        if (lastInputDictionary == dictionary) {
+        if (isSameDictionaries(lastInputDictionaries, dictionaries)) {
             return lastOutputDictionary;
         }
 
+        Block dictionary = dictionaries.get(0);
         // Process dictionary if:
         //   this is the first block
         //   there is only entry in the dictionary
         //   the last dictionary was used for more positions than were in the dictionary
-        boolean shouldProcessDictionary = lastInputDictionary == null || dictionary.getPositionCount() == 1 || lastDictionaryUsageCount >= lastInputDictionary.getPositionCount();
+        boolean shouldProcessDictionary = lastInputDictionaries == null || dictionary.getPositionCount() == 1 || lastDictionaryUsageCount >= lastInputDictionaries.get(0).getPositionCount();
 
         lastDictionaryUsageCount = 0;
-        lastInputDictionary = dictionary;
+        lastInputDictionaries = dictionaries;
 
         if (shouldProcessDictionary) {
             try {
-                SelectedPositions selectedDictionaryPositions = filter.filter(properties, new Page(dictionary));
+                SelectedPositions selectedDictionaryPositions = filter.filter(properties, new Page(dictionary.getPositionCount(), dictionaries.toArray(new Block[0])));
                 lastOutputDictionary = Optional.of(toPositionsMask(selectedDictionaryPositions, dictionary.getPositionCount()));
             }
             catch (Exception ignored) {
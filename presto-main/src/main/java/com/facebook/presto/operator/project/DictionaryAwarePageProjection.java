@@ -29,18 +29,25 @@ import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 
+import static com.facebook.presto.operator.project.DictionaryInputs.getDictionaries;
+import static com.facebook.presto.operator.project.DictionaryInputs.isSameDictionaries;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.util.Objects.requireNonNull;
 
+/**
+ * Evaluates the projection once per dictionary entry when all its inputs are dictionary blocks sharing
+ * the same source (and therefore the same ids), and once per page when all its inputs are RLE blocks.
+ * The output is a dictionary block or an RLE block respectively.
+ */
 public class DictionaryAwarePageProjection
         implements PageProjection
 {
     private final PageProjection projection;
     private final Function<DictionaryBlock, DictionaryId> sourceIdFunction;
 
-    private Block lastInputDictionary;
+    private List<Block> lastInputDictionaries;
     private Optional<List<Block>> lastOutputDictionary;
     private long lastDictionaryUsageCount;
 
@@ -49,7 +56,7 @@ public class DictionaryAwarePageProjection
         this.projection = requireNonNull(projection, "projection is null");
         this.sourceIdFunction = sourceIdFunction;
         verify(projection.isDeterministic(), "projection must be deterministic");
-        verify(projection.getInputChannels().size() == 1, "projection must have only one input");
+        verify(projection.getInputChannels().size() > 0, "projection must have at least one input");
     }
 
     @Override
@@ -75,7 +82,8 @@ public class DictionaryAwarePageProjection
     {
         private final SqlFunctionProperties properties;
         private final DriverYieldSignal yieldSignal;
-        private final Block block;
+        private final Block[] blocks;
+        private final int positionCount;
         private final SelectedPositions selectedPositions;
 
         private List<Block> results;
@@ -89,20 +97,16 @@ public class DictionaryAwarePageProjection
             this.properties = properties;
             this.yieldSignal = requireNonNull(yieldSignal, "yieldSignal is null");
 
-            Block block = requireNonNull(page, "page is null").getBlock(0).getLoadedBlock();
-            this.block = block;
-            this.selectedPositions = requireNonNull(selectedPositions, "selectedPositions is null");
-
-            Optional<Block> dictionary = Optional.empty();
-            if (block instanceof RunLengthEncodedBlock) {
-                dictionary = Optional.of(((RunLengthEncodedBlock) block).getValue());
-            }
-            else if (block instanceof DictionaryBlock) {
-                dictionary = Optional.of(((DictionaryBlock) block).getDictionary());
+            requireNonNull(page, "page is null");
+            this.blocks = new Block[page.getChannelCount()];
+            for (int channel = 0; channel < blocks.length; channel++) {
+                blocks[channel] = page.getBlock(channel).getLoadedBlock();
             }
+            this.positionCount = page.getPositionCount();
+            this.selectedPositions = requireNonNull(selectedPositions, "selectedPositions is null");
 
             // Try use dictionary processing first; if it fails, fall back to the generic case
-            dictionaryProcessingProjectionWork = createDictionaryBlockProjection(dictionary);
+            dictionaryProcessingProjectionWork = createDictionaryBlockProjection(getDictionaries(blocks));
             fallbackProcessingProjectionWork = null;
         }
 
@@ -138,14 +142,15 @@ public class DictionaryAwarePageProjection
                 }
             }
 
-            if (block instanceof DictionaryBlock) {
+            Block firstBlock = blocks[0];
+            if (firstBlock instanceof DictionaryBlock) {
                 // Record the usage count regardless of dictionary processing choice, so we have stats for next time.
                 // This guarantees recording will happen once and only once regardless of whether dictionary processing was attempted and whether it succeeded.
                 lastDictionaryUsageCount += selectedPositions.size();
             }
 
             if (dictionaryOutput.isPresent()) {
-                if (block instanceof RunLengthEncodedBlock) {
+                if (firstBlock instanceof RunLengthEncodedBlock) {
                     // single value block is always considered effective, but the processing could have thrown
                     // in that case we fallback and process again so the correct error message sent
                     results = dictionaryOutput.get().stream()
@@ -154,8 +159,8 @@ public class DictionaryAwarePageProjection
                     return true;
                 }
 
-                if (block instanceof DictionaryBlock) {
-                    DictionaryBlock dictionaryBlock = (DictionaryBlock) block;
+                if (firstBlock instanceof DictionaryBlock) {
+                    DictionaryBlock dictionaryBlock = (DictionaryBlock) firstBlock;
                     // if dictionary was processed, produce a dictionary block; otherwise do normal processing
                     int[] outputIds = filterDictionaryIds(dictionaryBlock, selectedPositions);
                     results = dictionaryOutput.get().stream()
@@ -164,13 +169,13 @@ public class DictionaryAwarePageProjection
                     return true;
                 }
 
-                throw new UnsupportedOperationException("unexpected block type " + block.getClass());
+                throw new UnsupportedOperationException("unexpected block type " + firstBlock.getClass());
             }
 
             // there is no dictionary handling or dictionary handling failed; fall back to general projection
             verify(dictionaryProcessingProjectionWork == null);
             verify(fallbackProcessingProjectionWork == null);
-            fallbackProcessingProjectionWork = projection.project(properties, yieldSignal, new Page(block), selectedPositions);
+            fallbackProcessingProjectionWork = projection.project(properties, yieldSignal, new Page(positionCount, blocks), selectedPositions);
             if (fallbackProcessingProjectionWork.process()) {
                 results = fallbackProcessingProjectionWork.getResult();
                 return true;
@@ -185,31 +190,33 @@ public class DictionaryAwarePageProjection
             return results;
         }
 
-        private Work<List<Block>> createDictionaryBlockProjection(Optional<Block> dictionary)
+        private Work<List<Block>> createDictionaryBlockProjection(Optional<List<Block>> dictionaries)
         {
-            if (!dictionary.isPresent()) {
+            if (!dictionaries.isPresent()) {
                 lastOutputDictionary = Optional.empty();
                 return null;
             }
 
-            if (lastInputDictionary == dictionary.get()) {
+            if (isSameDictionaries(lastInputDictionaries, dictionaries.get())) {
                 // we must have fallen back last time if lastOutputDictionary is null
                 return lastOutputDictionary.<Work<List<Block>>>map(CompletedWork::new).orElse(null);
             }
 
+            int dictionarySize = dictionaries.get().get(0).getPositionCount();
             // Process dictionary if:
             //   there is only one entry in the dictionary
             //   this is the first block
             //   the last dictionary was used for more positions than were in the dictionary
-            boolean shouldProcessDictionary = dictionary.get().getPositionCount() == 1 || lastInputDictionary == null || lastDictionaryUsageCount >= lastInputDictionary.getPositionCount();
+            boolean shouldProcessDictionary = dictionarySize == 1 || lastInputDictionaries == null || lastDictionaryUsageCount >= lastInputDictionaries.get(0).getPositionCount();
 
             // record the usage count regardless of dictionary processing choice, so we have stats for next time
             lastDictionaryUsageCount = 0;
-            lastInputDictionary = dictionary.get();
+            lastInputDictionaries = dictionaries.get();
             lastOutputDictionary = Optional.empty();
 
             if (shouldProcessDictionary) {
-                return projection.project(properties, yieldSignal, new Page(lastInputDictionary), SelectedPositions.positionsRange(0, lastInputDictionary.getPositionCount()));
+                Page dictionaryPage = new Page(dictionarySize, lastInputDictionaries.toArray(new Block[0]));
+                return projection.project(properties, yieldSignal, dictionaryPage, SelectedPositions.positionsRange(0, dictionarySize));
             }
             return null;
         }
@@ -0,0 +1,81 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.project;
+
+import com.facebook.presto.common.block.Block;
+import com.facebook.presto.common.block.DictionaryBlock;
+import com.facebook.presto.common.block.RunLengthEncodedBlock;
+
+import javax.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+final class DictionaryInputs
+{
+    private DictionaryInputs() {}
+
+    /**
+     * Returns the blocks an expression can be evaluated on instead of the input blocks: the values of the
+     * input blocks when they are all RLE blocks, or the dictionaries of the input blocks when they are all
+     * dictionary blocks with the same source and the same dictionary size.
+     */
+    public static Optional<List<Block>> getDictionaries(Block[] blocks)
+    {
+        if (blocks[0] instanceof RunLengthEncodedBlock) {
+            Block[] values = new Block[blocks.length];
+            for (int channel = 0; channel < blocks.length; channel++) {
+                if (!(blocks[channel] instanceof RunLengthEncodedBlock)) {
+                    return Optional.empty();
+                }
+                values[channel] = ((RunLengthEncodedBlock) blocks[channel]).getValue();
+            }
+            return Optional.of(Arrays.asList(values));
+        }
+
+        if (blocks[0] instanceof DictionaryBlock) {
+            DictionaryBlock firstBlock = (DictionaryBlock) blocks[0];
+            Block[] dictionaries = new Block[blocks.length];
+            for (int channel = 0; channel < blocks.length; channel++) {
+                if (!(blocks[channel] instanceof DictionaryBlock)) {
+                    return Optional.empty();
+                }
+                DictionaryBlock dictionaryBlock = (DictionaryBlock) blocks[channel];
+                // dictionary blocks with the same source id share the same ids
+                if (!dictionaryBlock.getDictionarySourceId().equals(firstBlock.getDictionarySourceId()) ||
+                        dictionaryBlock.getDictionary().getPositionCount() != firstBlock.getDictionary().getPositionCount()) {
+                    return Optional.empty();
+                }
+                dictionaries[channel] = dictionaryBlock.getDictionary();
+            }
+            return Optional.of(Arrays.asList(dictionaries));
+        }
+
+        return Optional.empty();
+    }
+
+    public static boolean isSameDictionaries(@Nullable List<Block> dictionaries, List<Block> otherDictionaries)
+    {
+        if (dictionaries == null || dictionaries.size() != otherDictionaries.size()) {
+            return false;
+        }
+        for (int i = 0; i < dictionaries.size(); i++) {
+            if (dictionaries.get(i) != otherDictionaries.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
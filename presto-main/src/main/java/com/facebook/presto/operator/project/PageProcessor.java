@@ -85,7 +85,7 @@ public class PageProcessor
 
         this.filter = requireNonNull(filter, "filter is null")
                 .map(pageFilter -> {
-                    if (pageFilter.getInputChannels().size() == 1 && pageFilter.isDeterministic()) {
+                    if (pageFilter.getInputChannels().size() > 0 && pageFilter.isDeterministic()) {
                         return new DictionaryAwarePageFilter(pageFilter);
                     }
                     return pageFilter;
@@ -94,7 +94,7 @@ public class PageProcessor
         this.projections = requireNonNull(projections, "projections is null").stream()
                 .map(projectionWithOutputs -> {
                     PageProjection projection = projectionWithOutputs.getPageProjection();
-                    if (projection.getInputChannels().size() == 1 && projection.isDeterministic()
+                    if (projection.getInputChannels().size() > 0 && projection.isDeterministic()
                             && !(projection instanceof InputPageProjection)) {
                         return new PageProjectionWithOutputs(new DictionaryAwarePageProjection(projection, dictionarySourceIdFunction), projectionWithOutputs.getOutputChannels());
                     }
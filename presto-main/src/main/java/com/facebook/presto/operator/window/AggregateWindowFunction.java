@@ -14,6 +14,9 @@
 package com.facebook.presto.operator.window;
 
 import com.facebook.presto.common.block.BlockBuilder;
+import com.facebook.presto.common.type.FixedWidthType;
+import com.facebook.presto.common.type.RowType;
+import com.facebook.presto.common.type.Type;
 import com.facebook.presto.operator.UpdateMemory;
 import com.facebook.presto.operator.aggregation.AccumulatorFactory;
 import com.facebook.presto.operator.aggregation.BuiltInAggregationFunctionImplementation;
@@ -34,8 +37,12 @@ import static java.util.Objects.requireNonNull;
 public class AggregateWindowFunction
         implements WindowFunction
 {
+    // below this size, aggregating the frame again is cheaper than combining the states of the sliding frame
+    static final int MIN_SLIDING_FRAME_SIZE = 64;
+
     private final List<Integer> argumentChannels;
     private final AccumulatorFactory accumulatorFactory;
+    private final Optional<SlidingFrameAggregator> slidingFrameAggregator;
 
     private WindowIndex windowIndex;
     private Accumulator accumulator;
@@ -48,6 +55,12 @@ public class AggregateWindowFunction
         BuiltInAggregationFunctionImplementation builtinFunction = (BuiltInAggregationFunctionImplementation) function;
         this.argumentChannels = ImmutableList.copyOf(argumentChannels);
         this.accumulatorFactory = generateAccumulatorFactory(builtinFunction, createArgs(builtinFunction), Optional.empty());
+        if (builtinFunction.isDecomposable() && !builtinFunction.isOrderSensitive() && isFixedWidth(builtinFunction.getIntermediateType())) {
+            this.slidingFrameAggregator = Optional.of(new SlidingFrameAggregator(accumulatorFactory, this.argumentChannels, builtinFunction.getIntermediateType()));
+        }
+        else {
+            this.slidingFrameAggregator = Optional.empty();
+        }
     }
 
     @Override
@@ -55,11 +68,16 @@ public class AggregateWindowFunction
     {
         this.windowIndex = windowIndex;
         resetAccumulator();
+        slidingFrameAggregator.ifPresent(aggregator -> aggregator.reset(windowIndex));
     }
 
     @Override
     public void processRow(BlockBuilder output, int peerGroupStart, int peerGroupEnd, int frameStart, int frameEnd)
     {
+        if (slidingFrameAggregator.isPresent() && processSlidingFrame(output, slidingFrameAggregator.get(), frameStart, frameEnd)) {
+            return;
+        }
+
         if (frameStart < 0) {
             // empty frame
             resetAccumulator();
@@ -80,6 +98,24 @@ public class AggregateWindowFunction
         accumulator.evaluateFinal(output);
     }
 
+    private boolean processSlidingFrame(BlockBuilder output, SlidingFrameAggregator aggregator, int frameStart, int frameEnd)
+    {
+        if (frameStart >= 0 && aggregator.canSlideTo(frameStart, frameEnd)) {
+            aggregator.slideTo(frameStart, frameEnd);
+        }
+        else if (frameStart > currentStart && currentStart >= 0 && frameEnd >= currentEnd && frameEnd - frameStart + 1 >= MIN_SLIDING_FRAME_SIZE) {
+            // the frame started sliding forward, so the accumulator would otherwise be rebuilt for every row
+            aggregator.start(frameStart, frameEnd);
+            resetAccumulator();
+        }
+        else {
+            aggregator.deactivate();
+            return false;
+        }
+        aggregator.evaluateFinal(output);
+        return true;
+    }
+
     private void accumulate(int start, int end)
     {
         accumulator.addInput(windowIndex, argumentChannels, start, end);
@@ -110,6 +146,14 @@ public class AggregateWindowFunction
         };
     }
 
+    private static boolean isFixedWidth(Type type)
+    {
+        if (type instanceof RowType) {
+            return type.getTypeParameters().stream().allMatch(AggregateWindowFunction::isFixedWidth);
+        }
+        return type instanceof FixedWidthType;
+    }
+
     private static List<Integer> createArgs(BuiltInAggregationFunctionImplementation function)
     {
         ImmutableList.Builder<Integer> list = ImmutableList.builder();
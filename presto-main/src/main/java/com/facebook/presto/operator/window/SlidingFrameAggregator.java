@@ -0,0 +1,139 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.window;
+
+import com.facebook.presto.common.block.Block;
+import com.facebook.presto.common.block.BlockBuilder;
+import com.facebook.presto.common.type.Type;
+import com.facebook.presto.operator.UpdateMemory;
+import com.facebook.presto.operator.aggregation.AccumulatorFactory;
+import com.facebook.presto.spi.function.WindowIndex;
+import com.facebook.presto.spi.function.aggregation.Accumulator;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Aggregates a frame which slides forward over a partition, with a constant amortized
+ * cost per row regardless of the frame size.
+ * <p>
+ * The frame is split in two. The rows before the split position are aggregated by suffix
+ * states. The suffix state of a row is the intermediate state of the rows from that row up to
+ * the split position. The rows from the split position to the end of the frame are aggregated
+ * by a tail accumulator. When the start of the frame passes the split position, the suffix
+ * states are rebuilt from the rows of the frame, so each row is added to a suffix state once.
+ * <p>
+ * The aggregation function must be decomposable, and the order in which rows are added must
+ * not matter.
+ */
+final class SlidingFrameAggregator
+{
+    private final AccumulatorFactory accumulatorFactory;
+    private final List<Integer> argumentChannels;
+    private final Type intermediateType;
+
+    private WindowIndex windowIndex;
+    private int frameStart = -1;
+    private int frameEnd = -1;
+    private int splitPosition;
+
+    // suffix state of position p is at index splitPosition - 1 - p
+    private Block suffixStates;
+    private Accumulator tailAccumulator;
+    private boolean tailEmpty;
+
+    public SlidingFrameAggregator(AccumulatorFactory accumulatorFactory, List<Integer> argumentChannels, Type intermediateType)
+    {
+        this.accumulatorFactory = requireNonNull(accumulatorFactory, "accumulatorFactory is null");
+        this.argumentChannels = requireNonNull(argumentChannels, "argumentChannels is null");
+        this.intermediateType = requireNonNull(intermediateType, "intermediateType is null");
+    }
+
+    public boolean isActive()
+    {
+        return frameStart >= 0;
+    }
+
+    public void reset(WindowIndex windowIndex)
+    {
+        this.windowIndex = requireNonNull(windowIndex, "windowIndex is null");
+        deactivate();
+    }
+
+    public void deactivate()
+    {
+        frameStart = -1;
+        frameEnd = -1;
+        suffixStates = null;
+        tailAccumulator = null;
+    }
+
+    /**
+     * Returns true if the current frame can slide to the given frame.
+     */
+    public boolean canSlideTo(int newFrameStart, int newFrameEnd)
+    {
+        return isActive() && newFrameStart >= frameStart && newFrameEnd >= frameEnd;
+    }
+
+    public void start(int newFrameStart, int newFrameEnd)
+    {
+        checkArgument(newFrameStart >= 0 && newFrameStart <= newFrameEnd, "invalid frame");
+        frameStart = newFrameStart;
+        frameEnd = newFrameEnd;
+        rebuildSuffixStates();
+    }
+
+    public void slideTo(int newFrameStart, int newFrameEnd)
+    {
+        checkArgument(canSlideTo(newFrameStart, newFrameEnd), "frame cannot slide backwards");
+        if (newFrameEnd > frameEnd) {
+            tailAccumulator.addInput(windowIndex, argumentChannels, frameEnd + 1, newFrameEnd);
+            tailEmpty = false;
+        }
+        frameStart = newFrameStart;
+        frameEnd = newFrameEnd;
+        if (frameStart >= splitPosition) {
+            rebuildSuffixStates();
+        }
+    }
+
+    public void evaluateFinal(BlockBuilder output)
+    {
+        Accumulator accumulator = accumulatorFactory.createAccumulator(UpdateMemory.NOOP);
+        accumulator.addIntermediate(suffixStates.getRegion(splitPosition - 1 - frameStart, 1));
+        if (!tailEmpty) {
+            BlockBuilder tailState = intermediateType.createBlockBuilder(null, 1);
+            tailAccumulator.evaluateIntermediate(tailState);
+            accumulator.addIntermediate(tailState.build());
+        }
+        accumulator.evaluateFinal(output);
+    }
+
+    private void rebuildSuffixStates()
+    {
+        Accumulator accumulator = accumulatorFactory.createAccumulator(UpdateMemory.NOOP);
+        BlockBuilder states = intermediateType.createBlockBuilder(null, frameEnd - frameStart + 1);
+        for (int position = frameEnd; position >= frameStart; position--) {
+            accumulator.addInput(windowIndex, argumentChannels, position, position);
+            accumulator.evaluateIntermediate(states);
+        }
+        suffixStates = states.build();
+        splitPosition = frameEnd + 1;
+        tailAccumulator = accumulatorFactory.createAccumulator(UpdateMemory.NOOP);
+        tailEmpty = true;
+    }
+}
@@ -819,7 +819,8 @@ public class ServerMainModule
                     blockEncodingSerde,
                     fragmentCacheStats,
                     newFixedThreadPool(5, daemonThreadsNamed("fragment-result-cache-writer-%s")),
-                    newFixedThreadPool(1, daemonThreadsNamed("fragment-result-cache-remover-%s")));
+                    newFixedThreadPool(1, daemonThreadsNamed("fragment-result-cache-remover-%s")),
+                    newFixedThreadPool(5, daemonThreadsNamed("fragment-result-cache-reader-%s")));
         }
         return new NoOpFragmentResultCacheManager();
     }
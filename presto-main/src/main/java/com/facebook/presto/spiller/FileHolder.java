@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
+import java.nio.channels.AsynchronousFileChannel;
 import java.nio.file.Files;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
@@ -49,6 +50,13 @@ final class FileHolder
         return Files.newOutputStream(filePath, options);
     }
 
+    public synchronized AsynchronousFileChannel newAsynchronousFileChannel(OpenOption... options)
+            throws IOException
+    {
+        checkState(!deleted, "File already deleted");
+        return AsynchronousFileChannel.open(filePath, options);
+    }
+
     public synchronized InputStream newInputStream(OpenOption... options)
             throws IOException
     {
@@ -18,7 +18,7 @@ import com.facebook.presto.memory.context.LocalMemoryContext;
 import com.facebook.presto.operator.SpillContext;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.page.PagesSerde;
-import com.facebook.presto.spi.page.PagesSerdeUtil;
+import com.facebook.presto.spi.page.SerializedPage;
 import com.facebook.presto.spi.spiller.SpillCipher;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.AbstractIterator;
@@ -27,8 +27,10 @@ import com.google.common.io.Closer;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.SettableFuture;
 import io.airlift.slice.InputStreamSliceInput;
 import io.airlift.slice.OutputStreamSliceOutput;
+import io.airlift.slice.SliceInput;
 import io.airlift.slice.SliceOutput;
 
 import javax.annotation.concurrent.NotThreadSafe;
@@ -36,23 +38,41 @@ import javax.annotation.concurrent.NotThreadSafe;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static com.facebook.airlift.concurrent.MoreFutures.getFutureValue;
 import static com.facebook.presto.common.block.PageBuilderStatus.DEFAULT_MAX_PAGE_SIZE_IN_BYTES;
 import static com.facebook.presto.execution.buffer.PageSplitterUtil.splitPage;
 import static com.facebook.presto.spi.StandardErrorCode.GENERIC_SPILL_FAILURE;
+import static com.facebook.presto.spi.page.PageCodecMarker.CHECKSUMMED;
+import static com.facebook.presto.spi.page.PagesSerdeUtil.isChecksumValid;
+import static com.facebook.presto.spi.page.PagesSerdeUtil.readSerializedPage;
 import static com.facebook.presto.spi.page.PagesSerdeUtil.writeSerializedPage;
 import static com.facebook.presto.spiller.FileSingleStreamSpillerFactory.SPILL_FILE_PREFIX;
 import static com.facebook.presto.spiller.FileSingleStreamSpillerFactory.SPILL_FILE_SUFFIX;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Throwables.throwIfInstanceOf;
 import static com.google.common.collect.Iterators.transform;
+import static java.lang.Math.min;
 import static java.lang.String.format;
-import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.WRITE;
 import static java.util.Objects.requireNonNull;
 
 @NotThreadSafe
@@ -61,31 +81,40 @@ public class FileSingleStreamSpiller
 {
     @VisibleForTesting
     static final int BUFFER_SIZE = 4 * 1024;
+    @VisibleForTesting
+    static final int WRITE_BUFFER_SIZE = 64 * 1024;
 
-    private final FileHolder targetFile;
+    // pages are striped round robin over the target files
+    private final List<FileHolder> targetFiles;
     private final Closer closer = Closer.create();
     private final PagesSerde serde;
     private final SpillerStats spillerStats;
     private final SpillContext localSpillContext;
     private final LocalMemoryContext memoryContext;
     private final Optional<SpillCipher> spillCipher;
+    private final int readAheadPages;
 
     private final ListeningExecutorService executor;
 
     private boolean writable = true;
     private boolean committed;
     private volatile long spilledPagesInMemorySize;
+    private int spilledSerializedPageCount;
     private ListenableFuture<?> spillInProgress = Futures.immediateFuture(null);
 
     public FileSingleStreamSpiller(
             PagesSerde serde,
             ListeningExecutorService executor,
-            Path spillPath,
+            List<Path> spillPaths,
             SpillerStats spillerStats,
             SpillContext spillContext,
             LocalMemoryContext memoryContext,
-            Optional<SpillCipher> spillCipher)
+            Optional<SpillCipher> spillCipher,
+            int readAheadPages)
     {
+        requireNonNull(spillPaths, "spillPaths is null");
+        checkArgument(!spillPaths.isEmpty(), "spillPaths is empty");
+        checkArgument(readAheadPages >= 0, "readAheadPages is negative");
         this.serde = requireNonNull(serde, "serde is null");
         this.executor = requireNonNull(executor, "executor is null");
         this.spillerStats = requireNonNull(spillerStats, "spillerStats is null");
@@ -94,6 +123,7 @@ public class FileSingleStreamSpiller
         this.spillCipher = requireNonNull(spillCipher, "spillCipher is null");
         checkState(!spillCipher.isPresent() || !spillCipher.get().isDestroyed(), "spillCipher is already destroyed");
         this.spillCipher.ifPresent(cipher -> closer.register(cipher::destroy));
+        this.readAheadPages = readAheadPages;
         // HACK!
         // The writePages() method is called in a separate thread pool and it's possible that
         // these spiller thread can run concurrently with the close() method.
@@ -104,9 +134,14 @@ public class FileSingleStreamSpiller
         // This means we start accounting for the memory before the spiller thread allocates it, and we release the memory reservation
         // before/after the spiller thread allocates that memory -- -- whether before or after depends on whether writePages() is in the
         // middle of execution when close() is called (note that this applies to both readPages() and writePages() methods).
-        this.memoryContext.setBytes(BUFFER_SIZE);
+        // Each target file is written through a serialization buffer and the two buffers of its asynchronous writer.
+        this.memoryContext.setBytes((BUFFER_SIZE + 2L * WRITE_BUFFER_SIZE) * spillPaths.size());
         try {
-            this.targetFile = closer.register(new FileHolder(Files.createTempFile(spillPath, SPILL_FILE_PREFIX, SPILL_FILE_SUFFIX)));
+            ImmutableList.Builder<FileHolder> targetFiles = ImmutableList.builder();
+            for (Path spillPath : spillPaths) {
+                targetFiles.add(closer.register(new FileHolder(Files.createTempFile(spillPath, SPILL_FILE_PREFIX, SPILL_FILE_SUFFIX))));
+            }
+            this.targetFiles = targetFiles.build();
         }
         catch (IOException e) {
             throw new PrestoException(GENERIC_SPILL_FAILURE, format("Failed to create spill file: %s", e.getMessage()), e);
@@ -131,14 +166,20 @@ public class FileSingleStreamSpiller
     @Override
     public Iterator<Page> getSpilledPages()
     {
-        checkNoSpillInProgress();
-        return readPages();
+        return getSpilledPages(readAheadPages);
     }
 
     @Override
     public ListenableFuture<List<Page>> getAllSpilledPages()
     {
-        return executor.submit(() -> ImmutableList.copyOf(getSpilledPages()));
+        // pages are already read on the executor, so reading ahead on it as well could deadlock a saturated executor
+        return executor.submit(() -> ImmutableList.copyOf(getSpilledPages(0)));
+    }
+
+    private Iterator<Page> getSpilledPages(int readAheadPages)
+    {
+        checkNoSpillInProgress();
+        return readPages(readAheadPages);
     }
 
     @Override
@@ -151,27 +192,38 @@ public class FileSingleStreamSpiller
     {
         checkState(writable, "Spilling no longer allowed. The spiller has been made non-writable on first read for subsequent reads to be consistent");
         checkState(!committed, "Spilling no longer allowed. Spill file is already committed");
-        try (SliceOutput output = new OutputStreamSliceOutput(targetFile.newOutputStream(APPEND), BUFFER_SIZE)) {
+        long startNanos = System.nanoTime();
+        long writtenBytes = 0;
+        try (Closer outputCloser = Closer.create()) {
+            List<SliceOutput> outputs = new ArrayList<>(targetFiles.size());
+            for (FileHolder targetFile : targetFiles) {
+                AsynchronousFileChannel channel = outputCloser.register(targetFile.newAsynchronousFileChannel(WRITE));
+                outputs.add(outputCloser.register(new OutputStreamSliceOutput(new DoubleBufferedChannelOutputStream(channel), BUFFER_SIZE)));
+            }
             while (pageIterator.hasNext()) {
                 Page page = pageIterator.next();
                 spilledPagesInMemorySize += page.getSizeInBytes();
                 // page serialization requires  page.getSizeInBytes() + Integer.BYTES to fit in an integer
-                splitPage(page, DEFAULT_MAX_PAGE_SIZE_IN_BYTES).stream()
-                        .map(serde::serialize)
-                        .forEach(serializedPage -> {
-                            long pageSize = serializedPage.getSizeInBytes();
-                            localSpillContext.updateBytes(pageSize);
-                            spillerStats.addToTotalSpilledBytes(pageSize);
-                            writeSerializedPage(output, serializedPage);
-                        });
+                for (Page splitPage : splitPage(page, DEFAULT_MAX_PAGE_SIZE_IN_BYTES)) {
+                    SerializedPage serializedPage = serde.serialize(splitPage);
+                    long pageSize = serializedPage.getSizeInBytes();
+                    localSpillContext.updateBytes(pageSize);
+                    spillerStats.addToTotalSpilledBytes(pageSize);
+                    spillerStats.addToTotalSpilledUncompressedBytes(serializedPage.getUncompressedSizeInBytes());
+                    // the stripe of a page is derived from its index, so that the pages can be read back in order
+                    writeSerializedPage(outputs.get(spilledSerializedPageCount % outputs.size()), serializedPage);
+                    spilledSerializedPageCount++;
+                    writtenBytes += pageSize;
+                }
             }
         }
         catch (UncheckedIOException | IOException e) {
             throw new PrestoException(GENERIC_SPILL_FAILURE, format("Failed to spill pages: %s", e.getMessage()), e);
         }
+        spillerStats.recordSpillFileWrite(writtenBytes, System.nanoTime() - startNanos);
     }
 
-    private Iterator<Page> readPages()
+    private Iterator<Page> readPages(int readAheadPages)
     {
         checkState(writable, "Repeated reads are disallowed to prevent potential resource leaks");
         writable = false;
@@ -182,17 +234,29 @@ public class FileSingleStreamSpiller
             }
 
             checkState(committed, "Cannot read pages since spill file is not committed");
-            InputStream input = closer.register(targetFile.newInputStream());
-            Iterator<Page> deserializedPages = PagesSerdeUtil.readPages(serde, new InputStreamSliceInput(input, BUFFER_SIZE));
-            Iterator<Page> compactPages = transform(deserializedPages, Page::compact);
+            ImmutableList.Builder<SpillFileReader> inputs = ImmutableList.builder();
+            for (FileHolder targetFile : targetFiles) {
+                inputs.add(openSpillFile(targetFile));
+            }
+            // the write buffers are not needed anymore, serialized pages are split to at most DEFAULT_MAX_PAGE_SIZE_IN_BYTES when written
+            memoryContext.setBytes(BUFFER_SIZE * (long) targetFiles.size() + readAheadPages * (long) DEFAULT_MAX_PAGE_SIZE_IN_BYTES);
+            SpilledPagesReader reader = closer.register(new SpilledPagesReader(inputs.build(), spilledSerializedPageCount, readAheadPages));
+            Iterator<Page> compactPages = transform(reader, Page::compact);
             spillerStats.addToTotalSpilledBytesRead(getSpilledPagesInMemorySize());
-            return closeWhenExhausted(compactPages, input);
+            return closeWhenExhausted(compactPages, reader);
         }
         catch (IOException e) {
             throw new PrestoException(GENERIC_SPILL_FAILURE, format("Failed to read spilled pages: %s", e.getMessage()), e);
         }
     }
 
+    private SpillFileReader openSpillFile(FileHolder targetFile)
+            throws IOException
+    {
+        InputStream input = closer.register(targetFile.newInputStream());
+        return new StreamSpillFileReader(new InputStreamSliceInput(input, BUFFER_SIZE));
+    }
+
     @Override
     public void close()
     {
@@ -211,6 +275,282 @@ public class FileSingleStreamSpiller
         checkState(spillInProgress.isDone(), "spill in progress");
     }
 
+    private class SpilledPagesReader
+            extends AbstractIterator<Page>
+            implements Closeable
+    {
+        private final List<SpillFileReader> stripes;
+        private final int pageCount;
+        private final int readAheadPages;
+
+        // reads scheduled ahead of the consumer, in page order
+        private final Deque<ListenableFuture<SerializedPage>> pendingReads = new ArrayDeque<>();
+        private final List<ListenableFuture<SerializedPage>> lastReadByStripe;
+        private final AtomicLong readNanos = new AtomicLong();
+
+        private int scheduledPages;
+        private int returnedPages;
+        private long readBytes;
+        private volatile boolean closed;
+
+        public SpilledPagesReader(List<SpillFileReader> stripes, int pageCount, int readAheadPages)
+        {
+            this.stripes = ImmutableList.copyOf(requireNonNull(stripes, "stripes is null"));
+            this.pageCount = pageCount;
+            this.readAheadPages = readAheadPages;
+            this.lastReadByStripe = new ArrayList<>(stripes.size());
+            for (int i = 0; i < stripes.size(); i++) {
+                lastReadByStripe.add(null);
+            }
+        }
+
+        @Override
+        protected Page computeNext()
+        {
+            if (returnedPages == pageCount) {
+                spillerStats.recordSpillFileRead(readBytes, readNanos.get());
+                return endOfData();
+            }
+
+            SerializedPage serializedPage;
+            if (readAheadPages == 0) {
+                serializedPage = readPage(returnedPages);
+            }
+            else {
+                scheduleReads();
+                serializedPage = getFutureValue(pendingReads.poll());
+                scheduleReads();
+            }
+            returnedPages++;
+            readBytes += serializedPage.getSizeInBytes();
+
+            if (CHECKSUMMED.isSet(serializedPage.getPageCodecMarkers()) && !isChecksumValid(serializedPage)) {
+                throw new PrestoException(GENERIC_SPILL_FAILURE, "Spilled page checksum verification failed");
+            }
+            return serde.deserialize(serializedPage);
+        }
+
+        private void scheduleReads()
+        {
+            while (!closed && scheduledPages < pageCount && pendingReads.size() < readAheadPages) {
+                int pageIndex = scheduledPages++;
+                int stripe = pageIndex % stripes.size();
+                // reads of the same stripe are chained, reads of different stripes run in parallel
+                ListenableFuture<SerializedPage> previousRead = lastReadByStripe.get(stripe);
+                ListenableFuture<SerializedPage> read;
+                if (previousRead == null) {
+                    read = executor.submit(() -> readPage(pageIndex));
+                }
+                else {
+                    read = Futures.transform(previousRead, ignored -> readPage(pageIndex), executor);
+                }
+                lastReadByStripe.set(stripe, read);
+                pendingReads.add(read);
+            }
+        }
+
+        private SerializedPage readPage(int pageIndex)
+        {
+            SpillFileReader stripe = stripes.get(pageIndex % stripes.size());
+            // the stripe is closed while holding its lock, so it is never closed in the middle of a read
+            synchronized (stripe) {
+                if (closed) {
+                    // a read ahead that started after the reader got closed is not needed anymore
+                    return null;
+                }
+                long startNanos = System.nanoTime();
+                SerializedPage serializedPage = stripe.readPage();
+                readNanos.addAndGet(System.nanoTime() - startNanos);
+                return serializedPage;
+            }
+        }
+
+        @Override
+        public void close()
+        {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            // reads are not interrupted, as an interrupted read closes the file channel it is reading from
+            pendingReads.forEach(read -> read.cancel(false));
+            pendingReads.clear();
+            try (Closer inputCloser = Closer.create()) {
+                for (SpillFileReader stripe : stripes) {
+                    inputCloser.register(() -> {
+                        // waits for a read of the stripe that is still running
+                        synchronized (stripe) {
+                            stripe.close();
+                        }
+                    });
+                }
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private interface SpillFileReader
+            extends Closeable
+    {
+        SerializedPage readPage();
+    }
+
+    private static class StreamSpillFileReader
+            implements SpillFileReader
+    {
+        private final SliceInput input;
+
+        public StreamSpillFileReader(SliceInput input)
+        {
+            this.input = requireNonNull(input, "input is null");
+        }
+
+        @Override
+        public SerializedPage readPage()
+        {
+            return readSerializedPage(input);
+        }
+
+        @Override
+        public void close()
+                throws IOException
+        {
+            input.close();
+        }
+    }
+
+    /**
+     * Appends to a file through two buffers: one buffer is filled while the other one is written
+     * to the file in the background, so that serializing pages does not wait for the disk.
+     */
+    private static class DoubleBufferedChannelOutputStream
+            extends OutputStream
+    {
+        private final AsynchronousFileChannel channel;
+        private final ByteBuffer[] buffers = {ByteBuffer.allocate(WRITE_BUFFER_SIZE), ByteBuffer.allocate(WRITE_BUFFER_SIZE)};
+        private final ListenableFuture<?>[] pendingWrites = {Futures.immediateFuture(null), Futures.immediateFuture(null)};
+
+        private int current;
+        private long position;
+        private boolean closed;
+
+        public DoubleBufferedChannelOutputStream(AsynchronousFileChannel channel)
+                throws IOException
+        {
+            this.channel = requireNonNull(channel, "channel is null");
+            this.position = channel.size();
+        }
+
+        @Override
+        public void write(int value)
+                throws IOException
+        {
+            if (!buffers[current].hasRemaining()) {
+                switchBuffers();
+            }
+            buffers[current].put((byte) value);
+        }
+
+        @Override
+        public void write(byte[] source, int offset, int length)
+                throws IOException
+        {
+            checkPositionIndexes(offset, offset + length, source.length);
+            while (length > 0) {
+                if (!buffers[current].hasRemaining()) {
+                    switchBuffers();
+                }
+                int chunkLength = min(length, buffers[current].remaining());
+                buffers[current].put(source, offset, chunkLength);
+                offset += chunkLength;
+                length -= chunkLength;
+            }
+        }
+
+        @Override
+        public void close()
+                throws IOException
+        {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                if (buffers[current].position() > 0) {
+                    startWrite(current);
+                }
+                awaitWrite(0);
+                awaitWrite(1);
+            }
+            finally {
+                channel.close();
+            }
+        }
+
+        private void switchBuffers()
+                throws IOException
+        {
+            startWrite(current);
+            current = 1 - current;
+            awaitWrite(current);
+            buffers[current].clear();
+        }
+
+        private void startWrite(int bufferIndex)
+        {
+            ByteBuffer buffer = buffers[bufferIndex];
+            buffer.flip();
+            SettableFuture<Void> write = SettableFuture.create();
+            long writePosition = position;
+            position += buffer.remaining();
+            channel.write(buffer, writePosition, writePosition, new CompletionHandler<Integer, Long>()
+            {
+                @Override
+                public void completed(Integer writtenBytes, Long writtenPosition)
+                {
+                    // a single write may not write the whole buffer
+                    if (buffer.hasRemaining()) {
+                        long nextPosition = writtenPosition + writtenBytes;
+                        try {
+                            channel.write(buffer, nextPosition, nextPosition, this);
+                        }
+                        catch (RuntimeException e) {
+                            write.setException(e);
+                        }
+                    }
+                    else {
+                        write.set(null);
+                    }
+                }
+
+                @Override
+                public void failed(Throwable throwable, Long writtenPosition)
+                {
+                    write.setException(throwable);
+                }
+            });
+            pendingWrites[bufferIndex] = write;
+        }
+
+        private void awaitWrite(int bufferIndex)
+                throws IOException
+        {
+            try {
+                pendingWrites[bufferIndex].get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while writing spill file");
+            }
+            catch (ExecutionException e) {
+                throwIfInstanceOf(e.getCause(), IOException.class);
+                throw new IOException(e.getCause());
+            }
+        }
+    }
+
     private static <T> Iterator<T> closeWhenExhausted(Iterator<T> iterator, Closeable resource)
     {
         requireNonNull(iterator, "iterator is null");
@@ -16,6 +16,7 @@ package com.facebook.presto.spiller;
 import com.facebook.airlift.log.Logger;
 import com.facebook.presto.common.block.BlockEncodingSerde;
 import com.facebook.presto.common.type.Type;
+import com.facebook.presto.execution.buffer.CompressionCodec;
 import com.facebook.presto.execution.buffer.PagesSerdeFactory;
 import com.facebook.presto.memory.context.LocalMemoryContext;
 import com.facebook.presto.operator.SpillContext;
@@ -39,6 +40,8 @@ import java.util.List;
 import java.util.Optional;
 
 import static com.facebook.airlift.concurrent.Threads.daemonThreadsNamed;
+import static com.facebook.presto.execution.buffer.CompressionCodec.LZ4;
+import static com.facebook.presto.execution.buffer.CompressionCodec.NONE;
 import static com.facebook.presto.spi.StandardErrorCode.OUT_OF_SPILL_SPACE;
 import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
 import static java.lang.String.format;
@@ -66,6 +69,8 @@ public class FileSingleStreamSpillerFactory
     private final SpillerStats spillerStats;
     private final double maxUsedSpaceThreshold;
     private final boolean spillEncryptionEnabled;
+    private final boolean spillFileStripingEnabled;
+    private final int spillReadAheadPages;
     private int roundRobinIndex;
 
     @Inject
@@ -79,8 +84,11 @@ public class FileSingleStreamSpillerFactory
                 spillerStats,
                 requireNonNull(featuresConfig, "featuresConfig is null").getSpillerSpillPaths(),
                 requireNonNull(featuresConfig, "featuresConfig is null").getSpillMaxUsedSpaceThreshold(),
-                requireNonNull(nodeSpillConfig, "nodeSpillConfig is null").isSpillCompressionEnabled(),
-                requireNonNull(nodeSpillConfig, "nodeSpillConfig is null").isSpillEncryptionEnabled());
+                requireNonNull(nodeSpillConfig, "nodeSpillConfig is null").isSpillCompressionEnabled() ? nodeSpillConfig.getSpillCompressionCodec() : NONE,
+                nodeSpillConfig.isSpillChecksumEnabled(),
+                nodeSpillConfig.isSpillEncryptionEnabled(),
+                nodeSpillConfig.isSpillFileStripingEnabled(),
+                nodeSpillConfig.getSpillReadAheadPages());
     }
 
     @VisibleForTesting
@@ -93,7 +101,23 @@ public class FileSingleStreamSpillerFactory
             boolean spillCompressionEnabled,
             boolean spillEncryptionEnabled)
     {
-        this.serdeFactory = new PagesSerdeFactory(requireNonNull(blockEncodingSerde, "blockEncodingSerde is null"), spillCompressionEnabled);
+        this(executor, blockEncodingSerde, spillerStats, spillPaths, maxUsedSpaceThreshold, spillCompressionEnabled ? LZ4 : NONE, false, spillEncryptionEnabled, false, 0);
+    }
+
+    @VisibleForTesting
+    public FileSingleStreamSpillerFactory(
+            ListeningExecutorService executor,
+            BlockEncodingSerde blockEncodingSerde,
+            SpillerStats spillerStats,
+            List<Path> spillPaths,
+            double maxUsedSpaceThreshold,
+            CompressionCodec spillCompressionCodec,
+            boolean spillChecksumEnabled,
+            boolean spillEncryptionEnabled,
+            boolean spillFileStripingEnabled,
+            int spillReadAheadPages)
+    {
+        this.serdeFactory = new PagesSerdeFactory(requireNonNull(blockEncodingSerde, "blockEncodingSerde is null"), spillCompressionCodec, spillChecksumEnabled);
         this.executor = requireNonNull(executor, "executor is null");
         this.spillerStats = requireNonNull(spillerStats, "spillerStats can not be null");
         requireNonNull(spillPaths, "spillPaths is null");
@@ -113,6 +137,8 @@ public class FileSingleStreamSpillerFactory
         });
         this.maxUsedSpaceThreshold = maxUsedSpaceThreshold;
         this.spillEncryptionEnabled = spillEncryptionEnabled;
+        this.spillFileStripingEnabled = spillFileStripingEnabled;
+        this.spillReadAheadPages = spillReadAheadPages;
         this.roundRobinIndex = 0;
     }
 
@@ -154,7 +180,30 @@ public class FileSingleStreamSpillerFactory
             spillCipher = Optional.of(new AesSpillCipher());
         }
         PagesSerde serde = serdeFactory.createPagesSerdeForSpill(spillCipher);
-        return new FileSingleStreamSpiller(serde, executor, getNextSpillPath(), spillerStats, spillContext, memoryContext, spillCipher);
+        List<Path> spillPaths = spillFileStripingEnabled ? getNextStripedSpillPaths() : ImmutableList.of(getNextSpillPath());
+        return new FileSingleStreamSpiller(serde, executor, spillPaths, spillerStats, spillContext, memoryContext, spillCipher, spillReadAheadPages);
+    }
+
+    private synchronized List<Path> getNextStripedSpillPaths()
+    {
+        if (spillPaths.isEmpty()) {
+            throw new PrestoException(OUT_OF_SPILL_SPACE, "No spill paths configured");
+        }
+        // rotate the first stripe so that small spills, which only use the first stripe, are still spread over all paths
+        int spillPathsCount = spillPaths.size();
+        ImmutableList.Builder<Path> paths = ImmutableList.builder();
+        for (int i = 0; i < spillPathsCount; ++i) {
+            Path path = spillPaths.get((roundRobinIndex + i) % spillPathsCount);
+            if (hasEnoughDiskSpace(path)) {
+                paths.add(path);
+            }
+        }
+        List<Path> result = paths.build();
+        if (result.isEmpty()) {
+            throw new PrestoException(OUT_OF_SPILL_SPACE, "No free space available for spill");
+        }
+        roundRobinIndex = (roundRobinIndex + 1) % spillPathsCount;
+        return result;
     }
 
     private synchronized Path getNextSpillPath()
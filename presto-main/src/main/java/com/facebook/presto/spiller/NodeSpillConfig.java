@@ -14,8 +14,10 @@
 package com.facebook.presto.spiller;
 
 import com.facebook.airlift.configuration.Config;
+import com.facebook.presto.execution.buffer.CompressionCodec;
 import io.airlift.units.DataSize;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
 public class NodeSpillConfig
@@ -26,7 +28,11 @@ public class NodeSpillConfig
     private DataSize tempStorageBufferSize = new DataSize(4, DataSize.Unit.KILOBYTE);
 
     private boolean spillCompressionEnabled;
+    private CompressionCodec spillCompressionCodec = CompressionCodec.LZ4;
+    private boolean spillChecksumEnabled;
     private boolean spillEncryptionEnabled;
+    private boolean spillFileStripingEnabled;
+    private int spillReadAheadPages;
 
     @NotNull
     public DataSize getMaxSpillPerNode()
@@ -79,6 +85,31 @@ public class NodeSpillConfig
         return this;
     }
 
+    @NotNull
+    public CompressionCodec getSpillCompressionCodec()
+    {
+        return spillCompressionCodec;
+    }
+
+    @Config("experimental.spill-compression-codec")
+    public NodeSpillConfig setSpillCompressionCodec(CompressionCodec spillCompressionCodec)
+    {
+        this.spillCompressionCodec = spillCompressionCodec;
+        return this;
+    }
+
+    public boolean isSpillChecksumEnabled()
+    {
+        return spillChecksumEnabled;
+    }
+
+    @Config("experimental.spill-checksum-enabled")
+    public NodeSpillConfig setSpillChecksumEnabled(boolean spillChecksumEnabled)
+    {
+        this.spillChecksumEnabled = spillChecksumEnabled;
+        return this;
+    }
+
     public boolean isSpillEncryptionEnabled()
     {
         return spillEncryptionEnabled;
@@ -91,6 +122,31 @@ public class NodeSpillConfig
         return this;
     }
 
+    public boolean isSpillFileStripingEnabled()
+    {
+        return spillFileStripingEnabled;
+    }
+
+    @Config("experimental.spill-file-striping-enabled")
+    public NodeSpillConfig setSpillFileStripingEnabled(boolean spillFileStripingEnabled)
+    {
+        this.spillFileStripingEnabled = spillFileStripingEnabled;
+        return this;
+    }
+
+    @Min(0)
+    public int getSpillReadAheadPages()
+    {
+        return spillReadAheadPages;
+    }
+
+    @Config("experimental.spill-read-ahead-pages")
+    public NodeSpillConfig setSpillReadAheadPages(int spillReadAheadPages)
+    {
+        this.spillReadAheadPages = spillReadAheadPages;
+        return this;
+    }
+
     @NotNull
     public DataSize getTempStorageBufferSize()
     {
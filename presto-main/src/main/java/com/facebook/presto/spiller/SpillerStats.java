@@ -13,14 +13,22 @@
  */
 package com.facebook.presto.spiller;
 
+import com.facebook.airlift.stats.DistributionStat;
 import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
 
 import java.util.concurrent.atomic.AtomicLong;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
+
 public class SpillerStats
 {
     protected final AtomicLong totalSpilledBytes = new AtomicLong();
     protected final AtomicLong totalSpilledBytesRead = new AtomicLong();
+    protected final AtomicLong totalSpilledUncompressedBytes = new AtomicLong();
+    // throughput of individual spill files, in bytes per second
+    private final DistributionStat spillFileWriteThroughput = new DistributionStat();
+    private final DistributionStat spillFileReadThroughput = new DistributionStat();
 
     @Managed
     public long getTotalSpilledBytes()
@@ -34,6 +42,36 @@ public class SpillerStats
         return totalSpilledBytesRead.get();
     }
 
+    @Managed
+    public long getTotalSpilledUncompressedBytes()
+    {
+        return totalSpilledUncompressedBytes.get();
+    }
+
+    @Managed
+    public double getSpillCompressionRatio()
+    {
+        long spilledBytes = totalSpilledBytes.get();
+        if (spilledBytes == 0) {
+            return 1.0;
+        }
+        return (double) totalSpilledUncompressedBytes.get() / spilledBytes;
+    }
+
+    @Managed
+    @Nested
+    public DistributionStat getSpillFileWriteThroughput()
+    {
+        return spillFileWriteThroughput;
+    }
+
+    @Managed
+    @Nested
+    public DistributionStat getSpillFileReadThroughput()
+    {
+        return spillFileReadThroughput;
+    }
+
     public void addToTotalSpilledBytes(long delta)
     {
         totalSpilledBytes.addAndGet(delta);
@@ -43,4 +81,23 @@ public class SpillerStats
     {
         totalSpilledBytesRead.addAndGet(delta);
     }
+
+    public void addToTotalSpilledUncompressedBytes(long delta)
+    {
+        totalSpilledUncompressedBytes.addAndGet(delta);
+    }
+
+    public void recordSpillFileWrite(long bytes, long elapsedNanos)
+    {
+        if (elapsedNanos > 0) {
+            spillFileWriteThroughput.add((long) (bytes * (double) SECONDS.toNanos(1) / elapsedNanos));
+        }
+    }
+
+    public void recordSpillFileRead(long bytes, long elapsedNanos)
+    {
+        if (elapsedNanos > 0) {
+            spillFileReadThroughput.add((long) (bytes * (double) SECONDS.toNanos(1) / elapsedNanos));
+        }
+    }
 }
@@ -25,6 +25,7 @@ import com.facebook.presto.spi.SplitContext;
 import com.facebook.presto.spi.TableHandle;
 import com.facebook.presto.spi.connector.ConnectorPageSourceProvider;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 
 import java.util.List;
 import java.util.Optional;
@@ -72,7 +73,10 @@ public class PageSourceManager
                     split.getTransactionHandle(),
                     split.getConnectorSplit(),
                     split.getLifespan(),
-                    new SplitContext(split.getSplitContext().isCacheable(), dynamicFilter.get().get()));
+                    new SplitContext(
+                            split.getSplitContext().isCacheable(),
+                            dynamicFilter.get().get(),
+                            table.getDynamicFilterBloomFilters().map(Supplier::get).orElse(ImmutableMap.of())));
         }
 
         ConnectorSession connectorSession = session.toConnectorSession(split.getConnectorId());
@@ -44,6 +44,7 @@ import static com.facebook.presto.sql.analyzer.FeaturesConfig.JoinNotNullInferen
 import static com.facebook.presto.sql.analyzer.FeaturesConfig.TaskSpillingStrategy.ORDER_BY_CREATE_TIME;
 import static com.facebook.presto.sql.analyzer.RegexLibrary.JONI;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.units.DataSize.Unit.BYTE;
 import static io.airlift.units.DataSize.Unit.KILOBYTE;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static java.util.Objects.requireNonNull;
@@ -111,6 +112,7 @@ public class FeaturesConfig
     private boolean pushTableWriteThroughUnion = true;
     private boolean exchangeCompressionEnabled;
     private boolean exchangeChecksumEnabled;
+    private boolean exchangeLightweightCompressionEnabled;
     private boolean legacyArrayAgg;
     private boolean reduceAggForComplexTypesEnabled = true;
     private boolean legacyLogFunction;
@@ -183,6 +185,7 @@ public class FeaturesConfig
     private int dynamicFilteringMaxPerDriverRowCount = 100;
     private DataSize dynamicFilteringMaxPerDriverSize = new DataSize(10, KILOBYTE);
     private int dynamicFilteringRangeRowLimitPerDriver;
+    private DataSize dynamicFilteringBloomFilterSizePerDriver = new DataSize(0, BYTE);
 
     private boolean fragmentResultCachingEnabled;
 
@@ -1634,6 +1637,20 @@ public class FeaturesConfig
         return this;
     }
 
+    @MaxDataSize("16MB")
+    public DataSize getDynamicFilteringBloomFilterSizePerDriver()
+    {
+        return dynamicFilteringBloomFilterSizePerDriver;
+    }
+
+    @Config("dynamic-filtering-bloom-filter-size-per-driver")
+    @ConfigDescription("Size of the Bloom filter of the build-side values built per driver when there are too many values to collect for dynamic filtering, 0B disables the Bloom filters")
+    public FeaturesConfig setDynamicFilteringBloomFilterSizePerDriver(DataSize dynamicFilteringBloomFilterSizePerDriver)
+    {
+        this.dynamicFilteringBloomFilterSizePerDriver = dynamicFilteringBloomFilterSizePerDriver;
+        return this;
+    }
+
     public boolean isFragmentResultCachingEnabled()
     {
         return fragmentResultCachingEnabled;
@@ -1684,6 +1701,19 @@ public class FeaturesConfig
         return this;
     }
 
+    public boolean isExchangeLightweightCompressionEnabled()
+    {
+        return exchangeLightweightCompressionEnabled;
+    }
+
+    @Config("exchange.lightweight-compression-enabled")
+    @ConfigDescription("Write integer and string columns in exchanges with bit packing and dictionary encodings")
+    public FeaturesConfig setExchangeLightweightCompressionEnabled(boolean exchangeLightweightCompressionEnabled)
+    {
+        this.exchangeLightweightCompressionEnabled = exchangeLightweightCompressionEnabled;
+        return this;
+    }
+
     public boolean isEnableIntermediateAggregations()
     {
         return enableIntermediateAggregations;
@@ -13,7 +13,9 @@
  */
 package com.facebook.presto.sql.planner;
 
+import com.facebook.presto.common.predicate.BlockedBloomFilter;
 import com.facebook.presto.common.predicate.Domain;
+import com.facebook.presto.common.predicate.Range;
 import com.facebook.presto.common.predicate.TupleDomain;
 import com.facebook.presto.expressions.DynamicFilters.DynamicFilterExtractResult;
 import com.facebook.presto.expressions.DynamicFilters.DynamicFilterPlaceholder;
@@ -35,6 +37,9 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
 
+import static com.facebook.presto.common.function.OperatorType.EQUAL;
+import static com.facebook.presto.common.predicate.BlockedBloomFilter.hashValue;
+import static com.facebook.presto.common.predicate.BlockedBloomFilter.isSupportedType;
 import static com.facebook.presto.expressions.DynamicFilters.extractDynamicFilters;
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Verify.verify;
@@ -50,6 +55,7 @@ public class LocalDynamicFilter
     private final Map<String, Integer> buildChannels;
 
     private final SettableFuture<TupleDomain<VariableReferenceExpression>> resultFuture;
+    private final SettableFuture<Map<VariableReferenceExpression, BlockedBloomFilter>> bloomFiltersFuture;
 
     // Number of build-side partitions to be collected.
     private final int partitionCount;
@@ -57,6 +63,9 @@ public class LocalDynamicFilter
     // The resulting predicates from each build-side partition.
     private final List<TupleDomain<String>> partitions;
 
+    // The Bloom filters from the build-side partitions which had too many values for an exact predicate.
+    private final List<Map<String, BlockedBloomFilter>> bloomFilterPartitions;
+
     public LocalDynamicFilter(Multimap<String, DynamicFilterPlaceholder> probeVariables, Map<String, Integer> buildChannels, int partitionCount)
     {
         this.probeVariables = requireNonNull(probeVariables, "probeVariables is null");
@@ -64,9 +73,11 @@ public class LocalDynamicFilter
         verify(probeVariables.keySet().equals(buildChannels.keySet()), "probeVariables and buildChannels must have same keys");
 
         this.resultFuture = SettableFuture.create();
+        this.bloomFiltersFuture = SettableFuture.create();
 
         this.partitionCount = partitionCount;
         this.partitions = new ArrayList<>(partitionCount);
+        this.bloomFilterPartitions = new ArrayList<>(partitionCount);
     }
 
     private synchronized void addPartition(TupleDomain<String> tupleDomain)
@@ -78,11 +89,91 @@ public class LocalDynamicFilter
         partitions.add(tupleDomain);
         if (partitions.size() == partitionCount) {
             // No more partitions are left to be processed.
+            // The Bloom filters are provided first, so that they are in place when the predicate is applied.
+            verify(bloomFiltersFuture.set(mergeBloomFilters()), "dynamic filter Bloom filters are provided more than once");
             TupleDomain<VariableReferenceExpression> result = convertTupleDomain(TupleDomain.columnWiseUnion(partitions));
             verify(resultFuture.set(result), "dynamic filter result is provided more than once");
         }
     }
 
+    private synchronized void addBloomFilterPartition(Map<String, BlockedBloomFilter> bloomFilters)
+    {
+        // Called by each DynamicFilterSourceOperator instance which built Bloom filters, before it adds its predicate.
+        verify(bloomFilterPartitions.size() < partitionCount);
+        bloomFilterPartitions.add(bloomFilters);
+    }
+
+    private Map<VariableReferenceExpression, BlockedBloomFilter> mergeBloomFilters()
+    {
+        if (bloomFilterPartitions.isEmpty()) {
+            return ImmutableMap.of();
+        }
+        ImmutableMap.Builder<VariableReferenceExpression, BlockedBloomFilter> builder = ImmutableMap.builder();
+        for (String filterId : buildChannels.keySet()) {
+            // A Bloom filter can only be used if it covers the values of all build-side partitions
+            Optional<BlockedBloomFilter> bloomFilter = mergeBloomFilter(filterId);
+            if (!bloomFilter.isPresent()) {
+                continue;
+            }
+            for (DynamicFilterPlaceholder placeholder : probeVariables.get(filterId)) {
+                if (placeholder.getOperator() == EQUAL) {
+                    builder.put((VariableReferenceExpression) placeholder.getInput(), bloomFilter.get());
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private Optional<BlockedBloomFilter> mergeBloomFilter(String filterId)
+    {
+        BlockedBloomFilter result = null;
+        int coveredPartitions = 0;
+        for (Map<String, BlockedBloomFilter> bloomFilters : bloomFilterPartitions) {
+            BlockedBloomFilter bloomFilter = bloomFilters.get(filterId);
+            if (bloomFilter == null) {
+                continue;
+            }
+            if (result == null) {
+                result = bloomFilter.copy();
+            }
+            else if (result.isCompatible(bloomFilter)) {
+                result = result.union(bloomFilter);
+            }
+            else {
+                return Optional.empty();
+            }
+            coveredPartitions++;
+        }
+        if (result == null) {
+            return Optional.empty();
+        }
+
+        // Add the values of the partitions which collected an exact predicate
+        for (TupleDomain<String> partition : partitions) {
+            if (partition.isNone()) {
+                coveredPartitions++;
+                continue;
+            }
+            Domain domain = partition.getDomains().get().get(filterId);
+            if (domain == null) {
+                continue;
+            }
+            if (domain.isNone()) {
+                coveredPartitions++;
+            }
+            else if (!domain.isNullAllowed() && isSupportedType(domain.getType())) {
+                List<Range> ranges = domain.getValues().getRanges().getOrderedRanges();
+                if (ranges.stream().allMatch(Range::isSingleValue)) {
+                    for (Range range : ranges) {
+                        result.put(hashValue(domain.getType(), range.getSingleValue()));
+                    }
+                    coveredPartitions++;
+                }
+            }
+        }
+        return coveredPartitions == partitionCount ? Optional.of(result) : Optional.empty();
+    }
+
     private TupleDomain<VariableReferenceExpression> convertTupleDomain(TupleDomain<String> result)
     {
         if (result.isNone()) {
@@ -156,11 +247,21 @@ public class LocalDynamicFilter
         return resultFuture;
     }
 
+    public ListenableFuture<Map<VariableReferenceExpression, BlockedBloomFilter>> getBloomFiltersFuture()
+    {
+        return bloomFiltersFuture;
+    }
+
     public Consumer<TupleDomain<String>> getTupleDomainConsumer()
     {
         return this::addPartition;
     }
 
+    public Consumer<Map<String, BlockedBloomFilter>> getBloomFiltersConsumer()
+    {
+        return this::addBloomFilterPartition;
+    }
+
     @Override
     public String toString()
     {
@@ -169,6 +270,7 @@ public class LocalDynamicFilter
                 .add("buildChannels", buildChannels)
                 .add("partitionCount", partitionCount)
                 .add("partitions", partitions)
+                .add("bloomFilterPartitions", bloomFilterPartitions)
                 .toString();
     }
 }
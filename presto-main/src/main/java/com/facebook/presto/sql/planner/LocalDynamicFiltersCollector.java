@@ -13,12 +13,17 @@
  */
 package com.facebook.presto.sql.planner;
 
+import com.facebook.presto.common.predicate.BlockedBloomFilter;
 import com.facebook.presto.common.predicate.TupleDomain;
 import com.facebook.presto.spi.relation.VariableReferenceExpression;
+import com.google.common.collect.ImmutableMap;
 
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @ThreadSafe
 public class LocalDynamicFiltersCollector
 {
@@ -29,9 +34,16 @@ public class LocalDynamicFiltersCollector
     @GuardedBy ("this")
     private TupleDomain<VariableReferenceExpression> predicate;
 
+    /**
+     * Bloom filters of the values allowed by the dynamic filters, applied on top of the predicate.
+     */
+    @GuardedBy ("this")
+    private Map<VariableReferenceExpression, BlockedBloomFilter> bloomFilters;
+
     public LocalDynamicFiltersCollector()
     {
         this.predicate = TupleDomain.all();
+        this.bloomFilters = ImmutableMap.of();
     }
 
     public synchronized TupleDomain<VariableReferenceExpression> getPredicate()
@@ -43,4 +55,22 @@ public class LocalDynamicFiltersCollector
     {
         this.predicate = this.predicate.intersect(predicate);
     }
+
+    public synchronized Map<VariableReferenceExpression, BlockedBloomFilter> getBloomFilters()
+    {
+        return bloomFilters;
+    }
+
+    public synchronized void intersectBloomFilters(Map<VariableReferenceExpression, BlockedBloomFilter> bloomFilters)
+    {
+        Map<VariableReferenceExpression, BlockedBloomFilter> result = new HashMap<>(this.bloomFilters);
+        bloomFilters.forEach((variable, bloomFilter) -> result.merge(variable, bloomFilter, (existing, added) -> {
+            if (existing.isCompatible(added)) {
+                return existing.intersect(added);
+            }
+            // both filters hold, keeping either of them only makes the constraint more relaxed
+            return existing;
+        }));
+        this.bloomFilters = ImmutableMap.copyOf(result);
+    }
 }
@@ -0,0 +1,214 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.buffer;
+
+import com.facebook.presto.execution.Lifespan;
+import com.facebook.presto.execution.StateMachine;
+import com.facebook.presto.execution.buffer.OutputBuffers.OutputBufferId;
+import com.facebook.presto.memory.context.SimpleLocalMemoryContext;
+import com.facebook.presto.spi.page.SerializedPage;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.units.DataSize;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.facebook.airlift.concurrent.Threads.daemonThreadsNamed;
+import static com.facebook.presto.execution.buffer.BufferState.OPEN;
+import static com.facebook.presto.execution.buffer.BufferState.TERMINAL_BUFFER_STATES;
+import static com.facebook.presto.execution.buffer.BufferTestUtils.PAGES_SERDE;
+import static com.facebook.presto.execution.buffer.BufferTestUtils.createPage;
+import static com.facebook.presto.execution.buffer.OutputBuffers.BufferType.PARTITIONED;
+import static com.facebook.presto.execution.buffer.OutputBuffers.createInitialEmptyOutputBuffers;
+import static com.facebook.presto.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+
+/**
+ * Pushes pages through a partitioned output buffer from concurrent producers,
+ * while concurrent readers fetch and acknowledge them, as the HTTP result threads do.
+ */
+@SuppressWarnings("MethodMayBeStatic")
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class BenchmarkPartitionedOutputBuffer
+{
+    private static final DataSize MAX_READ_SIZE = new DataSize(1, MEGABYTE);
+
+    @Benchmark
+    public long enqueueAndRead(BenchmarkData data)
+            throws Exception
+    {
+        PartitionedOutputBuffer buffer = data.createBuffer();
+        int partitions = data.getPartitions();
+        long totalPages = (long) data.getProducers() * data.getPagesPerProducer();
+        AtomicLong pagesRead = new AtomicLong();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int producer = 0; producer < data.getProducers(); producer++) {
+            int producerId = producer;
+            futures.add(data.getExecutor().submit(() -> {
+                for (int i = 0; i < data.getPagesPerProducer(); i++) {
+                    int partition = (i * data.getProducers() + producerId) % partitions;
+                    buffer.enqueue(Lifespan.taskWide(), partition, data.getPages());
+                }
+            }));
+        }
+        for (int reader = 0; reader < data.getReaders(); reader++) {
+            int readerId = reader;
+            futures.add(data.getExecutor().submit(() -> {
+                long[] sequenceIds = new long[partitions];
+                while (pagesRead.get() < totalPages) {
+                    for (int partition = readerId; partition < partitions; partition += data.getReaders()) {
+                        ListenableFuture<BufferResult> result = buffer.get(new OutputBufferId(partition), sequenceIds[partition], MAX_READ_SIZE);
+                        // a read that is still waiting for data is abandoned by the next read of the partition
+                        if (result.isDone()) {
+                            BufferResult bufferResult = result.get();
+                            sequenceIds[partition] = bufferResult.getNextToken();
+                            pagesRead.addAndGet(bufferResult.getSerializedPages().size());
+                        }
+                    }
+                }
+                for (int partition = readerId; partition < partitions; partition += data.getReaders()) {
+                    buffer.acknowledge(new OutputBufferId(partition), sequenceIds[partition]);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        buffer.destroy();
+        return pagesRead.get();
+    }
+
+    @SuppressWarnings("FieldMayBeFinal")
+    @State(Scope.Thread)
+    public static class BenchmarkData
+    {
+        @Param({"100", "1000"})
+        private int partitions = 1000;
+
+        @Param({"4", "16"})
+        private int producers = 4;
+
+        @Param({"4", "16"})
+        private int readers = 4;
+
+        @Param("5000")
+        private int pagesPerProducer = 5000;
+
+        private ExecutorService executor;
+        private List<SerializedPage> pages;
+        private OutputBuffers outputBuffers;
+
+        @Setup
+        public void setup()
+        {
+            executor = newCachedThreadPool(daemonThreadsNamed("benchmark-%s"));
+            pages = ImmutableList.of(PAGES_SERDE.serialize(createPage(42)));
+
+            OutputBuffers outputBuffers = createInitialEmptyOutputBuffers(PARTITIONED);
+            for (int partition = 0; partition < partitions; partition++) {
+                outputBuffers = outputBuffers.withBuffer(new OutputBufferId(partition), partition);
+            }
+            this.outputBuffers = outputBuffers.withNoMoreBufferIds();
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            executor.shutdownNow();
+        }
+
+        public PartitionedOutputBuffer createBuffer()
+        {
+            PartitionedOutputBuffer buffer = new PartitionedOutputBuffer(
+                    "task-instance-id",
+                    new StateMachine<>("bufferState", executor, OPEN, TERMINAL_BUFFER_STATES),
+                    outputBuffers,
+                    new DataSize(1, GIGABYTE),
+                    () -> new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), "test"),
+                    executor);
+            buffer.registerLifespanCompletionCallback(ignore -> {});
+            return buffer;
+        }
+
+        public ExecutorService getExecutor()
+        {
+            return executor;
+        }
+
+        public List<SerializedPage> getPages()
+        {
+            return pages;
+        }
+
+        public int getPartitions()
+        {
+            return partitions;
+        }
+
+        public int getProducers()
+        {
+            return producers;
+        }
+
+        public int getReaders()
+        {
+            return readers;
+        }
+
+        public int getPagesPerProducer()
+        {
+            return pagesPerProducer;
+        }
+    }
+
+    public static void main(String[] args)
+            throws Throwable
+    {
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkPartitionedOutputBuffer.class.getSimpleName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -19,6 +19,7 @@ import com.facebook.presto.execution.Lifespan;
 import com.facebook.presto.execution.StateMachine;
 import com.facebook.presto.execution.buffer.OutputBuffers.OutputBufferId;
 import com.facebook.presto.memory.context.SimpleLocalMemoryContext;
+import com.facebook.presto.spi.page.SerializedPage;
 import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.units.DataSize;
@@ -399,6 +400,22 @@ public class TestArbitraryOutputBuffer
         }
     }
 
+    @Test
+    public void testSerializedBytesStats()
+    {
+        ArbitraryOutputBuffer buffer = createArbitraryBuffer(
+                createInitialEmptyOutputBuffers(ARBITRARY)
+                        .withBuffer(FIRST, BROADCAST_PARTITION_ID)
+                        .withNoMoreBufferIds(),
+                sizeOfPages(10));
+        SerializedPage page = PAGES_SERDE.serialize(createPage(0));
+        buffer.enqueue(Lifespan.taskWide(), ImmutableList.of(page, page));
+
+        OutputBufferInfo info = buffer.getInfo();
+        assertEquals(info.getTotalUncompressedBytesSent(), 2L * createPage(0).getSizeInBytes());
+        assertEquals(info.getTotalSerializedBytesSent(), 2L * page.getSizeInBytes());
+    }
+
     @Test
     public void testAddAfterDestroy()
     {
@@ -15,12 +15,14 @@ package com.facebook.presto.execution.buffer;
 
 import com.facebook.presto.common.Page;
 import com.facebook.presto.common.type.BigintType;
+import com.facebook.presto.execution.Lifespan;
 import com.facebook.presto.execution.StateMachine;
 import com.facebook.presto.execution.buffer.OutputBuffers.OutputBufferId;
 import com.facebook.presto.memory.context.AggregatedMemoryContext;
 import com.facebook.presto.memory.context.MemoryReservationHandler;
 import com.facebook.presto.memory.context.SimpleLocalMemoryContext;
 import com.facebook.presto.spi.page.PagesSerde;
+import com.facebook.presto.spi.page.SerializedPage;
 import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
@@ -1120,6 +1122,22 @@ public class TestBroadcastOutputBuffer
         assertTrue(buffer.isFinished());
     }
 
+    @Test
+    public void testSerializedBytesStats()
+    {
+        BroadcastOutputBuffer buffer = createBroadcastBuffer(
+                createInitialEmptyOutputBuffers(BROADCAST)
+                        .withBuffer(FIRST, BROADCAST_PARTITION_ID)
+                        .withNoMoreBufferIds(),
+                sizeOfPages(10));
+        SerializedPage page = PAGES_SERDE.serialize(createPage(0));
+        buffer.enqueue(Lifespan.taskWide(), ImmutableList.of(page, page));
+
+        OutputBufferInfo info = buffer.getInfo();
+        assertEquals(info.getTotalUncompressedBytesSent(), 2L * createPage(0).getSizeInBytes());
+        assertEquals(info.getTotalSerializedBytesSent(), 2L * page.getSizeInBytes());
+    }
+
     @Test
     public void testForceFreeMemory()
             throws Throwable
@@ -19,6 +19,7 @@ import com.facebook.presto.execution.Lifespan;
 import com.facebook.presto.execution.buffer.ClientBuffer.PagesSupplier;
 import com.facebook.presto.execution.buffer.OutputBuffers.OutputBufferId;
 import com.facebook.presto.execution.buffer.SerializedPageReference.PagesReleasedListener;
+import com.facebook.presto.spi.page.SerializedPage;
 import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.units.DataSize;
@@ -30,11 +31,15 @@ import javax.annotation.concurrent.ThreadSafe;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static com.facebook.airlift.concurrent.Threads.daemonThreadsNamed;
 import static com.facebook.presto.common.type.BigintType.BIGINT;
 import static com.facebook.presto.execution.buffer.BufferResult.emptyResults;
 import static com.facebook.presto.execution.buffer.BufferTestUtils.NO_WAIT;
@@ -46,7 +51,10 @@ import static com.facebook.presto.execution.buffer.BufferTestUtils.getFuture;
 import static com.facebook.presto.execution.buffer.BufferTestUtils.sizeOfPages;
 import static com.facebook.presto.execution.buffer.SerializedPageReference.dereferencePages;
 import static com.google.common.base.Preconditions.checkState;
+import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
@@ -361,6 +369,68 @@ public class TestClientBuffer
         assertBufferDestroyed(buffer, 1);
     }
 
+    @Test
+    public void testConcurrentEnqueueAndRead()
+            throws Exception
+    {
+        int producers = 4;
+        int pagesPerProducer = 1000;
+        AtomicInteger releasedPages = new AtomicInteger(0);
+        PagesReleasedListener onPagesReleased = (lifespan, releasedPagesCount, releasedSizeInBytes) -> releasedPages.addAndGet(releasedPagesCount);
+        ClientBuffer buffer = new ClientBuffer(TASK_INSTANCE_ID, BUFFER_ID, onPagesReleased);
+
+        ExecutorService executor = newCachedThreadPool(daemonThreadsNamed("test-%s"));
+        try {
+            List<Future<?>> producerFutures = new ArrayList<>();
+            for (int producer = 0; producer < producers; producer++) {
+                int producerId = producer;
+                producerFutures.add(executor.submit(() -> {
+                    for (int i = 0; i < pagesPerProducer; i++) {
+                        addPage(buffer, createPage(producerId * pagesPerProducer + i), onPagesReleased);
+                    }
+                }));
+            }
+            Future<List<Long>> reader = executor.submit(() -> {
+                List<Long> values = new ArrayList<>();
+                long sequenceId = 0;
+                while (true) {
+                    BufferResult result = buffer.getPages(sequenceId, sizeOfPages(7)).get(10, SECONDS);
+                    if (result.isBufferComplete()) {
+                        return values;
+                    }
+                    for (SerializedPage page : result.getSerializedPages()) {
+                        values.add(BIGINT.getLong(PAGES_SERDE.deserialize(page).getBlock(0), 0));
+                    }
+                    sequenceId = result.getNextToken();
+                }
+            });
+
+            for (Future<?> future : producerFutures) {
+                future.get(10, SECONDS);
+            }
+            buffer.setNoMorePages();
+
+            // every page is read once, and the pages of each producer are read in order
+            List<Long> values = reader.get(10, SECONDS);
+            assertEquals(values.size(), producers * pagesPerProducer);
+            long[] lastValues = new long[producers];
+            Arrays.fill(lastValues, -1);
+            for (long value : values) {
+                int producer = toIntExact(value / pagesPerProducer);
+                assertTrue(value > lastValues[producer]);
+                lastValues[producer] = value;
+            }
+
+            // the final read acknowledged every page
+            assertEquals(releasedPages.get(), producers * pagesPerProducer);
+            buffer.destroy();
+            assertEquals(buffer.getInfo().getPageBufferInfo().getBufferedBytes(), 0);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
     private static void assertInvalidSequenceId(ClientBuffer buffer, int sequenceId)
     {
         try {
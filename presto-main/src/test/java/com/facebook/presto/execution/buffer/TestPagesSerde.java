@@ -16,8 +16,11 @@ package com.facebook.presto.execution.buffer;
 import com.facebook.presto.common.Page;
 import com.facebook.presto.common.block.Block;
 import com.facebook.presto.common.block.BlockBuilder;
+import com.facebook.presto.common.block.BlockEncodingManager;
+import com.facebook.presto.common.block.LightweightCompressionBlockEncodingSerde;
 import com.facebook.presto.common.type.Type;
 import com.facebook.presto.spi.page.PagesSerde;
+import com.facebook.presto.spi.page.SerializedPage;
 import com.google.common.collect.ImmutableList;
 import io.airlift.slice.DynamicSliceOutput;
 import io.airlift.slice.Slice;
@@ -25,14 +28,18 @@ import org.testng.annotations.Test;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.LongStream;
 
 import static com.facebook.presto.common.type.BigintType.BIGINT;
 import static com.facebook.presto.common.type.VarcharType.VARCHAR;
+import static com.facebook.presto.block.BlockAssertions.createLongSequenceBlock;
 import static com.facebook.presto.operator.PageAssertions.assertPageEquals;
 import static com.facebook.presto.spi.page.PagesSerdeUtil.readPages;
+import static com.facebook.presto.spi.page.PagesSerdeUtil.readSerializedPages;
 import static com.facebook.presto.spi.page.PagesSerdeUtil.writePages;
+import static com.facebook.presto.spi.page.PagesSerdeUtil.writeSerializedPage;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
@@ -138,6 +145,25 @@ public class TestPagesSerde
         assertTrue(actualSize < expectedMaxSize, "Expected round trip size difference less than 20% of original page");
     }
 
+    @Test
+    public void testUnencodedSize()
+    {
+        PagesSerde serde = new PagesSerde(new LightweightCompressionBlockEncodingSerde(new BlockEncodingManager()), Optional.empty(), Optional.empty(), Optional.empty());
+        Page page = new Page(createLongSequenceBlock(0, 1000));
+
+        // the uncompressed size is taken after the block encoding packed the sequence
+        SerializedPage serializedPage = serde.serialize(page);
+        assertEquals(serializedPage.getUnencodedSizeInBytes(), page.getSizeInBytes());
+        assertTrue(serializedPage.getUncompressedSizeInBytes() < page.getSizeInBytes() / 2);
+
+        // the size before encoding is not written, so a page read back only knows its uncompressed size
+        DynamicSliceOutput sliceOutput = new DynamicSliceOutput(1024);
+        writeSerializedPage(sliceOutput, serializedPage);
+        SerializedPage readPage = readSerializedPages(sliceOutput.slice().getInput()).next();
+        assertEquals(readPage.getUnencodedSizeInBytes(), serializedPage.getUncompressedSizeInBytes());
+        assertPageEquals(ImmutableList.of(BIGINT), serde.deserialize(readPage), page);
+    }
+
     private static int serializedSize(List<? extends Type> types, Page expectedPage)
     {
         PagesSerde serde = new TestingPagesSerdeFactory().createPagesSerde();
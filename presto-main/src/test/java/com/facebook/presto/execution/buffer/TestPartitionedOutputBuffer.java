@@ -15,9 +15,11 @@ package com.facebook.presto.execution.buffer;
 
 import com.facebook.presto.common.Page;
 import com.facebook.presto.common.type.BigintType;
+import com.facebook.presto.execution.Lifespan;
 import com.facebook.presto.execution.StateMachine;
 import com.facebook.presto.execution.buffer.OutputBuffers.OutputBufferId;
 import com.facebook.presto.memory.context.SimpleLocalMemoryContext;
+import com.facebook.presto.spi.page.SerializedPage;
 import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.units.DataSize;
@@ -355,6 +357,23 @@ public class TestPartitionedOutputBuffer
         assertEquals(buffer.getInfo().getTotalPagesSent(), 0);
     }
 
+    @Test
+    public void testSerializedBytesStats()
+    {
+        PartitionedOutputBuffer buffer = createPartitionedBuffer(
+                createInitialEmptyOutputBuffers(PARTITIONED)
+                        .withBuffer(FIRST, 0)
+                        .withNoMoreBufferIds(),
+                sizeOfPages(10));
+        SerializedPage page = PAGES_SERDE.serialize(createPage(0));
+        buffer.enqueue(Lifespan.taskWide(), ImmutableList.of(page, page));
+
+        OutputBufferInfo info = buffer.getInfo();
+        assertEquals(info.getTotalUncompressedBytesSent(), 2L * createPage(0).getSizeInBytes());
+        assertEquals(info.getTotalSerializedBytesSent(), 2L * page.getSizeInBytes());
+        assertEquals(info.summarize().getTotalSerializedBytesSent(), 2L * page.getSizeInBytes());
+    }
+
     @Test
     public void testAddAfterDestroy()
     {
@@ -0,0 +1,190 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.executor;
+
+import com.facebook.presto.execution.SplitRunner;
+import com.facebook.presto.execution.TaskId;
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.units.Duration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.facebook.presto.execution.TaskManagerConfig.TaskPriorityTracking.TASK_FAIR;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Measures how fast the runner threads of the task executor go through many short splits,
+ * which is dominated by the contention on the split queue.
+ */
+@SuppressWarnings("MethodMayBeStatic")
+@State(Scope.Thread)
+@OutputTimeUnit(MILLISECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1000, timeUnit = MILLISECONDS)
+@Measurement(iterations = 10, time = 1000, timeUnit = MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class BenchmarkTaskExecutor
+{
+    private static final AtomicInteger NEXT_TASK_ID = new AtomicInteger();
+
+    @Benchmark
+    public Object processShortSplits(BenchmarkData data)
+            throws ExecutionException, InterruptedException
+    {
+        TaskExecutor taskExecutor = data.getTaskExecutor();
+        TaskHandle taskHandle = taskExecutor.addTask(
+                new TaskId("benchmark", 0, 0, NEXT_TASK_ID.getAndIncrement(), 0),
+                () -> 0,
+                data.getRunnerThreads(),
+                new Duration(1, MILLISECONDS),
+                OptionalInt.empty());
+        try {
+            return Futures.allAsList(taskExecutor.enqueueSplits(taskHandle, true, data.createSplits())).get();
+        }
+        finally {
+            taskExecutor.removeTask(taskHandle);
+        }
+    }
+
+    @Test
+    public void verifyProcessShortSplits()
+            throws ExecutionException, InterruptedException
+    {
+        BenchmarkData data = new BenchmarkData();
+        data.setup();
+        try {
+            processShortSplits(data);
+        }
+        finally {
+            data.tearDown();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkData
+    {
+        @Param({"8", "32", "96"})
+        private int runnerThreads = 8;
+
+        @Param("10000")
+        private int splitCount = 10_000;
+
+        @Param("10")
+        private int quantaPerSplit = 10;
+
+        private TaskExecutor taskExecutor;
+
+        @Setup
+        public void setup()
+        {
+            taskExecutor = new TaskExecutor(runnerThreads, runnerThreads * 2, runnerThreads, runnerThreads, TASK_FAIR, Ticker.systemTicker());
+            taskExecutor.start();
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            taskExecutor.stop();
+        }
+
+        public TaskExecutor getTaskExecutor()
+        {
+            return taskExecutor;
+        }
+
+        public int getRunnerThreads()
+        {
+            return runnerThreads;
+        }
+
+        public List<SplitRunner> createSplits()
+        {
+            ImmutableList.Builder<SplitRunner> splits = ImmutableList.builder();
+            for (int i = 0; i < splitCount; i++) {
+                splits.add(new ShortSplitRunner(quantaPerSplit));
+            }
+            return splits.build();
+        }
+    }
+
+    private static class ShortSplitRunner
+            implements SplitRunner
+    {
+        private final AtomicInteger remainingQuanta;
+
+        public ShortSplitRunner(int quanta)
+        {
+            this.remainingQuanta = new AtomicInteger(quanta);
+        }
+
+        @Override
+        public boolean isFinished()
+        {
+            return remainingQuanta.get() <= 0;
+        }
+
+        @Override
+        public ListenableFuture<?> processFor(Duration duration)
+        {
+            remainingQuanta.decrementAndGet();
+            return immediateFuture(null);
+        }
+
+        @Override
+        public String getInfo()
+        {
+            return "short-split";
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkTaskExecutor.class.getSimpleName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+}
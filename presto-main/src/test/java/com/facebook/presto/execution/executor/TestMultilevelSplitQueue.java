@@ -0,0 +1,256 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.executor;
+
+import com.facebook.airlift.stats.CounterStat;
+import com.facebook.airlift.stats.TimeStat;
+import com.facebook.presto.execution.SplitRunner;
+import com.facebook.presto.execution.TaskId;
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.units.Duration;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.facebook.airlift.concurrent.Threads.daemonThreadsNamed;
+import static com.facebook.presto.execution.executor.MultilevelSplitQueue.LEVEL_THRESHOLD_SECONDS;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class TestMultilevelSplitQueue
+{
+    private static final int THREADS = 4;
+    private static final int SPLITS_PER_LEVEL = 2_000;
+
+    private ExecutorService executor;
+
+    @BeforeClass
+    public void setUp()
+    {
+        executor = newCachedThreadPool(daemonThreadsNamed("test-multilevel-split-queue-%s"));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test(invocationCount = 20, timeOut = 60_000)
+    public void testConcurrentOfferAndTake()
+            throws Exception
+    {
+        MultilevelSplitQueue splitQueue = new MultilevelSplitQueue(2);
+        List<PrioritizedSplitRunner> splits = createSplits(splitQueue);
+        Set<PrioritizedSplitRunner> taken = ConcurrentHashMap.newKeySet();
+
+        CyclicBarrier barrier = new CyclicBarrier(2 * THREADS);
+        List<Callable<?>> workers = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            int offset = thread;
+            workers.add(() -> {
+                barrier.await();
+                for (int i = offset; i < splits.size(); i += THREADS) {
+                    splitQueue.offer(splits.get(i));
+                }
+                return null;
+            });
+            workers.add(() -> {
+                barrier.await();
+                // the takers take exactly as many splits as are offered, so none of them blocks forever
+                for (int i = 0; i < splits.size() / THREADS; i++) {
+                    PrioritizedSplitRunner split = splitQueue.take();
+                    assertTrue(taken.add(split), "split taken twice: " + split);
+                    assertTrue(splitQueue.size() >= 0);
+                }
+                return null;
+            });
+        }
+        runConcurrently(workers);
+
+        assertEquals(taken, new HashSet<>(splits));
+        assertEquals(splitQueue.size(), 0);
+        assertSelectedCounts(splitQueue, ImmutableList.copyOf(taken));
+        assertQueueEmpty(splitQueue);
+    }
+
+    @Test(invocationCount = 20, timeOut = 60_000)
+    public void testConcurrentTakeAndRemove()
+            throws Exception
+    {
+        MultilevelSplitQueue splitQueue = new MultilevelSplitQueue(2);
+        List<PrioritizedSplitRunner> splits = createSplits(splitQueue);
+        splits.forEach(splitQueue::offer);
+        assertEquals(splitQueue.size(), splits.size());
+
+        // every other split is removed while the takers take half of the splits
+        Set<PrioritizedSplitRunner> toRemove = new HashSet<>();
+        for (int i = 0; i < splits.size(); i += 2) {
+            toRemove.add(splits.get(i));
+        }
+        Set<PrioritizedSplitRunner> taken = ConcurrentHashMap.newKeySet();
+
+        CyclicBarrier barrier = new CyclicBarrier(2 * THREADS);
+        List<Callable<?>> workers = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            int offset = thread;
+            workers.add(() -> {
+                barrier.await();
+                for (int i = 2 * offset; i < splits.size(); i += 2 * THREADS) {
+                    splitQueue.remove(splits.get(i));
+                }
+                return null;
+            });
+            workers.add(() -> {
+                barrier.await();
+                // each removal either removes a split that was not taken or does nothing, so there is always a split left to take
+                for (int i = 0; i < splits.size() / 2 / THREADS; i++) {
+                    PrioritizedSplitRunner split = splitQueue.take();
+                    assertTrue(taken.add(split), "split taken twice: " + split);
+                    assertTrue(splitQueue.size() >= 0);
+                }
+                return null;
+            });
+        }
+        runConcurrently(workers);
+
+        // every split that was neither removed nor taken is still queued
+        List<PrioritizedSplitRunner> remaining = new ArrayList<>();
+        while (splitQueue.size() > 0) {
+            PrioritizedSplitRunner split = splitQueue.take();
+            assertFalse(taken.contains(split), "split taken twice: " + split);
+            assertFalse(toRemove.contains(split), "removed split taken: " + split);
+            remaining.add(split);
+        }
+
+        Set<PrioritizedSplitRunner> removed = new HashSet<>(splits);
+        removed.removeAll(taken);
+        removed.removeAll(remaining);
+        assertTrue(toRemove.containsAll(removed));
+        assertEquals(taken.size() + remaining.size() + removed.size(), splits.size());
+
+        assertSelectedCounts(splitQueue, ImmutableList.<PrioritizedSplitRunner>builder().addAll(taken).addAll(remaining).build());
+        assertQueueEmpty(splitQueue);
+    }
+
+    private void runConcurrently(List<Callable<?>> workers)
+            throws Exception
+    {
+        List<Future<?>> futures = new ArrayList<>();
+        for (Callable<?> worker : workers) {
+            futures.add(executor.submit(worker));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private static void assertSelectedCounts(MultilevelSplitQueue splitQueue, List<PrioritizedSplitRunner> selectedSplits)
+    {
+        long[] expected = new long[LEVEL_THRESHOLD_SECONDS.length];
+        for (PrioritizedSplitRunner split : selectedSplits) {
+            expected[split.getPriority().getLevel()]++;
+        }
+        assertEquals(splitQueue.getSelectedCountLevel0().getTotalCount(), expected[0]);
+        assertEquals(splitQueue.getSelectedCountLevel1().getTotalCount(), expected[1]);
+        assertEquals(splitQueue.getSelectedCountLevel2().getTotalCount(), expected[2]);
+        assertEquals(splitQueue.getSelectedCountLevel3().getTotalCount(), expected[3]);
+        assertEquals(splitQueue.getSelectedCountLevel4().getTotalCount(), expected[4]);
+    }
+
+    private static void assertQueueEmpty(MultilevelSplitQueue splitQueue)
+            throws InterruptedException
+    {
+        // permits left behind by removed splits must not hand out anything but a newly offered split
+        PrioritizedSplitRunner split = createSplits(splitQueue, 0, 1).get(0);
+        splitQueue.offer(split);
+        assertSame(splitQueue.take(), split);
+        assertEquals(splitQueue.size(), 0);
+    }
+
+    private static List<PrioritizedSplitRunner> createSplits(MultilevelSplitQueue splitQueue)
+    {
+        List<PrioritizedSplitRunner> splits = new ArrayList<>();
+        for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
+            splits.addAll(createSplits(splitQueue, level, SPLITS_PER_LEVEL));
+        }
+        return splits;
+    }
+
+    private static List<PrioritizedSplitRunner> createSplits(MultilevelSplitQueue splitQueue, int level, int count)
+    {
+        TaskHandle taskHandle = new TaskHandle(new TaskId("test" + level, 0, 0, 0, 0), new TaskPriorityTracker(splitQueue), () -> 1, 1, new Duration(1, SECONDS), OptionalInt.empty());
+        taskHandle.addScheduledNanos(SECONDS.toNanos(LEVEL_THRESHOLD_SECONDS[level]));
+        assertEquals(taskHandle.getPriority().getLevel(), level);
+
+        ImmutableList.Builder<PrioritizedSplitRunner> splits = ImmutableList.builder();
+        for (int i = 0; i < count; i++) {
+            splits.add(new PrioritizedSplitRunner(
+                    taskHandle,
+                    new NoopSplitRunner(),
+                    Ticker.systemTicker(),
+                    new CounterStat(),
+                    new CounterStat(),
+                    new TimeStat(MICROSECONDS),
+                    new TimeStat(MICROSECONDS)));
+        }
+        return splits.build();
+    }
+
+    private static class NoopSplitRunner
+            implements SplitRunner
+    {
+        @Override
+        public boolean isFinished()
+        {
+            return true;
+        }
+
+        @Override
+        public ListenableFuture<?> processFor(Duration duration)
+        {
+            return Futures.immediateFuture(null);
+        }
+
+        @Override
+        public String getInfo()
+        {
+            return "";
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+}
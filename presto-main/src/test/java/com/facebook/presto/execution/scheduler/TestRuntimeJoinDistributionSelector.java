@@ -0,0 +1,508 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.scheduler;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.common.RuntimeMetric;
+import com.facebook.presto.common.predicate.TupleDomain;
+import com.facebook.presto.cost.StatsAndCosts;
+import com.facebook.presto.execution.scheduler.RuntimeJoinDistributionSelector.StageOutput;
+import com.facebook.presto.metadata.Metadata;
+import com.facebook.presto.operator.StageExecutionDescriptor;
+import com.facebook.presto.spi.ConnectorId;
+import com.facebook.presto.spi.SchemaTableName;
+import com.facebook.presto.spi.TableHandle;
+import com.facebook.presto.spi.plan.PlanNode;
+import com.facebook.presto.spi.plan.PlanNodeId;
+import com.facebook.presto.spi.plan.TableScanNode;
+import com.facebook.presto.spi.plan.ValuesNode;
+import com.facebook.presto.spi.relation.VariableReferenceExpression;
+import com.facebook.presto.sql.planner.Partitioning;
+import com.facebook.presto.sql.planner.PartitioningHandle;
+import com.facebook.presto.sql.planner.PartitioningScheme;
+import com.facebook.presto.sql.planner.PlanFragment;
+import com.facebook.presto.sql.planner.plan.ExchangeNode;
+import com.facebook.presto.sql.planner.plan.JoinNode;
+import com.facebook.presto.sql.planner.plan.PlanFragmentId;
+import com.facebook.presto.sql.planner.plan.RemoteSourceNode;
+import com.facebook.presto.sql.planner.plan.TableWriterNode;
+import com.facebook.presto.sql.planner.plan.TableWriterNode.InsertReference;
+import com.facebook.presto.testing.LocalQueryRunner;
+import com.facebook.presto.testing.TestingTransactionHandle;
+import com.facebook.presto.tpch.TpchColumnHandle;
+import com.facebook.presto.tpch.TpchConnectorFactory;
+import com.facebook.presto.tpch.TpchTableHandle;
+import com.facebook.presto.tpch.TpchTableLayoutHandle;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.facebook.presto.SystemSessionProperties.JOIN_DISTRIBUTION_TYPE;
+import static com.facebook.presto.SystemSessionProperties.JOIN_MAX_BROADCAST_TABLE_SIZE;
+import static com.facebook.presto.common.RuntimeMetricName.RUNTIME_JOIN_DISTRIBUTION_SWITCHED_TO_PARTITIONED_COUNT;
+import static com.facebook.presto.common.RuntimeMetricName.RUNTIME_JOIN_DISTRIBUTION_SWITCHED_TO_REPLICATED_COUNT;
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.VarbinaryType.VARBINARY;
+import static com.facebook.presto.operator.StageExecutionDescriptor.fixedLifespanScheduleGroupedExecution;
+import static com.facebook.presto.operator.StageExecutionDescriptor.ungroupedExecution;
+import static com.facebook.presto.sql.planner.SystemPartitioningHandle.FIXED_BROADCAST_DISTRIBUTION;
+import static com.facebook.presto.sql.planner.SystemPartitioningHandle.FIXED_HASH_DISTRIBUTION;
+import static com.facebook.presto.sql.planner.SystemPartitioningHandle.SINGLE_DISTRIBUTION;
+import static com.facebook.presto.sql.planner.SystemPartitioningHandle.SOURCE_DISTRIBUTION;
+import static com.facebook.presto.sql.planner.plan.ExchangeNode.Type.REPARTITION;
+import static com.facebook.presto.sql.planner.plan.ExchangeNode.Type.REPLICATE;
+import static com.facebook.presto.sql.planner.plan.JoinNode.DistributionType.PARTITIONED;
+import static com.facebook.presto.sql.planner.plan.JoinNode.DistributionType.REPLICATED;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.FULL;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.INNER;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.LEFT;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.RIGHT;
+import static com.facebook.presto.testing.TestingSession.testSessionBuilder;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class TestRuntimeJoinDistributionSelector
+{
+    private static final PlanFragmentId JOIN_FRAGMENT_ID = new PlanFragmentId(1);
+    private static final PlanFragmentId BUILD_FRAGMENT_ID = new PlanFragmentId(2);
+    private static final PlanFragmentId PROBE_FRAGMENT_ID = new PlanFragmentId(3);
+    private static final PlanFragmentId WRITER_FRAGMENT_ID = new PlanFragmentId(4);
+    private static final PlanFragmentId MATERIALIZING_FRAGMENT_ID = new PlanFragmentId(5);
+
+    private static final VariableReferenceExpression ORDER_KEY = new VariableReferenceExpression(Optional.empty(), "orderkey", BIGINT);
+    private static final VariableReferenceExpression CUST_KEY = new VariableReferenceExpression(Optional.empty(), "custkey", BIGINT);
+    private static final VariableReferenceExpression BUILD_ORDER_KEY = new VariableReferenceExpression(Optional.empty(), "build_orderkey", BIGINT);
+    private static final VariableReferenceExpression BUILD_CUST_KEY = new VariableReferenceExpression(Optional.empty(), "build_custkey", BIGINT);
+    private static final VariableReferenceExpression PROBE_SOURCE_ORDER_KEY = new VariableReferenceExpression(Optional.empty(), "probe_source_orderkey", BIGINT);
+    private static final VariableReferenceExpression PROBE_SOURCE_CUST_KEY = new VariableReferenceExpression(Optional.empty(), "probe_source_custkey", BIGINT);
+
+    private static final Optional<StageOutput> SMALL_BUILD_OUTPUT = Optional.of(new StageOutput(100, 10));
+    private static final Optional<StageOutput> LARGE_BUILD_OUTPUT = Optional.of(new StageOutput(1_000_000, 100_000));
+
+    private LocalQueryRunner queryRunner;
+    private Session session;
+    private TableHandle ordersTableHandle;
+    private PartitioningHandle ordersPartitioning;
+    // stands in for the temporary table the child section materializes the build side into
+    private TableHandle materializedTableHandle;
+    private SchemaTableName materializedTableName;
+
+    @BeforeClass
+    public void setUp()
+    {
+        session = testSessionBuilder()
+                .setCatalog("tpch")
+                .setSchema("tiny")
+                .setSystemProperty(JOIN_DISTRIBUTION_TYPE, "AUTOMATIC")
+                .setSystemProperty(JOIN_MAX_BROADCAST_TABLE_SIZE, "1kB")
+                .build();
+        queryRunner = new LocalQueryRunner(session);
+        queryRunner.createCatalog("tpch", new TpchConnectorFactory(1), ImmutableMap.of());
+
+        Metadata metadata = queryRunner.getMetadata();
+        ConnectorId connectorId = queryRunner.inTransaction(transactionSession -> metadata.getCatalogHandle(transactionSession, "tpch")).get();
+        ordersTableHandle = createTableHandle(connectorId, "orders");
+        ordersPartitioning = queryRunner.inTransaction(transactionSession -> metadata.getLayout(transactionSession, ordersTableHandle))
+                .getTablePartitioning()
+                .get()
+                .getPartitioningHandle();
+        materializedTableHandle = createTableHandle(connectorId, "customer");
+        materializedTableName = queryRunner.inTransaction(transactionSession -> metadata.getTableMetadata(transactionSession, materializedTableHandle)).getTable();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        queryRunner.close();
+        queryRunner = null;
+        session = null;
+        ordersTableHandle = null;
+        ordersPartitioning = null;
+        materializedTableHandle = null;
+        materializedTableName = null;
+    }
+
+    @Test
+    public void testSwitchToPartitioned()
+    {
+        StreamingPlanSection section = createSection(createJoinPlan(INNER, REPLICATED, ORDER_KEY, ungroupedExecution()));
+        Map<PlanFragment, PlanFragment> rewrittenFragments = selectJoinDistributions(section, session, LARGE_BUILD_OUTPUT, RUNTIME_JOIN_DISTRIBUTION_SWITCHED_TO_PARTITIONED_COUNT);
+
+        assertEquals(rewrittenFragments.size(), 2);
+        assertJoin(section.getPlan().getFragment(), rewrittenFragments.get(section.getPlan().getFragment()), PARTITIONED, REPARTITION);
+        PlanFragment buildFragment = rewrittenFragments.get(getBuildFragment(section));
+        assertEquals(buildFragment.getPartitioningScheme().getPartitioning(), Partitioning.create(ordersPartitioning, ImmutableList.of(BUILD_ORDER_KEY)));
+        assertEquals(buildFragment.getPartitioningScheme().getOutputLayout(), ImmutableList.of(BUILD_ORDER_KEY, BUILD_CUST_KEY));
+        assertEquals(buildFragment.getRoot(), getBuildFragment(section).getRoot());
+    }
+
+    @Test
+    public void testSwitchToPartitionedWithRemoteProbe()
+    {
+        // the probe side is repartitioned on orderkey, which the probe stage outputs under a different name
+        StreamingPlanSection section = createSection(createRemoteProbeJoinPlan(REPLICATED, ORDER_KEY, PROBE_SOURCE_ORDER_KEY));
+        Map<PlanFragment, PlanFragment> rewrittenFragments = selectJoinDistributions(section, session, LARGE_BUILD_OUTPUT, RUNTIME_JOIN_DISTRIBUTION_SWITCHED_TO_PARTITIONED_COUNT);
+
+        assertEquals(rewrittenFragments.size(), 2);
+        assertJoin(section.getPlan().getFragment(), rewrittenFragments.get(section.getPlan().getFragment()), PARTITIONED, REPARTITION);
+        PlanFragment buildFragment = rewrittenFragments.get(getBuildFragment(section));
+        assertEquals(buildFragment.getPartitioningScheme().getPartitioning(), Partitioning.create(FIXED_HASH_DISTRIBUTION, ImmutableList.of(BUILD_ORDER_KEY)));
+        assertEquals(buildFragment.getPartitioningScheme().getOutputLayout(), ImmutableList.of(BUILD_ORDER_KEY, BUILD_CUST_KEY));
+    }
+
+    @Test
+    public void testNoSwitchToPartitionedWhenProbeIsNotPartitionedOnJoinKeys()
+    {
+        // orders is partitioned on orderkey, but the join is on custkey
+        StreamingPlanSection section = createSection(createJoinPlan(INNER, REPLICATED, CUST_KEY, ungroupedExecution()));
+        assertNoChange(selectJoinDistributions(section, session, LARGE_BUILD_OUTPUT, RUNTIME_JOIN_DISTRIBUTION_SWITCHED_TO_PARTITIONED_COUNT));
+
+        StreamingPlanSection remoteProbeSection = createSection(createRemoteProbeJoinPlan(REPLICATED, ORDER_KEY, PROBE_SOURCE_CUST_KEY));
+        assertNoChange(selectJoinDistributions(remoteProbeSection, session, LARGE_BUILD_OUTPUT, RUNTIME_JOIN_DISTRIBUTION_SWITCHED_TO_PARTITIONED_COUNT));
+    }
+
+    @Test
+    public void testNoSwitchToPartitionedWhenBuildFitsBroadcast()
+    {
+        StreamingPlanSection section = createSection(createJoinPlan(INNER, REPLICATED, ORDER_KEY, ungroupedExecution()));
+        assertNoChange(selectJoinDistributions(section, session, SMALL_BUILD_OUTPUT, RUNTIME_JOIN_DISTRIBUTION_SWITCHED_TO_PARTITIONED_COUNT));
+    }
+
+    @Test
+    public void testSwitchToBroadcast()
+    {
+        for (JoinNode.Type joinType : ImmutableList.of(INNER, LEFT)) {
+            StreamingPlanSection section = createSection(createJoinPlan(joinType, PARTITIONED, ORDER_KEY, ungroupedExecution()));
+            Map<PlanFragment, PlanFragment> rewrittenFragments = selectJoinDistributions(section, session, SMALL_BUILD_OUTPUT, RUNTIME_JOIN_DISTRIBUTION_SWITCHED_TO_REPLICATED_COUNT);
+
+            assertEquals(rewrittenFragments.size(), 2);
+            assertJoin(section.getPlan().getFragment(), rewrittenFragments.get(section.getPlan().getFragment()), REPLICATED, REPLICATE);
+            PlanFragment buildFragment = rewrittenFragments.get(getBuildFragment(section));
+            assertEquals(buildFragment.getPartitioningScheme().getPartitioning(), Partitioning.create(FIXED_BROADCAST_DISTRIBUTION, ImmutableList.of()));
+            assertEquals(buildFragment.getPartitioningScheme().getOutputLayout(), ImmutableList.of(BUILD_ORDER_KEY, BUILD_CUST_KEY));
+        }
+    }
+
+    @Test
+    public void testSwitchToBroadcastWithRemoteProbe()
+    {
+        StreamingPlanSection section = createSection(createRemoteProbeJoinPlan(PARTITIONED, ORDER_KEY, PROBE_SOURCE_ORDER_KEY));
+        Map<PlanFragment, PlanFragment> rewrittenFragments = selectJoinDistributions(section, session, SMALL_BUILD_OUTPUT, RUNTIME_JOIN_DISTRIBUTION_SWITCHED_TO_REPLICATED_COUNT);
+
+        assertEquals(rewrittenFragments.size(), 2);
+        assertJoin(section.getPlan().getFragment(), rewrittenFragments.get(section.getPlan().getFragment()), REPLICATED, REPLICATE);
+        assertEquals(rewrittenFragments.get(getBuildFragment(section)).getPartitioningScheme().getPartitioning(), Partitioning.create(FIXED_BROADCAST_DISTRIBUTION, ImmutableList.of()));
+    }
+
+    @Test
+    public void testNoSwitchToBroadcastForRightAndFullJoins()
+    {
+        for (JoinNode.Type joinType : ImmutableList.of(RIGHT, FULL)) {
+            StreamingPlanSection section = createSection(createJoinPlan(joinType, PARTITIONED, ORDER_KEY, ungroupedExecution()));
+            assertNoChange(selectJoinDistributions(section, session, SMALL_BUILD_OUTPUT, RUNTIME_JOIN_DISTRIBUTION_SWITCHED_TO_REPLICATED_COUNT));
+        }
+    }
+
+    @Test
+    public void testNoSwitchToBroadcastWhenBuildExceedsBroadcast()
+    {
+        StreamingPlanSection section = createSection(createJoinPlan(INNER, PARTITIONED, ORDER_KEY, ungroupedExecution()));
+        assertNoChange(selectJoinDistributions(section, session, LARGE_BUILD_OUTPUT, RUNTIME_JOIN_DISTRIBUTION_SWITCHED_TO_REPLICATED_COUNT));
+    }
+
+    @Test
+    public void testNoSwitchForGroupedExecution()
+    {
+        StreamingPlanSection broadcastSection = createSection(createJoinPlan(INNER, REPLICATED, ORDER_KEY, fixedLifespanScheduleGroupedExecution(ImmutableList.of(new PlanNodeId("probe")), 1)));
+        assertNoChange(selectJoinDistributions(broadcastSection, session, LARGE_BUILD_OUTPUT, RUNTIME_JOIN_DISTRIBUTION_SWITCHED_TO_PARTITIONED_COUNT));
+
+        StreamingPlanSection partitionedSection = createSection(createJoinPlan(INNER, PARTITIONED, ORDER_KEY, fixedLifespanScheduleGroupedExecution(ImmutableList.of(new PlanNodeId("probe")), 1)));
+        assertNoChange(selectJoinDistributions(partitionedSection, session, SMALL_BUILD_OUTPUT, RUNTIME_JOIN_DISTRIBUTION_SWITCHED_TO_REPLICATED_COUNT));
+    }
+
+    @Test
+    public void testNoSwitchWithoutAutomaticJoinDistribution()
+    {
+        for (String joinDistributionType : ImmutableList.of("PARTITIONED", "BROADCAST")) {
+            Session nonAutomaticSession = Session.builder(session)
+                    .setSystemProperty(JOIN_DISTRIBUTION_TYPE, joinDistributionType)
+                    .build();
+
+            StreamingPlanSection broadcastSection = createSection(createJoinPlan(INNER, REPLICATED, ORDER_KEY, ungroupedExecution()));
+            assertNoChange(selectJoinDistributions(broadcastSection, nonAutomaticSession, LARGE_BUILD_OUTPUT, RUNTIME_JOIN_DISTRIBUTION_SWITCHED_TO_PARTITIONED_COUNT));
+
+            StreamingPlanSection partitionedSection = createSection(createJoinPlan(INNER, PARTITIONED, ORDER_KEY, ungroupedExecution()));
+            assertNoChange(selectJoinDistributions(partitionedSection, nonAutomaticSession, SMALL_BUILD_OUTPUT, RUNTIME_JOIN_DISTRIBUTION_SWITCHED_TO_REPLICATED_COUNT));
+        }
+    }
+
+    @Test
+    public void testNoSwitchWhenMaterializingStageHasNotFinished()
+    {
+        StreamingPlanSection broadcastSection = createSection(createJoinPlan(INNER, REPLICATED, ORDER_KEY, ungroupedExecution()));
+        assertNoChange(selectJoinDistributions(broadcastSection, session, Optional.empty(), RUNTIME_JOIN_DISTRIBUTION_SWITCHED_TO_PARTITIONED_COUNT));
+
+        StreamingPlanSection partitionedSection = createSection(createJoinPlan(INNER, PARTITIONED, ORDER_KEY, ungroupedExecution()));
+        assertNoChange(selectJoinDistributions(partitionedSection, session, Optional.empty(), RUNTIME_JOIN_DISTRIBUTION_SWITCHED_TO_REPLICATED_COUNT));
+    }
+
+    @Test
+    public void testNoSwitchWhenBuildDoesNotReadMaterializedTable()
+    {
+        // the child section materializes another table than the one read by the build stage
+        StreamingSubPlan plan = createJoinPlan(INNER, PARTITIONED, ORDER_KEY, ungroupedExecution());
+        StreamingPlanSection section = new StreamingPlanSection(plan, ImmutableList.of(createMaterializingSection(new SchemaTableName("tiny", "nation"))));
+        assertNoChange(selectJoinDistributions(section, session, SMALL_BUILD_OUTPUT, RUNTIME_JOIN_DISTRIBUTION_SWITCHED_TO_REPLICATED_COUNT));
+    }
+
+    @Test
+    public void testNoSwitchWhenBuildOutputIsNotBoundedByMaterializedTable()
+    {
+        // a values node can output any number of rows regardless of what the child sections produced
+        ValuesNode buildRoot = new ValuesNode(Optional.empty(), new PlanNodeId("build"), ImmutableList.of(BUILD_ORDER_KEY, BUILD_CUST_KEY), ImmutableList.of(), Optional.empty());
+        StreamingSubPlan plan = createJoinPlan(INNER, PARTITIONED, buildRoot, createProbeTableScan(), ORDER_KEY, ordersPartitioning, ungroupedExecution(), ImmutableList.of());
+        assertNoChange(selectJoinDistributions(createSection(plan), session, SMALL_BUILD_OUTPUT, RUNTIME_JOIN_DISTRIBUTION_SWITCHED_TO_REPLICATED_COUNT));
+    }
+
+    /**
+     * Runs the selector with the stage materializing the table read by the build stage finished with
+     * {@code materializingStageOutput}, and checks that the switch metric is recorded once per rewritten join.
+     */
+    private Map<PlanFragment, PlanFragment> selectJoinDistributions(StreamingPlanSection section, Session session, Optional<StageOutput> materializingStageOutput, String metricName)
+    {
+        RuntimeJoinDistributionSelector selector = new RuntimeJoinDistributionSelector(queryRunner.getMetadata());
+        return queryRunner.inTransaction(session, transactionSession -> {
+            Map<PlanFragment, PlanFragment> rewrittenFragments = selector.selectJoinDistributions(
+                    section,
+                    transactionSession,
+                    fragmentId -> fragmentId.equals(MATERIALIZING_FRAGMENT_ID) ? materializingStageOutput : Optional.empty());
+            RuntimeMetric metric = transactionSession.getRuntimeStats().getMetric(metricName);
+            if (rewrittenFragments.isEmpty()) {
+                assertNull(metric);
+            }
+            else {
+                assertEquals(metric.getSum(), 1);
+            }
+            return rewrittenFragments;
+        });
+    }
+
+    private StreamingPlanSection createSection(StreamingSubPlan plan)
+    {
+        return new StreamingPlanSection(plan, ImmutableList.of(createMaterializingSection(materializedTableName)));
+    }
+
+    /**
+     * Creates a finished child section writing the rows produced by the materializing fragment to the given table.
+     */
+    private StreamingPlanSection createMaterializingSection(SchemaTableName table)
+    {
+        RemoteSourceNode remoteSource = new RemoteSourceNode(
+                Optional.empty(),
+                new PlanNodeId("remote_materialized"),
+                MATERIALIZING_FRAGMENT_ID,
+                ImmutableList.of(BUILD_ORDER_KEY, BUILD_CUST_KEY),
+                false,
+                Optional.empty(),
+                REPARTITION);
+        TableWriterNode writer = new TableWriterNode(
+                Optional.empty(),
+                new PlanNodeId("writer"),
+                remoteSource,
+                Optional.of(new InsertReference(materializedTableHandle, table)),
+                new VariableReferenceExpression(Optional.empty(), "rows", BIGINT),
+                new VariableReferenceExpression(Optional.empty(), "fragment", VARBINARY),
+                new VariableReferenceExpression(Optional.empty(), "commitcontext", VARBINARY),
+                ImmutableList.of(BUILD_ORDER_KEY, BUILD_CUST_KEY),
+                ImmutableList.of("orderkey", "custkey"),
+                ImmutableSet.of(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty());
+        PlanFragment writerFragment = new PlanFragment(
+                WRITER_FRAGMENT_ID,
+                writer,
+                ImmutableSet.copyOf(writer.getOutputVariables()),
+                FIXED_HASH_DISTRIBUTION,
+                ImmutableList.of(),
+                new PartitioningScheme(Partitioning.create(SINGLE_DISTRIBUTION, ImmutableList.of()), writer.getOutputVariables()),
+                ungroupedExecution(),
+                false,
+                StatsAndCosts.empty(),
+                Optional.empty());
+        return new StreamingPlanSection(new StreamingSubPlan(writerFragment, ImmutableList.of()), ImmutableList.of());
+    }
+
+    private StreamingSubPlan createJoinPlan(JoinNode.Type joinType, JoinNode.DistributionType distributionType, VariableReferenceExpression probeJoinKey, StageExecutionDescriptor stageExecutionDescriptor)
+    {
+        return createJoinPlan(joinType, distributionType, createBuildTableScan(), createProbeTableScan(), probeJoinKey, ordersPartitioning, stageExecutionDescriptor, ImmutableList.of());
+    }
+
+    /**
+     * Creates a join whose probe side is read from a probe stage repartitioning its output on {@code probePartitioningKey}.
+     */
+    private StreamingSubPlan createRemoteProbeJoinPlan(JoinNode.DistributionType distributionType, VariableReferenceExpression probeJoinKey, VariableReferenceExpression probePartitioningKey)
+    {
+        ValuesNode probeRoot = new ValuesNode(Optional.empty(), new PlanNodeId("probe_source"), ImmutableList.of(PROBE_SOURCE_ORDER_KEY, PROBE_SOURCE_CUST_KEY), ImmutableList.of(), Optional.empty());
+        PlanFragment probeFragment = new PlanFragment(
+                PROBE_FRAGMENT_ID,
+                probeRoot,
+                ImmutableSet.copyOf(probeRoot.getOutputVariables()),
+                SOURCE_DISTRIBUTION,
+                ImmutableList.of(),
+                new PartitioningScheme(Partitioning.create(FIXED_HASH_DISTRIBUTION, ImmutableList.of(probePartitioningKey)), probeRoot.getOutputVariables()),
+                ungroupedExecution(),
+                false,
+                StatsAndCosts.empty(),
+                Optional.empty());
+        RemoteSourceNode probe = new RemoteSourceNode(
+                Optional.empty(),
+                new PlanNodeId("remote_probe"),
+                PROBE_FRAGMENT_ID,
+                ImmutableList.of(ORDER_KEY, CUST_KEY),
+                false,
+                Optional.empty(),
+                REPARTITION);
+        return createJoinPlan(INNER, distributionType, createBuildTableScan(), probe, probeJoinKey, FIXED_HASH_DISTRIBUTION, ungroupedExecution(), ImmutableList.of(new StreamingSubPlan(probeFragment, ImmutableList.of())));
+    }
+
+    private StreamingSubPlan createJoinPlan(
+            JoinNode.Type joinType,
+            JoinNode.DistributionType distributionType,
+            PlanNode buildRoot,
+            PlanNode probe,
+            VariableReferenceExpression probeJoinKey,
+            PartitioningHandle partitioning,
+            StageExecutionDescriptor stageExecutionDescriptor,
+            List<StreamingSubPlan> probeSubPlans)
+    {
+        PartitioningScheme buildPartitioningScheme = distributionType == REPLICATED ?
+                new PartitioningScheme(Partitioning.create(FIXED_BROADCAST_DISTRIBUTION, ImmutableList.of()), buildRoot.getOutputVariables()) :
+                new PartitioningScheme(Partitioning.create(partitioning, ImmutableList.of(BUILD_ORDER_KEY)), buildRoot.getOutputVariables());
+        PlanFragment buildFragment = new PlanFragment(
+                BUILD_FRAGMENT_ID,
+                buildRoot,
+                ImmutableSet.copyOf(buildRoot.getOutputVariables()),
+                SOURCE_DISTRIBUTION,
+                buildRoot instanceof TableScanNode ? ImmutableList.of(buildRoot.getId()) : ImmutableList.of(),
+                buildPartitioningScheme,
+                ungroupedExecution(),
+                false,
+                StatsAndCosts.empty(),
+                Optional.empty());
+
+        RemoteSourceNode build = new RemoteSourceNode(
+                Optional.empty(),
+                new PlanNodeId("remote_build"),
+                BUILD_FRAGMENT_ID,
+                buildRoot.getOutputVariables(),
+                false,
+                Optional.empty(),
+                distributionType == REPLICATED ? REPLICATE : REPARTITION);
+        VariableReferenceExpression buildJoinKey = probeJoinKey.equals(ORDER_KEY) ? BUILD_ORDER_KEY : BUILD_CUST_KEY;
+        JoinNode join = new JoinNode(
+                Optional.empty(),
+                new PlanNodeId("join"),
+                joinType,
+                probe,
+                build,
+                ImmutableList.of(new JoinNode.EquiJoinClause(probeJoinKey, buildJoinKey)),
+                ImmutableList.of(ORDER_KEY, CUST_KEY, BUILD_ORDER_KEY, BUILD_CUST_KEY),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.of(distributionType),
+                ImmutableMap.of());
+        PlanFragment joinFragment = new PlanFragment(
+                JOIN_FRAGMENT_ID,
+                join,
+                ImmutableSet.copyOf(join.getOutputVariables()),
+                partitioning,
+                probe instanceof TableScanNode ? ImmutableList.of(probe.getId()) : ImmutableList.of(),
+                new PartitioningScheme(Partitioning.create(SINGLE_DISTRIBUTION, ImmutableList.of()), join.getOutputVariables()),
+                stageExecutionDescriptor,
+                false,
+                StatsAndCosts.empty(),
+                Optional.empty());
+
+        return new StreamingSubPlan(joinFragment, ImmutableList.<StreamingSubPlan>builder()
+                .add(new StreamingSubPlan(buildFragment, ImmutableList.of()))
+                .addAll(probeSubPlans)
+                .build());
+    }
+
+    private TableScanNode createBuildTableScan()
+    {
+        return new TableScanNode(
+                Optional.empty(),
+                new PlanNodeId("build"),
+                materializedTableHandle,
+                ImmutableList.of(BUILD_ORDER_KEY, BUILD_CUST_KEY),
+                ImmutableMap.of(BUILD_ORDER_KEY, new TpchColumnHandle("orderkey", BIGINT), BUILD_CUST_KEY, new TpchColumnHandle("custkey", BIGINT)),
+                TupleDomain.all(),
+                TupleDomain.all());
+    }
+
+    private TableScanNode createProbeTableScan()
+    {
+        return new TableScanNode(
+                Optional.empty(),
+                new PlanNodeId("probe"),
+                ordersTableHandle,
+                ImmutableList.of(ORDER_KEY, CUST_KEY),
+                ImmutableMap.of(ORDER_KEY, new TpchColumnHandle("orderkey", BIGINT), CUST_KEY, new TpchColumnHandle("custkey", BIGINT)),
+                TupleDomain.all(),
+                TupleDomain.all());
+    }
+
+    private static TableHandle createTableHandle(ConnectorId connectorId, String tableName)
+    {
+        TpchTableHandle tpchTableHandle = new TpchTableHandle(tableName, 0.01);
+        return new TableHandle(
+                connectorId,
+                tpchTableHandle,
+                TestingTransactionHandle.create(),
+                Optional.of(new TpchTableLayoutHandle(tpchTableHandle, TupleDomain.all())));
+    }
+
+    private static PlanFragment getBuildFragment(StreamingPlanSection section)
+    {
+        return section.getPlan().getChildren().get(0).getFragment();
+    }
+
+    private static void assertJoin(PlanFragment originalJoinFragment, PlanFragment joinFragment, JoinNode.DistributionType distributionType, ExchangeNode.Type exchangeType)
+    {
+        assertTrue(joinFragment.getRoot() instanceof JoinNode);
+        JoinNode join = (JoinNode) joinFragment.getRoot();
+        assertEquals(join.getDistributionType(), Optional.of(distributionType));
+        assertEquals(((RemoteSourceNode) join.getRight()).getExchangeType(), exchangeType);
+        assertEquals(((RemoteSourceNode) join.getRight()).getSourceFragmentIds(), ImmutableList.of(BUILD_FRAGMENT_ID));
+        assertEquals(join.getLeft(), ((JoinNode) originalJoinFragment.getRoot()).getLeft());
+        assertEquals(joinFragment.getTableScanSchedulingOrder(), originalJoinFragment.getTableScanSchedulingOrder());
+    }
+
+    private static void assertNoChange(Map<PlanFragment, PlanFragment> rewrittenFragments)
+    {
+        assertTrue(rewrittenFragments.isEmpty(), "unexpected rewritten fragments: " + rewrittenFragments.keySet());
+    }
+}
@@ -27,7 +27,10 @@ import com.facebook.presto.spi.page.SerializedPage;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ListMultimap;
 import io.airlift.slice.DynamicSliceOutput;
 import io.airlift.units.DataSize;
 
@@ -48,6 +51,7 @@ import static com.facebook.presto.client.PrestoHeaders.PRESTO_PAGE_TOKEN;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_TASK_INSTANCE_ID;
 import static com.facebook.presto.execution.buffer.TestingPagesSerdeFactory.testingPagesSerde;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.Multimaps.synchronizedListMultimap;
 import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
 import static java.util.Collections.synchronizedList;
 import static org.testng.Assert.assertEquals;
@@ -65,6 +69,7 @@ public class MockExchangeRequestProcessor
     private final Function<byte[], byte[]> dataChanger;
 
     private final List<DataSize> requestMaxSizes = synchronizedList(new ArrayList<>());
+    private final ListMultimap<URI, DataSize> locationRequestMaxSizes = synchronizedListMultimap(ArrayListMultimap.create());
 
     public MockExchangeRequestProcessor(DataSize expectedMaxSize)
     {
@@ -103,6 +108,7 @@ public class MockExchangeRequestProcessor
 
         RequestLocation requestLocation = new RequestLocation(request.getUri());
         URI location = requestLocation.getLocation();
+        locationRequestMaxSizes.put(location, maxSize);
 
         BufferResult result = buffers.getUnchecked(location).getPages(requestLocation.getSequenceId(), maxSize);
 
@@ -134,6 +140,13 @@ public class MockExchangeRequestProcessor
         return requestMaxSizes;
     }
 
+    public List<DataSize> getRequestMaxSizes(URI location)
+    {
+        synchronized (locationRequestMaxSizes) {
+            return ImmutableList.copyOf(locationRequestMaxSizes.get(location));
+        }
+    }
+
     private class RequestLocation
     {
         private final URI location;
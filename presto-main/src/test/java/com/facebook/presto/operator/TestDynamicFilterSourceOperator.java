@@ -16,6 +16,7 @@ package com.facebook.presto.operator;
 import com.facebook.presto.common.Page;
 import com.facebook.presto.common.block.Block;
 import com.facebook.presto.common.block.BlockBuilder;
+import com.facebook.presto.common.predicate.BlockedBloomFilter;
 import com.facebook.presto.common.predicate.Domain;
 import com.facebook.presto.common.predicate.TupleDomain;
 import com.facebook.presto.common.predicate.ValueSet;
@@ -24,6 +25,7 @@ import com.facebook.presto.spi.plan.PlanNodeId;
 import com.facebook.presto.testing.MaterializedResult;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.airlift.units.DataSize;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
@@ -32,6 +34,7 @@ import org.testng.annotations.Test;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.IntStream;
@@ -65,10 +68,12 @@ import static com.facebook.presto.type.ColorType.COLOR;
 import static com.google.common.base.Strings.repeat;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.airlift.slice.Slices.utf8Slice;
+import static io.airlift.units.DataSize.Unit.BYTE;
 import static io.airlift.units.DataSize.Unit.KILOBYTE;
 import static java.lang.Float.floatToRawIntBits;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static org.testng.Assert.assertTrue;
 
 @Test(singleThreaded = true)
 public class TestDynamicFilterSourceOperator
@@ -537,4 +542,68 @@ public class TestDynamicFilterSourceOperator
                         new Page(createLongSequenceBlock(0, maxPositionsCount + 1))),
                 ImmutableList.of(TupleDomain.all()));
     }
+
+    @Test
+    public void testCollectBloomFilterWhenTooManyPositions()
+    {
+        int maxPositionsCount = 100;
+        ImmutableList.Builder<Map<String, BlockedBloomFilter>> bloomFilters = ImmutableList.builder();
+        OperatorFactory operatorFactory = new DynamicFilterSourceOperator.DynamicFilterSourceOperatorFactory(
+                0,
+                new PlanNodeId("PLAN_NODE_ID"),
+                this::consumePredicate,
+                ImmutableList.of(channel(0, BIGINT), channel(1, COLOR)),
+                maxPositionsCount,
+                new DataSize(10, KILOBYTE),
+                1_000_000,
+                bloomFilters::add,
+                new DataSize(1, KILOBYTE));
+        verifyPassthrough(
+                createOperator(operatorFactory),
+                ImmutableList.of(BIGINT, COLOR),
+                new Page(createLongSequenceBlock(0, 201), createColorSequenceBlock(0, 201)),
+                new Page(createLongSequenceBlock(1000, 1101), createColorSequenceBlock(0, 101)));
+        operatorFactory.noMoreOperators();
+
+        assertEquals(partitions.build(), ImmutableList.of(TupleDomain.withColumnDomains(ImmutableMap.of(
+                "0",
+                Domain.create(ValueSet.ofRanges(range(BIGINT, 0L, true, 1100L, true)), false)))));
+
+        List<Map<String, BlockedBloomFilter>> actualBloomFilters = bloomFilters.build();
+        assertEquals(actualBloomFilters.size(), 1);
+        assertEquals(actualBloomFilters.get(0).keySet(), ImmutableSet.of("0"));
+        BlockedBloomFilter bloomFilter = actualBloomFilters.get(0).get("0");
+        for (long value = 0; value <= 200; value++) {
+            assertTrue(bloomFilter.mightContainLong(BlockedBloomFilter.hashLong(value)));
+        }
+        for (long value = 1000; value <= 1100; value++) {
+            assertTrue(bloomFilter.mightContainLong(BlockedBloomFilter.hashLong(value)));
+        }
+    }
+
+    @Test
+    public void testNoBloomFilterWhenTooManyDistinctValues()
+    {
+        ImmutableList.Builder<Map<String, BlockedBloomFilter>> bloomFilters = ImmutableList.builder();
+        OperatorFactory operatorFactory = new DynamicFilterSourceOperator.DynamicFilterSourceOperatorFactory(
+                0,
+                new PlanNodeId("PLAN_NODE_ID"),
+                this::consumePredicate,
+                ImmutableList.of(channel(0, BIGINT)),
+                100,
+                new DataSize(10, KILOBYTE),
+                1_000_000,
+                bloomFilters::add,
+                new DataSize(32, BYTE));
+        verifyPassthrough(
+                createOperator(operatorFactory),
+                ImmutableList.of(BIGINT),
+                new Page(createLongSequenceBlock(0, 1001)));
+        operatorFactory.noMoreOperators();
+
+        assertEquals(partitions.build(), ImmutableList.of(TupleDomain.withColumnDomains(ImmutableMap.of(
+                "0",
+                Domain.create(ValueSet.ofRanges(range(BIGINT, 0L, true, 1000L, true)), false)))));
+        assertEquals(bloomFilters.build(), ImmutableList.of());
+    }
 }
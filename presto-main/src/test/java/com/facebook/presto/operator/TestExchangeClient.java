@@ -51,6 +51,7 @@ import static com.facebook.airlift.testing.Assertions.assertLessThan;
 import static com.facebook.presto.common.block.PageBuilderStatus.DEFAULT_MAX_PAGE_SIZE_IN_BYTES;
 import static com.facebook.presto.execution.buffer.TestingPagesSerdeFactory.testingPagesSerde;
 import static com.facebook.presto.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static com.google.common.collect.Iterables.getLast;
 import static com.google.common.collect.Maps.uniqueIndex;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static com.google.common.util.concurrent.Uninterruptibles.awaitUninterruptibly;
@@ -157,6 +158,10 @@ public class TestExchangeClient
 
         // client should have sent only 2 requests: one to get all pages and once to get the done signal
         assertStatus(status.getPageBufferClientStatuses().get(0), location, "closed", 3, 3, 3, "not scheduled");
+
+        // the only source has a measured throughput
+        assertEquals(status.getSourceThroughputHistogram().size(), ExchangeClientStatus.SOURCE_THROUGHPUT_HISTOGRAM_BOUNDS.size() + 1);
+        assertEquals(status.getSourceThroughputHistogram().stream().mapToLong(Long::longValue).sum(), 1);
     }
 
     @Test(timeOut = 10000)
@@ -489,6 +494,92 @@ public class TestExchangeClient
         assertStatus(clientStatusOptional2.get(), "closed", "not scheduled");
     }
 
+    @Test(timeOut = 10000)
+    public void testSourceRequestSize()
+    {
+        DataSize bufferCapacity = new DataSize(32, MEGABYTE);
+        DataSize maxResponseSize = new DataSize(10, MEGABYTE);
+        MockExchangeRequestProcessor processor = new MockExchangeRequestProcessor(maxResponseSize);
+
+        URI smallPagesLocation = URI.create("http://localhost:8081/foo");
+        URI largePagesLocation = URI.create("http://localhost:8082/bar");
+        processor.addPage(smallPagesLocation, createPage(1));
+        processor.addPage(largePagesLocation, createPage(10_000));
+
+        // with a decaying alpha of 1 the average response size of a source is the size of its last non-empty response
+        try (ExchangeClient exchangeClient = createExchangeClient(processor, bufferCapacity, maxResponseSize, 1.0)) {
+            exchangeClient.addLocation(smallPagesLocation, TaskId.valueOf("foo.0.0.0.0"));
+            exchangeClient.addLocation(largePagesLocation, TaskId.valueOf("bar.0.0.0.0"));
+            waitUntilEquals(() -> exchangeClient.getStatus().getBufferedPages(), 2, new Duration(5, SECONDS));
+
+            // the sources are polled for more data with twice the size of what each of them returned,
+            // and the empty responses to these polls do not change the size
+            long smallPageSize = PAGES_SERDE.serialize(createPage(1)).getSizeInBytes();
+            long largePageSize = PAGES_SERDE.serialize(createPage(10_000)).getSizeInBytes();
+            waitUntilEquals(() -> getLastRequestMaxSize(processor, smallPagesLocation), 2 * smallPageSize, new Duration(5, SECONDS));
+            waitUntilEquals(() -> getLastRequestMaxSize(processor, largePagesLocation), 2 * largePageSize, new Duration(5, SECONDS));
+            sleepUninterruptibly(100, MILLISECONDS);
+            assertEquals(getLastRequestMaxSize(processor, smallPagesLocation), 2 * smallPageSize);
+            assertEquals(getLastRequestMaxSize(processor, largePagesLocation), 2 * largePageSize);
+
+            // a single source never gets more than the max response size
+            processor.addPage(largePagesLocation, createPage(1_000_000));
+            waitUntilEquals(() -> exchangeClient.getStatus().getBufferedPages(), 3, new Duration(5, SECONDS));
+            waitUntilEquals(() -> getLastRequestMaxSize(processor, largePagesLocation), maxResponseSize.toBytes(), new Duration(5, SECONDS));
+            assertEquals(getLastRequestMaxSize(processor, smallPagesLocation), 2 * smallPageSize);
+        }
+    }
+
+    @Test(timeOut = 10000)
+    public void testSlowestSourceFirst()
+    {
+        // only a single response fits in the buffer, so a single source is asked for data at a time
+        DataSize bufferCapacity = new DataSize(1, BYTE);
+        DataSize maxResponseSize = new DataSize(1, BYTE);
+        URI fastLocation = URI.create("http://localhost:8081/foo");
+        URI slowLocation = URI.create("http://localhost:8082/bar");
+        MockExchangeRequestProcessor processor = new MockExchangeRequestProcessor(maxResponseSize) {
+            @Override
+            public Response handle(Request request)
+            {
+                if (request.getUri().toString().startsWith(slowLocation.toString())) {
+                    sleepUninterruptibly(200, MILLISECONDS);
+                }
+                return super.handle(request);
+            }
+        };
+
+        // pages of the two sources are told apart by their position count
+        for (int i = 0; i < 3; i++) {
+            processor.addPage(fastLocation, createPage(1));
+            processor.addPage(slowLocation, createPage(2));
+        }
+
+        try (ExchangeClient exchangeClient = createExchangeClient(processor, bufferCapacity, maxResponseSize)) {
+            // the slow source is asked first, and the fast source is queued while that request is running
+            exchangeClient.addLocation(slowLocation, TaskId.valueOf("bar.0.0.0.0"));
+            exchangeClient.addLocation(fastLocation, TaskId.valueOf("foo.0.0.0.0"));
+            assertPageEquals(getNextPage(exchangeClient), createPage(2));
+            // the fast source was queued before any throughput was measured
+            assertPageEquals(getNextPage(exchangeClient), createPage(1));
+            assertPageEquals(getNextPage(exchangeClient), createPage(2));
+            // the slow source is asked again first, although the fast source has been waiting longer
+            assertPageEquals(getNextPage(exchangeClient), createPage(2));
+            // once the drained slow source has returned an empty response, it goes after the fast source
+            assertPageEquals(getNextPage(exchangeClient), createPage(1));
+            assertPageEquals(getNextPage(exchangeClient), createPage(1));
+        }
+    }
+
+    private static long getLastRequestMaxSize(MockExchangeRequestProcessor processor, URI location)
+    {
+        List<DataSize> maxSizes = processor.getRequestMaxSizes(location);
+        if (maxSizes.isEmpty()) {
+            return -1;
+        }
+        return getLast(maxSizes).toBytes();
+    }
+
     private static Page createPage(int size)
     {
         return new Page(BlockAssertions.createLongSequenceBlock(0, size));
@@ -551,6 +642,11 @@ public class TestExchangeClient
     }
 
     private ExchangeClient createExchangeClient(MockExchangeRequestProcessor processor, DataSize bufferCapacity, DataSize maxResponseSize)
+    {
+        return createExchangeClient(processor, bufferCapacity, maxResponseSize, 0.2);
+    }
+
+    private ExchangeClient createExchangeClient(MockExchangeRequestProcessor processor, DataSize bufferCapacity, DataSize maxResponseSize, double responseSizeExponentialMovingAverageDecayingAlpha)
     {
         return new ExchangeClient(
                 bufferCapacity,
@@ -559,7 +655,7 @@ public class TestExchangeClient
                 new Duration(1, MINUTES),
                 true,
                 false,
-                0.2,
+                responseSizeExponentialMovingAverageDecayingAlpha,
                 new TestingHttpClient(processor, testingHttpClientExecutor),
                 new TestingDriftClient<>(),
                 scheduler,
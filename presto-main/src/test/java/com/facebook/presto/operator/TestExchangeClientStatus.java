@@ -0,0 +1,87 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.airlift.json.JsonCodec;
+import com.facebook.airlift.json.ObjectMapperProvider;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+
+import static com.facebook.airlift.json.JsonCodec.jsonCodec;
+import static com.facebook.presto.operator.ExchangeClientStatus.SOURCE_THROUGHPUT_HISTOGRAM_BOUNDS;
+import static java.util.Collections.nCopies;
+import static org.testng.Assert.assertEquals;
+
+public class TestExchangeClientStatus
+{
+    private static final JsonCodec<ExchangeClientStatus> CODEC = jsonCodec(ExchangeClientStatus.class);
+
+    @Test
+    public void testJsonRoundTrip()
+    {
+        ExchangeClientStatus status = CODEC.fromJson(CODEC.toJson(createStatus()));
+        assertEquals(status.getBufferedBytes(), 246);
+        assertEquals(status.getSerializedBytesReceived(), 2987);
+        assertEquals(status.getSourceThroughputHistogram(), ImmutableList.of(1L, 0L, 4L, 0L, 0L, 2L, 0L));
+    }
+
+    @Test
+    public void testJsonWithoutSourceThroughputHistogram()
+            throws IOException
+    {
+        ObjectNode json = (ObjectNode) new ObjectMapperProvider().get().readTree(CODEC.toJson(createStatus()));
+
+        // as reported by workers that predate the histogram
+        json.remove("sourceThroughputHistogram");
+        assertEmptyHistogram(CODEC.fromJson(json.toString()));
+
+        json.putNull("sourceThroughputHistogram");
+        assertEmptyHistogram(CODEC.fromJson(json.toString()));
+
+        json.putArray("sourceThroughputHistogram");
+        assertEmptyHistogram(CODEC.fromJson(json.toString()));
+    }
+
+    @Test
+    public void testMergeWithEmptySourceThroughputHistogram()
+    {
+        ExchangeClientStatus status = createStatus();
+        ExchangeClientStatus merged = status.mergeWith(new ExchangeClientStatus(0, 0, 0, 0, 0, false, 0, 0, ImmutableList.of(), ImmutableList.of()));
+        assertEquals(merged.getSourceThroughputHistogram(), status.getSourceThroughputHistogram());
+    }
+
+    private static void assertEmptyHistogram(ExchangeClientStatus status)
+    {
+        assertEquals(status.getBufferedBytes(), 246);
+        assertEquals(status.getSourceThroughputHistogram(), nCopies(SOURCE_THROUGHPUT_HISTOGRAM_BOUNDS.size() + 1, 0L));
+    }
+
+    private static ExchangeClientStatus createStatus()
+    {
+        return new ExchangeClientStatus(
+                246L,
+                762L,
+                4155,
+                5708,
+                316,
+                true,
+                9341L,
+                2987L,
+                ImmutableList.of(),
+                ImmutableList.of(1L, 0L, 4L, 0L, 0L, 2L, 0L));
+    }
+}
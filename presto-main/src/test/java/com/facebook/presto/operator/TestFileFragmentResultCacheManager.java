@@ -37,6 +37,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import static com.facebook.airlift.concurrent.Threads.daemonThreadsNamed;
@@ -45,10 +46,10 @@ import static com.facebook.presto.spi.schedule.NodeSelectionStrategy.NO_PREFEREN
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkState;
 import static java.nio.file.Files.createTempDirectory;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
-import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
 public class TestFileFragmentResultCacheManager
@@ -60,6 +61,7 @@ public class TestFileFragmentResultCacheManager
 
     private final ExecutorService writeExecutor = newScheduledThreadPool(5, daemonThreadsNamed("test-cache-flusher-%s"));
     private final ExecutorService removalExecutor = newScheduledThreadPool(5, daemonThreadsNamed("test-cache-remover-%s"));
+    private final ExecutorService readExecutor = newScheduledThreadPool(5, daemonThreadsNamed("test-cache-reader-%s"));
     private final ExecutorService multithreadingWriteExecutor = newScheduledThreadPool(10, daemonThreadsNamed("test-cache-multithreading-flusher-%s"));
 
     @AfterClass
@@ -69,6 +71,7 @@ public class TestFileFragmentResultCacheManager
         writeExecutor.shutdown();
         removalExecutor.shutdown();
         removalExecutor.awaitTermination(30, TimeUnit.SECONDS);
+        readExecutor.shutdown();
         multithreadingWriteExecutor.shutdown();
     }
 
@@ -171,14 +174,18 @@ public class TestFileFragmentResultCacheManager
         assertEquals(stats.getCacheEntries(), 1);
         assertEquals(stats.getCacheSizeInBytes(), getCachePhysicalSize(cacheDirectory));
 
-        // Trying to add another cache entry which will fail due to total size limit.
-        assertNull(cacheManager.put(SERIALIZED_PLAN_FRAGMENT_1, SPLIT_2, pages).get());
+        // Adding another cache entry evicts the least recently used one due to total size limit.
+        long entrySize = stats.getCacheSizeInBytes();
+        cacheManager.put(SERIALIZED_PLAN_FRAGMENT_1, SPLIT_2, pages).get();
         result = cacheManager.get(SERIALIZED_PLAN_FRAGMENT_1, SPLIT_2);
-        assertFalse(result.isPresent());
+        assertTrue(result.isPresent());
+        assertPagesEqual(result.get(), pages.iterator());
+        assertFalse(cacheManager.get(SERIALIZED_PLAN_FRAGMENT_1, SPLIT_1).isPresent());
         assertEquals(stats.getCacheMiss(), 1);
-        assertEquals(stats.getCacheHit(), 1);
+        assertEquals(stats.getCacheHit(), 2);
         assertEquals(stats.getCacheEntries(), 1);
-        assertEquals(stats.getCacheSizeInBytes(), getCachePhysicalSize(cacheDirectory));
+        assertEquals(stats.getCacheRemoval(), 1);
+        assertEquals(stats.getCacheSizeInBytes(), entrySize);
 
         // Adding an empty page is fine.
         cacheManager.put(SERIALIZED_PLAN_FRAGMENT_2, SPLIT_1, ImmutableList.of()).get();
@@ -186,35 +193,193 @@ public class TestFileFragmentResultCacheManager
         assertTrue(result.isPresent());
         assertFalse(result.get().hasNext());
         assertEquals(stats.getCacheMiss(), 1);
-        assertEquals(stats.getCacheHit(), 2);
+        assertEquals(stats.getCacheHit(), 3);
         assertEquals(stats.getCacheEntries(), 2);
-        assertEquals(stats.getCacheSizeInBytes(), getCachePhysicalSize(cacheDirectory));
+        assertEquals(stats.getCacheSizeInBytes(), entrySize);
 
         // Test cache invalidation
         cacheManager.invalidateAllCache();
         assertEquals(stats.getCacheMiss(), 1);
-        assertEquals(stats.getCacheHit(), 2);
+        assertEquals(stats.getCacheHit(), 3);
         assertEquals(stats.getCacheEntries(), 0);
-        assertEquals(stats.getCacheRemoval(), 2);
+        assertEquals(stats.getCacheRemoval(), 3);
         assertEquals(stats.getCacheSizeInBytes(), 0);
 
         cleanupCacheDirectory(cacheDirectory);
     }
 
+    @Test(timeOut = 30_000)
+    public void testMaxCachedEntries()
+            throws Exception
+    {
+        URI cacheDirectory = getNewCacheDirectory("testMaxCachedEntries");
+        FragmentCacheStats stats = new FragmentCacheStats();
+        FileFragmentResultCacheManager cacheManager = fileFragmentResultCacheManager(stats, new FileFragmentResultCacheConfig().setMaxCachedEntries(1), cacheDirectory);
+
+        cacheManager.put(SERIALIZED_PLAN_FRAGMENT_1, SPLIT_1, ImmutableList.of()).get();
+        cacheManager.put(SERIALIZED_PLAN_FRAGMENT_1, SPLIT_2, ImmutableList.of()).get();
+        assertFalse(cacheManager.get(SERIALIZED_PLAN_FRAGMENT_1, SPLIT_1).isPresent());
+        assertTrue(cacheManager.get(SERIALIZED_PLAN_FRAGMENT_1, SPLIT_2).isPresent());
+        assertEquals(stats.getCacheEntries(), 1);
+        assertEquals(stats.getCacheRemoval(), 1);
+
+        cacheManager.invalidateAllCache();
+        cleanupCacheDirectory(cacheDirectory);
+    }
+
+    @Test(timeOut = 30_000)
+    public void testGetAsync()
+            throws Exception
+    {
+        URI cacheDirectory = getNewCacheDirectory("testGetAsync");
+        FragmentCacheStats stats = new FragmentCacheStats();
+        FileFragmentResultCacheManager cacheManager = fileFragmentResultCacheManager(stats, cacheDirectory);
+
+        assertFalse(cacheManager.getAsync(SERIALIZED_PLAN_FRAGMENT_1, SPLIT_1).get().isPresent());
+
+        List<Page> pages = ImmutableList.of(new Page(createStringsBlock("plan-1-split-1")));
+        cacheManager.put(SERIALIZED_PLAN_FRAGMENT_1, SPLIT_1, pages).get();
+        Optional<Iterator<Page>> result = cacheManager.getAsync(SERIALIZED_PLAN_FRAGMENT_1, SPLIT_1).get();
+        assertTrue(result.isPresent());
+        assertPagesEqual(result.get(), pages.iterator());
+        assertFalse(cacheManager.getAsync(SERIALIZED_PLAN_FRAGMENT_2, SPLIT_1).get().isPresent());
+
+        assertEquals(stats.getCacheMiss(), 2);
+        assertEquals(stats.getCacheHit(), 1);
+        assertEquals(stats.getPlanCacheStats(SERIALIZED_PLAN_FRAGMENT_1).get().getCacheHit(), 1);
+        assertEquals(stats.getPlanCacheStats(SERIALIZED_PLAN_FRAGMENT_1).get().getCacheMiss(), 1);
+        assertEquals(stats.getPlanCacheStats(SERIALIZED_PLAN_FRAGMENT_2).get().getCacheHit(), 0);
+        assertEquals(stats.getPlanCacheStats(SERIALIZED_PLAN_FRAGMENT_2).get().getCacheMiss(), 1);
+        assertEquals(stats.getTrackedPlans(), 2);
+        assertEquals(stats.getTrackedPlansWithHits(), 1);
+        assertEquals(stats.getTrackedPlansWithoutHits(), 1);
+        assertEquals(stats.getMaxPlanCacheHitRate(), 0.5);
+
+        cacheManager.invalidateAllCache();
+        cleanupCacheDirectory(cacheDirectory);
+    }
+
+    @Test(timeOut = 30_000)
+    public void testGetAsyncMultiplePages()
+            throws Exception
+    {
+        URI cacheDirectory = getNewCacheDirectory("testGetAsyncMultiplePages");
+        FileFragmentResultCacheManager cacheManager = fileFragmentResultCacheManager(new FragmentCacheStats(), cacheDirectory);
+
+        ImmutableList.Builder<Page> pages = ImmutableList.builder();
+        for (int i = 0; i < 100; i++) {
+            pages.add(new Page(createStringsBlock("page-" + i, "value-" + i)));
+        }
+        cacheManager.put(SERIALIZED_PLAN_FRAGMENT_1, SPLIT_1, pages.build()).get();
+
+        // the pages are streamed from the file as they are consumed
+        Optional<Iterator<Page>> result = cacheManager.getAsync(SERIALIZED_PLAN_FRAGMENT_1, SPLIT_1).get();
+        assertTrue(result.isPresent());
+        assertPagesEqual(result.get(), pages.build().iterator());
+
+        cacheManager.invalidateAllCache();
+        cleanupCacheDirectory(cacheDirectory);
+    }
+
+    @Test(timeOut = 30_000)
+    public void testGetAsyncReadsAheadOnReadExecutor()
+            throws Exception
+    {
+        URI cacheDirectory = getNewCacheDirectory("testGetAsyncReadsAheadOnReadExecutor");
+        ThreadPoolExecutor readAheadExecutor = (ThreadPoolExecutor) newFixedThreadPool(1, daemonThreadsNamed("test-cache-read-ahead-%s"));
+        try {
+            FileFragmentResultCacheManager cacheManager = new FileFragmentResultCacheManager(
+                    new FileFragmentResultCacheConfig().setBaseDirectory(cacheDirectory),
+                    new TestingBlockEncodingSerde(),
+                    new FragmentCacheStats(),
+                    writeExecutor,
+                    removalExecutor,
+                    readAheadExecutor);
+
+            List<Page> pages = ImmutableList.of(
+                    new Page(createStringsBlock("page-0")),
+                    new Page(createStringsBlock("page-1")),
+                    new Page(createStringsBlock("page-2")));
+            cacheManager.put(SERIALIZED_PLAN_FRAGMENT_1, SPLIT_1, pages).get();
+
+            // opening the result reads the first page
+            Iterator<Page> result = cacheManager.getAsync(SERIALIZED_PLAN_FRAGMENT_1, SPLIT_1).get().get();
+            assertEquals(readAheadExecutor.getTaskCount(), 1);
+
+            // returning a page schedules the read of the next one
+            assertPageEquals(result.next(), pages.get(0));
+            assertEquals(readAheadExecutor.getTaskCount(), 2);
+            assertPageEquals(result.next(), pages.get(1));
+            assertPageEquals(result.next(), pages.get(2));
+            assertEquals(readAheadExecutor.getTaskCount(), 4);
+            assertFalse(result.hasNext());
+            assertEquals(readAheadExecutor.getTaskCount(), 4);
+
+            cacheManager.invalidateAllCache();
+        }
+        finally {
+            readAheadExecutor.shutdownNow();
+            cleanupCacheDirectory(cacheDirectory);
+        }
+    }
+
+    @Test(timeOut = 30_000)
+    public void testPersistentIndex()
+            throws Exception
+    {
+        URI cacheDirectory = getNewCacheDirectory("testPersistentIndex");
+        List<Page> pages = ImmutableList.of(new Page(createStringsBlock("plan-1-split-1")));
+
+        FragmentCacheStats stats = new FragmentCacheStats();
+        FileFragmentResultCacheConfig config = new FileFragmentResultCacheConfig()
+                .setMaxCachedEntries(2)
+                .setPersistentIndexEnabled(true);
+        FileFragmentResultCacheManager cacheManager = fileFragmentResultCacheManager(stats, config, cacheDirectory);
+        cacheManager.put(SERIALIZED_PLAN_FRAGMENT_1, SPLIT_1, pages).get();
+        cacheManager.put(SERIALIZED_PLAN_FRAGMENT_1, SPLIT_2, pages).get();
+        // Evicts the first entry, which is not restored
+        cacheManager.put(SERIALIZED_PLAN_FRAGMENT_2, SPLIT_1, pages).get();
+        assertEquals(stats.getCacheEntries(), 2);
+        assertEquals(stats.getCacheRemoval(), 1);
+        long cacheSize = stats.getCacheSizeInBytes();
+
+        // Simulate a restart
+        FragmentCacheStats restartedStats = new FragmentCacheStats();
+        FileFragmentResultCacheManager restartedCacheManager = fileFragmentResultCacheManager(restartedStats, config, cacheDirectory);
+        assertEquals(restartedStats.getCacheEntries(), 2);
+        assertEquals(restartedStats.getCacheSizeInBytes(), cacheSize);
+
+        assertFalse(restartedCacheManager.get(SERIALIZED_PLAN_FRAGMENT_1, SPLIT_1).isPresent());
+        Optional<Iterator<Page>> result = restartedCacheManager.get(SERIALIZED_PLAN_FRAGMENT_1, SPLIT_2);
+        assertTrue(result.isPresent());
+        assertPagesEqual(result.get(), pages.iterator());
+        result = restartedCacheManager.get(SERIALIZED_PLAN_FRAGMENT_2, SPLIT_1);
+        assertTrue(result.isPresent());
+        assertPagesEqual(result.get(), pages.iterator());
+        assertEquals(restartedStats.getCacheHit(), 2);
+        assertEquals(restartedStats.getCacheMiss(), 1);
+
+        restartedCacheManager.invalidateAllCache();
+        cleanupCacheDirectory(cacheDirectory);
+    }
+
     private static void assertPagesEqual(Iterator<Page> pages1, Iterator<Page> pages2)
     {
         while (pages1.hasNext() && pages2.hasNext()) {
-            Page page1 = pages1.next();
-            Page page2 = pages2.next();
-            assertEquals(page1.getChannelCount(), page2.getChannelCount());
-            for (int i = 0; i < page1.getChannelCount(); i++) {
-                assertTrue(page1.getBlock(i).equals(0, 0, page2.getBlock(i), 0, 0, page1.getBlock(0).getSliceLength(0)));
-            }
+            assertPageEquals(pages1.next(), pages2.next());
         }
         assertFalse(pages1.hasNext());
         assertFalse(pages2.hasNext());
     }
 
+    private static void assertPageEquals(Page page1, Page page2)
+    {
+        assertEquals(page1.getChannelCount(), page2.getChannelCount());
+        for (int i = 0; i < page1.getChannelCount(); i++) {
+            assertTrue(page1.getBlock(i).equals(0, 0, page2.getBlock(i), 0, 0, page1.getBlock(0).getSliceLength(0)));
+        }
+    }
+
     @Test(timeOut = 30_000)
     public void testThreadWrite()
             throws Exception
@@ -278,7 +443,8 @@ public class TestFileFragmentResultCacheManager
                 new TestingBlockEncodingSerde(),
                 fragmentCacheStats,
                 writeExecutor,
-                removalExecutor);
+                removalExecutor,
+                readExecutor);
     }
 
     private static class TestingSplit
@@ -20,6 +20,7 @@ import com.facebook.presto.common.PageBuilder;
 import com.facebook.presto.common.block.Block;
 import com.facebook.presto.common.block.DictionaryBlock;
 import com.facebook.presto.common.block.DictionaryId;
+import com.facebook.presto.common.block.RunLengthEncodedBlock;
 import com.facebook.presto.common.type.Type;
 import com.facebook.presto.metadata.MetadataManager;
 import com.facebook.presto.spi.function.aggregation.GroupByIdBlock;
@@ -44,9 +45,12 @@ import static com.facebook.presto.block.BlockAssertions.createStringSequenceBloc
 import static com.facebook.presto.common.block.DictionaryId.randomDictionaryId;
 import static com.facebook.presto.common.type.BigintType.BIGINT;
 import static com.facebook.presto.common.type.DoubleType.DOUBLE;
+import static com.facebook.presto.common.type.IntegerType.INTEGER;
 import static com.facebook.presto.common.type.VarcharType.VARCHAR;
 import static com.facebook.presto.operator.GroupByHash.createGroupByHash;
+import static com.facebook.presto.operator.UpdateMemory.NOOP;
 import static com.facebook.presto.type.TypeUtils.getHashBlock;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.math.DoubleMath.log2;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
@@ -475,4 +479,144 @@ public class TestGroupByHash
         assertEquals(currentQuota.get(), 10 * 2);
         assertEquals(currentQuota.get() / 3 / 2, yields);
     }
+
+    @Test
+    public void testFixedWidthMultipleChannels()
+    {
+        GroupByHash groupByHash = createGroupByHash(TEST_SESSION, ImmutableList.of(BIGINT, INTEGER), new int[] {0, 1}, Optional.empty(), 4, JOIN_COMPILER);
+        assertTrue(groupByHash instanceof FixedWidthGroupByHash);
+
+        GroupByHash expectedGroupByHash = new MultiChannelGroupByHash(ImmutableList.of(BIGINT, INTEGER), new int[] {0, 1}, Optional.empty(), 4, false, JOIN_COMPILER, NOOP);
+
+        // enough rows to span several batches and rehashes, with nulls in both channels
+        List<Long> longValues = new ArrayList<>();
+        List<Integer> intValues = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            longValues.add(i % 7 == 0 ? null : (long) (i % 1000));
+            intValues.add(i % 11 == 0 ? null : i % 3);
+        }
+        Page page = new Page(BlockAssertions.createLongsBlock(longValues), BlockAssertions.createIntsBlock(intValues));
+
+        Work<GroupByIdBlock> work = groupByHash.getGroupIds(page);
+        assertTrue(work.process());
+        GroupByIdBlock groupIds = work.getResult();
+        Work<GroupByIdBlock> expectedWork = expectedGroupByHash.getGroupIds(page);
+        assertTrue(expectedWork.process());
+        GroupByIdBlock expectedGroupIds = expectedWork.getResult();
+
+        assertEquals(groupByHash.getGroupCount(), expectedGroupByHash.getGroupCount());
+        assertEquals(groupIds.getPositionCount(), page.getPositionCount());
+        for (int position = 0; position < page.getPositionCount(); position++) {
+            assertEquals(groupIds.getGroupId(position), expectedGroupIds.getGroupId(position));
+        }
+        for (int groupId = 0; groupId < groupByHash.getGroupCount(); groupId++) {
+            assertEquals(groupByHash.getRawHash(groupId), expectedGroupByHash.getRawHash(groupId));
+        }
+
+        PageBuilder pageBuilder = new PageBuilder(groupByHash.getTypes());
+        PageBuilder expectedPageBuilder = new PageBuilder(expectedGroupByHash.getTypes());
+        for (int groupId = 0; groupId < groupByHash.getGroupCount(); groupId++) {
+            pageBuilder.declarePosition();
+            groupByHash.appendValuesTo(groupId, pageBuilder, 0);
+            expectedPageBuilder.declarePosition();
+            expectedGroupByHash.appendValuesTo(groupId, expectedPageBuilder, 0);
+        }
+        Page output = pageBuilder.build();
+        Page expectedOutput = expectedPageBuilder.build();
+        BlockAssertions.assertBlockEquals(BIGINT, output.getBlock(0), expectedOutput.getBlock(0));
+        BlockAssertions.assertBlockEquals(INTEGER, output.getBlock(1), expectedOutput.getBlock(1));
+
+        for (int position = 0; position < page.getPositionCount(); position++) {
+            assertTrue(groupByHash.contains(position, page, new int[] {0, 1}));
+        }
+        Page missingPage = new Page(BlockAssertions.createLongsBlock(1000L), BlockAssertions.createIntsBlock(0));
+        assertFalse(groupByHash.contains(0, missingPage, new int[] {0, 1}));
+    }
+
+    @Test
+    public void testFixedWidthPrecomputedHash()
+    {
+        Block longsBlock = createLongSequenceBlock(0, 100);
+        Block intsBlock = BlockAssertions.createIntsBlock(IntStream.range(0, 100).map(i -> i % 2).boxed().collect(toImmutableList()));
+        Block hashBlock = getHashBlock(ImmutableList.of(BIGINT, INTEGER), longsBlock, intsBlock);
+        GroupByHash groupByHash = createGroupByHash(TEST_SESSION, ImmutableList.of(BIGINT, INTEGER), new int[] {0, 1}, Optional.of(2), 100, JOIN_COMPILER);
+        assertEquals(groupByHash.getTypes(), ImmutableList.of(BIGINT, INTEGER, BIGINT));
+
+        groupByHash.addPage(new Page(longsBlock, intsBlock, hashBlock)).process();
+        assertEquals(groupByHash.getGroupCount(), 100);
+
+        PageBuilder pageBuilder = new PageBuilder(groupByHash.getTypes());
+        for (int groupId = 0; groupId < groupByHash.getGroupCount(); groupId++) {
+            pageBuilder.declarePosition();
+            groupByHash.appendValuesTo(groupId, pageBuilder, 0);
+        }
+        Page output = pageBuilder.build();
+        BlockAssertions.assertBlockEquals(BIGINT, output.getBlock(0), longsBlock);
+        BlockAssertions.assertBlockEquals(INTEGER, output.getBlock(1), intsBlock);
+        BlockAssertions.assertBlockEquals(BIGINT, output.getBlock(2), hashBlock);
+
+        List<Page> bufferedPages = groupByHash.getBufferedPages();
+        assertEquals(bufferedPages.size(), 1);
+        assertEquals(bufferedPages.get(0).getChannelCount(), 2);
+        BlockAssertions.assertBlockEquals(BIGINT, bufferedPages.get(0).getBlock(0), longsBlock);
+    }
+
+    @Test
+    public void testFixedWidthRunLengthEncoded()
+    {
+        Page page = new Page(
+                new RunLengthEncodedBlock(BlockAssertions.createLongsBlock(42L), 500),
+                new RunLengthEncodedBlock(BlockAssertions.createIntsBlock(7), 500));
+        GroupByHash groupByHash = createGroupByHash(TEST_SESSION, ImmutableList.of(BIGINT, INTEGER), new int[] {0, 1}, Optional.empty(), 100, JOIN_COMPILER);
+
+        Work<GroupByIdBlock> work = groupByHash.getGroupIds(page);
+        assertTrue(work.process());
+        GroupByIdBlock groupIds = work.getResult();
+        assertEquals(groupByHash.getGroupCount(), 1);
+        assertEquals(groupIds.getPositionCount(), 500);
+        assertEquals(groupIds.getGroupId(499), 0);
+    }
+
+    @Test
+    public void testFixedWidthMemoryReservationYield()
+    {
+        int length = 1_000_000;
+        Page page = new Page(createLongSequenceBlock(0, length), createLongSequenceBlock(0, length));
+        AtomicInteger currentQuota = new AtomicInteger(0);
+        AtomicInteger allowedQuota = new AtomicInteger(6);
+        UpdateMemory updateMemory = () -> {
+            if (currentQuota.get() < allowedQuota.get()) {
+                currentQuota.getAndIncrement();
+                return true;
+            }
+            return false;
+        };
+        int yields = 0;
+
+        GroupByHash groupByHash = createGroupByHash(ImmutableList.of(BIGINT, BIGINT), new int[] {0, 1}, Optional.empty(), 1, false, JOIN_COMPILER, updateMemory);
+        boolean finish = false;
+        Work<GroupByIdBlock> getGroupIdsWork = groupByHash.getGroupIds(page);
+        while (!finish) {
+            finish = getGroupIdsWork.process();
+            if (!finish) {
+                assertEquals(currentQuota.get(), allowedQuota.get());
+                // assert if we are blocked, we are going to be blocked again without changing allowedQuota
+                assertFalse(getGroupIdsWork.process());
+                assertEquals(currentQuota.get(), allowedQuota.get());
+                yields++;
+                allowedQuota.getAndAdd(6);
+            }
+        }
+
+        // assert there is not anything missing
+        assertEquals(length, groupByHash.getGroupCount());
+        GroupByIdBlock groupIds = getGroupIdsWork.getResult();
+        assertEquals(length, groupIds.getPositionCount());
+        for (int position = 0; position < length; position++) {
+            assertEquals(groupIds.getGroupId(position), position);
+        }
+        // the rehash count is 20 = log2(1_000_000 / 0.75)
+        assertEquals(currentQuota.get(), 20 * 2);
+        assertEquals(currentQuota.get() / 3 / 2, yields);
+    }
 }
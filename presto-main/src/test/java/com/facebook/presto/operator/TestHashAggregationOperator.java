@@ -945,6 +945,60 @@ public class TestHashAggregationOperator
         assertTrue(partialAggregationController.isPartialAggregationDisabled());
     }
 
+    @Test
+    public void testAdaptivePartialAggregationIsTriggeredBySample()
+    {
+        List<Integer> hashChannels = Ints.asList(0);
+        // We sample the group keys of the first 10 rows in each mode, so that the controller does not need to wait for the 16 MB buffer to flush
+        PartialAggregationController partialAggregationController = new PartialAggregationController(succinctDataSize(16, MEGABYTE), 0.8, 10);
+        HashAggregationOperatorFactory operatorFactory = new HashAggregationOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(BIGINT),
+                hashChannels,
+                ImmutableList.of(),
+                ImmutableList.of(),
+                Step.PARTIAL,
+                false,
+                ImmutableList.of(generateAccumulatorFactory(LONG_SUM, ImmutableList.of(0), Optional.empty())),
+                Optional.empty(),
+                Optional.empty(),
+                100,
+                Optional.of(succinctDataSize(16, MEGABYTE)),
+                false,
+                Optional.of(partialAggregationController),
+                new DataSize(0, MEGABYTE),
+                new DataSize(0, MEGABYTE),
+                new FailingSpillerFactory(),
+                joinCompiler,
+                false);
+
+        List<Page> input = rowPagesBuilder(false, hashChannels, BIGINT)
+                .addSequencePage(10, 0)
+                .addBlocksPage(createLongRepeatBlock(1, 10))
+                .addBlocksPage(createLongRepeatBlock(2, 10))
+                .build();
+        List<Page> expected = rowPagesBuilder(BIGINT, BIGINT)
+                .addBlocksPage(createLongsBlock(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), createLongsBlock(0, 1, 2, 3, 4, 5, 6, 7, 8, 9)) // first page should be aggregated
+                .addBlocksPage(createLongRepeatBlock(1, 10), createLongRepeatBlock(1, 10)) // second page should NOT be aggregated
+                .addBlocksPage(createLongsBlock(2), createLongsBlock(20)) // third page should be aggregated again
+                .build();
+        // The sample of the first page is all unique values, so partial aggregation is disabled for the second page.
+        // The sample of the second page repeats a single value, so partial aggregation is re-enabled for the third page.
+        assertOperatorEquals(operatorFactory, input, expected);
+        assertFalse(partialAggregationController.isPartialAggregationDisabled());
+
+        // A new operator starts sampling in the current mode, and disables partial aggregation as soon as its sample is unique enough
+        input = rowPagesBuilder(false, hashChannels, BIGINT)
+                .addSequencePage(10, 0)
+                .build();
+        expected = rowPagesBuilder(BIGINT, BIGINT)
+                .addBlocksPage(createLongsBlock(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), createLongsBlock(0, 1, 2, 3, 4, 5, 6, 7, 8, 9))
+                .build();
+        assertOperatorEquals(operatorFactory, input, expected);
+        assertTrue(partialAggregationController.isPartialAggregationDisabled());
+    }
+
     private void assertOperatorEquals(OperatorFactory operatorFactory, List<Page> inputPages, List<Page> expectedPages)
     {
         DriverContext driverContext = createDriverContext(1024);
@@ -118,6 +118,9 @@ public class TestOperatorInfoUnionSerde
         assertThat(exchangeClientStatus.getSuccessfulRequestsCount()).isEqualTo(5708);
         assertThat(exchangeClientStatus.getBufferedPages()).isEqualTo(316);
         assertThat(exchangeClientStatus.isNoMoreLocations()).isTrue();
+        assertThat(exchangeClientStatus.getUncompressedBytesReceived()).isEqualTo(9341L);
+        assertThat(exchangeClientStatus.getSerializedBytesReceived()).isEqualTo(2987L);
+        assertThat(exchangeClientStatus.getSourceThroughputHistogram()).containsExactly(1L, 0L, 4L, 0L, 0L, 2L, 0L);
 
         List<PageBufferClientStatus> pageBufferClientStatuses = exchangeClientStatus.getPageBufferClientStatuses();
         assertNotNull(pageBufferClientStatuses);
@@ -146,6 +149,8 @@ public class TestOperatorInfoUnionSerde
                 5708,
                 316,
                 true,
+                9341L,
+                2987L,
                 ImmutableList.of(new PageBufferClientStatus(
                         URI.create("http://fake"),
                         "running",
@@ -157,6 +162,7 @@ public class TestOperatorInfoUnionSerde
                         2,
                         71,
                         3,
-                        "OK")));
+                        "OK")),
+                ImmutableList.of(1L, 0L, 4L, 0L, 0L, 2L, 0L));
     }
 }
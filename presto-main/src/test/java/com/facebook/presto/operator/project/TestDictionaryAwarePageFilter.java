@@ -16,6 +16,7 @@ package com.facebook.presto.operator.project;
 import com.facebook.presto.common.Page;
 import com.facebook.presto.common.block.Block;
 import com.facebook.presto.common.block.DictionaryBlock;
+import com.facebook.presto.common.block.DictionaryId;
 import com.facebook.presto.common.block.LazyBlock;
 import com.facebook.presto.common.block.LongArrayBlock;
 import com.facebook.presto.common.block.RunLengthEncodedBlock;
@@ -31,6 +32,7 @@ import java.util.stream.IntStream;
 
 import static com.facebook.presto.block.BlockAssertions.createLongSequenceBlock;
 import static com.facebook.presto.block.BlockAssertions.createLongsBlock;
+import static com.facebook.presto.common.block.DictionaryId.randomDictionaryId;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertThrows;
 import static org.testng.Assert.assertTrue;
@@ -134,6 +136,70 @@ public class TestDictionaryAwarePageFilter
         testFilter(filter, effectiveBlock, true);
     }
 
+    @Test
+    public void testMultipleChannelsSharedDictionary()
+    {
+        DictionaryId sourceId = randomDictionaryId();
+        int[] ids = new int[100];
+        Arrays.setAll(ids, index -> index % 10);
+        Page page = new Page(
+                new DictionaryBlock(100, createLongSequenceBlock(0, 10), ids, false, sourceId),
+                new DictionaryBlock(100, createLongSequenceBlock(10, 20), ids, false, sourceId));
+
+        TestSumFilter nestedFilter = new TestSumFilter();
+        DictionaryAwarePageFilter filter = new DictionaryAwarePageFilter(nestedFilter);
+        testSumFilter(filter, page);
+        assertEquals(nestedFilter.getInputType(), LongArrayBlock.class);
+        assertEquals(nestedFilter.getInputPositionCount(), 10);
+    }
+
+    @Test
+    public void testMultipleChannelsDifferentDictionaries()
+    {
+        Page page = new Page(createDictionaryBlock(10, 100), createDictionaryBlock(10, 100));
+
+        TestSumFilter nestedFilter = new TestSumFilter();
+        DictionaryAwarePageFilter filter = new DictionaryAwarePageFilter(nestedFilter);
+        testSumFilter(filter, page);
+        assertEquals(nestedFilter.getInputType(), DictionaryBlock.class);
+        assertEquals(nestedFilter.getInputPositionCount(), 100);
+    }
+
+    @Test
+    public void testMultipleChannelsRle()
+    {
+        TestSumFilter nestedFilter = new TestSumFilter();
+        DictionaryAwarePageFilter filter = new DictionaryAwarePageFilter(nestedFilter);
+
+        // match all
+        testSumFilter(filter, new Page(new RunLengthEncodedBlock(createLongSequenceBlock(4, 5), 100), new RunLengthEncodedBlock(createLongSequenceBlock(5, 6), 100)));
+        assertEquals(nestedFilter.getInputType(), LongArrayBlock.class);
+        assertEquals(nestedFilter.getInputPositionCount(), 1);
+
+        // match none
+        testSumFilter(filter, new Page(new RunLengthEncodedBlock(createLongSequenceBlock(4, 5), 100), new RunLengthEncodedBlock(createLongSequenceBlock(4, 5), 100)));
+        assertEquals(nestedFilter.getInputType(), LongArrayBlock.class);
+        assertEquals(nestedFilter.getInputPositionCount(), 1);
+
+        // mixed encodings are processed as is
+        testSumFilter(filter, new Page(new RunLengthEncodedBlock(createLongSequenceBlock(4, 5), 100), createLongSequenceBlock(0, 100)));
+        assertEquals(nestedFilter.getInputType(), RunLengthEncodedBlock.class);
+        assertEquals(nestedFilter.getInputPositionCount(), 100);
+    }
+
+    private static void testSumFilter(DictionaryAwarePageFilter filter, Page page)
+    {
+        IntSet actualSelectedPositions = toSet(filter.filter(null, page));
+
+        IntSet expectedSelectedPositions = new IntArraySet(page.getPositionCount());
+        for (int position = 0; position < page.getPositionCount(); position++) {
+            if (TestSumFilter.isSelected(page.getBlock(0).getLong(position), page.getBlock(1).getLong(position))) {
+                expectedSelectedPositions.add(position);
+            }
+        }
+        assertEquals(actualSelectedPositions, expectedSelectedPositions);
+    }
+
     private static DictionaryBlock createDictionaryBlock(int dictionarySize, int blockSize)
     {
         Block dictionary = createLongSequenceBlock(0, dictionarySize);
@@ -312,6 +378,59 @@ public class TestDictionaryAwarePageFilter
         }
     }
 
+    /**
+     * Filter selecting the positions where the sum of the two input channels is odd
+     */
+    private static class TestSumFilter
+            implements PageFilter
+    {
+        private Class<? extends Block> inputType;
+        private int inputPositionCount;
+
+        public static boolean isSelected(long left, long right)
+        {
+            return (left + right) % 2 == 1;
+        }
+
+        public Class<? extends Block> getInputType()
+        {
+            return inputType;
+        }
+
+        public int getInputPositionCount()
+        {
+            return inputPositionCount;
+        }
+
+        @Override
+        public boolean isDeterministic()
+        {
+            return true;
+        }
+
+        @Override
+        public InputChannels getInputChannels()
+        {
+            return new InputChannels(0, 1);
+        }
+
+        @Override
+        public SelectedPositions filter(SqlFunctionProperties properties, Page page)
+        {
+            assertEquals(page.getChannelCount(), 2);
+            inputType = page.getBlock(0).getClass();
+            inputPositionCount = page.getPositionCount();
+
+            IntArrayList selectedPositions = new IntArrayList();
+            for (int position = 0; position < page.getPositionCount(); position++) {
+                if (isSelected(page.getBlock(0).getLong(position), page.getBlock(1).getLong(position))) {
+                    selectedPositions.add(position);
+                }
+            }
+            return SelectedPositions.positionsList(selectedPositions.elements(), 0, selectedPositions.size());
+        }
+    }
+
     private static class NegativeValueException
             extends RuntimeException
     {
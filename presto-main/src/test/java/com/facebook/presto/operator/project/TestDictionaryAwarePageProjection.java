@@ -17,10 +17,12 @@ import com.facebook.presto.common.Page;
 import com.facebook.presto.common.block.Block;
 import com.facebook.presto.common.block.BlockBuilder;
 import com.facebook.presto.common.block.DictionaryBlock;
+import com.facebook.presto.common.block.DictionaryId;
 import com.facebook.presto.common.block.LazyBlock;
 import com.facebook.presto.common.block.LongArrayBlock;
 import com.facebook.presto.common.block.RunLengthEncodedBlock;
 import com.facebook.presto.common.function.SqlFunctionProperties;
+import com.facebook.presto.operator.CompletedWork;
 import com.facebook.presto.operator.DriverYieldSignal;
 import com.facebook.presto.operator.Work;
 import com.google.common.collect.ImmutableList;
@@ -157,6 +159,63 @@ public class TestDictionaryAwarePageProjection
         testProjectList(effectiveBlock, LongArrayBlock.class, projection, forceYield);
     }
 
+    @Test
+    public void testMultipleChannelsSharedDictionary()
+    {
+        DictionaryId sourceId = randomDictionaryId();
+        int[] ids = new int[100];
+        Arrays.setAll(ids, index -> index % 10);
+        Page page = new Page(
+                new DictionaryBlock(100, createLongSequenceBlock(0, 10), ids, false, sourceId),
+                new DictionaryBlock(100, createLongSequenceBlock(10, 20), ids, false, sourceId));
+
+        TestSumPageProjection sumProjection = new TestSumPageProjection();
+        testSumProject(sumProjection, page, DictionaryBlock.class);
+        assertEquals(sumProjection.getInputPositionCount(), 10);
+    }
+
+    @Test
+    public void testMultipleChannelsDifferentDictionaries()
+    {
+        Page page = new Page(createDictionaryBlock(10, 100), createDictionaryBlock(10, 100));
+
+        TestSumPageProjection sumProjection = new TestSumPageProjection();
+        testSumProject(sumProjection, page, LongArrayBlock.class);
+        assertEquals(sumProjection.getInputPositionCount(), 100);
+    }
+
+    @Test
+    public void testMultipleChannelsRle()
+    {
+        Page page = new Page(
+                new RunLengthEncodedBlock(createLongSequenceBlock(42, 43), 100),
+                new RunLengthEncodedBlock(createLongSequenceBlock(7, 8), 100));
+
+        TestSumPageProjection sumProjection = new TestSumPageProjection();
+        testSumProject(sumProjection, page, RunLengthEncodedBlock.class);
+        assertEquals(sumProjection.getInputPositionCount(), 1);
+
+        // mixed encodings are processed as is
+        page = new Page(new RunLengthEncodedBlock(createLongSequenceBlock(42, 43), 100), createLongSequenceBlock(0, 100));
+        testSumProject(sumProjection, page, LongArrayBlock.class);
+        assertEquals(sumProjection.getInputPositionCount(), 100);
+    }
+
+    private static void testSumProject(TestSumPageProjection sumProjection, Page page, Class<? extends Block> expectedResultType)
+    {
+        DictionaryAwarePageProjection projection = new DictionaryAwarePageProjection(sumProjection, block -> randomDictionaryId());
+        Work<List<Block>> work = projection.project(null, new DriverYieldSignal(), page, SelectedPositions.positionsRange(5, 10));
+        assertTrue(work.process());
+        Block result = work.getResult().get(0);
+
+        BlockBuilder expected = BIGINT.createBlockBuilder(null, 10);
+        for (int position = 5; position < 15; position++) {
+            BIGINT.writeLong(expected, page.getBlock(0).getLong(position) + page.getBlock(1).getLong(position));
+        }
+        assertBlockEquals(BIGINT, result, expected.build());
+        assertInstanceOf(result, expectedResultType);
+    }
+
     private static DictionaryBlock createDictionaryBlock(int dictionarySize, int blockSize)
     {
         Block dictionary = createLongSequenceBlock(0, dictionarySize);
@@ -372,6 +431,47 @@ public class TestDictionaryAwarePageProjection
         }
     }
 
+    /**
+     * Projection adding the values of the two input channels
+     */
+    private static class TestSumPageProjection
+            implements PageProjection
+    {
+        private int inputPositionCount;
+
+        public int getInputPositionCount()
+        {
+            return inputPositionCount;
+        }
+
+        @Override
+        public boolean isDeterministic()
+        {
+            return true;
+        }
+
+        @Override
+        public InputChannels getInputChannels()
+        {
+            return new InputChannels(0, 1);
+        }
+
+        @Override
+        public Work<List<Block>> project(SqlFunctionProperties properties, DriverYieldSignal yieldSignal, Page page, SelectedPositions selectedPositions)
+        {
+            assertEquals(page.getChannelCount(), 2);
+            inputPositionCount = page.getPositionCount();
+
+            BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, selectedPositions.size());
+            int offset = selectedPositions.getOffset();
+            for (int index = offset; index < offset + selectedPositions.size(); index++) {
+                int position = selectedPositions.isList() ? selectedPositions.getPositions()[index] : index;
+                BIGINT.writeLong(blockBuilder, page.getBlock(0).getLong(position) + page.getBlock(1).getLong(position));
+            }
+            return new CompletedWork<>(ImmutableList.of(blockBuilder.build()));
+        }
+    }
+
     private static class NegativeValueException
             extends RuntimeException
     {
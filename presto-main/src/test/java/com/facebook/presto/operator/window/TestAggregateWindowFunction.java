@@ -19,9 +19,16 @@ import org.testng.annotations.Test;
 
 import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
 import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.DoubleType.DOUBLE;
 import static com.facebook.presto.common.type.IntegerType.INTEGER;
 import static com.facebook.presto.common.type.VarcharType.VARCHAR;
+import static com.facebook.presto.operator.window.AggregateWindowFunction.MIN_SLIDING_FRAME_SIZE;
 import static com.facebook.presto.testing.MaterializedResult.resultBuilder;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 public class TestAggregateWindowFunction
         extends AbstractTestWindowFunction
@@ -530,4 +537,44 @@ public class TestAggregateWindowFunction
                         .row(null, null, null)
                         .build());
     }
+
+    @Test
+    public void testWideSlidingFrame()
+    {
+        int preceding = 99;
+        int following = 10;
+        assertTrue(preceding + following + 1 >= MIN_SLIDING_FRAME_SIZE);
+
+        String window = format("OVER (PARTITION BY i %% 3 ORDER BY i ROWS BETWEEN %s PRECEDING AND %s FOLLOWING)", preceding, following);
+        MaterializedResult actual = queryRunner.execute(format("" +
+                        "SELECT i, sum(v) %1$s, count(v) %1$s, min(v) %1$s, max(v) %1$s, avg(v) %1$s " +
+                        "FROM (SELECT i, IF(i %% 13 = 0, NULL, (i * 37) %% 101) v FROM UNNEST(sequence(1, 1000)) t(i)) " +
+                        "ORDER BY i",
+                window));
+
+        Long[] values = new Long[1001];
+        for (int i = 1; i <= 1000; i++) {
+            values[i] = i % 13 == 0 ? null : (long) (i * 37) % 101;
+        }
+
+        MaterializedResult.Builder expected = resultBuilder(TEST_SESSION, BIGINT, BIGINT, BIGINT, BIGINT, BIGINT, DOUBLE);
+        for (int i = 1; i <= 1000; i++) {
+            long sum = 0;
+            long count = 0;
+            Long minValue = null;
+            Long maxValue = null;
+            // rows of the partition are 3 apart
+            for (int j = max(i - 3 * preceding, i % 3); j <= min(i + 3 * following, 1000); j += 3) {
+                if (j < 1 || values[j] == null) {
+                    continue;
+                }
+                sum += values[j];
+                count++;
+                minValue = minValue == null ? values[j] : Math.min(minValue, values[j]);
+                maxValue = maxValue == null ? values[j] : Math.max(maxValue, values[j]);
+            }
+            expected.row((long) i, count == 0 ? null : sum, count, minValue, maxValue, count == 0 ? null : (double) sum / count);
+        }
+        assertEquals(actual.getMaterializedRows(), expected.build().getMaterializedRows());
+    }
 }
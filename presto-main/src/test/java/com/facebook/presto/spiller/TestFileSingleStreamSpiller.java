@@ -32,6 +32,7 @@ import org.testng.annotations.Test;
 
 import java.io.File;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
@@ -39,6 +40,9 @@ import java.util.UUID;
 import static com.facebook.presto.common.type.BigintType.BIGINT;
 import static com.facebook.presto.common.type.DoubleType.DOUBLE;
 import static com.facebook.presto.common.type.VarbinaryType.VARBINARY;
+import static com.facebook.presto.execution.buffer.CompressionCodec.LZ4;
+import static com.facebook.presto.execution.buffer.CompressionCodec.NONE;
+import static com.facebook.presto.execution.buffer.CompressionCodec.ZSTD;
 import static com.facebook.presto.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static com.google.common.io.MoreFiles.deleteRecursively;
 import static com.google.common.io.MoreFiles.listFiles;
@@ -94,6 +98,166 @@ public class TestFileSingleStreamSpiller
         assertSpill(true, true);
     }
 
+    @Test
+    public void testSpillZstdCompressionWithChecksum()
+            throws Exception
+    {
+        File spillPath = new File(tempDirectory, UUID.randomUUID().toString());
+        SpillerStats spillerStats = new SpillerStats();
+        FileSingleStreamSpillerFactory spillerFactory = new FileSingleStreamSpillerFactory(
+                executor, // executor won't be closed, because we don't call destroy() on the spiller factory
+                new BlockEncodingManager(),
+                spillerStats,
+                ImmutableList.of(spillPath.toPath()),
+                1.0,
+                ZSTD,
+                true,
+                false,
+                false,
+                0);
+        LocalMemoryContext memoryContext = newSimpleAggregatedMemoryContext().newLocalMemoryContext("test");
+        SingleStreamSpiller spiller = spillerFactory.create(TYPES, new TestingSpillContext(), memoryContext);
+
+        Page page = buildPage();
+        spiller.spill(Iterators.forArray(page, page)).get();
+
+        try (InputStream is = newInputStream(listFiles(spillPath.toPath()).get(0))) {
+            Iterator<SerializedPage> serializedPages = PagesSerdeUtil.readSerializedPages(new InputStreamSliceInput(is));
+            SerializedPage serializedPage = serializedPages.next();
+            assertTrue(PageCodecMarker.CHECKSUMMED.isSet(serializedPage.getPageCodecMarkers()));
+            assertTrue(PagesSerdeUtil.isChecksumValid(serializedPage));
+        }
+        assertTrue(spillerStats.getTotalSpilledUncompressedBytes() > 0);
+
+        List<Page> spilledPages = ImmutableList.copyOf(spiller.getSpilledPages());
+        assertEquals(spilledPages.size(), 2);
+        for (Page spilledPage : spilledPages) {
+            PageAssertions.assertPageEquals(TYPES, page, spilledPage);
+        }
+        spiller.close();
+        assertEquals(memoryContext.getBytes(), 0);
+    }
+
+    @Test
+    public void testStripedSpillWithReadAhead()
+            throws Exception
+    {
+        File spillPath1 = new File(tempDirectory, UUID.randomUUID().toString());
+        File spillPath2 = new File(tempDirectory, UUID.randomUUID().toString());
+        FileSingleStreamSpillerFactory spillerFactory = new FileSingleStreamSpillerFactory(
+                executor, // executor won't be closed, because we don't call destroy() on the spiller factory
+                new BlockEncodingManager(),
+                new SpillerStats(),
+                ImmutableList.of(spillPath1.toPath(), spillPath2.toPath()),
+                1.0,
+                LZ4,
+                false,
+                false,
+                true,
+                3);
+        LocalMemoryContext memoryContext = newSimpleAggregatedMemoryContext().newLocalMemoryContext("test");
+        SingleStreamSpiller spiller = spillerFactory.create(TYPES, new TestingSpillContext(), memoryContext);
+        assertEquals(memoryContext.getBytes(), 2 * (FileSingleStreamSpiller.BUFFER_SIZE + 2 * FileSingleStreamSpiller.WRITE_BUFFER_SIZE));
+
+        List<Page> pages = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            pages.add(buildPage(i));
+        }
+        spiller.spill(pages.subList(0, 5).iterator()).get();
+        spiller.spill(pages.subList(5, pages.size()).iterator()).get();
+        assertEquals(listFiles(spillPath1.toPath()).size(), 1);
+        assertEquals(listFiles(spillPath2.toPath()).size(), 1);
+
+        // pages are read back in the order they were spilled, regardless of the stripe they were written to
+        List<Page> spilledPages = ImmutableList.copyOf(spiller.getSpilledPages());
+        assertEquals(spilledPages.size(), pages.size());
+        for (int i = 0; i < pages.size(); i++) {
+            PageAssertions.assertPageEquals(TYPES, pages.get(i), spilledPages.get(i));
+        }
+
+        spiller.close();
+        assertEquals(listFiles(spillPath1.toPath()).size(), 0);
+        assertEquals(listFiles(spillPath2.toPath()).size(), 0);
+        assertEquals(memoryContext.getBytes(), 0);
+    }
+
+    @Test
+    public void testCloseWithPendingReadAhead()
+            throws Exception
+    {
+        File spillPath1 = new File(tempDirectory, UUID.randomUUID().toString());
+        File spillPath2 = new File(tempDirectory, UUID.randomUUID().toString());
+        FileSingleStreamSpillerFactory spillerFactory = new FileSingleStreamSpillerFactory(
+                executor, // executor won't be closed, because we don't call destroy() on the spiller factory
+                new BlockEncodingManager(),
+                new SpillerStats(),
+                ImmutableList.of(spillPath1.toPath(), spillPath2.toPath()),
+                1.0,
+                NONE,
+                true,
+                false,
+                true,
+                8);
+        List<Page> pages = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            pages.add(buildPage(i));
+        }
+
+        // close the spiller while the pages after the first one are still being read ahead
+        for (int attempt = 0; attempt < 10; attempt++) {
+            LocalMemoryContext memoryContext = newSimpleAggregatedMemoryContext().newLocalMemoryContext("test");
+            SingleStreamSpiller spiller = spillerFactory.create(TYPES, new TestingSpillContext(), memoryContext);
+            spiller.spill(pages.iterator()).get();
+
+            Iterator<Page> spilledPages = spiller.getSpilledPages();
+            PageAssertions.assertPageEquals(TYPES, pages.get(0), spilledPages.next());
+
+            spiller.close();
+            assertEquals(listFiles(spillPath1.toPath()).size(), 0);
+            assertEquals(listFiles(spillPath2.toPath()).size(), 0);
+            assertEquals(memoryContext.getBytes(), 0);
+        }
+    }
+
+    @Test
+    public void testSpillLargerThanWriteBuffers()
+            throws Exception
+    {
+        File spillPath = new File(tempDirectory, UUID.randomUUID().toString());
+        FileSingleStreamSpillerFactory spillerFactory = new FileSingleStreamSpillerFactory(
+                executor, // executor won't be closed, because we don't call destroy() on the spiller factory
+                new BlockEncodingManager(),
+                new SpillerStats(),
+                ImmutableList.of(spillPath.toPath()),
+                1.0,
+                NONE,
+                true,
+                false,
+                false,
+                0);
+        LocalMemoryContext memoryContext = newSimpleAggregatedMemoryContext().newLocalMemoryContext("test");
+        SingleStreamSpiller spiller = spillerFactory.create(TYPES, new TestingSpillContext(), memoryContext);
+
+        // each page is larger than both write buffers, and the second spill appends to the pages of the first one
+        List<Page> pages = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            pages.add(buildLargePage(i, 10_000));
+        }
+        spiller.spill(pages.subList(0, 3).iterator()).get();
+        spiller.spill(pages.subList(3, pages.size()).iterator()).get();
+        assertTrue(listFiles(spillPath.toPath()).get(0).toFile().length() > 6L * 2 * FileSingleStreamSpiller.WRITE_BUFFER_SIZE);
+
+        List<Page> spilledPages = ImmutableList.copyOf(spiller.getSpilledPages());
+        assertEquals(spilledPages.size(), pages.size());
+        for (int i = 0; i < pages.size(); i++) {
+            PageAssertions.assertPageEquals(TYPES, pages.get(i), spilledPages.get(i));
+        }
+
+        spiller.close();
+        assertEquals(listFiles(spillPath.toPath()).size(), 0);
+        assertEquals(memoryContext.getBytes(), 0);
+    }
+
     private void assertSpill(boolean compression, boolean encryption)
             throws Exception
     {
@@ -114,7 +278,7 @@ public class TestFileSingleStreamSpiller
         Page page = buildPage();
 
         // The spillers will reserve memory in their constructors
-        assertEquals(memoryContext.getBytes(), 4096);
+        assertEquals(memoryContext.getBytes(), FileSingleStreamSpiller.BUFFER_SIZE + 2 * FileSingleStreamSpiller.WRITE_BUFFER_SIZE);
         spiller.spill(page).get();
         spiller.spill(Iterators.forArray(page, page, page)).get();
         assertEquals(listFiles(spillPath.toPath()).size(), 1);
@@ -150,15 +314,35 @@ public class TestFileSingleStreamSpiller
     }
 
     private Page buildPage()
+    {
+        return buildPage(42);
+    }
+
+    private Page buildPage(long value)
     {
         BlockBuilder col1 = BIGINT.createBlockBuilder(null, 1);
         BlockBuilder col2 = DOUBLE.createBlockBuilder(null, 1);
         BlockBuilder col3 = VARBINARY.createBlockBuilder(null, 1);
 
-        col1.writeLong(42).closeEntry();
+        col1.writeLong(value).closeEntry();
         col2.writeLong(doubleToLongBits(43.0)).closeEntry();
         col3.writeLong(doubleToLongBits(43.0)).writeLong(1).closeEntry();
 
         return new Page(col1.build(), col2.build(), col3.build());
     }
+
+    private Page buildLargePage(long value, int positionCount)
+    {
+        BlockBuilder col1 = BIGINT.createBlockBuilder(null, positionCount);
+        BlockBuilder col2 = DOUBLE.createBlockBuilder(null, positionCount);
+        BlockBuilder col3 = VARBINARY.createBlockBuilder(null, positionCount);
+
+        for (int position = 0; position < positionCount; position++) {
+            col1.writeLong(value + position).closeEntry();
+            col2.writeLong(doubleToLongBits(position)).closeEntry();
+            col3.writeLong(value).writeLong(position).closeEntry();
+        }
+
+        return new Page(col1.build(), col2.build(), col3.build());
+    }
 }
@@ -22,6 +22,8 @@ import java.util.Map;
 
 import static com.facebook.airlift.configuration.testing.ConfigAssertions.assertFullMapping;
 import static com.facebook.airlift.configuration.testing.ConfigAssertions.assertRecordedDefaults;
+import static com.facebook.presto.execution.buffer.CompressionCodec.LZ4;
+import static com.facebook.presto.execution.buffer.CompressionCodec.ZSTD;
 import static io.airlift.units.DataSize.Unit.GIGABYTE;
 import static io.airlift.units.DataSize.Unit.KILOBYTE;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
@@ -36,7 +38,11 @@ public class TestNodeSpillConfig
                 .setMaxRevocableMemoryPerNode(new DataSize(16, GIGABYTE))
                 .setQueryMaxSpillPerNode(new DataSize(100, GIGABYTE))
                 .setSpillCompressionEnabled(false)
+                .setSpillCompressionCodec(LZ4)
+                .setSpillChecksumEnabled(false)
                 .setSpillEncryptionEnabled(false)
+                .setSpillFileStripingEnabled(false)
+                .setSpillReadAheadPages(0)
                 .setTempStorageBufferSize(new DataSize(4, KILOBYTE)));
     }
 
@@ -48,7 +54,11 @@ public class TestNodeSpillConfig
                 .put("experimental.max-revocable-memory-per-node", "24MB")
                 .put("experimental.query-max-spill-per-node", "15 MB")
                 .put("experimental.spill-compression-enabled", "true")
+                .put("experimental.spill-compression-codec", "ZSTD")
+                .put("experimental.spill-checksum-enabled", "true")
                 .put("experimental.spill-encryption-enabled", "true")
+                .put("experimental.spill-file-striping-enabled", "true")
+                .put("experimental.spill-read-ahead-pages", "4")
                 .put("experimental.temp-storage-buffer-size", "24MB")
                 .build();
 
@@ -57,7 +67,11 @@ public class TestNodeSpillConfig
                 .setMaxRevocableMemoryPerNode(new DataSize(24, MEGABYTE))
                 .setQueryMaxSpillPerNode(new DataSize(15, MEGABYTE))
                 .setSpillCompressionEnabled(true)
+                .setSpillCompressionCodec(ZSTD)
+                .setSpillChecksumEnabled(true)
                 .setSpillEncryptionEnabled(true)
+                .setSpillFileStripingEnabled(true)
+                .setSpillReadAheadPages(4)
                 .setTempStorageBufferSize(new DataSize(24, MEGABYTE));
 
         assertFullMapping(properties, expected);
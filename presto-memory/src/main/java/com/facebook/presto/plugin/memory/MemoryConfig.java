@@ -14,6 +14,7 @@
 package com.facebook.presto.plugin.memory;
 
 import com.facebook.airlift.configuration.Config;
+import com.facebook.airlift.configuration.ConfigDescription;
 import io.airlift.units.DataSize;
 
 import javax.validation.constraints.NotNull;
@@ -22,6 +23,8 @@ public class MemoryConfig
 {
     private int splitsPerNode = Runtime.getRuntime().availableProcessors();
     private DataSize maxDataPerNode = new DataSize(128, DataSize.Unit.MEGABYTE);
+    private DataSize compactionTargetPageSize = new DataSize(1, DataSize.Unit.MEGABYTE);
+    private boolean pageStatisticsEnabled;
 
     @NotNull
     public int getSplitsPerNode()
@@ -48,4 +51,31 @@ public class MemoryConfig
         this.maxDataPerNode = maxDataPerNode;
         return this;
     }
+
+    @NotNull
+    public DataSize getCompactionTargetPageSize()
+    {
+        return compactionTargetPageSize;
+    }
+
+    @Config("memory.compaction-target-page-size")
+    @ConfigDescription("Inserted pages smaller than this size are merged into pages of this size. Set to 0B to store pages as they are inserted")
+    public MemoryConfig setCompactionTargetPageSize(DataSize compactionTargetPageSize)
+    {
+        this.compactionTargetPageSize = compactionTargetPageSize;
+        return this;
+    }
+
+    public boolean isPageStatisticsEnabled()
+    {
+        return pageStatisticsEnabled;
+    }
+
+    @Config("memory.page-statistics-enabled")
+    @ConfigDescription("Keep min/max values of each stored page, to skip pages that do not match the query predicate")
+    public MemoryConfig setPageStatisticsEnabled(boolean pageStatisticsEnabled)
+    {
+        this.pageStatisticsEnabled = pageStatisticsEnabled;
+        return this;
+    }
 }
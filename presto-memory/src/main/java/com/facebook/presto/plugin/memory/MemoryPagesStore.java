@@ -14,9 +14,19 @@
 package com.facebook.presto.plugin.memory;
 
 import com.facebook.presto.common.Page;
+import com.facebook.presto.common.PageBuilder;
 import com.facebook.presto.common.block.Block;
+import com.facebook.presto.common.block.BlockBuilder;
+import com.facebook.presto.common.predicate.Domain;
+import com.facebook.presto.common.predicate.Range;
+import com.facebook.presto.common.predicate.TupleDomain;
+import com.facebook.presto.common.predicate.ValueSet;
+import com.facebook.presto.common.type.Type;
 import com.facebook.presto.spi.PrestoException;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.slice.Slice;
 
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
@@ -24,88 +34,95 @@ import javax.inject.Inject;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static com.facebook.presto.common.type.RealType.REAL;
+import static com.facebook.presto.common.type.TypeUtils.readNativeValue;
 import static com.facebook.presto.plugin.memory.MemoryErrorCode.MEMORY_LIMIT_EXCEEDED;
 import static com.facebook.presto.plugin.memory.MemoryErrorCode.MISSING_DATA;
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
 
+/**
+ * Stores the pages of the memory tables on a worker. Every table is guarded by its own lock,
+ * so inserts into and scans of different tables do not contend.
+ */
 @ThreadSafe
 public class MemoryPagesStore
 {
     private final long maxBytes;
+    private final long compactionTargetPageBytes;
+    private final int compactionGroups;
+    private final boolean pageStatisticsEnabled;
 
-    @GuardedBy("this")
-    private long currentBytes;
+    private final AtomicLong currentBytes = new AtomicLong();
 
-    private final Map<Long, TableData> tables = new HashMap<>();
+    private final Map<Long, TableData> tables = new ConcurrentHashMap<>();
 
     @Inject
     public MemoryPagesStore(MemoryConfig config)
     {
         this.maxBytes = config.getMaxDataPerNode().toBytes();
+        this.compactionTargetPageBytes = config.getCompactionTargetPageSize().toBytes();
+        this.compactionGroups = Math.max(config.getSplitsPerNode(), 1);
+        this.pageStatisticsEnabled = config.isPageStatisticsEnabled();
     }
 
-    public synchronized void initialize(long tableId)
+    public void initialize(long tableId, List<Type> types)
     {
-        if (!tables.containsKey(tableId)) {
-            tables.put(tableId, new TableData());
-        }
+        tables.computeIfAbsent(tableId, id -> new TableData(types));
     }
 
-    public synchronized void add(Long tableId, Page page)
+    public void add(Long tableId, Page page)
     {
-        if (!contains(tableId)) {
+        TableData tableData = tables.get(tableId);
+        if (tableData == null) {
             throw new PrestoException(MISSING_DATA, "Failed to find table on a worker.");
         }
-
-        page.compact();
-
-        long newSize = currentBytes + page.getRetainedSizeInBytes();
-        if (maxBytes < newSize) {
-            throw new PrestoException(MEMORY_LIMIT_EXCEEDED, format("Memory limit [%d] for memory connector exceeded", maxBytes));
-        }
-        currentBytes = newSize;
-
-        TableData tableData = tables.get(tableId);
         tableData.add(page);
     }
 
-    public synchronized List<Page> getPages(
+    public List<Page> getPages(
             Long tableId,
             int partNumber,
             int totalParts,
             List<Integer> columnIndexes,
             long expectedRows)
     {
-        if (!contains(tableId)) {
-            throw new PrestoException(MISSING_DATA, "Failed to find table on a worker.");
-        }
-        TableData tableData = tables.get(tableId);
-        if (tableData.getRows() < expectedRows) {
-            throw new PrestoException(MISSING_DATA,
-                    format("Expected to find [%s] rows on a worker, but found [%s].", expectedRows, tableData.getRows()));
-        }
-
-        ImmutableList.Builder<Page> partitionedPages = ImmutableList.builder();
+        return getPages(tableId, partNumber, totalParts, columnIndexes, expectedRows, TupleDomain.all());
+    }
 
-        for (int i = partNumber; i < tableData.getPages().size(); i += totalParts) {
-            partitionedPages.add(getColumns(tableData.getPages().get(i), columnIndexes));
+    /**
+     * Returns the pages of the given part of the table, projected to {@code columnIndexes}.
+     * When page statistics are enabled, pages that cannot contain rows matching {@code constraint} are skipped.
+     */
+    public List<Page> getPages(
+            Long tableId,
+            int partNumber,
+            int totalParts,
+            List<Integer> columnIndexes,
+            long expectedRows,
+            TupleDomain<Integer> constraint)
+    {
+        TableData tableData = tables.get(tableId);
+        if (tableData == null) {
+            throw new PrestoException(MISSING_DATA, "Failed to find table on a worker.");
         }
-
-        return partitionedPages.build();
+        return tableData.getPages(partNumber, totalParts, columnIndexes, expectedRows, constraint);
     }
 
-    public synchronized boolean contains(Long tableId)
+    public boolean contains(Long tableId)
     {
         return tables.containsKey(tableId);
     }
 
-    public synchronized void cleanUp(Set<Long> activeTableIds)
+    public void cleanUp(Set<Long> activeTableIds)
     {
         // We have to remember that there might be some race conditions when there are two tables created at once.
         // That can lead to a situation when MemoryPagesStore already knows about a newer second table on some worker
@@ -125,10 +142,28 @@ public class MemoryPagesStore
             Map.Entry<Long, TableData> tablePagesEntry = tableDataIterator.next();
             Long tableId = tablePagesEntry.getKey();
             if (tableId < latestTableId && !activeTableIds.contains(tableId)) {
-                for (Page removedPage : tablePagesEntry.getValue().getPages()) {
-                    currentBytes -= removedPage.getRetainedSizeInBytes();
-                }
                 tableDataIterator.remove();
+                tablePagesEntry.getValue().drop();
+            }
+        }
+    }
+
+    @VisibleForTesting
+    long getCurrentBytes()
+    {
+        return currentBytes.get();
+    }
+
+    private void reserve(long bytes)
+    {
+        while (true) {
+            long current = currentBytes.get();
+            long newSize = current + bytes;
+            if (maxBytes < newSize) {
+                throw new PrestoException(MEMORY_LIMIT_EXCEEDED, format("Memory limit [%d] for memory connector exceeded", maxBytes));
+            }
+            if (currentBytes.compareAndSet(current, newSize)) {
+                return;
             }
         }
     }
@@ -144,25 +179,259 @@ public class MemoryPagesStore
         return new Page(page.getPositionCount(), outputBlocks);
     }
 
-    private static final class TableData
+    private final class TableData
     {
-        private final List<Page> pages = new ArrayList<>();
+        private final List<Type> types;
+
+        @GuardedBy("this")
+        private final List<StoredPage> pages = new ArrayList<>();
+        // pages smaller than the compaction target, grouped by the split part they are read by, so that
+        // a merged page only contains rows of a single part and scans see a stable assignment of rows to parts
+        @GuardedBy("this")
+        private final List<List<StoredPage>> smallPages;
+        @GuardedBy("this")
+        private final long[] smallPagesBytes;
+        @GuardedBy("this")
+        private long nextSequence;
+        @GuardedBy("this")
         private long rows;
+        @GuardedBy("this")
+        private long retainedBytes;
+        @GuardedBy("this")
+        private boolean dropped;
 
-        public void add(Page page)
+        private TableData(List<Type> types)
         {
-            pages.add(page);
+            this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
+            this.smallPages = new ArrayList<>(compactionGroups);
+            for (int group = 0; group < compactionGroups; group++) {
+                smallPages.add(new ArrayList<>());
+            }
+            this.smallPagesBytes = new long[compactionGroups];
+        }
+
+        public synchronized void add(Page page)
+        {
+            if (dropped) {
+                throw new PrestoException(MISSING_DATA, "Failed to find table on a worker.");
+            }
+            checkArgument(page.getChannelCount() == types.size(), "Expected page with %s channels, but got %s", types.size(), page.getChannelCount());
+
+            page = page.getLoadedPage();
+            page.compact();
+
+            long retainedSize = page.getRetainedSizeInBytes();
+            reserve(retainedSize);
+            retainedBytes += retainedSize;
             rows += page.getPositionCount();
+
+            long sequence = nextSequence++;
+            StoredPage storedPage = new StoredPage(page, getColumnDomains(page), new long[] {sequence}, new int[] {0});
+            if (page.getSizeInBytes() >= compactionTargetPageBytes) {
+                pages.add(storedPage);
+                return;
+            }
+
+            int group = (int) (sequence % compactionGroups);
+            smallPages.get(group).add(storedPage);
+            smallPagesBytes[group] += page.getSizeInBytes();
+            if (smallPagesBytes[group] >= compactionTargetPageBytes) {
+                compactSmallPages(group);
+            }
+        }
+
+        @GuardedBy("this")
+        private void compactSmallPages(int group)
+        {
+            List<StoredPage> groupPages = smallPages.get(group);
+            PageBuilder pageBuilder = new PageBuilder(types);
+            long[] sequences = new long[groupPages.size()];
+            int[] offsets = new int[groupPages.size()];
+            long removedBytes = 0;
+            for (int i = 0; i < groupPages.size(); i++) {
+                StoredPage smallPage = groupPages.get(i);
+                Page page = smallPage.getPage();
+                sequences[i] = smallPage.getSequences()[0];
+                offsets[i] = pageBuilder.getPositionCount();
+                removedBytes += page.getRetainedSizeInBytes();
+                for (int position = 0; position < page.getPositionCount(); position++) {
+                    pageBuilder.declarePosition();
+                    for (int channel = 0; channel < types.size(); channel++) {
+                        BlockBuilder blockBuilder = pageBuilder.getBlockBuilder(channel);
+                        types.get(channel).appendTo(page.getBlock(channel), position, blockBuilder);
+                    }
+                }
+            }
+            Page compacted = pageBuilder.build();
+            compacted.compact();
+
+            // the merged page is not checked against the limit, so that compaction never fails an insert
+            long retainedSizeDelta = compacted.getRetainedSizeInBytes() - removedBytes;
+            currentBytes.addAndGet(retainedSizeDelta);
+            retainedBytes += retainedSizeDelta;
+
+            pages.add(new StoredPage(compacted, getColumnDomains(compacted), sequences, offsets));
+            groupPages.clear();
+            smallPagesBytes[group] = 0;
+        }
+
+        public synchronized List<Page> getPages(int partNumber, int totalParts, List<Integer> columnIndexes, long expectedRows, TupleDomain<Integer> constraint)
+        {
+            if (dropped) {
+                throw new PrestoException(MISSING_DATA, "Failed to find table on a worker.");
+            }
+            if (rows < expectedRows) {
+                throw new PrestoException(MISSING_DATA,
+                        format("Expected to find [%s] rows on a worker, but found [%s].", expectedRows, rows));
+            }
+            if (constraint.isNone()) {
+                return ImmutableList.of();
+            }
+
+            ImmutableList.Builder<Page> partitionedPages = ImmutableList.builder();
+            addPages(partitionedPages, pages, partNumber, totalParts, columnIndexes, constraint);
+            for (List<StoredPage> groupPages : smallPages) {
+                addPages(partitionedPages, groupPages, partNumber, totalParts, columnIndexes, constraint);
+            }
+            return partitionedPages.build();
+        }
+
+        private void addPages(ImmutableList.Builder<Page> partitionedPages, List<StoredPage> storedPages, int partNumber, int totalParts, List<Integer> columnIndexes, TupleDomain<Integer> constraint)
+        {
+            for (StoredPage storedPage : storedPages) {
+                if (storedPage.mayMatch(constraint)) {
+                    for (Page page : storedPage.getPartPages(partNumber, totalParts)) {
+                        partitionedPages.add(getColumns(page, columnIndexes));
+                    }
+                }
+            }
         }
 
-        private List<Page> getPages()
+        public synchronized void drop()
         {
-            return pages;
+            dropped = true;
+            currentBytes.addAndGet(-retainedBytes);
+            retainedBytes = 0;
+            pages.clear();
+            for (int group = 0; group < compactionGroups; group++) {
+                smallPages.get(group).clear();
+                smallPagesBytes[group] = 0;
+            }
         }
 
-        private long getRows()
+        private Map<Integer, Domain> getColumnDomains(Page page)
         {
-            return rows;
+            if (!pageStatisticsEnabled) {
+                return ImmutableMap.of();
+            }
+            ImmutableMap.Builder<Integer, Domain> domains = ImmutableMap.builder();
+            for (int channel = 0; channel < types.size(); channel++) {
+                Type type = types.get(channel);
+                if (isStatisticsSupported(type)) {
+                    domains.put(channel, getDomain(type, page.getBlock(channel)));
+                }
+            }
+            return domains.build();
+        }
+    }
+
+    private static boolean isStatisticsSupported(Type type)
+    {
+        // floating point types are not summarized, as NaN cannot be a range bound
+        Class<?> javaType = type.getJavaType();
+        return type.isOrderable() && (javaType == boolean.class || javaType == Slice.class || (javaType == long.class && !type.equals(REAL)));
+    }
+
+    private static Domain getDomain(Type type, Block block)
+    {
+        boolean hasNull = false;
+        int minPosition = -1;
+        int maxPosition = -1;
+        for (int position = 0; position < block.getPositionCount(); position++) {
+            if (block.isNull(position)) {
+                hasNull = true;
+                continue;
+            }
+            if (minPosition < 0 || type.compareTo(block, position, block, minPosition) < 0) {
+                minPosition = position;
+            }
+            if (maxPosition < 0 || type.compareTo(block, position, block, maxPosition) > 0) {
+                maxPosition = position;
+            }
+        }
+        if (minPosition < 0) {
+            return hasNull ? Domain.onlyNull(type) : Domain.none(type);
+        }
+        Range range = Range.range(type, readNativeValue(type, block, minPosition), true, readNativeValue(type, block, maxPosition), true);
+        return Domain.create(ValueSet.ofRanges(range), hasNull);
+    }
+
+    private static final class StoredPage
+    {
+        private final Page page;
+        private final Map<Integer, Domain> columnDomains;
+        // insertion sequence number and first position of every inserted page the stored page was built from
+        private final long[] sequences;
+        private final int[] offsets;
+
+        private StoredPage(Page page, Map<Integer, Domain> columnDomains, long[] sequences, int[] offsets)
+        {
+            this.page = requireNonNull(page, "page is null");
+            this.columnDomains = requireNonNull(columnDomains, "columnDomains is null");
+            this.sequences = requireNonNull(sequences, "sequences is null");
+            this.offsets = requireNonNull(offsets, "offsets is null");
+            checkArgument(sequences.length == offsets.length, "sequences and offsets must have the same length");
+        }
+
+        public Page getPage()
+        {
+            return page;
+        }
+
+        public long[] getSequences()
+        {
+            return sequences;
+        }
+
+        /**
+         * Returns the rows of this page that belong to the given part. Every inserted page belongs to the part
+         * of its sequence number, so rows keep their part when small pages are merged.
+         */
+        public List<Page> getPartPages(int partNumber, int totalParts)
+        {
+            int matching = 0;
+            for (long sequence : sequences) {
+                if (sequence % totalParts == partNumber) {
+                    matching++;
+                }
+            }
+            if (matching == 0) {
+                return ImmutableList.of();
+            }
+            if (matching == sequences.length) {
+                return ImmutableList.of(page);
+            }
+
+            // only happens when the scan uses a number of parts that does not divide the number of compaction groups
+            ImmutableList.Builder<Page> regions = ImmutableList.builder();
+            for (int i = 0; i < sequences.length; i++) {
+                if (sequences[i] % totalParts == partNumber) {
+                    int end = i + 1 < offsets.length ? offsets[i + 1] : page.getPositionCount();
+                    regions.add(page.getRegion(offsets[i], end - offsets[i]));
+                }
+            }
+            return regions.build();
+        }
+
+        public boolean mayMatch(TupleDomain<Integer> constraint)
+        {
+            for (Map.Entry<Integer, Domain> entry : constraint.getDomains().get().entrySet()) {
+                Domain columnDomain = columnDomains.get(entry.getKey());
+                if (columnDomain != null && columnDomain.intersect(entry.getValue()).isNone()) {
+                    return false;
+                }
+            }
+            return true;
         }
     }
 }
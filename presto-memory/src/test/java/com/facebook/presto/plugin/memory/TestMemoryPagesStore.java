@@ -15,6 +15,8 @@ package com.facebook.presto.plugin.memory;
 
 import com.facebook.presto.common.Page;
 import com.facebook.presto.common.block.BlockBuilder;
+import com.facebook.presto.common.predicate.Domain;
+import com.facebook.presto.common.predicate.TupleDomain;
 import com.facebook.presto.spi.ConnectorInsertTableHandle;
 import com.facebook.presto.spi.ConnectorOutputTableHandle;
 import com.facebook.presto.spi.ConnectorPageSink;
@@ -24,12 +26,21 @@ import com.facebook.presto.spi.PageSinkContext;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.testing.TestingConnectorSession;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import io.airlift.units.DataSize;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.LongStream;
+
 import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
 import static java.lang.String.format;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
@@ -119,6 +130,121 @@ public class TestMemoryPagesStore
         insertToTable(0L, createOneMegaBytePage(), 0L);
     }
 
+    @Test
+    public void testCompactSmallPages()
+    {
+        MemoryPagesStore store = new MemoryPagesStore(new MemoryConfig()
+                .setSplitsPerNode(1)
+                .setCompactionTargetPageSize(new DataSize(1, KILOBYTE)));
+        store.initialize(0L, ImmutableList.of(BIGINT));
+
+        // each page is 90 bytes, so the twelfth page brings the small pages over the target size
+        for (int i = 0; i < 11; i++) {
+            store.add(0L, createSequencePage(i * 10, 10));
+        }
+        assertEquals(store.getPages(0L, 0, 1, ImmutableList.of(0), 110).size(), 11);
+
+        store.add(0L, createSequencePage(110, 10));
+        List<Page> pages = store.getPages(0L, 0, 1, ImmutableList.of(0), 120);
+        assertEquals(pages.size(), 1);
+        assertEquals(pages.get(0).getPositionCount(), 120);
+        for (int position = 0; position < 120; position++) {
+            assertEquals(BIGINT.getLong(pages.get(0).getBlock(0), position), position);
+        }
+        assertEquals(store.getCurrentBytes(), pages.get(0).getRetainedSizeInBytes());
+
+        store.add(0L, createSequencePage(120, 10));
+        assertEquals(store.getPages(0L, 0, 1, ImmutableList.of(0), 130).size(), 2);
+
+        store.cleanUp(ImmutableSet.of(1L));
+        assertFalse(store.contains(0L));
+        assertEquals(store.getCurrentBytes(), 0);
+    }
+
+    @Test
+    public void testCompactionKeepsPartAssignment()
+    {
+        MemoryPagesStore store = new MemoryPagesStore(new MemoryConfig()
+                .setSplitsPerNode(2)
+                .setCompactionTargetPageSize(new DataSize(1, KILOBYTE)));
+        store.initialize(0L, ImmutableList.of(BIGINT));
+
+        // eleven small pages per part stay below the compaction target
+        for (int i = 0; i < 22; i++) {
+            store.add(0L, createSequencePage(i * 10, 10));
+        }
+        List<Long> part0BeforeInsert = getValues(store.getPages(0L, 0, 2, ImmutableList.of(0), 220));
+
+        // the twelfth page of part 0 merges the small pages of part 0
+        store.add(0L, createSequencePage(220, 10));
+        List<Long> part0 = getValues(store.getPages(0L, 0, 2, ImmutableList.of(0), 230));
+        List<Long> part1 = getValues(store.getPages(0L, 1, 2, ImmutableList.of(0), 230));
+        assertEquals(store.getPages(0L, 0, 2, ImmutableList.of(0), 230).size(), 1);
+
+        assertTrue(part0.containsAll(part0BeforeInsert));
+        assertEquals(part0.size(), part0BeforeInsert.size() + 10);
+        assertTrue(Collections.disjoint(part0BeforeInsert, part1));
+        assertPartsCoverTable(ImmutableList.of(part0, part1), 230);
+
+        // a scan with a different number of parts still reads every row exactly once
+        ImmutableList.Builder<List<Long>> parts = ImmutableList.builder();
+        for (int partNumber = 0; partNumber < 3; partNumber++) {
+            parts.add(getValues(store.getPages(0L, partNumber, 3, ImmutableList.of(0), 230)));
+        }
+        assertPartsCoverTable(parts.build(), 230);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInsertPageNotMatchingTable()
+    {
+        pagesStore.initialize(0L, ImmutableList.of(BIGINT, BIGINT));
+        pagesStore.add(0L, createSequencePage(0, 10));
+    }
+
+    @Test
+    public void testSkipPagesWithStatistics()
+    {
+        MemoryPagesStore store = new MemoryPagesStore(new MemoryConfig()
+                .setCompactionTargetPageSize(new DataSize(0, BYTE))
+                .setPageStatisticsEnabled(true));
+        store.initialize(0L, ImmutableList.of(BIGINT));
+        for (int i = 0; i < 4; i++) {
+            store.add(0L, createSequencePage(i * 10, 10));
+        }
+
+        assertEquals(store.getPages(0L, 0, 1, ImmutableList.of(0), 40, TupleDomain.all()).size(), 4);
+        List<Page> pages = store.getPages(0L, 0, 1, ImmutableList.of(0), 40, TupleDomain.withColumnDomains(ImmutableMap.of(0, Domain.singleValue(BIGINT, 25L))));
+        assertEquals(pages.size(), 1);
+        assertEquals(BIGINT.getLong(pages.get(0).getBlock(0), 0), 20L);
+        assertEquals(store.getPages(0L, 0, 1, ImmutableList.of(0), 40, TupleDomain.withColumnDomains(ImmutableMap.of(0, Domain.onlyNull(BIGINT)))).size(), 0);
+        assertEquals(store.getPages(0L, 0, 1, ImmutableList.of(0), 40, TupleDomain.none()).size(), 0);
+
+        // pages are only skipped when statistics are enabled
+        MemoryPagesStore storeWithoutStatistics = new MemoryPagesStore(new MemoryConfig());
+        storeWithoutStatistics.initialize(0L, ImmutableList.of(BIGINT));
+        storeWithoutStatistics.add(0L, createSequencePage(0, 10));
+        assertEquals(storeWithoutStatistics.getPages(0L, 0, 1, ImmutableList.of(0), 10, TupleDomain.withColumnDomains(ImmutableMap.of(0, Domain.singleValue(BIGINT, 25L)))).size(), 1);
+    }
+
+    private static List<Long> getValues(List<Page> pages)
+    {
+        ImmutableList.Builder<Long> values = ImmutableList.builder();
+        for (Page page : pages) {
+            for (int position = 0; position < page.getPositionCount(); position++) {
+                values.add(BIGINT.getLong(page.getBlock(0), position));
+            }
+        }
+        return values.build();
+    }
+
+    private static void assertPartsCoverTable(List<List<Long>> parts, long rows)
+    {
+        List<Long> values = new ArrayList<>();
+        parts.forEach(values::addAll);
+        Collections.sort(values);
+        assertEquals(values, LongStream.range(0, rows).boxed().collect(toImmutableList()));
+    }
+
     private void insertToTable(long tableId, Long... activeTableIds)
     {
         insertToTable(tableId, createPage(), activeTableIds);
@@ -153,7 +279,7 @@ public class TestMemoryPagesStore
                         "schema",
                         format("table_%d", tableId),
                         tableId,
-                        ImmutableList.of()),
+                        ImmutableList.of(new MemoryColumnHandle("value", BIGINT, 0))),
                 ImmutableSet.copyOf(activeTableIds));
     }
 
@@ -165,23 +291,33 @@ public class TestMemoryPagesStore
                         "schema",
                         format("table_%d", tableId),
                         tableId,
-                        ImmutableList.of()),
+                        ImmutableList.of(new MemoryColumnHandle("value", BIGINT, 0))),
                 ImmutableSet.copyOf(activeTableIds));
     }
 
     private static Page createPage()
     {
         BlockBuilder blockBuilder = BIGINT.createFixedSizeBlockBuilder(POSITIONS_PER_PAGE);
-        BIGINT.writeLong(blockBuilder, 42L);
-        return new Page(0, blockBuilder.build());
+        return new Page(POSITIONS_PER_PAGE, blockBuilder.build());
+    }
+
+    private static Page createSequencePage(long start, int positions)
+    {
+        BlockBuilder blockBuilder = BIGINT.createFixedSizeBlockBuilder(positions);
+        for (int i = 0; i < positions; i++) {
+            BIGINT.writeLong(blockBuilder, start + i);
+        }
+        return new Page(positions, blockBuilder.build());
     }
 
     private static Page createOneMegaBytePage()
     {
         BlockBuilder blockBuilder = BIGINT.createFixedSizeBlockBuilder(POSITIONS_PER_PAGE);
+        int positions = 0;
         while (blockBuilder.getRetainedSizeInBytes() < 1024 * 1024) {
             BIGINT.writeLong(blockBuilder, 42L);
+            positions++;
         }
-        return new Page(0, blockBuilder.build());
+        return new Page(positions, blockBuilder.build());
     }
 }
@@ -98,7 +98,7 @@ public class OracleClient
             throws SQLException
     {
         PreparedStatement statement = connection.prepareStatement(sql);
-        statement.setFetchSize(FETCH_SIZE);
+        statement.setFetchSize(fetchSize.orElse(FETCH_SIZE));
         return statement;
     }
 
@@ -628,6 +628,14 @@ abstract class AbstractOrcRecordReader<T extends StreamReader>
         return currentBatchSize;
     }
 
+    private void prefetchStripe(int stripe)
+    {
+        StripeInformation stripeInformation = stripes.get(stripe);
+        if (stripeInformation.getTotalLength() > 0 && stripeInformation.getTotalLength() <= Integer.MAX_VALUE) {
+            orcDataSource.prefetch(ImmutableList.of(new DiskRange(stripeInformation.getOffset(), toIntExact(stripeInformation.getTotalLength()))));
+        }
+    }
+
     private void advanceToNextStripe()
             throws IOException
     {
@@ -653,6 +661,14 @@ abstract class AbstractOrcRecordReader<T extends StreamReader>
             currentStripePosition += stripes.get(currentStripe - 1).getNumberOfRows();
         }
 
+        // let the data source read the next stripe while this one is decoded
+        if (currentStripe == 0) {
+            prefetchStripe(currentStripe);
+        }
+        if (currentStripe + 1 < stripes.size()) {
+            prefetchStripe(currentStripe + 1);
+        }
+
         StripeInformation stripeInformation = stripes.get(currentStripe);
         validateWriteStripe(stripeInformation.getNumberOfRows());
         List<byte[]> stripeDecryptionKeyMetadata = getDecryptionKeyMetadata(currentStripe, stripes);
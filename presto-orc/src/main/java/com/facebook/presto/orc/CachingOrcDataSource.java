@@ -18,6 +18,7 @@ import com.google.common.collect.ImmutableMap;
 import io.airlift.slice.Slices;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 import static java.lang.Math.toIntExact;
@@ -120,6 +121,12 @@ public class CachingOrcDataSource
         return builder.build();
     }
 
+    @Override
+    public void prefetch(List<DiskRange> diskRanges)
+    {
+        dataSource.prefetch(diskRanges);
+    }
+
     @Override
     public void close()
             throws IOException
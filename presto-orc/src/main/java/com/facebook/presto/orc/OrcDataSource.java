@@ -15,6 +15,7 @@ package com.facebook.presto.orc;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 public interface OrcDataSource
@@ -37,6 +38,15 @@ public interface OrcDataSource
     <K> Map<K, OrcDataSourceInput> readFully(Map<K, DiskRange> diskRanges)
             throws IOException;
 
+    /**
+     * Hints that the given ranges are going to be read soon. Data sources backed by high latency
+     * storage may start reading them in the background. Each call replaces the hints before the
+     * previous call, so readers should hint one stripe ahead.
+     */
+    default void prefetch(List<DiskRange> diskRanges)
+    {
+    }
+
     @Override
     default void close()
             throws IOException
@@ -28,6 +28,7 @@ import com.facebook.presto.common.predicate.TupleDomainFilter.BigintMultiRange;
 import com.facebook.presto.common.predicate.TupleDomainFilter.BigintRange;
 import com.facebook.presto.common.predicate.TupleDomainFilter.BigintValuesUsingBitmask;
 import com.facebook.presto.common.predicate.TupleDomainFilter.BigintValuesUsingHashTable;
+import com.facebook.presto.common.predicate.TupleDomainFilter.BloomFilterValues;
 import com.facebook.presto.common.type.CharType;
 import com.facebook.presto.common.type.DecimalType;
 import com.facebook.presto.common.type.Type;
@@ -506,6 +507,11 @@ public class OrcSelectiveRecordReader
             return 50;
         }
 
+        if (filter instanceof BloomFilterValues) {
+            // Dynamic filter from a join, usually very selective and probes a single cache line
+            return 50;
+        }
+
         return 100;
     }
 
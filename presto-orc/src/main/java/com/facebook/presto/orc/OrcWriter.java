@@ -37,9 +37,11 @@ import com.facebook.presto.orc.metadata.statistics.ColumnStatistics;
 import com.facebook.presto.orc.metadata.statistics.StripeStatistics;
 import com.facebook.presto.orc.proto.DwrfProto;
 import com.facebook.presto.orc.stream.StreamDataOutput;
+import com.facebook.presto.orc.writer.BloomFilterColumnWriter;
 import com.facebook.presto.orc.writer.ColumnWriter;
 import com.facebook.presto.orc.writer.CompressionBufferPool;
 import com.facebook.presto.orc.writer.CompressionBufferPool.LastUsedCompressionBufferPool;
+import com.facebook.presto.orc.writer.CompressionBufferPool.SynchronizedCompressionBufferPool;
 import com.facebook.presto.orc.writer.DictionaryColumnWriter;
 import com.facebook.presto.orc.writer.StreamLayout;
 import com.google.common.annotations.VisibleForTesting;
@@ -68,7 +70,12 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -88,6 +95,7 @@ import static com.facebook.presto.orc.metadata.PostScript.MAGIC;
 import static com.facebook.presto.orc.writer.ColumnWriters.createColumnWriter;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Throwables.throwIfUnchecked;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
@@ -137,6 +145,10 @@ public class OrcWriter
     @Nullable
     private final OrcWriteValidation.OrcWriteValidationBuilder validationBuilder;
     private final CompressionBufferPool compressionBufferPool;
+    private final Optional<Executor> columnWriterExecutor;
+    // channels of the column writers encoded by each task, the first group is encoded by the writing thread
+    private final List<int[]> columnWriterGroups;
+    private final long[] columnRawSizes;
 
     private int stripeRowCount;
     private int rowGroupRowCount;
@@ -205,7 +217,22 @@ public class OrcWriter
         this.dataSink = requireNonNull(dataSink, "dataSink is null");
         this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
         this.orcEncoding = requireNonNull(orcEncoding, "orcEncoding is null");
-        this.compressionBufferPool = new LastUsedCompressionBufferPool();
+        checkArgument(orcEncoding != DWRF || options.getBloomFilterColumns().isEmpty(), "DWRF does not support bloom filters");
+
+        // column writers share the compression buffer pool, so it has to be thread safe when they are encoded in parallel;
+        // encrypted files are always encoded serially as the encryption libraries are not required to be thread safe
+        int columnWriterParallelism = min(options.getColumnWriterParallelism(), types.size());
+        if (options.getColumnWriterExecutor().isPresent() && columnWriterParallelism > 1 && !encryption.isPresent()) {
+            this.columnWriterExecutor = options.getColumnWriterExecutor();
+            this.compressionBufferPool = new SynchronizedCompressionBufferPool(new LastUsedCompressionBufferPool());
+        }
+        else {
+            this.columnWriterExecutor = Optional.empty();
+            this.compressionBufferPool = new LastUsedCompressionBufferPool();
+            columnWriterParallelism = 1;
+        }
+        this.columnWriterGroups = createColumnWriterGroups(types.size(), columnWriterParallelism);
+        this.columnRawSizes = new long[types.size()];
 
         requireNonNull(columnNames, "columnNames is null");
         requireNonNull(inputOrcTypes, "inputOrcTypes is null");
@@ -312,6 +339,16 @@ public class OrcWriter
                     hiveStorageTimeZone,
                     dwrfEncryptionInfo,
                     orcEncoding.createMetadataWriter());
+            if (options.getBloomFilterColumns().contains(columnIndex) && BloomFilterColumnWriter.isSupportedType(fieldType)) {
+                columnWriter = new BloomFilterColumnWriter(
+                        columnWriter,
+                        nodeIndex,
+                        DEFAULT_SEQUENCE_ID,
+                        fieldType,
+                        options.getRowGroupMaxRowCount(),
+                        options.getBloomFilterFpp(),
+                        new CompressedMetadataWriter(orcEncoding.createMetadataWriter(), columnWriterOptions, Optional.empty()));
+            }
             columnWriters.add(columnWriter);
 
             if (columnWriter instanceof DictionaryColumnWriter) {
@@ -432,11 +469,11 @@ public class OrcWriter
         }
 
         // write chunks
+        forEachColumnWriter(channel -> columnRawSizes[channel] = columnWriters.get(channel).writeBlock(chunk.getBlock(channel)));
         bufferedBytes = 0;
         for (int channel = 0; channel < chunk.getChannelCount(); channel++) {
-            ColumnWriter writer = columnWriters.get(channel);
-            stripeRawSize += writer.writeBlock(chunk.getBlock(channel));
-            bufferedBytes += writer.getBufferedBytes();
+            stripeRawSize += columnRawSizes[channel];
+            bufferedBytes += columnWriters.get(channel).getBufferedBytes();
         }
 
         // update stats
@@ -519,7 +556,76 @@ public class OrcWriter
             dictionaryCompressionOptimizer.finalOptimize(bufferedBytes);
         }
 
-        columnWriters.forEach(ColumnWriter::close);
+        // closing a column writer encodes and compresses all of its buffered stripe data
+        forEachColumnWriter(channel -> columnWriters.get(channel).close());
+    }
+
+    /**
+     * Runs the action for every column writer channel. When a column writer executor is configured,
+     * the channel groups are processed in parallel, and this method returns after all of them are done.
+     */
+    private void forEachColumnWriter(IntConsumer action)
+    {
+        if (!columnWriterExecutor.isPresent()) {
+            for (int channel = 0; channel < columnWriters.size(); channel++) {
+                action.accept(channel);
+            }
+            return;
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(columnWriterGroups.size() - 1);
+        for (int group = 1; group < columnWriterGroups.size(); group++) {
+            int[] channels = columnWriterGroups.get(group);
+            futures.add(CompletableFuture.runAsync(() -> forEachChannel(channels, action), columnWriterExecutor.get()));
+        }
+
+        Throwable failure = null;
+        try {
+            forEachChannel(columnWriterGroups.get(0), action);
+        }
+        catch (RuntimeException | Error e) {
+            failure = e;
+        }
+
+        // always wait for all groups, so no column writer is in use once this method returns
+        for (CompletableFuture<Void> future : futures) {
+            try {
+                future.join();
+            }
+            catch (CompletionException | CancellationException e) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                if (failure == null) {
+                    failure = cause;
+                }
+                else if (failure != cause) {
+                    failure.addSuppressed(cause);
+                }
+            }
+        }
+
+        if (failure != null) {
+            throwIfUnchecked(failure);
+            throw new RuntimeException(failure);
+        }
+    }
+
+    private static void forEachChannel(int[] channels, IntConsumer action)
+    {
+        for (int channel : channels) {
+            action.accept(channel);
+        }
+    }
+
+    private static List<int[]> createColumnWriterGroups(int columnCount, int parallelism)
+    {
+        ImmutableList.Builder<int[]> groups = ImmutableList.builder();
+        for (int group = 0; group < parallelism; group++) {
+            // assign the columns round robin, so adjacent columns of similar types are spread across the groups
+            groups.add(IntStream.iterate(group, channel -> channel + parallelism)
+                    .limit((columnCount - group + parallelism - 1) / parallelism)
+                    .toArray());
+        }
+        return groups.build();
     }
 
     /**
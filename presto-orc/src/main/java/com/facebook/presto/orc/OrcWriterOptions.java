@@ -22,6 +22,7 @@ import io.airlift.units.DataSize;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import static com.facebook.presto.orc.metadata.DwrfStripeCacheMode.INDEX_AND_FOOTER;
 import static com.google.common.base.MoreObjects.toStringHelper;
@@ -47,6 +48,7 @@ public class OrcWriterOptions
     public static final boolean DEFAULT_INTEGER_DICTIONARY_ENCODING_ENABLED = false;
     public static final boolean DEFAULT_STRING_DICTIONARY_ENCODING_ENABLED = true;
     public static final boolean DEFAULT_STRING_DICTIONARY_SORTING_ENABLED = true;
+    public static final double DEFAULT_BLOOM_FILTER_FPP = 0.05;
 
     private final OrcWriterFlushPolicy flushPolicy;
     private final int rowGroupMaxRowCount;
@@ -76,6 +78,20 @@ public class OrcWriterOptions
      */
     private final Set<Integer> flattenedColumns;
 
+    /**
+     * Contains indexes of columns (not nodes!) for which writer should build row group bloom filters.
+     * Columns of types not supported by the bloom filter writer are written without bloom filters.
+     */
+    private final Set<Integer> bloomFilterColumns;
+    private final double bloomFilterFpp;
+
+    /**
+     * Executor used to encode the column writers of a stripe in parallel. Column writers are
+     * split into at most columnWriterParallelism groups, one of which is encoded by the writing thread.
+     */
+    private final Optional<Executor> columnWriterExecutor;
+    private final int columnWriterParallelism;
+
     private OrcWriterOptions(
             OrcWriterFlushPolicy flushPolicy,
             int rowGroupMaxRowCount,
@@ -95,7 +111,11 @@ public class OrcWriterOptions
             int preserveDirectEncodingStripeCount,
             Set<Integer> flattenedColumns,
             boolean mapStatisticsEnabled,
-            int maxFlattenedMapKeyCount)
+            int maxFlattenedMapKeyCount,
+            Set<Integer> bloomFilterColumns,
+            double bloomFilterFpp,
+            Optional<Executor> columnWriterExecutor,
+            int columnWriterParallelism)
     {
         requireNonNull(flushPolicy, "flushPolicy is null");
         checkArgument(rowGroupMaxRowCount >= 1, "rowGroupMaxRowCount must be at least 1");
@@ -109,6 +129,10 @@ public class OrcWriterOptions
         requireNonNull(dwrfWriterOptions, "dwrfWriterOptions is null");
         requireNonNull(flattenedColumns, "flattenedColumns is null");
         checkArgument(maxFlattenedMapKeyCount > 0, "maxFlattenedMapKeyCount must be positive: %s", maxFlattenedMapKeyCount);
+        requireNonNull(bloomFilterColumns, "bloomFilterColumns is null");
+        checkArgument(bloomFilterFpp > 0.0 && bloomFilterFpp < 1.0, "bloomFilterFpp must be between 0 and 1: %s", bloomFilterFpp);
+        requireNonNull(columnWriterExecutor, "columnWriterExecutor is null");
+        checkArgument(columnWriterParallelism >= 1, "columnWriterParallelism must be at least 1: %s", columnWriterParallelism);
 
         this.flushPolicy = flushPolicy;
         this.rowGroupMaxRowCount = rowGroupMaxRowCount;
@@ -129,6 +153,10 @@ public class OrcWriterOptions
         this.flattenedColumns = flattenedColumns;
         this.mapStatisticsEnabled = mapStatisticsEnabled;
         this.maxFlattenedMapKeyCount = maxFlattenedMapKeyCount;
+        this.bloomFilterColumns = bloomFilterColumns;
+        this.bloomFilterFpp = bloomFilterFpp;
+        this.columnWriterExecutor = columnWriterExecutor;
+        this.columnWriterParallelism = columnWriterParallelism;
     }
 
     public OrcWriterFlushPolicy getFlushPolicy()
@@ -226,6 +254,26 @@ public class OrcWriterOptions
         return maxFlattenedMapKeyCount;
     }
 
+    public Set<Integer> getBloomFilterColumns()
+    {
+        return bloomFilterColumns;
+    }
+
+    public double getBloomFilterFpp()
+    {
+        return bloomFilterFpp;
+    }
+
+    public Optional<Executor> getColumnWriterExecutor()
+    {
+        return columnWriterExecutor;
+    }
+
+    public int getColumnWriterParallelism()
+    {
+        return columnWriterParallelism;
+    }
+
     @Override
     public String toString()
     {
@@ -249,6 +297,9 @@ public class OrcWriterOptions
                 .add("flattenedColumns", flattenedColumns)
                 .add("mapStatisticsEnabled", mapStatisticsEnabled)
                 .add("maxFlattenedMapKeyCount", maxFlattenedMapKeyCount)
+                .add("bloomFilterColumns", bloomFilterColumns)
+                .add("bloomFilterFpp", bloomFilterFpp)
+                .add("columnWriterParallelism", columnWriterParallelism)
                 .toString();
     }
 
@@ -285,6 +336,10 @@ public class OrcWriterOptions
         private Set<Integer> flattenedColumns = ImmutableSet.of();
         private boolean mapStatisticsEnabled;
         private int maxFlattenedMapKeyCount = DEFAULT_MAX_FLATTENED_MAP_KEY_COUNT;
+        private Set<Integer> bloomFilterColumns = ImmutableSet.of();
+        private double bloomFilterFpp = DEFAULT_BLOOM_FILTER_FPP;
+        private Optional<Executor> columnWriterExecutor = Optional.empty();
+        private int columnWriterParallelism = 1;
 
         public Builder withFlushPolicy(OrcWriterFlushPolicy flushPolicy)
         {
@@ -414,6 +469,26 @@ public class OrcWriterOptions
             return this;
         }
 
+        public Builder withBloomFilterColumns(Set<Integer> bloomFilterColumns)
+        {
+            this.bloomFilterColumns = ImmutableSet.copyOf(bloomFilterColumns);
+            return this;
+        }
+
+        public Builder withBloomFilterFpp(double bloomFilterFpp)
+        {
+            this.bloomFilterFpp = bloomFilterFpp;
+            return this;
+        }
+
+        public Builder withColumnWriterExecutor(Executor columnWriterExecutor, int columnWriterParallelism)
+        {
+            checkArgument(columnWriterParallelism >= 1, "columnWriterParallelism must be at least 1: %s", columnWriterParallelism);
+            this.columnWriterExecutor = Optional.of(requireNonNull(columnWriterExecutor, "columnWriterExecutor is null"));
+            this.columnWriterParallelism = columnWriterParallelism;
+            return this;
+        }
+
         public OrcWriterOptions build()
         {
             Optional<DwrfStripeCacheOptions> dwrfWriterOptions;
@@ -443,7 +518,11 @@ public class OrcWriterOptions
                     preserveDirectEncodingStripeCount,
                     flattenedColumns,
                     mapStatisticsEnabled,
-                    maxFlattenedMapKeyCount);
+                    maxFlattenedMapKeyCount,
+                    bloomFilterColumns,
+                    bloomFilterFpp,
+                    columnWriterExecutor,
+                    columnWriterParallelism);
         }
     }
 }
@@ -245,7 +245,19 @@ public class OrcMetadataReader
         List<OrcProto.BloomFilter> bloomFilterList = bloomFilter.getBloomFilterList();
         ImmutableList.Builder<HiveBloomFilter> builder = ImmutableList.builder();
         for (OrcProto.BloomFilter orcBloomFilter : bloomFilterList) {
-            builder.add(new HiveBloomFilter(orcBloomFilter.getBitsetList(), orcBloomFilter.getBitsetCount() * 64, orcBloomFilter.getNumHashFunctions()));
+            if (orcBloomFilter.hasUtf8Bitset()) {
+                // BLOOM_FILTER_UTF8 stores the bit set as little endian longs
+                Slice utf8Bitset = Slices.wrappedBuffer(orcBloomFilter.getUtf8Bitset().toByteArray());
+                ImmutableList.Builder<Long> bits = ImmutableList.builder();
+                for (int offset = 0; offset + Long.BYTES <= utf8Bitset.length(); offset += Long.BYTES) {
+                    bits.add(utf8Bitset.getLong(offset));
+                }
+                List<Long> bitset = bits.build();
+                builder.add(new HiveBloomFilter(bitset, bitset.size() * 64, orcBloomFilter.getNumHashFunctions()));
+            }
+            else {
+                builder.add(new HiveBloomFilter(orcBloomFilter.getBitsetList(), orcBloomFilter.getBitsetCount() * 64, orcBloomFilter.getNumHashFunctions()));
+            }
         }
         return builder.build();
     }
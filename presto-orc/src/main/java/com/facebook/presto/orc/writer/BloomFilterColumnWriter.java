@@ -0,0 +1,205 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.writer;
+
+import com.facebook.presto.common.block.Block;
+import com.facebook.presto.common.type.Type;
+import com.facebook.presto.common.type.VarbinaryType;
+import com.facebook.presto.common.type.VarcharType;
+import com.facebook.presto.orc.checkpoint.StreamCheckpoint;
+import com.facebook.presto.orc.metadata.ColumnEncoding;
+import com.facebook.presto.orc.metadata.CompressedMetadataWriter;
+import com.facebook.presto.orc.metadata.Stream;
+import com.facebook.presto.orc.metadata.statistics.BloomFilter;
+import com.facebook.presto.orc.metadata.statistics.ColumnStatistics;
+import com.facebook.presto.orc.metadata.statistics.HiveBloomFilter;
+import com.facebook.presto.orc.stream.StreamDataOutput;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.DoubleType.DOUBLE;
+import static com.facebook.presto.common.type.IntegerType.INTEGER;
+import static com.facebook.presto.common.type.SmallintType.SMALLINT;
+import static com.facebook.presto.common.type.TinyintType.TINYINT;
+import static com.facebook.presto.orc.metadata.Stream.StreamKind.BLOOM_FILTER_UTF8;
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Decorates the writer of a primitive column and builds a bloom filter for every row group.
+ * The bloom filters are written as a BLOOM_FILTER_UTF8 index stream following the streams
+ * of the delegate. Values are hashed the same way {@link com.facebook.presto.orc.TupleDomainOrcPredicate}
+ * tests them.
+ */
+public class BloomFilterColumnWriter
+        implements ColumnWriter
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(BloomFilterColumnWriter.class).instanceSize();
+
+    private final ColumnWriter delegate;
+    private final int column;
+    private final int sequence;
+    private final Type type;
+    private final CompressedMetadataWriter metadataWriter;
+    private final BloomFilter bloomFilter;
+    private final List<HiveBloomFilter> rowGroupBloomFilters = new ArrayList<>();
+    private long rowGroupBloomFiltersRetainedSizeInBytes;
+
+    public BloomFilterColumnWriter(
+            ColumnWriter delegate,
+            int column,
+            int sequence,
+            Type type,
+            long expectedEntries,
+            double fpp,
+            CompressedMetadataWriter metadataWriter)
+    {
+        checkArgument(isSupportedType(type), "Bloom filters are not supported for type %s", type);
+        this.delegate = requireNonNull(delegate, "delegate is null");
+        this.column = column;
+        this.sequence = sequence;
+        this.type = type;
+        this.metadataWriter = requireNonNull(metadataWriter, "metadataWriter is null");
+        this.bloomFilter = new BloomFilter(expectedEntries, fpp);
+    }
+
+    public static boolean isSupportedType(Type type)
+    {
+        return type == TINYINT || type == SMALLINT || type == INTEGER || type == BIGINT || type == DOUBLE || type instanceof VarcharType || type instanceof VarbinaryType;
+    }
+
+    @Override
+    public List<ColumnWriter> getNestedColumnWriters()
+    {
+        return ImmutableList.<ColumnWriter>builder()
+                .add(delegate)
+                .addAll(delegate.getNestedColumnWriters())
+                .build();
+    }
+
+    @Override
+    public Map<Integer, ColumnEncoding> getColumnEncodings()
+    {
+        return delegate.getColumnEncodings();
+    }
+
+    @Override
+    public void beginRowGroup()
+    {
+        delegate.beginRowGroup();
+    }
+
+    @Override
+    public long writeBlock(Block block)
+    {
+        if (type == DOUBLE) {
+            for (int position = 0; position < block.getPositionCount(); position++) {
+                if (!block.isNull(position)) {
+                    bloomFilter.addDouble(type.getDouble(block, position));
+                }
+            }
+        }
+        else if (type instanceof VarcharType || type instanceof VarbinaryType) {
+            for (int position = 0; position < block.getPositionCount(); position++) {
+                if (!block.isNull(position)) {
+                    Slice slice = type.getSlice(block, position);
+                    if (slice.hasByteArray()) {
+                        bloomFilter.addBytes((byte[]) slice.getBase(), slice.byteArrayOffset(), slice.length());
+                    }
+                    else {
+                        bloomFilter.add(slice.getBytes());
+                    }
+                }
+            }
+        }
+        else {
+            for (int position = 0; position < block.getPositionCount(); position++) {
+                if (!block.isNull(position)) {
+                    bloomFilter.addLong(type.getLong(block, position));
+                }
+            }
+        }
+        return delegate.writeBlock(block);
+    }
+
+    @Override
+    public Map<Integer, ColumnStatistics> finishRowGroup()
+    {
+        HiveBloomFilter rowGroupBloomFilter = new HiveBloomFilter(bloomFilter);
+        rowGroupBloomFilters.add(rowGroupBloomFilter);
+        rowGroupBloomFiltersRetainedSizeInBytes += rowGroupBloomFilter.getRetainedSizeInBytes();
+        bloomFilter.reset();
+        return delegate.finishRowGroup();
+    }
+
+    @Override
+    public void close()
+    {
+        delegate.close();
+    }
+
+    @Override
+    public Map<Integer, ColumnStatistics> getColumnStripeStatistics()
+    {
+        return delegate.getColumnStripeStatistics();
+    }
+
+    @Override
+    public List<StreamDataOutput> getIndexStreams(Optional<List<? extends StreamCheckpoint>> prependCheckpoints)
+            throws IOException
+    {
+        Slice slice = metadataWriter.writeBloomFilters(rowGroupBloomFilters);
+        Stream stream = new Stream(column, sequence, BLOOM_FILTER_UTF8, slice.length(), false);
+        return ImmutableList.<StreamDataOutput>builder()
+                .addAll(delegate.getIndexStreams(prependCheckpoints))
+                .add(new StreamDataOutput(slice, stream))
+                .build();
+    }
+
+    @Override
+    public List<StreamDataOutput> getDataStreams()
+    {
+        return delegate.getDataStreams();
+    }
+
+    @Override
+    public long getBufferedBytes()
+    {
+        return delegate.getBufferedBytes() + rowGroupBloomFilters.size() * bloomFilter.sizeInBytes();
+    }
+
+    @Override
+    public long getRetainedBytes()
+    {
+        return INSTANCE_SIZE + delegate.getRetainedBytes() + sizeOf(bloomFilter.getBitSet()) + rowGroupBloomFiltersRetainedSizeInBytes;
+    }
+
+    @Override
+    public void reset()
+    {
+        delegate.reset();
+        bloomFilter.reset();
+        rowGroupBloomFilters.clear();
+        rowGroupBloomFiltersRetainedSizeInBytes = 0;
+    }
+}
@@ -35,17 +35,20 @@ import org.testng.annotations.Test;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static com.facebook.airlift.testing.Assertions.assertGreaterThanOrEqual;
+import static com.facebook.presto.common.type.BigintType.BIGINT;
 import static com.facebook.presto.common.type.VarcharType.VARCHAR;
 import static com.facebook.presto.orc.DwrfEncryptionProvider.NO_ENCRYPTION;
 import static com.facebook.presto.orc.NoOpOrcWriterStats.NOOP_WRITER_STATS;
@@ -59,6 +62,7 @@ import static com.facebook.presto.orc.metadata.CompressionKind.NONE;
 import static com.facebook.presto.orc.metadata.CompressionKind.ZLIB;
 import static com.facebook.presto.orc.metadata.CompressionKind.ZSTD;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 
@@ -179,6 +183,71 @@ public class TestOrcWriter
         }
     }
 
+    @Test(dataProvider = "compressionLevels")
+    public void testParallelColumnWriters(OrcEncoding encoding, CompressionKind kind, OptionalInt level)
+            throws IOException
+    {
+        ExecutorService executor = newFixedThreadPool(2);
+        try {
+            OrcWriterOptions.Builder options = OrcWriterOptions.builder()
+                    .withFlushPolicy(DefaultOrcWriterFlushPolicy.builder()
+                            .withStripeMinSize(new DataSize(0, MEGABYTE))
+                            .withStripeMaxSize(new DataSize(32, MEGABYTE))
+                            .withStripeMaxRowCount(ORC_STRIPE_SIZE)
+                            .build())
+                    .withRowGroupMaxRowCount(ORC_ROW_GROUP_SIZE)
+                    .withCompressionLevel(level);
+
+            // encoding the columns in parallel must produce exactly the same file as encoding them serially
+            byte[] serialFile = writeColumns(encoding, kind, options.build());
+            byte[] parallelFile = writeColumns(encoding, kind, options.withColumnWriterExecutor(executor, 3).build());
+            assertEquals(parallelFile, serialFile);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static byte[] writeColumns(OrcEncoding encoding, CompressionKind kind, OrcWriterOptions orcWriterOptions)
+            throws IOException
+    {
+        try (TempFile tempFile = new TempFile()) {
+            OrcWriter writer = new OrcWriter(
+                    new OutputStreamDataSink(new FileOutputStream(tempFile.getFile())),
+                    ImmutableList.of("test1", "test2", "test3", "test4", "test5"),
+                    ImmutableList.of(BIGINT, VARCHAR, BIGINT, VARCHAR, VARCHAR),
+                    encoding,
+                    kind,
+                    Optional.empty(),
+                    NO_ENCRYPTION,
+                    orcWriterOptions,
+                    ImmutableMap.of(),
+                    HIVE_STORAGE_TIME_ZONE,
+                    true,
+                    OrcWriteValidationMode.BOTH,
+                    NOOP_WRITER_STATS);
+
+            int entries = 100_000;
+            Block[] blocks = new Block[5];
+            for (int channel = 0; channel < blocks.length; channel++) {
+                BlockBuilder blockBuilder = (channel % 2 == 0 ? BIGINT : VARCHAR).createBlockBuilder(null, entries);
+                for (int i = 0; i < entries; i++) {
+                    if (channel % 2 == 0) {
+                        BIGINT.writeLong(blockBuilder, i * (channel + 1L));
+                    }
+                    else {
+                        VARCHAR.writeSlice(blockBuilder, Slices.utf8Slice(String.valueOf(i % (channel * 100))));
+                    }
+                }
+                blocks[channel] = blockBuilder.build();
+            }
+
+            writer.write(new Page(blocks));
+            writer.close();
+            return Files.readAllBytes(tempFile.getFile().toPath());
+        }
+    }
+
     @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = "Dummy exception from mocked instance")
     public void testVerifyNoIllegalStateException()
             throws IOException
@@ -0,0 +1,287 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc;
+
+import com.facebook.presto.common.Page;
+import com.facebook.presto.common.RuntimeStats;
+import com.facebook.presto.common.block.Block;
+import com.facebook.presto.common.block.BlockBuilder;
+import com.facebook.presto.common.predicate.NullableValue;
+import com.facebook.presto.common.type.Type;
+import com.facebook.presto.orc.TupleDomainOrcPredicate.ColumnReference;
+import com.facebook.presto.orc.cache.StorageOrcFileTailSource;
+import com.facebook.presto.orc.metadata.RowGroupIndex;
+import com.facebook.presto.orc.metadata.Stream;
+import com.facebook.presto.orc.metadata.StripeFooter;
+import com.facebook.presto.orc.metadata.statistics.HiveBloomFilter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.units.DataSize;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static com.facebook.presto.common.predicate.TupleDomain.fromFixedValues;
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.VarcharType.VARCHAR;
+import static com.facebook.presto.orc.NoOpOrcWriterStats.NOOP_WRITER_STATS;
+import static com.facebook.presto.orc.NoopOrcAggregatedMemoryContext.NOOP_ORC_AGGREGATED_MEMORY_CONTEXT;
+import static com.facebook.presto.orc.OrcEncoding.DWRF;
+import static com.facebook.presto.orc.OrcEncoding.ORC;
+import static com.facebook.presto.orc.OrcPredicate.TRUE;
+import static com.facebook.presto.orc.OrcReader.MAX_BATCH_SIZE;
+import static com.facebook.presto.orc.OrcTester.HIVE_STORAGE_TIME_ZONE;
+import static com.facebook.presto.orc.OrcTester.createOrcWriter;
+import static com.facebook.presto.orc.metadata.ColumnEncoding.ColumnEncodingKind.DICTIONARY_V2;
+import static com.facebook.presto.orc.metadata.CompressionKind.SNAPPY;
+import static com.facebook.presto.orc.metadata.Stream.StreamKind.BLOOM_FILTER_UTF8;
+import static com.facebook.presto.orc.metadata.Stream.StreamKind.ROW_INDEX;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.lang.Math.toIntExact;
+import static java.lang.String.format;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+public class TestWriteBloomFilter
+{
+    private static final int ROW_GROUP_COUNT = 5;
+    private static final int ROWS_PER_ROW_GROUP = 1_000;
+    private static final double BLOOM_FILTER_FPP = 0.001;
+
+    // a bigint and a dictionary encoded varchar column with bloom filters, and a bigint column without
+    private static final List<Type> TYPES = ImmutableList.of(BIGINT, VARCHAR, BIGINT);
+    private static final int BIGINT_NODE = 1;
+    private static final int VARCHAR_NODE = 2;
+    private static final int NO_BLOOM_FILTER_NODE = 3;
+
+    @Test
+    public void testRoundTrip()
+            throws Exception
+    {
+        try (TempFile tempFile = new TempFile()) {
+            writeFile(tempFile, ORC);
+
+            CapturingOrcFileIntrospector introspector = new CapturingOrcFileIntrospector();
+            assertEquals(readRowGroups(tempFile, TRUE, introspector), allRowGroups());
+
+            // the bloom filter streams are written for the selected columns only
+            assertEquals(introspector.getStripeInformations().size(), 1);
+            StripeFooter stripeFooter = getOnlyStripeFooter(introspector);
+            assertEquals(
+                    stripeFooter.getStreams().stream()
+                            .filter(stream -> stream.getStreamKind() == BLOOM_FILTER_UTF8)
+                            .map(Stream::getColumn)
+                            .collect(toImmutableSet()),
+                    ImmutableSet.of(BIGINT_NODE, VARCHAR_NODE));
+            assertEquals(stripeFooter.getColumnEncodings().get(VARCHAR_NODE).getColumnEncodingKind(), DICTIONARY_V2);
+
+            // StripeReader attaches the filters to the row group statistics, every written value is found in its row group
+            Map<StreamId, List<RowGroupIndex>> rowGroupIndexes = getOnlyRowGroupIndexes(introspector);
+            List<HiveBloomFilter> bigintBloomFilters = getBloomFilters(rowGroupIndexes, BIGINT_NODE);
+            List<HiveBloomFilter> varcharBloomFilters = getBloomFilters(rowGroupIndexes, VARCHAR_NODE);
+            for (int rowGroup = 0; rowGroup < ROW_GROUP_COUNT; rowGroup++) {
+                assertNotNull(bigintBloomFilters.get(rowGroup));
+                assertNotNull(varcharBloomFilters.get(rowGroup));
+                for (int row = 0; row < ROWS_PER_ROW_GROUP; row++) {
+                    assertTrue(bigintBloomFilters.get(rowGroup).testLong(bigintValue(rowGroup, row)));
+                    assertTrue(varcharBloomFilters.get(rowGroup).testString(varcharValue(rowGroup, row)));
+                }
+            }
+            assertEquals(getBloomFilters(rowGroupIndexes, NO_BLOOM_FILTER_NODE), ImmutableList.of());
+        }
+    }
+
+    @Test
+    public void testRowGroupPruning()
+            throws Exception
+    {
+        try (TempFile tempFile = new TempFile()) {
+            writeFile(tempFile, ORC);
+
+            // the values of all row groups overlap, so the row group min and max do not prune anything
+
+            // bigint value present in row group 2 only
+            long presentBigint = bigintValue(2, 500);
+            assertEquals(readRowGroups(tempFile, createPredicate(0, BIGINT, presentBigint, true)), ImmutableSet.of(2));
+            assertEquals(readRowGroups(tempFile, createPredicate(0, BIGINT, presentBigint, false)), allRowGroups());
+
+            // bigint value within the range of every row group, but present in none of them
+            long absentBigint = presentBigint + ROW_GROUP_COUNT;
+            assertEquals(readRowGroups(tempFile, createPredicate(0, BIGINT, absentBigint, true)), ImmutableSet.of());
+            assertEquals(readRowGroups(tempFile, createPredicate(0, BIGINT, absentBigint, false)), allRowGroups());
+
+            // the same for the dictionary encoded varchar column
+            String presentVarchar = varcharValue(3, 7);
+            assertEquals(readRowGroups(tempFile, createPredicate(1, VARCHAR, utf8Slice(presentVarchar), true)), ImmutableSet.of(3));
+            assertEquals(readRowGroups(tempFile, createPredicate(1, VARCHAR, utf8Slice(presentVarchar), false)), allRowGroups());
+
+            String absentVarchar = format("value_7_%s", ROW_GROUP_COUNT + 2);
+            assertEquals(readRowGroups(tempFile, createPredicate(1, VARCHAR, utf8Slice(absentVarchar), true)), ImmutableSet.of());
+            assertEquals(readRowGroups(tempFile, createPredicate(1, VARCHAR, utf8Slice(absentVarchar), false)), allRowGroups());
+
+            // no bloom filter is written for the last column
+            assertEquals(readRowGroups(tempFile, createPredicate(2, BIGINT, absentBigint, true)), allRowGroups());
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "DWRF does not support bloom filters")
+    public void testDwrfRejectsBloomFilterColumns()
+            throws Exception
+    {
+        try (TempFile tempFile = new TempFile()) {
+            writeFile(tempFile, DWRF);
+        }
+    }
+
+    /**
+     * Row group {@code rowGroup} holds the values {@code rowGroup}, {@code rowGroup + 10}, {@code rowGroup + 20}, ...
+     * so every row group spans about the same range.
+     */
+    private static long bigintValue(int rowGroup, int row)
+    {
+        return row * 2L * ROW_GROUP_COUNT + rowGroup;
+    }
+
+    /**
+     * Row group {@code rowGroup} holds the ten values {@code value_0_<rowGroup>} to {@code value_9_<rowGroup>},
+     * which are dictionary encoded, and whose range includes the values of every other row group.
+     */
+    private static String varcharValue(int rowGroup, int row)
+    {
+        return format("value_%s_%s", row % 10, rowGroup);
+    }
+
+    private static void writeFile(TempFile tempFile, OrcEncoding encoding)
+            throws IOException
+    {
+        OrcWriterOptions writerOptions = OrcWriterOptions.builder()
+                .withRowGroupMaxRowCount(ROWS_PER_ROW_GROUP)
+                .withBloomFilterColumns(ImmutableSet.of(0, 1))
+                .withBloomFilterFpp(BLOOM_FILTER_FPP)
+                .build();
+
+        OrcWriter writer = createOrcWriter(tempFile.getFile(), encoding, SNAPPY, Optional.empty(), TYPES, writerOptions, NOOP_WRITER_STATS);
+        for (int rowGroup = 0; rowGroup < ROW_GROUP_COUNT; rowGroup++) {
+            BlockBuilder bigintBlockBuilder = BIGINT.createBlockBuilder(null, ROWS_PER_ROW_GROUP);
+            BlockBuilder varcharBlockBuilder = VARCHAR.createBlockBuilder(null, ROWS_PER_ROW_GROUP);
+            BlockBuilder noBloomFilterBlockBuilder = BIGINT.createBlockBuilder(null, ROWS_PER_ROW_GROUP);
+            for (int row = 0; row < ROWS_PER_ROW_GROUP; row++) {
+                BIGINT.writeLong(bigintBlockBuilder, bigintValue(rowGroup, row));
+                VARCHAR.writeSlice(varcharBlockBuilder, utf8Slice(varcharValue(rowGroup, row)));
+                BIGINT.writeLong(noBloomFilterBlockBuilder, bigintValue(rowGroup, row));
+            }
+            writer.write(new Page(bigintBlockBuilder.build(), varcharBlockBuilder.build(), noBloomFilterBlockBuilder.build()));
+        }
+        writer.close();
+
+        // the bloom filters read back with the row group statistics must not fail the write validation
+        writer.validate(createDataSource(tempFile));
+    }
+
+    private static Set<Integer> readRowGroups(TempFile tempFile, OrcPredicate predicate)
+            throws IOException
+    {
+        return readRowGroups(tempFile, predicate, new CapturingOrcFileIntrospector());
+    }
+
+    /**
+     * Returns the row groups read with the predicate, which are deduced from the values of the first column.
+     */
+    private static Set<Integer> readRowGroups(TempFile tempFile, OrcPredicate predicate, CapturingOrcFileIntrospector introspector)
+            throws IOException
+    {
+        OrcReader orcReader = new OrcReader(
+                createDataSource(tempFile),
+                ORC,
+                new StorageOrcFileTailSource(),
+                StripeMetadataSourceFactory.of(new StorageStripeMetadataSource()),
+                Optional.empty(),
+                NOOP_ORC_AGGREGATED_MEMORY_CONTEXT,
+                OrcReaderTestingUtils.createDefaultTestConfig(),
+                false,
+                DwrfEncryptionProvider.NO_ENCRYPTION,
+                DwrfKeyProvider.EMPTY,
+                new RuntimeStats(),
+                Optional.of(introspector));
+
+        ImmutableSet.Builder<Integer> rowGroups = ImmutableSet.builder();
+        try (OrcBatchRecordReader recordReader = orcReader.createBatchRecordReader(
+                ImmutableMap.of(0, BIGINT, 1, VARCHAR, 2, BIGINT),
+                predicate,
+                HIVE_STORAGE_TIME_ZONE,
+                new TestingHiveOrcAggregatedMemoryContext(),
+                MAX_BATCH_SIZE)) {
+            for (int batchSize = recordReader.nextBatch(); batchSize > 0; batchSize = recordReader.nextBatch()) {
+                Block block = recordReader.readBlock(0);
+                for (int position = 0; position < batchSize; position++) {
+                    rowGroups.add(toIntExact(BIGINT.getLong(block, position) % ROW_GROUP_COUNT));
+                }
+            }
+        }
+        return rowGroups.build();
+    }
+
+    private static <T> TupleDomainOrcPredicate<String> createPredicate(int column, Type type, T value, boolean bloomFilterEnabled)
+    {
+        String columnName = "column_" + column;
+        return new TupleDomainOrcPredicate<>(
+                fromFixedValues(ImmutableMap.of(columnName, NullableValue.of(type, value))),
+                ImmutableList.of(new ColumnReference<>(columnName, column, type)),
+                bloomFilterEnabled,
+                Optional.empty());
+    }
+
+    private static Set<Integer> allRowGroups()
+    {
+        return IntStream.range(0, ROW_GROUP_COUNT).boxed().collect(toImmutableSet());
+    }
+
+    private static StripeFooter getOnlyStripeFooter(CapturingOrcFileIntrospector introspector)
+    {
+        return introspector.getStripeFooterByStripeOffset().get(introspector.getStripeInformations().get(0).getOffset());
+    }
+
+    private static Map<StreamId, List<RowGroupIndex>> getOnlyRowGroupIndexes(CapturingOrcFileIntrospector introspector)
+    {
+        return introspector.getRowGroupIndexesByStripeOffset().get(introspector.getStripeInformations().get(0).getOffset());
+    }
+
+    private static List<HiveBloomFilter> getBloomFilters(Map<StreamId, List<RowGroupIndex>> rowGroupIndexes, int node)
+    {
+        List<RowGroupIndex> indexes = rowGroupIndexes.get(new StreamId(node, 0, ROW_INDEX));
+        assertEquals(indexes.size(), ROW_GROUP_COUNT);
+        if (indexes.stream().allMatch(index -> index.getColumnStatistics().getBloomFilter() == null)) {
+            return ImmutableList.of();
+        }
+        return indexes.stream()
+                .map(index -> index.getColumnStatistics().getBloomFilter())
+                .collect(toImmutableList());
+    }
+
+    private static OrcDataSource createDataSource(TempFile tempFile)
+            throws IOException
+    {
+        return new FileOrcDataSource(tempFile.getFile(), new DataSize(1, MEGABYTE), new DataSize(1, MEGABYTE), new DataSize(1, MEGABYTE), true);
+    }
+}
@@ -25,6 +25,10 @@ import com.facebook.presto.parquet.batchreader.Int64FlatBatchReader;
 import com.facebook.presto.parquet.batchreader.Int64NestedBatchReader;
 import com.facebook.presto.parquet.batchreader.Int64TimestampMicrosFlatBatchReader;
 import com.facebook.presto.parquet.batchreader.Int64TimestampMicrosNestedBatchReader;
+import com.facebook.presto.parquet.batchreader.LongDecimalFlatBatchReader;
+import com.facebook.presto.parquet.batchreader.LongDecimalNestedBatchReader;
+import com.facebook.presto.parquet.batchreader.ShortDecimalFlatBatchReader;
+import com.facebook.presto.parquet.batchreader.ShortDecimalNestedBatchReader;
 import com.facebook.presto.parquet.batchreader.TimestampFlatBatchReader;
 import com.facebook.presto.parquet.batchreader.TimestampNestedBatchReader;
 import com.facebook.presto.parquet.reader.AbstractColumnReader;
@@ -40,15 +44,19 @@ import com.facebook.presto.parquet.reader.LongTimestampMicrosColumnReader;
 import com.facebook.presto.parquet.reader.ShortDecimalColumnReader;
 import com.facebook.presto.parquet.reader.TimestampColumnReader;
 import com.facebook.presto.spi.PrestoException;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
 
 import java.util.Optional;
 
 import static com.facebook.presto.parquet.ParquetTypeUtils.createDecimalType;
+import static com.facebook.presto.parquet.ParquetTypeUtils.isDecimalType;
+import static com.facebook.presto.parquet.ParquetTypeUtils.isShortDecimalType;
 import static com.facebook.presto.parquet.ParquetTypeUtils.isTimeStampMicrosType;
 import static com.facebook.presto.spi.StandardErrorCode.NOT_SUPPORTED;
-import static org.apache.parquet.schema.OriginalType.DECIMAL;
 import static org.apache.parquet.schema.OriginalType.TIMESTAMP_MICROS;
 import static org.apache.parquet.schema.OriginalType.TIME_MICROS;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY;
 
 public class ColumnReaderFactory
 {
@@ -58,8 +66,18 @@ public class ColumnReaderFactory
 
     public static ColumnReader createReader(RichColumnDescriptor descriptor, boolean batchReadEnabled)
     {
-        // decimal is not supported in batch readers
-        if (batchReadEnabled && descriptor.getPrimitiveType().getOriginalType() != DECIMAL) {
+        if (batchReadEnabled && isDecimalType(descriptor)) {
+            final boolean isNested = descriptor.getPath().length > 1;
+            if (isShortDecimalType(descriptor)) {
+                return isNested ? new ShortDecimalNestedBatchReader(descriptor) : new ShortDecimalFlatBatchReader(descriptor);
+            }
+            // long decimals are always stored as byte arrays
+            PrimitiveTypeName typeName = descriptor.getPrimitiveType().getPrimitiveTypeName();
+            if (typeName == BINARY || typeName == FIXED_LEN_BYTE_ARRAY) {
+                return isNested ? new LongDecimalNestedBatchReader(descriptor) : new LongDecimalFlatBatchReader(descriptor);
+            }
+        }
+        else if (batchReadEnabled) {
             final boolean isNested = descriptor.getPath().length > 1;
             switch (descriptor.getPrimitiveType().getPrimitiveTypeName()) {
                 case BOOLEAN:
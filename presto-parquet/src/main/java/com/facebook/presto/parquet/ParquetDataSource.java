@@ -19,6 +19,7 @@ import org.apache.parquet.internal.column.columnindex.OffsetIndex;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
 
 public interface ParquetDataSource
@@ -38,6 +39,15 @@ public interface ParquetDataSource
 
     Optional<OffsetIndex> readOffsetIndex(ColumnChunkMetaData column) throws IOException;
 
+    /**
+     * Hints that the given ranges are going to be read soon. Data sources backed by high latency
+     * storage may start reading them in the background. Each call replaces the hints before the
+     * previous call, so readers should hint one row group ahead.
+     */
+    default void prefetch(List<DiskRange> diskRanges)
+    {
+    }
+
     @Override
     default void close()
             throws IOException
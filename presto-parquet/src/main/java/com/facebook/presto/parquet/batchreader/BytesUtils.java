@@ -15,6 +15,8 @@ package com.facebook.presto.parquet.batchreader;
 
 public class BytesUtils
 {
+    private static final long SIGN_LONG_MASK = 1L << 63;
+
     private BytesUtils()
     {
     }
@@ -50,6 +52,52 @@ public class BytesUtils
                 ((long) (ch0 & 255) << 0);
     }
 
+    /**
+     * Reads a big-endian two's complement unscaled decimal value that fits in a long.
+     */
+    public static long getShortDecimalValue(byte[] byteBuffer, int offset, int length)
+    {
+        int end = offset + length;
+        int start = Math.max(offset, end - Long.BYTES);
+        // sign extend from the most significant byte
+        long value = byteBuffer[start];
+        for (int i = start + 1; i < end; i++) {
+            value = (value << 8) | (byteBuffer[i] & 255);
+        }
+        return value;
+    }
+
+    /**
+     * Reads a big-endian two's complement unscaled decimal value of up to 16 bytes, and stores
+     * it in {@code values[2 * index]} and {@code values[2 * index + 1]} in the sign and magnitude
+     * layout of the long decimal blocks.
+     */
+    public static void getLongDecimalValue(byte[] byteBuffer, int offset, int length, long[] values, int index)
+    {
+        int end = offset + length;
+        int lowStart = Math.max(offset, end - Long.BYTES);
+        long high;
+        long low;
+        if (lowStart == offset) {
+            low = getShortDecimalValue(byteBuffer, offset, length);
+            high = low >> 63;
+        }
+        else {
+            high = getShortDecimalValue(byteBuffer, offset, lowStart - offset);
+            low = 0;
+            for (int i = lowStart; i < end; i++) {
+                low = (low << 8) | (byteBuffer[i] & 255);
+            }
+        }
+
+        if (high < 0) {
+            low = -low;
+            high = (~high + (low == 0 ? 1 : 0)) | SIGN_LONG_MASK;
+        }
+        values[2 * index] = low;
+        values[2 * index + 1] = high;
+    }
+
     public static void unpack8Values(byte inByte, byte[] out, int outPos)
     {
         out[0 + outPos] = (byte) (inByte & 1);
@@ -22,19 +22,27 @@ import com.facebook.presto.parquet.batchreader.decoders.delta.BinaryDeltaValuesD
 import com.facebook.presto.parquet.batchreader.decoders.delta.Int32DeltaBinaryPackedValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.delta.Int64DeltaBinaryPackedValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.delta.Int64TimestampMicrosDeltaBinaryPackedValuesDecoder;
+import com.facebook.presto.parquet.batchreader.decoders.delta.LongDecimalDeltaValuesDecoder;
+import com.facebook.presto.parquet.batchreader.decoders.delta.ShortDecimalDeltaValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.plain.BinaryPlainValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.plain.BooleanPlainValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.plain.Int32PlainValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.plain.Int64PlainValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.plain.Int64TimestampMicrosPlainValuesDecoder;
+import com.facebook.presto.parquet.batchreader.decoders.plain.LongDecimalPlainValuesDecoder;
+import com.facebook.presto.parquet.batchreader.decoders.plain.ShortDecimalPlainValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.plain.TimestampPlainValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.rle.BinaryRLEDictionaryValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.rle.BooleanRLEValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.rle.Int32RLEDictionaryValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.rle.Int64RLEDictionaryValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.rle.Int64TimestampMicrosRLEDictionaryValuesDecoder;
+import com.facebook.presto.parquet.batchreader.decoders.rle.LongDecimalRLEDictionaryValuesDecoder;
+import com.facebook.presto.parquet.batchreader.decoders.rle.ShortDecimalRLEDictionaryValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.rle.TimestampRLEDictionaryValuesDecoder;
 import com.facebook.presto.parquet.batchreader.dictionary.BinaryBatchDictionary;
+import com.facebook.presto.parquet.batchreader.dictionary.LongDecimalBatchDictionary;
+import com.facebook.presto.parquet.batchreader.dictionary.ShortDecimalBatchDictionary;
 import com.facebook.presto.parquet.batchreader.dictionary.TimestampDictionary;
 import com.facebook.presto.parquet.dictionary.Dictionary;
 import com.facebook.presto.parquet.dictionary.IntegerDictionary;
@@ -61,6 +69,8 @@ import static com.facebook.presto.parquet.ParquetEncoding.RLE_DICTIONARY;
 import static com.facebook.presto.parquet.ParquetErrorCode.PARQUET_IO_READ_ERROR;
 import static com.facebook.presto.parquet.ParquetErrorCode.PARQUET_UNSUPPORTED_COLUMN_TYPE;
 import static com.facebook.presto.parquet.ParquetErrorCode.PARQUET_UNSUPPORTED_ENCODING;
+import static com.facebook.presto.parquet.ParquetTypeUtils.isDecimalType;
+import static com.facebook.presto.parquet.ParquetTypeUtils.isShortDecimalType;
 import static com.facebook.presto.parquet.ParquetTypeUtils.isTimeStampMicrosType;
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.lang.String.format;
@@ -93,6 +103,10 @@ public class Decoders
     {
         final PrimitiveTypeName type = columnDescriptor.getPrimitiveType().getPrimitiveTypeName();
 
+        if (isDecimalType(columnDescriptor)) {
+            return createDecimalValuesDecoder(columnDescriptor, dictionary, valueCount, encoding, buffer, offset, length);
+        }
+
         if (encoding == PLAIN) {
             switch (type) {
                 case BOOLEAN:
@@ -178,6 +192,40 @@ public class Decoders
         throw new PrestoException(PARQUET_UNSUPPORTED_ENCODING, format("Column: %s, Encoding: %s", columnDescriptor, encoding));
     }
 
+    private static ValuesDecoder createDecimalValuesDecoder(ColumnDescriptor columnDescriptor, Dictionary dictionary, int valueCount, ParquetEncoding encoding, byte[] buffer, int offset, int length)
+            throws IOException
+    {
+        final PrimitiveTypeName type = columnDescriptor.getPrimitiveType().getPrimitiveTypeName();
+        final int typeLength = columnDescriptor.getPrimitiveType().getTypeLength();
+        final boolean isShortDecimal = isShortDecimalType(columnDescriptor);
+
+        if (encoding == PLAIN) {
+            if (isShortDecimal) {
+                return new ShortDecimalPlainValuesDecoder(type, typeLength, buffer, offset, length);
+            }
+            return new LongDecimalPlainValuesDecoder(type, typeLength, buffer, offset, length);
+        }
+
+        if (encoding == RLE_DICTIONARY || encoding == PLAIN_DICTIONARY) {
+            InputStream inputStream = ByteBufferInputStream.wrap(ByteBuffer.wrap(buffer, offset, length));
+            int bitWidth = readIntLittleEndianOnOneByte(inputStream);
+            if (isShortDecimal) {
+                return new ShortDecimalRLEDictionaryValuesDecoder(bitWidth, inputStream, (ShortDecimalBatchDictionary) dictionary);
+            }
+            return new LongDecimalRLEDictionaryValuesDecoder(bitWidth, inputStream, (LongDecimalBatchDictionary) dictionary);
+        }
+
+        if (encoding == DELTA_BINARY_PACKED || encoding == DELTA_BYTE_ARRAY || encoding == DELTA_LENGTH_BYTE_ARRAY) {
+            ByteBufferInputStream inputStream = ByteBufferInputStream.wrap(ByteBuffer.wrap(buffer, offset, length));
+            if (isShortDecimal) {
+                return new ShortDecimalDeltaValuesDecoder(encoding, type, valueCount, inputStream);
+            }
+            return new LongDecimalDeltaValuesDecoder(encoding, valueCount, inputStream);
+        }
+
+        throw new PrestoException(PARQUET_UNSUPPORTED_ENCODING, format("Column: %s, Encoding: %s", columnDescriptor, encoding));
+    }
+
     private static FlatDecoders readFlatPageV1(DataPageV1 page, RichColumnDescriptor columnDescriptor, Dictionary dictionary)
             throws IOException
     {
@@ -74,6 +74,30 @@ public interface ValuesDecoder
                 throws IOException;
     }
 
+    interface ShortDecimalValuesDecoder
+            extends ValuesDecoder
+    {
+        void readNext(long[] values, int offset, int length)
+                throws IOException;
+
+        void skip(int length)
+                throws IOException;
+    }
+
+    /**
+     * Decodes each value into two longs, the low and high halves of the unscaled value in the
+     * sign and magnitude layout used by long decimal blocks, starting at {@code values[2 * offset]}.
+     */
+    interface LongDecimalValuesDecoder
+            extends ValuesDecoder
+    {
+        void readNext(long[] values, int offset, int length)
+                throws IOException;
+
+        void skip(int length)
+                throws IOException;
+    }
+
     interface BooleanValuesDecoder
             extends ValuesDecoder
     {
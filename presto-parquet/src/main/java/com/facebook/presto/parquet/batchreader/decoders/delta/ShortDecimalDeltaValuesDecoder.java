@@ -0,0 +1,108 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.parquet.batchreader.decoders.delta;
+
+import com.facebook.presto.parquet.ParquetEncoding;
+import com.facebook.presto.parquet.batchreader.decoders.ValuesDecoder.ShortDecimalValuesDecoder;
+import org.apache.parquet.bytes.ByteBufferInputStream;
+import org.apache.parquet.column.values.ValuesReader;
+import org.apache.parquet.column.values.delta.DeltaBinaryPackingValuesReader;
+import org.apache.parquet.column.values.deltalengthbytearray.DeltaLengthByteArrayValuesReader;
+import org.apache.parquet.column.values.deltastrings.DeltaByteArrayReader;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.io.IOException;
+
+import static com.facebook.presto.parquet.ParquetEncoding.DELTA_BINARY_PACKED;
+import static com.facebook.presto.parquet.ParquetEncoding.DELTA_BYTE_ARRAY;
+import static com.facebook.presto.parquet.ParquetEncoding.DELTA_LENGTH_BYTE_ARRAY;
+import static com.facebook.presto.parquet.batchreader.BytesUtils.getShortDecimalValue;
+import static java.util.Objects.requireNonNull;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT32;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+
+/**
+ * Note: this is not an optimized values decoder. It makes use of the existing Parquet decoders. Given that delta encodings
+ * are not common for decimals, just use the existing ones provided by Parquet library and add a wrapper around them that
+ * satisfies the {@link ShortDecimalValuesDecoder} interface.
+ */
+public class ShortDecimalDeltaValuesDecoder
+        implements ShortDecimalValuesDecoder
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(ShortDecimalDeltaValuesDecoder.class).instanceSize();
+
+    private final PrimitiveTypeName type;
+    private final ValuesReader innerReader;
+
+    public ShortDecimalDeltaValuesDecoder(ParquetEncoding encoding, PrimitiveTypeName type, int valueCount, ByteBufferInputStream bufferInputStream)
+            throws IOException
+    {
+        this.type = requireNonNull(type, "type is null");
+        boolean integral = type == INT32 || type == INT64;
+        if (encoding == DELTA_BINARY_PACKED && integral) {
+            innerReader = new DeltaBinaryPackingValuesReader();
+        }
+        else if (encoding == DELTA_BYTE_ARRAY && !integral) {
+            innerReader = new DeltaByteArrayReader();
+        }
+        else if (encoding == DELTA_LENGTH_BYTE_ARRAY && !integral) {
+            innerReader = new DeltaLengthByteArrayValuesReader();
+        }
+        else {
+            throw new IllegalArgumentException("Unsupported encoding " + encoding + " for decimal type " + type);
+        }
+        innerReader.initFromPage(valueCount, bufferInputStream);
+    }
+
+    @Override
+    public void readNext(long[] values, int offset, int length)
+    {
+        int endOffset = offset + length;
+        switch (type) {
+            case INT32:
+                for (int i = offset; i < endOffset; i++) {
+                    values[i] = innerReader.readInteger();
+                }
+                break;
+            case INT64:
+                for (int i = offset; i < endOffset; i++) {
+                    values[i] = innerReader.readLong();
+                }
+                break;
+            default:
+                for (int i = offset; i < endOffset; i++) {
+                    Binary value = innerReader.readBytes();
+                    values[i] = getShortDecimalValue(value.getBytesUnsafe(), 0, value.length());
+                }
+        }
+    }
+
+    @Override
+    public void skip(int length)
+    {
+        while (length > 0) {
+            innerReader.skip();
+            length--;
+        }
+    }
+
+    @Override
+    public long getRetainedSizeInBytes()
+    {
+        // Not counting innerReader since it's in another library.
+        return INSTANCE_SIZE;
+    }
+}
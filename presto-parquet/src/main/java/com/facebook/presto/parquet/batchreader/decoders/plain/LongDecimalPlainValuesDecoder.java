@@ -0,0 +1,98 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.parquet.batchreader.decoders.plain;
+
+import com.facebook.presto.parquet.batchreader.BytesUtils;
+import com.facebook.presto.parquet.batchreader.decoders.ValuesDecoder.LongDecimalValuesDecoder;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.openjdk.jol.info.ClassLayout;
+
+import static com.facebook.presto.parquet.batchreader.BytesUtils.getLongDecimalValue;
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY;
+
+public class LongDecimalPlainValuesDecoder
+        implements LongDecimalValuesDecoder
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(LongDecimalPlainValuesDecoder.class).instanceSize();
+
+    // length of each value for FIXED_LEN_BYTE_ARRAY, or -1 for length prefixed BINARY values
+    private final int typeLength;
+    private final byte[] byteBuffer;
+    private final int bufferEnd;
+
+    private int bufferOffset;
+
+    public LongDecimalPlainValuesDecoder(PrimitiveTypeName type, int typeLength, byte[] byteBuffer, int bufferOffset, int length)
+    {
+        checkArgument(type == BINARY || type == FIXED_LEN_BYTE_ARRAY, "Unsupported decimal type: %s", type);
+        checkArgument(type == BINARY || typeLength > 0, "invalid type length %s", typeLength);
+        this.typeLength = type == BINARY ? -1 : typeLength;
+        this.byteBuffer = byteBuffer;
+        this.bufferOffset = bufferOffset;
+        this.bufferEnd = bufferOffset + length;
+    }
+
+    @Override
+    public void readNext(long[] values, int offset, int length)
+    {
+        checkArgument(length >= 0 && offset >= 0, "invalid read request: offset %s, length %s", offset, length);
+
+        final int endOffset = offset + length;
+        final byte[] localByteBuffer = byteBuffer;
+        int localBufferOffset = bufferOffset;
+
+        if (typeLength > 0) {
+            final int localTypeLength = typeLength;
+            checkArgument(localBufferOffset + length * localTypeLength <= bufferEnd, "End of stream: invalid read request");
+            while (offset < endOffset) {
+                getLongDecimalValue(localByteBuffer, localBufferOffset, localTypeLength, values, offset++);
+                localBufferOffset += localTypeLength;
+            }
+        }
+        else {
+            while (offset < endOffset) {
+                checkArgument(localBufferOffset + 4 <= bufferEnd, "End of stream: invalid read request");
+                int valueLength = BytesUtils.getInt(localByteBuffer, localBufferOffset);
+                getLongDecimalValue(localByteBuffer, localBufferOffset + 4, valueLength, values, offset++);
+                localBufferOffset += 4 + valueLength;
+            }
+        }
+
+        bufferOffset = localBufferOffset;
+    }
+
+    @Override
+    public void skip(int length)
+    {
+        checkArgument(length >= 0, "invalid length %s", length);
+        if (typeLength > 0) {
+            bufferOffset += length * typeLength;
+        }
+        else {
+            for (int i = 0; i < length && bufferOffset < bufferEnd; i++) {
+                bufferOffset += 4 + BytesUtils.getInt(byteBuffer, bufferOffset);
+            }
+        }
+        checkArgument(bufferOffset <= bufferEnd, "End of stream: invalid read request");
+    }
+
+    @Override
+    public long getRetainedSizeInBytes()
+    {
+        return INSTANCE_SIZE + sizeOf(byteBuffer);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.parquet.batchreader.decoders.plain;
+
+import com.facebook.presto.parquet.batchreader.BytesUtils;
+import com.facebook.presto.parquet.batchreader.decoders.ValuesDecoder.ShortDecimalValuesDecoder;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.openjdk.jol.info.ClassLayout;
+
+import static com.facebook.presto.parquet.batchreader.BytesUtils.getShortDecimalValue;
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static java.util.Objects.requireNonNull;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY;
+
+public class ShortDecimalPlainValuesDecoder
+        implements ShortDecimalValuesDecoder
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(ShortDecimalPlainValuesDecoder.class).instanceSize();
+
+    private final PrimitiveTypeName type;
+    private final int typeLength;
+    private final byte[] byteBuffer;
+    private final int bufferEnd;
+
+    private int bufferOffset;
+
+    public ShortDecimalPlainValuesDecoder(PrimitiveTypeName type, int typeLength, byte[] byteBuffer, int bufferOffset, int length)
+    {
+        this.type = requireNonNull(type, "type is null");
+        checkArgument(type != FIXED_LEN_BYTE_ARRAY || typeLength > 0, "invalid type length %s", typeLength);
+        this.typeLength = typeLength;
+        this.byteBuffer = byteBuffer;
+        this.bufferOffset = bufferOffset;
+        this.bufferEnd = bufferOffset + length;
+    }
+
+    @Override
+    public void readNext(long[] values, int offset, int length)
+    {
+        checkArgument(length >= 0 && offset >= 0, "invalid read request: offset %s, length %s", offset, length);
+
+        final int endOffset = offset + length;
+        final byte[] localByteBuffer = byteBuffer;
+        int localBufferOffset = bufferOffset;
+
+        switch (type) {
+            case INT32:
+                checkArgument(localBufferOffset + length * 4 <= bufferEnd, "End of stream: invalid read request");
+                while (offset < endOffset) {
+                    values[offset++] = BytesUtils.getInt(localByteBuffer, localBufferOffset);
+                    localBufferOffset += 4;
+                }
+                break;
+            case INT64:
+                checkArgument(localBufferOffset + length * 8 <= bufferEnd, "End of stream: invalid read request");
+                while (offset < endOffset) {
+                    values[offset++] = BytesUtils.getLong(localByteBuffer, localBufferOffset);
+                    localBufferOffset += 8;
+                }
+                break;
+            case FIXED_LEN_BYTE_ARRAY: {
+                final int localTypeLength = typeLength;
+                checkArgument(localBufferOffset + length * localTypeLength <= bufferEnd, "End of stream: invalid read request");
+                while (offset < endOffset) {
+                    values[offset++] = getShortDecimalValue(localByteBuffer, localBufferOffset, localTypeLength);
+                    localBufferOffset += localTypeLength;
+                }
+                break;
+            }
+            case BINARY:
+                while (offset < endOffset) {
+                    checkArgument(localBufferOffset + 4 <= bufferEnd, "End of stream: invalid read request");
+                    int valueLength = BytesUtils.getInt(localByteBuffer, localBufferOffset);
+                    values[offset++] = getShortDecimalValue(localByteBuffer, localBufferOffset + 4, valueLength);
+                    localBufferOffset += 4 + valueLength;
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported decimal type: " + type);
+        }
+
+        bufferOffset = localBufferOffset;
+    }
+
+    @Override
+    public void skip(int length)
+    {
+        checkArgument(length >= 0, "invalid length %s", length);
+        switch (type) {
+            case INT32:
+                bufferOffset += length * 4;
+                break;
+            case INT64:
+                bufferOffset += length * 8;
+                break;
+            case FIXED_LEN_BYTE_ARRAY:
+                bufferOffset += length * typeLength;
+                break;
+            case BINARY:
+                for (int i = 0; i < length && bufferOffset < bufferEnd; i++) {
+                    bufferOffset += 4 + BytesUtils.getInt(byteBuffer, bufferOffset);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported decimal type: " + type);
+        }
+        checkArgument(bufferOffset <= bufferEnd, "End of stream: invalid read request");
+    }
+
+    @Override
+    public long getRetainedSizeInBytes()
+    {
+        return INSTANCE_SIZE + sizeOf(byteBuffer);
+    }
+}
@@ -22,6 +22,8 @@ import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.io.ParquetDecodingException;
 
 import static com.facebook.presto.parquet.ParquetErrorCode.PARQUET_UNSUPPORTED_ENCODING;
+import static com.facebook.presto.parquet.ParquetTypeUtils.isDecimalType;
+import static com.facebook.presto.parquet.ParquetTypeUtils.isShortDecimalType;
 
 public class Dictionaries
 {
@@ -32,6 +34,12 @@ public class Dictionaries
     public static Dictionary createDictionary(ColumnDescriptor columnDescriptor, DictionaryPage dictionaryPage)
     {
         try {
+            if (isDecimalType(columnDescriptor)) {
+                if (isShortDecimalType(columnDescriptor)) {
+                    return new ShortDecimalBatchDictionary(columnDescriptor, dictionaryPage);
+                }
+                return new LongDecimalBatchDictionary(columnDescriptor, dictionaryPage);
+            }
             switch (columnDescriptor.getPrimitiveType().getPrimitiveTypeName()) {
                 case INT32:
                 case FLOAT:
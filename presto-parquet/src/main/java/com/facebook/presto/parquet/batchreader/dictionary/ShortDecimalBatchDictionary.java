@@ -0,0 +1,60 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.parquet.batchreader.dictionary;
+
+import com.facebook.presto.parquet.DictionaryPage;
+import com.facebook.presto.parquet.batchreader.decoders.plain.ShortDecimalPlainValuesDecoder;
+import com.facebook.presto.parquet.dictionary.Dictionary;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.openjdk.jol.info.ClassLayout;
+
+import static io.airlift.slice.SizeOf.sizeOf;
+import static java.util.Objects.requireNonNull;
+
+public final class ShortDecimalBatchDictionary
+        extends Dictionary
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(ShortDecimalBatchDictionary.class).instanceSize();
+
+    private final long[] content;
+
+    public ShortDecimalBatchDictionary(ColumnDescriptor columnDescriptor, DictionaryPage dictionaryPage)
+    {
+        super(dictionaryPage.getEncoding());
+        requireNonNull(columnDescriptor, "columnDescriptor is null");
+        byte[] pageBuffer = requireNonNull(dictionaryPage.getSlice(), "dictionary slice is null").getBytes();
+
+        // dictionary values are stored with the plain encoding of the physical type
+        content = new long[dictionaryPage.getDictionarySize()];
+        new ShortDecimalPlainValuesDecoder(
+                columnDescriptor.getPrimitiveType().getPrimitiveTypeName(),
+                columnDescriptor.getPrimitiveType().getTypeLength(),
+                pageBuffer,
+                0,
+                pageBuffer.length)
+                .readNext(content, 0, content.length);
+    }
+
+    @Override
+    public long decodeToLong(int id)
+    {
+        return content[id];
+    }
+
+    @Override
+    public long getRetainedSizeInBytes()
+    {
+        return INSTANCE_SIZE + sizeOf(content);
+    }
+}
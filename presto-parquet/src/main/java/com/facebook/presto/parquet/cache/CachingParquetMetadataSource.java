@@ -18,7 +18,9 @@ import com.facebook.presto.parquet.ParquetDataSource;
 import com.facebook.presto.parquet.ParquetDataSourceId;
 import com.google.common.cache.Cache;
 import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.apache.parquet.column.values.bloomfilter.BloomFilter;
 import org.apache.parquet.crypto.InternalFileDecryptor;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 
 import java.io.IOException;
 import java.util.Optional;
@@ -31,11 +33,21 @@ public class CachingParquetMetadataSource
         implements ParquetMetadataSource
 {
     private final Cache<ParquetDataSourceId, ParquetFileMetadata> cache;
+    private final Optional<Cache<ParquetBloomFilterId, ParquetBloomFilterMetadata>> bloomFilterCache;
     private final ParquetMetadataSource delegate;
 
     public CachingParquetMetadataSource(Cache<ParquetDataSourceId, ParquetFileMetadata> cache, ParquetMetadataSource delegate)
+    {
+        this(cache, Optional.empty(), delegate);
+    }
+
+    public CachingParquetMetadataSource(
+            Cache<ParquetDataSourceId, ParquetFileMetadata> cache,
+            Optional<Cache<ParquetBloomFilterId, ParquetBloomFilterMetadata>> bloomFilterCache,
+            ParquetMetadataSource delegate)
     {
         this.cache = requireNonNull(cache, "cache is null");
+        this.bloomFilterCache = requireNonNull(bloomFilterCache, "bloomFilterCache is null");
         this.delegate = requireNonNull(delegate, "delegate is null");
     }
 
@@ -68,4 +80,33 @@ public class CachingParquetMetadataSource
             throw new IOException("Unexpected error in parquet metadata reading after cache miss", e.getCause());
         }
     }
+
+    @Override
+    public Optional<BloomFilter> getBloomFilter(
+            ParquetDataSource parquetDataSource,
+            ColumnChunkMetaData columnChunkMetaData,
+            boolean cacheable,
+            long modificationTime)
+            throws IOException
+    {
+        try {
+            if (cacheable && bloomFilterCache.isPresent()) {
+                ParquetBloomFilterId id = new ParquetBloomFilterId(parquetDataSource.getId(), columnChunkMetaData.getBloomFilterOffset());
+                ParquetBloomFilterMetadata bloomFilterMetadata = bloomFilterCache.get().get(
+                        id,
+                        () -> new ParquetBloomFilterMetadata(delegate.getBloomFilter(parquetDataSource, columnChunkMetaData, cacheable, modificationTime), modificationTime));
+                if (bloomFilterMetadata.getModificationTime() == modificationTime) {
+                    return bloomFilterMetadata.getBloomFilter();
+                }
+                else {
+                    bloomFilterCache.get().invalidate(id);
+                }
+            }
+            return delegate.getBloomFilter(parquetDataSource, columnChunkMetaData, cacheable, modificationTime);
+        }
+        catch (ExecutionException | UncheckedExecutionException e) {
+            throwIfInstanceOf(e.getCause(), IOException.class);
+            throw new IOException("Unexpected error in parquet bloom filter reading after cache miss", e.getCause());
+        }
+    }
 }
@@ -18,6 +18,8 @@ import com.facebook.presto.parquet.ParquetDataSource;
 import com.facebook.presto.parquet.ParquetDataSourceId;
 import io.airlift.slice.BasicSliceInput;
 import io.airlift.slice.Slice;
+import org.apache.parquet.column.values.bloomfilter.BlockSplitBloomFilter;
+import org.apache.parquet.column.values.bloomfilter.BloomFilter;
 import org.apache.parquet.crypto.AesCipher;
 import org.apache.parquet.crypto.AesGcmEncryptor;
 import org.apache.parquet.crypto.HiddenColumnChunkMetaData;
@@ -28,6 +30,7 @@ import org.apache.parquet.crypto.ModuleCipherFactory.ModuleType;
 import org.apache.parquet.crypto.ParquetCryptoRuntimeException;
 import org.apache.parquet.crypto.TagVerificationException;
 import org.apache.parquet.format.BlockCipher.Decryptor;
+import org.apache.parquet.format.BloomFilterHeader;
 import org.apache.parquet.format.ColumnChunk;
 import org.apache.parquet.format.ColumnCryptoMetaData;
 import org.apache.parquet.format.ColumnMetaData;
@@ -94,6 +97,7 @@ public final class MetadataReader
     private static final int EXPECTED_FOOTER_SIZE = 16 * 1024;
     private static final ParquetMetadataConverter PARQUET_METADATA_CONVERTER = new ParquetMetadataConverter();
     private static final long MODIFICATION_TIME_NOT_SET = 0L;
+    private static final int EXPECTED_BLOOM_FILTER_HEADER_SIZE = 64;
 
     public static ParquetFileMetadata readFooter(ParquetDataSource parquetDataSource, long fileSize, Optional<InternalFileDecryptor> fileDecryptor, boolean readMaskedValue)
             throws IOException
@@ -135,6 +139,39 @@ public final class MetadataReader
         return readParquetMetadata(tailSlice.slice(tailSlice.length() - completeFooterSize, metadataLength).getInput(), metadataLength, modificationTime, fileDecryptor, encryptedFooterMode, parquetDataSource.getId(), readMaskedValue);
     }
 
+    public static Optional<BloomFilter> readBloomFilter(ParquetDataSource parquetDataSource, ColumnChunkMetaData columnChunkMetaData)
+            throws IOException
+    {
+        long offset = columnChunkMetaData.getBloomFilterOffset();
+        if (offset < 0 || HiddenColumnChunkMetaData.isHiddenColumn(columnChunkMetaData)) {
+            return Optional.empty();
+        }
+
+        // The header is a small thrift struct, read it together with the beginning of the bitset
+        byte[] buffer = new byte[EXPECTED_BLOOM_FILTER_HEADER_SIZE + BlockSplitBloomFilter.LOWER_BOUND_BYTES];
+        parquetDataSource.readFully(offset, buffer);
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(buffer);
+        BloomFilterHeader header = Util.readBloomFilterHeader(inputStream);
+        int headerSize = buffer.length - inputStream.available();
+
+        int numBytes = header.getNumBytes();
+        if (!header.getAlgorithm().isSetBLOCK() ||
+                !header.getHash().isSetXXHASH() ||
+                !header.getCompression().isSetUNCOMPRESSED() ||
+                numBytes <= 0 ||
+                numBytes > BlockSplitBloomFilter.UPPER_BOUND_BYTES) {
+            return Optional.empty();
+        }
+
+        byte[] bitset = new byte[numBytes];
+        int buffered = min(numBytes, buffer.length - headerSize);
+        System.arraycopy(buffer, headerSize, bitset, 0, buffered);
+        if (buffered < numBytes) {
+            parquetDataSource.readFully(offset + headerSize + buffered, bitset, buffered, numBytes - buffered);
+        }
+        return Optional.of(new BlockSplitBloomFilter(bitset));
+    }
+
     private static ParquetFileMetadata readParquetMetadata(BasicSliceInput input, int metadataLength, long modificationTime, Optional<InternalFileDecryptor> fileDecryptor, boolean encryptedFooterMode, ParquetDataSourceId id, boolean readMaskedValue)
             throws IOException
     {
@@ -250,6 +287,10 @@ public final class MetadataReader
                     ColumnChunkMetaData column = buildColumnChunkMetaData(metaData, columnPath, messageType.getType(columnPath.toArray()).asPrimitiveType());
                     column.setColumnIndexReference(toColumnIndexReference(columnChunk));
                     column.setOffsetIndexReference(toOffsetIndexReference(columnChunk));
+                    if (cryptoMetaData == null && metaData.isSetBloom_filter_offset()) {
+                        // Bloom filters of encrypted columns are encrypted as well, so they are only exposed for plaintext columns
+                        column.setBloomFilterOffset(metaData.getBloom_filter_offset());
+                    }
                     blockMetaData.addColumn(column);
                 }
                 blockMetaData.setPath(filePath);
@@ -0,0 +1,50 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.parquet.cache;
+
+import org.apache.parquet.column.values.bloomfilter.BloomFilter;
+
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+public class ParquetBloomFilterMetadata
+{
+    private static final int INSTANCE_SIZE = 64;
+
+    private final Optional<BloomFilter> bloomFilter;
+    private final long modificationTime;
+
+    public ParquetBloomFilterMetadata(Optional<BloomFilter> bloomFilter, long modificationTime)
+    {
+        this.bloomFilter = requireNonNull(bloomFilter, "bloomFilter is null");
+        this.modificationTime = modificationTime;
+    }
+
+    public Optional<BloomFilter> getBloomFilter()
+    {
+        return bloomFilter;
+    }
+
+    public int getRetainedSize()
+    {
+        // Entries without a bloom filter still occupy the cache, so never weigh them as zero
+        return INSTANCE_SIZE + bloomFilter.map(BloomFilter::getBitsetSize).orElse(0);
+    }
+
+    public long getModificationTime()
+    {
+        return modificationTime;
+    }
+}
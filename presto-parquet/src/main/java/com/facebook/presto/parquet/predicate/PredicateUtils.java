@@ -13,13 +13,17 @@
  */
 package com.facebook.presto.parquet.predicate;
 
+import com.facebook.presto.common.predicate.Domain;
+import com.facebook.presto.common.predicate.Range;
 import com.facebook.presto.common.predicate.TupleDomain;
 import com.facebook.presto.common.type.Type;
+import com.facebook.presto.common.type.VarcharType;
 import com.facebook.presto.parquet.DictionaryPage;
 import com.facebook.presto.parquet.ParquetCorruptionException;
 import com.facebook.presto.parquet.ParquetDataSource;
 import com.facebook.presto.parquet.ParquetEncoding;
 import com.facebook.presto.parquet.RichColumnDescriptor;
+import com.facebook.presto.parquet.cache.ParquetMetadataSource;
 import com.facebook.presto.spi.WarningCollector;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
@@ -31,6 +35,7 @@ import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.Encoding;
 import org.apache.parquet.column.EncodingStats;
 import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.column.values.bloomfilter.BloomFilter;
 import org.apache.parquet.crypto.HiddenColumnChunkMetaData;
 import org.apache.parquet.format.DictionaryPageHeader;
 import org.apache.parquet.format.PageHeader;
@@ -40,7 +45,12 @@ import org.apache.parquet.hadoop.metadata.BlockMetaData;
 import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.apache.parquet.internal.filter2.columnindex.ColumnIndexStore;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.DateLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.IntLogicalTypeAnnotation;
 import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -50,20 +60,27 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.DateType.DATE;
 import static com.facebook.presto.common.type.IntegerType.INTEGER;
 import static com.facebook.presto.common.type.SmallintType.SMALLINT;
 import static com.facebook.presto.common.type.TinyintType.TINYINT;
+import static com.facebook.presto.common.type.VarbinaryType.VARBINARY;
 import static com.facebook.presto.parquet.ParquetCompressionUtils.decompress;
 import static com.facebook.presto.parquet.ParquetTypeUtils.getParquetEncoding;
 import static com.google.common.base.Verify.verify;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.airlift.slice.Slices.wrappedBuffer;
 import static java.lang.Math.toIntExact;
 import static org.apache.parquet.column.Encoding.BIT_PACKED;
 import static org.apache.parquet.column.Encoding.PLAIN_DICTIONARY;
 import static org.apache.parquet.column.Encoding.RLE;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
 
 public final class PredicateUtils
 {
+    private static final int MAX_BLOOM_FILTER_LOOKUP_VALUES = 1024;
+
     private PredicateUtils()
     {
     }
@@ -131,6 +148,103 @@ public final class PredicateUtils
         return dictionaryPredicatesMatch(parquetPredicate, block, dataSource, descriptorsByPath, parquetTupleDomain);
     }
 
+    /**
+     * Returns false if the bloom filter of any predicate column proves that none of the values
+     * in its domain are present in the row group. Only domains that are a small set of discrete
+     * non-null values can be checked against bloom filters.
+     */
+    public static boolean bloomFilterPredicatesMatch(
+            BlockMetaData block,
+            ParquetDataSource dataSource,
+            ParquetMetadataSource metadataSource,
+            Map<List<String>, RichColumnDescriptor> descriptorsByPath,
+            TupleDomain<ColumnDescriptor> parquetTupleDomain,
+            boolean cacheable,
+            long modificationTime)
+    {
+        if (!parquetTupleDomain.getDomains().isPresent()) {
+            return true;
+        }
+        Map<ColumnDescriptor, Domain> domains = parquetTupleDomain.getDomains().get();
+        for (ColumnChunkMetaData columnMetaData : block.getColumns()) {
+            if (HiddenColumnChunkMetaData.isHiddenColumn(columnMetaData) || columnMetaData.getBloomFilterOffset() < 0) {
+                continue;
+            }
+            RichColumnDescriptor descriptor = descriptorsByPath.get(Arrays.asList(columnMetaData.getPath().toArray()));
+            if (descriptor == null) {
+                continue;
+            }
+            Domain domain = domains.get(descriptor);
+            if (domain == null || !isBloomFilterSupported(domain.getType(), descriptor.getPrimitiveType())) {
+                continue;
+            }
+            Optional<List<Object>> values = getBloomFilterLookupValues(domain);
+            if (!values.isPresent()) {
+                continue;
+            }
+
+            Optional<BloomFilter> bloomFilter;
+            try {
+                bloomFilter = metadataSource.getBloomFilter(dataSource, columnMetaData, cacheable, modificationTime);
+            }
+            catch (IOException ignored) {
+                continue;
+            }
+            if (bloomFilter.isPresent() && values.get().stream().noneMatch(value -> bloomFilterMightContain(bloomFilter.get(), domain.getType(), descriptor.getPrimitiveType(), value))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isBloomFilterSupported(Type type, PrimitiveType primitiveType)
+    {
+        LogicalTypeAnnotation annotation = primitiveType.getLogicalTypeAnnotation();
+        switch (primitiveType.getPrimitiveTypeName()) {
+            case INT32:
+            case INT64:
+                if (type.equals(DATE)) {
+                    return annotation instanceof DateLogicalTypeAnnotation;
+                }
+                // unsigned values do not round trip through a signed hash
+                return (type.equals(BIGINT) || type.equals(INTEGER) || type.equals(SMALLINT) || type.equals(TINYINT)) &&
+                        (annotation == null || (annotation instanceof IntLogicalTypeAnnotation && ((IntLogicalTypeAnnotation) annotation).isSigned()));
+            case BINARY:
+                return type instanceof VarcharType || type.equals(VARBINARY);
+            default:
+                return false;
+        }
+    }
+
+    private static Optional<List<Object>> getBloomFilterLookupValues(Domain domain)
+    {
+        if (domain.isNullAllowed() || domain.getValues().isNone() || !domain.getType().isOrderable()) {
+            return Optional.empty();
+        }
+        List<Range> ranges = domain.getValues().getRanges().getOrderedRanges();
+        if (ranges.size() > MAX_BLOOM_FILTER_LOOKUP_VALUES || !ranges.stream().allMatch(Range::isSingleValue)) {
+            return Optional.empty();
+        }
+        return Optional.of(ranges.stream()
+                .map(Range::getSingleValue)
+                .collect(toImmutableList()));
+    }
+
+    private static boolean bloomFilterMightContain(BloomFilter bloomFilter, Type type, PrimitiveType primitiveType, Object value)
+    {
+        if (type instanceof VarcharType || type.equals(VARBINARY)) {
+            return bloomFilter.findHash(bloomFilter.hash(Binary.fromConstantByteBuffer(((Slice) value).toByteBuffer())));
+        }
+        long longValue = (long) value;
+        if (primitiveType.getPrimitiveTypeName() == INT64) {
+            return bloomFilter.findHash(bloomFilter.hash(longValue));
+        }
+        if (longValue < Integer.MIN_VALUE || longValue > Integer.MAX_VALUE) {
+            return false;
+        }
+        return bloomFilter.findHash(bloomFilter.hash(toIntExact(longValue)));
+    }
+
     private static Map<ColumnDescriptor, Statistics<?>> getStatistics(BlockMetaData blockMetadata, Map<List<String>, RichColumnDescriptor> descriptorsByPath)
     {
         ImmutableMap.Builder<ColumnDescriptor, Statistics<?>> statistics = ImmutableMap.builder();
@@ -27,6 +27,7 @@ import com.facebook.presto.memory.context.AggregatedMemoryContext;
 import com.facebook.presto.memory.context.LocalMemoryContext;
 import com.facebook.presto.parquet.ColumnReader;
 import com.facebook.presto.parquet.ColumnReaderFactory;
+import com.facebook.presto.parquet.DiskRange;
 import com.facebook.presto.parquet.Field;
 import com.facebook.presto.parquet.GroupField;
 import com.facebook.presto.parquet.ParquetCorruptionException;
@@ -37,6 +38,7 @@ import com.facebook.presto.parquet.RichColumnDescriptor;
 import com.facebook.presto.parquet.predicate.Predicate;
 import com.facebook.presto.parquet.predicate.TupleDomainParquetPredicate;
 import com.facebook.presto.parquet.reader.ColumnIndexFilterUtils.OffsetRange;
+import com.google.common.collect.ImmutableList;
 import io.airlift.units.DataSize;
 import it.unimi.dsi.fastutil.booleans.BooleanArrayList;
 import it.unimi.dsi.fastutil.booleans.BooleanList;
@@ -247,6 +249,14 @@ public class ParquetReader
         currentBlockMetadata = blocks.get(currentBlock);
         firstRowIndexInGroup = firstRowsOfBlocks.map(firstRows -> firstRows.get(currentBlock));
 
+        // let the data source read the next row group while this one is decoded
+        if (currentBlock == 0) {
+            prefetchRowGroup(currentBlock);
+        }
+        if (currentBlock + 1 < blocks.size()) {
+            prefetchRowGroup(currentBlock + 1);
+        }
+
         if (filter != null && columnIndexFilterEnabled) {
             ColumnIndexStore columnIndexStore = blockIndexStores.get(currentBlock);
             if (columnIndexStore != null) {
@@ -264,6 +274,17 @@ public class ParquetReader
         return true;
     }
 
+    private void prefetchRowGroup(int block)
+    {
+        ImmutableList.Builder<DiskRange> ranges = ImmutableList.builder();
+        for (ColumnChunkMetaData metadata : blocks.get(block).getColumns()) {
+            if (!HiddenColumnChunkMetaData.isHiddenColumn(metadata) && paths.containsKey(metadata.getPath()) && metadata.getTotalSize() > 0) {
+                ranges.add(new DiskRange(metadata.getStartingPos(), metadata.getTotalSize()));
+            }
+        }
+        dataSource.prefetch(ranges.build());
+    }
+
     private ColumnChunk readArray(GroupField field)
             throws IOException
     {
@@ -15,7 +15,9 @@ package com.facebook.presto.parquet;
 
 import com.facebook.presto.common.block.Block;
 import com.facebook.presto.common.type.ArrayType;
+import com.facebook.presto.common.type.DecimalType;
 import com.facebook.presto.common.type.RowType;
+import com.facebook.presto.common.type.SqlDecimal;
 import com.facebook.presto.common.type.Type;
 import com.facebook.presto.common.type.VarcharType;
 import com.facebook.presto.parquet.cache.MetadataReader;
@@ -45,6 +47,7 @@ import org.openjdk.jmh.runner.options.VerboseMode;
 
 import java.io.File;
 import java.io.IOException;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -54,6 +57,7 @@ import java.util.concurrent.TimeUnit;
 
 import static com.facebook.presto.common.type.BigintType.BIGINT;
 import static com.facebook.presto.common.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.common.type.DecimalType.createDecimalType;
 import static com.facebook.presto.common.type.IntegerType.INTEGER;
 import static com.facebook.presto.common.type.TimestampType.TIMESTAMP;
 import static com.facebook.presto.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
@@ -77,6 +81,9 @@ public class BenchmarkParquetReader
 {
     public static final int ROWS = 10_000_000;
 
+    private static final DecimalType SHORT_DECIMAL_TYPE = createDecimalType(18, 2);
+    private static final DecimalType LONG_DECIMAL_TYPE = createDecimalType(38, 2);
+
     private static final boolean enableOptimizedReader = true;
     private static final boolean enableVerification = false;
 
@@ -160,6 +167,34 @@ public class BenchmarkParquetReader
         return read(data);
     }
 
+    @Benchmark
+    public Object readShortDecimalNoNull(ShortDecimalNoNullBenchmarkData data)
+            throws Throwable
+    {
+        return read(data);
+    }
+
+    @Benchmark
+    public Object readShortDecimalWithNull(ShortDecimalWithNullBenchmarkData data)
+            throws Throwable
+    {
+        return read(data);
+    }
+
+    @Benchmark
+    public Object readLongDecimalNoNull(LongDecimalNoNullBenchmarkData data)
+            throws Throwable
+    {
+        return read(data);
+    }
+
+    @Benchmark
+    public Object readLongDecimalWithNull(LongDecimalWithNullBenchmarkData data)
+            throws Throwable
+    {
+        return read(data);
+    }
+
     @Benchmark
     public Object readSliceDictionaryNoNull(VarcharNoNullBenchmarkData data)
             throws Throwable
@@ -504,6 +539,112 @@ public class BenchmarkParquetReader
         }
     }
 
+    @State(Scope.Thread)
+    public static class ShortDecimalNoNullBenchmarkData
+            extends BenchmarkData
+    {
+        @Override
+        protected List<?> generateValues()
+        {
+            List<SqlDecimal> values = new ArrayList<>();
+            for (int i = 0; i < ROWS; ++i) {
+                values.add(new SqlDecimal(BigInteger.valueOf(random.nextLong() % 1_000_000_000_000_000L), SHORT_DECIMAL_TYPE.getPrecision(), SHORT_DECIMAL_TYPE.getScale()));
+            }
+            return values;
+        }
+
+        @Override
+        protected Type getType()
+        {
+            return SHORT_DECIMAL_TYPE;
+        }
+
+        @Override
+        protected boolean getNullability()
+        {
+            return false;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ShortDecimalWithNullBenchmarkData
+            extends BenchmarkData
+    {
+        @Override
+        protected List<?> generateValues()
+        {
+            List<SqlDecimal> values = new ArrayList<>();
+            for (int i = 0; i < ROWS; ++i) {
+                if (random.nextBoolean()) {
+                    values.add(new SqlDecimal(BigInteger.valueOf(random.nextLong() % 1_000_000_000_000_000L), SHORT_DECIMAL_TYPE.getPrecision(), SHORT_DECIMAL_TYPE.getScale()));
+                }
+                else {
+                    values.add(null);
+                }
+            }
+            return values;
+        }
+
+        @Override
+        protected Type getType()
+        {
+            return SHORT_DECIMAL_TYPE;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class LongDecimalNoNullBenchmarkData
+            extends BenchmarkData
+    {
+        @Override
+        protected List<?> generateValues()
+        {
+            List<SqlDecimal> values = new ArrayList<>();
+            for (int i = 0; i < ROWS; ++i) {
+                values.add(new SqlDecimal(new BigInteger(96, random), LONG_DECIMAL_TYPE.getPrecision(), LONG_DECIMAL_TYPE.getScale()));
+            }
+            return values;
+        }
+
+        @Override
+        protected Type getType()
+        {
+            return LONG_DECIMAL_TYPE;
+        }
+
+        @Override
+        protected boolean getNullability()
+        {
+            return false;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class LongDecimalWithNullBenchmarkData
+            extends BenchmarkData
+    {
+        @Override
+        protected List<?> generateValues()
+        {
+            List<SqlDecimal> values = new ArrayList<>();
+            for (int i = 0; i < ROWS; ++i) {
+                if (random.nextBoolean()) {
+                    values.add(new SqlDecimal(new BigInteger(96, random).negate(), LONG_DECIMAL_TYPE.getPrecision(), LONG_DECIMAL_TYPE.getScale()));
+                }
+                else {
+                    values.add(null);
+                }
+            }
+            return values;
+        }
+
+        @Override
+        protected Type getType()
+        {
+            return LONG_DECIMAL_TYPE;
+        }
+    }
+
     @State(Scope.Thread)
     public static class VarcharNoNullBenchmarkData
             extends BenchmarkData
@@ -21,14 +21,17 @@ import org.apache.parquet.bytes.HeapByteBufferAllocator;
 import org.apache.parquet.column.values.ValuesWriter;
 import org.apache.parquet.column.values.bitpacking.ByteBitPackingValuesWriter;
 import org.apache.parquet.column.values.bitpacking.Packer;
+import org.apache.parquet.column.values.plain.FixedLenByteArrayPlainValuesWriter;
 import org.apache.parquet.column.values.plain.PlainValuesWriter;
 import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridEncoder;
 import org.apache.parquet.io.api.Binary;
 
 import java.io.IOException;
+import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
@@ -156,6 +159,45 @@ public class TestParquetUtils
         }
     }
 
+    /**
+     * Generates a page of plain encoded unscaled decimal values. The values are written with
+     * {@code valueLength} bytes each when {@code fixedLength} is set, and as length prefixed byte
+     * arrays of at most {@code valueLength} bytes otherwise.
+     */
+    public static byte[] generateDecimalPlainValuesPage(int valueCount, boolean fixedLength, int valueLength, Random random, List<Object> addedValues)
+    {
+        ValuesWriter writer;
+        if (fixedLength) {
+            writer = new FixedLenByteArrayPlainValuesWriter(valueLength, 20, 1024 * 1000, new HeapByteBufferAllocator());
+        }
+        else {
+            writer = new PlainValuesWriter(20, 1024 * 1000, new HeapByteBufferAllocator());
+        }
+
+        for (int i = 0; i < valueCount; i++) {
+            BigInteger value = new BigInteger(random.nextInt(8 * valueLength), random);
+            if (random.nextBoolean()) {
+                value = value.negate();
+            }
+            byte[] bytes = value.toByteArray();
+            if (fixedLength) {
+                byte[] paddedBytes = new byte[valueLength];
+                Arrays.fill(paddedBytes, 0, valueLength - bytes.length, (byte) (value.signum() < 0 ? -1 : 0));
+                System.arraycopy(bytes, 0, paddedBytes, valueLength - bytes.length, bytes.length);
+                bytes = paddedBytes;
+            }
+            writer.writeBytes(Binary.fromConstantByteArray(bytes));
+            addedValues.add(value);
+        }
+
+        try {
+            return writer.getBytes().toByteArray();
+        }
+        catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public static byte[] generateDictionaryIdPage2048(int maxValue, Random random, List<Integer> addedValues)
     {
         RunLengthBitPackingHybridEncoder encoder = getDictionaryDataPageEncoder(maxValue);
@@ -19,28 +19,43 @@ import com.facebook.presto.parquet.batchreader.decoders.ValuesDecoder.BooleanVal
 import com.facebook.presto.parquet.batchreader.decoders.ValuesDecoder.Int32ValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.ValuesDecoder.Int64TimestampMicrosValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.ValuesDecoder.Int64ValuesDecoder;
+import com.facebook.presto.parquet.batchreader.decoders.ValuesDecoder.LongDecimalValuesDecoder;
+import com.facebook.presto.parquet.batchreader.decoders.ValuesDecoder.ShortDecimalValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.ValuesDecoder.TimestampValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.plain.BinaryPlainValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.plain.BooleanPlainValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.plain.Int32PlainValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.plain.Int64PlainValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.plain.Int64TimestampMicrosPlainValuesDecoder;
+import com.facebook.presto.parquet.batchreader.decoders.plain.LongDecimalPlainValuesDecoder;
+import com.facebook.presto.parquet.batchreader.decoders.plain.ShortDecimalPlainValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.plain.TimestampPlainValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.rle.BinaryRLEDictionaryValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.rle.BooleanRLEValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.rle.Int32RLEDictionaryValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.rle.Int64RLEDictionaryValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.rle.Int64TimestampMicrosRLEDictionaryValuesDecoder;
+import com.facebook.presto.parquet.batchreader.decoders.rle.LongDecimalRLEDictionaryValuesDecoder;
+import com.facebook.presto.parquet.batchreader.decoders.rle.ShortDecimalRLEDictionaryValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.rle.TimestampRLEDictionaryValuesDecoder;
 import com.facebook.presto.parquet.batchreader.dictionary.BinaryBatchDictionary;
+import com.facebook.presto.parquet.batchreader.dictionary.LongDecimalBatchDictionary;
+import com.facebook.presto.parquet.batchreader.dictionary.ShortDecimalBatchDictionary;
 import com.facebook.presto.parquet.batchreader.dictionary.TimestampDictionary;
 import com.facebook.presto.parquet.dictionary.IntegerDictionary;
 import com.facebook.presto.parquet.dictionary.LongDictionary;
+import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
+import org.apache.parquet.schema.Types.PrimitiveBuilder;
 import org.testng.annotations.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -48,12 +63,20 @@ import java.util.List;
 import java.util.Random;
 import java.util.stream.Collectors;
 
+import static com.facebook.presto.common.type.Decimals.encodeUnscaledValue;
 import static com.facebook.presto.parquet.ParquetEncoding.PLAIN_DICTIONARY;
+import static com.facebook.presto.parquet.batchreader.decoders.TestParquetUtils.generateDecimalPlainValuesPage;
 import static com.facebook.presto.parquet.batchreader.decoders.TestParquetUtils.generateDictionaryIdPage2048;
 import static com.facebook.presto.parquet.batchreader.decoders.TestParquetUtils.generatePlainValuesPage;
+import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
 import static java.lang.Math.min;
 import static org.apache.parquet.bytes.BytesUtils.UTF8;
 import static org.apache.parquet.bytes.BytesUtils.getWidthFromMaxInt;
+import static org.apache.parquet.schema.LogicalTypeAnnotation.decimalType;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT32;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
 import static org.testng.Assert.assertEquals;
 
 public class TestValuesDecoders
@@ -118,6 +141,43 @@ public class TestValuesDecoders
         return new BooleanRLEValuesDecoder(ByteBuffer.wrap(pageBytes));
     }
 
+    private static ShortDecimalValuesDecoder shortDecimalPlain(PrimitiveTypeName type, int typeLength, byte[] pageBytes)
+    {
+        return new ShortDecimalPlainValuesDecoder(type, typeLength, pageBytes, 0, pageBytes.length);
+    }
+
+    private static ShortDecimalValuesDecoder shortDecimalDictionary(byte[] pageBytes, int dictionarySize, ShortDecimalBatchDictionary dictionary)
+    {
+        return new ShortDecimalRLEDictionaryValuesDecoder(getWidthFromMaxInt(dictionarySize), new ByteArrayInputStream(pageBytes), dictionary);
+    }
+
+    private static LongDecimalValuesDecoder longDecimalPlain(PrimitiveTypeName type, int typeLength, byte[] pageBytes)
+    {
+        return new LongDecimalPlainValuesDecoder(type, typeLength, pageBytes, 0, pageBytes.length);
+    }
+
+    private static LongDecimalValuesDecoder longDecimalDictionary(byte[] pageBytes, int dictionarySize, LongDecimalBatchDictionary dictionary)
+    {
+        return new LongDecimalRLEDictionaryValuesDecoder(getWidthFromMaxInt(dictionarySize), new ByteArrayInputStream(pageBytes), dictionary);
+    }
+
+    private static ColumnDescriptor decimalColumn(PrimitiveTypeName type, int typeLength, int precision)
+    {
+        PrimitiveBuilder<PrimitiveType> builder = Types.required(type);
+        if (type == FIXED_LEN_BYTE_ARRAY) {
+            builder = builder.length(typeLength);
+        }
+        return new ColumnDescriptor(new String[] {"decimal"}, builder.as(decimalType(2, precision)).named("decimal"), 0, 0);
+    }
+
+    private static BigInteger toBigInteger(Object value)
+    {
+        if (value instanceof BigInteger) {
+            return (BigInteger) value;
+        }
+        return BigInteger.valueOf(((Number) value).longValue());
+    }
+
     private static void int32BatchReadWithSkipHelper(int batchSize, int skipSize, int valueCount, Int32ValuesDecoder decoder, List<Object> expectedValues)
             throws IOException
     {
@@ -213,6 +273,54 @@ public class TestValuesDecoders
         }
     }
 
+    private static void shortDecimalBatchReadWithSkipHelper(int batchSize, int skipSize, int valueCount, ShortDecimalValuesDecoder decoder, List<Object> expectedValues)
+            throws IOException
+    {
+        long[] actualValues = new long[valueCount];
+        int inputOffset = 0;
+        int outputOffset = 0;
+        while (inputOffset < valueCount) {
+            int readBatchSize = min(batchSize, valueCount - inputOffset);
+            decoder.readNext(actualValues, outputOffset, readBatchSize);
+
+            for (int i = 0; i < readBatchSize; i++) {
+                assertEquals(actualValues[outputOffset + i], toBigInteger(expectedValues.get(inputOffset + i)).longValueExact());
+            }
+
+            inputOffset += readBatchSize;
+            outputOffset += readBatchSize;
+
+            int skipBatchSize = min(skipSize, valueCount - inputOffset);
+            decoder.skip(skipBatchSize);
+            inputOffset += skipBatchSize;
+        }
+    }
+
+    private static void longDecimalBatchReadWithSkipHelper(int batchSize, int skipSize, int valueCount, LongDecimalValuesDecoder decoder, List<Object> expectedValues)
+            throws IOException
+    {
+        long[] actualValues = new long[valueCount * 2];
+        int inputOffset = 0;
+        int outputOffset = 0;
+        while (inputOffset < valueCount) {
+            int readBatchSize = min(batchSize, valueCount - inputOffset);
+            decoder.readNext(actualValues, outputOffset, readBatchSize);
+
+            for (int i = 0; i < readBatchSize; i++) {
+                Slice expected = encodeUnscaledValue(toBigInteger(expectedValues.get(inputOffset + i)));
+                assertEquals(actualValues[2 * (outputOffset + i)], expected.getLong(0));
+                assertEquals(actualValues[2 * (outputOffset + i) + 1], expected.getLong(SIZE_OF_LONG));
+            }
+
+            inputOffset += readBatchSize;
+            outputOffset += readBatchSize;
+
+            int skipBatchSize = min(skipSize, valueCount - inputOffset);
+            decoder.skip(skipBatchSize);
+            inputOffset += skipBatchSize;
+        }
+    }
+
     private static void timestampBatchReadWithSkipHelper(int batchSize, int skipSize, int valueCount, TimestampValuesDecoder decoder, List<Object> expectedValues)
             throws IOException
     {
@@ -515,4 +623,122 @@ public class TestValuesDecoders
         booleanBatchReadWithSkipHelper(89, 29, valueCount, booleanRLE(dataPage), expectedValues);
         booleanBatchReadWithSkipHelper(1024, 1024, valueCount, booleanRLE(dataPage), expectedValues);
     }
+
+    @Test
+    public void testShortDecimalPlain()
+            throws IOException
+    {
+        int valueCount = 2048;
+        Random random = new Random(113);
+
+        List<Object> int32Values = new ArrayList<>();
+        byte[] int32Page = generatePlainValuesPage(valueCount, 32, random, int32Values);
+        shortDecimalBatchReadWithSkipHelper(valueCount, 0, valueCount, shortDecimalPlain(INT32, 0, int32Page), int32Values); // read all values in one batch
+        shortDecimalBatchReadWithSkipHelper(89, 29, valueCount, shortDecimalPlain(INT32, 0, int32Page), int32Values);
+
+        List<Object> int64Values = new ArrayList<>();
+        byte[] int64Page = generatePlainValuesPage(valueCount, 64, random, int64Values);
+        shortDecimalBatchReadWithSkipHelper(valueCount, 0, valueCount, shortDecimalPlain(INT64, 0, int64Page), int64Values);
+        shortDecimalBatchReadWithSkipHelper(89, 29, valueCount, shortDecimalPlain(INT64, 0, int64Page), int64Values);
+
+        List<Object> fixedLengthValues = new ArrayList<>();
+        byte[] fixedLengthPage = generateDecimalPlainValuesPage(valueCount, true, 6, random, fixedLengthValues);
+        shortDecimalBatchReadWithSkipHelper(valueCount, 0, valueCount, shortDecimalPlain(FIXED_LEN_BYTE_ARRAY, 6, fixedLengthPage), fixedLengthValues);
+        shortDecimalBatchReadWithSkipHelper(29, 0, valueCount, shortDecimalPlain(FIXED_LEN_BYTE_ARRAY, 6, fixedLengthPage), fixedLengthValues);
+        shortDecimalBatchReadWithSkipHelper(89, 29, valueCount, shortDecimalPlain(FIXED_LEN_BYTE_ARRAY, 6, fixedLengthPage), fixedLengthValues);
+        shortDecimalBatchReadWithSkipHelper(1024, 1024, valueCount, shortDecimalPlain(FIXED_LEN_BYTE_ARRAY, 6, fixedLengthPage), fixedLengthValues);
+
+        List<Object> binaryValues = new ArrayList<>();
+        byte[] binaryPage = generateDecimalPlainValuesPage(valueCount, false, 8, random, binaryValues);
+        shortDecimalBatchReadWithSkipHelper(valueCount, 0, valueCount, shortDecimalPlain(BINARY, 0, binaryPage), binaryValues);
+        shortDecimalBatchReadWithSkipHelper(29, 0, valueCount, shortDecimalPlain(BINARY, 0, binaryPage), binaryValues);
+        shortDecimalBatchReadWithSkipHelper(89, 29, valueCount, shortDecimalPlain(BINARY, 0, binaryPage), binaryValues);
+        shortDecimalBatchReadWithSkipHelper(1024, 1024, valueCount, shortDecimalPlain(BINARY, 0, binaryPage), binaryValues);
+    }
+
+    @Test
+    public void testShortDecimalRLEDictionary()
+            throws IOException
+    {
+        Random random = new Random(127);
+        int valueCount = 2048;
+        int dictionarySize = 29;
+        List<Object> dictionary = new ArrayList<>();
+        List<Integer> dictionaryIds = new ArrayList<>();
+
+        byte[] dictionaryPage = generateDecimalPlainValuesPage(dictionarySize, true, 8, random, dictionary);
+        byte[] dataPage = generateDictionaryIdPage2048(dictionarySize - 1, random, dictionaryIds);
+
+        List<Object> expectedValues = new ArrayList<>();
+        for (Integer dictionaryId : dictionaryIds) {
+            expectedValues.add(dictionary.get(dictionaryId));
+        }
+
+        ShortDecimalBatchDictionary shortDecimalDictionary = new ShortDecimalBatchDictionary(
+                decimalColumn(FIXED_LEN_BYTE_ARRAY, 8, 18),
+                new DictionaryPage(Slices.wrappedBuffer(dictionaryPage), dictionarySize, PLAIN_DICTIONARY));
+
+        shortDecimalBatchReadWithSkipHelper(valueCount, 0, valueCount, shortDecimalDictionary(dataPage, dictionarySize, shortDecimalDictionary), expectedValues);
+        shortDecimalBatchReadWithSkipHelper(29, 0, valueCount, shortDecimalDictionary(dataPage, dictionarySize, shortDecimalDictionary), expectedValues);
+        shortDecimalBatchReadWithSkipHelper(89, 0, valueCount, shortDecimalDictionary(dataPage, dictionarySize, shortDecimalDictionary), expectedValues);
+        shortDecimalBatchReadWithSkipHelper(1024, 0, valueCount, shortDecimalDictionary(dataPage, dictionarySize, shortDecimalDictionary), expectedValues);
+
+        shortDecimalBatchReadWithSkipHelper(256, 29, valueCount, shortDecimalDictionary(dataPage, dictionarySize, shortDecimalDictionary), expectedValues);
+        shortDecimalBatchReadWithSkipHelper(89, 29, valueCount, shortDecimalDictionary(dataPage, dictionarySize, shortDecimalDictionary), expectedValues);
+        shortDecimalBatchReadWithSkipHelper(1024, 1024, valueCount, shortDecimalDictionary(dataPage, dictionarySize, shortDecimalDictionary), expectedValues);
+    }
+
+    @Test
+    public void testLongDecimalPlain()
+            throws IOException
+    {
+        int valueCount = 2048;
+        Random random = new Random(131);
+
+        List<Object> fixedLengthValues = new ArrayList<>();
+        byte[] fixedLengthPage = generateDecimalPlainValuesPage(valueCount, true, 16, random, fixedLengthValues);
+        longDecimalBatchReadWithSkipHelper(valueCount, 0, valueCount, longDecimalPlain(FIXED_LEN_BYTE_ARRAY, 16, fixedLengthPage), fixedLengthValues); // read all values in one batch
+        longDecimalBatchReadWithSkipHelper(29, 0, valueCount, longDecimalPlain(FIXED_LEN_BYTE_ARRAY, 16, fixedLengthPage), fixedLengthValues);
+        longDecimalBatchReadWithSkipHelper(89, 29, valueCount, longDecimalPlain(FIXED_LEN_BYTE_ARRAY, 16, fixedLengthPage), fixedLengthValues);
+        longDecimalBatchReadWithSkipHelper(1024, 1024, valueCount, longDecimalPlain(FIXED_LEN_BYTE_ARRAY, 16, fixedLengthPage), fixedLengthValues);
+
+        List<Object> binaryValues = new ArrayList<>();
+        byte[] binaryPage = generateDecimalPlainValuesPage(valueCount, false, 16, random, binaryValues);
+        longDecimalBatchReadWithSkipHelper(valueCount, 0, valueCount, longDecimalPlain(BINARY, 0, binaryPage), binaryValues);
+        longDecimalBatchReadWithSkipHelper(29, 0, valueCount, longDecimalPlain(BINARY, 0, binaryPage), binaryValues);
+        longDecimalBatchReadWithSkipHelper(89, 29, valueCount, longDecimalPlain(BINARY, 0, binaryPage), binaryValues);
+        longDecimalBatchReadWithSkipHelper(1024, 1024, valueCount, longDecimalPlain(BINARY, 0, binaryPage), binaryValues);
+    }
+
+    @Test
+    public void testLongDecimalRLEDictionary()
+            throws IOException
+    {
+        Random random = new Random(137);
+        int valueCount = 2048;
+        int dictionarySize = 29;
+        List<Object> dictionary = new ArrayList<>();
+        List<Integer> dictionaryIds = new ArrayList<>();
+
+        byte[] dictionaryPage = generateDecimalPlainValuesPage(dictionarySize, false, 16, random, dictionary);
+        byte[] dataPage = generateDictionaryIdPage2048(dictionarySize - 1, random, dictionaryIds);
+
+        List<Object> expectedValues = new ArrayList<>();
+        for (Integer dictionaryId : dictionaryIds) {
+            expectedValues.add(dictionary.get(dictionaryId));
+        }
+
+        LongDecimalBatchDictionary longDecimalDictionary = new LongDecimalBatchDictionary(
+                decimalColumn(BINARY, 0, 38),
+                new DictionaryPage(Slices.wrappedBuffer(dictionaryPage), dictionarySize, PLAIN_DICTIONARY));
+
+        longDecimalBatchReadWithSkipHelper(valueCount, 0, valueCount, longDecimalDictionary(dataPage, dictionarySize, longDecimalDictionary), expectedValues);
+        longDecimalBatchReadWithSkipHelper(29, 0, valueCount, longDecimalDictionary(dataPage, dictionarySize, longDecimalDictionary), expectedValues);
+        longDecimalBatchReadWithSkipHelper(89, 0, valueCount, longDecimalDictionary(dataPage, dictionarySize, longDecimalDictionary), expectedValues);
+        longDecimalBatchReadWithSkipHelper(1024, 0, valueCount, longDecimalDictionary(dataPage, dictionarySize, longDecimalDictionary), expectedValues);
+
+        longDecimalBatchReadWithSkipHelper(256, 29, valueCount, longDecimalDictionary(dataPage, dictionarySize, longDecimalDictionary), expectedValues);
+        longDecimalBatchReadWithSkipHelper(89, 29, valueCount, longDecimalDictionary(dataPage, dictionarySize, longDecimalDictionary), expectedValues);
+        longDecimalBatchReadWithSkipHelper(1024, 1024, valueCount, longDecimalDictionary(dataPage, dictionarySize, longDecimalDictionary), expectedValues);
+    }
 }
@@ -13,15 +13,39 @@
  */
 package com.facebook.presto.parquet.predicate;
 
+import com.facebook.presto.common.predicate.Domain;
+import com.facebook.presto.common.predicate.Range;
+import com.facebook.presto.common.predicate.TupleDomain;
+import com.facebook.presto.common.predicate.ValueSet;
+import com.facebook.presto.parquet.ParquetDataSource;
+import com.facebook.presto.parquet.ParquetDataSourceId;
+import com.facebook.presto.parquet.RichColumnDescriptor;
+import com.facebook.presto.parquet.cache.ParquetFileMetadata;
+import com.facebook.presto.parquet.cache.ParquetMetadataSource;
+import com.facebook.presto.parquet.reader.MockParquetDataSource;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.Encoding;
 import org.apache.parquet.column.EncodingStats;
 import org.apache.parquet.column.statistics.BinaryStatistics;
+import org.apache.parquet.column.statistics.LongStatistics;
+import org.apache.parquet.column.values.bloomfilter.BlockSplitBloomFilter;
+import org.apache.parquet.column.values.bloomfilter.BloomFilter;
+import org.apache.parquet.crypto.InternalFileDecryptor;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
 import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.schema.PrimitiveType;
 import org.testng.annotations.Test;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.parquet.predicate.PredicateUtils.bloomFilterPredicatesMatch;
 import static com.facebook.presto.parquet.predicate.PredicateUtils.isOnlyDictionaryEncodingPages;
 import static com.google.common.collect.Sets.union;
 import static org.apache.parquet.column.Encoding.BIT_PACKED;
@@ -32,6 +56,8 @@ import static org.apache.parquet.column.Encoding.RLE_DICTIONARY;
 import static org.apache.parquet.hadoop.metadata.ColumnPath.fromDotString;
 import static org.apache.parquet.hadoop.metadata.CompressionCodecName.UNCOMPRESSED;
 import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+import static org.apache.parquet.schema.Type.Repetition.OPTIONAL;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
@@ -72,6 +98,58 @@ public class TestPredicateUtils
         assertFalse(isOnlyDictionaryEncodingPages(createColumnMetaDataV2(RLE_DICTIONARY, PLAIN)));
     }
 
+    @Test
+    public void testBloomFilterPredicatesMatch()
+    {
+        BloomFilter bloomFilter = new BlockSplitBloomFilter(1024);
+        for (long value = 0; value < 100; value++) {
+            bloomFilter.insertHash(bloomFilter.hash(value));
+        }
+        ParquetMetadataSource metadataSource = new ParquetMetadataSource()
+        {
+            @Override
+            public ParquetFileMetadata getParquetMetadata(ParquetDataSource parquetDataSource, long fileSize, boolean cacheable, long modificationTime, Optional<InternalFileDecryptor> fileDecryptor, boolean readMaskedValue)
+            {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Optional<BloomFilter> getBloomFilter(ParquetDataSource parquetDataSource, ColumnChunkMetaData columnChunkMetaData, boolean cacheable, long modificationTime)
+            {
+                return Optional.of(bloomFilter);
+            }
+        };
+
+        PrimitiveType primitiveType = new PrimitiveType(OPTIONAL, INT64, "column");
+        RichColumnDescriptor column = new RichColumnDescriptor(new ColumnDescriptor(new String[] {"column"}, primitiveType, 0, 1), primitiveType);
+        Map<List<String>, RichColumnDescriptor> descriptorsByPath = ImmutableMap.of(ImmutableList.of("column"), column);
+
+        ColumnChunkMetaData columnMetaData = ColumnChunkMetaData.get(fromDotString("column"), primitiveType, UNCOMPRESSED, null, ImmutableSet.of(PLAIN), new LongStatistics(), 0, 0, 1, 1, 1);
+        BlockMetaData block = new BlockMetaData();
+        block.addColumn(columnMetaData);
+        ParquetDataSource dataSource = new MockParquetDataSource(new ParquetDataSourceId("test"), null);
+
+        // no bloom filter offset in the footer
+        assertTrue(bloomFilterPredicatesMatch(block, dataSource, metadataSource, descriptorsByPath, withValues(column, 1000L), false, 0));
+
+        columnMetaData.setBloomFilterOffset(4);
+        assertTrue(bloomFilterPredicatesMatch(block, dataSource, metadataSource, descriptorsByPath, withValues(column, 42L), false, 0));
+        assertTrue(bloomFilterPredicatesMatch(block, dataSource, metadataSource, descriptorsByPath, withValues(column, 1000L, 1001L, 99L), false, 0));
+        assertFalse(bloomFilterPredicatesMatch(block, dataSource, metadataSource, descriptorsByPath, withValues(column, 1000L), false, 0));
+        assertFalse(bloomFilterPredicatesMatch(block, dataSource, metadataSource, descriptorsByPath, withValues(column, 1000L, 1001L, 1002L), false, 0));
+
+        // ranges and nulls cannot be checked against a bloom filter
+        TupleDomain<ColumnDescriptor> range = TupleDomain.withColumnDomains(ImmutableMap.of(column, Domain.create(ValueSet.ofRanges(Range.range(BIGINT, 1000L, true, 2000L, true)), false)));
+        assertTrue(bloomFilterPredicatesMatch(block, dataSource, metadataSource, descriptorsByPath, range, false, 0));
+        TupleDomain<ColumnDescriptor> nullAllowed = TupleDomain.withColumnDomains(ImmutableMap.of(column, Domain.create(ValueSet.of(BIGINT, 1000L), true)));
+        assertTrue(bloomFilterPredicatesMatch(block, dataSource, metadataSource, descriptorsByPath, nullAllowed, false, 0));
+    }
+
+    private static TupleDomain<ColumnDescriptor> withValues(ColumnDescriptor column, Long... values)
+    {
+        return TupleDomain.withColumnDomains(ImmutableMap.of(column, Domain.multipleValues(BIGINT, ImmutableList.copyOf(values))));
+    }
+
     private ColumnChunkMetaData createColumnMetaDataV2(Encoding... dataEncodings)
     {
         EncodingStats encodingStats = new EncodingStats.Builder()
@@ -47,7 +47,7 @@ public class RedshiftClient
     {
         connection.setAutoCommit(false);
         PreparedStatement statement = connection.prepareStatement(sql);
-        statement.setFetchSize(1000);
+        statement.setFetchSize(fetchSize.orElse(1000));
         return statement;
     }
 
@@ -939,6 +939,8 @@ public class PrestoSparkTaskExecutorFactory
                     0,
                     outputBuffer.getTotalRowsProcessed(),
                     outputBuffer.getTotalPagesProcessed(),
+                    0,
+                    0,
                     ImmutableList.of());
 
             return new TaskInfo(
@@ -72,13 +72,13 @@ public class PagesSerde
         SliceOutput serializationBuffer = new DynamicSliceOutput(toIntExact(page.getSizeInBytes() + Integer.BYTES)); // block length is an int
         writeRawPage(page, serializationBuffer, blockEncodingSerde);
 
-        return wrapSlice(serializationBuffer.slice(), page.getPositionCount());
+        return wrapSlice(serializationBuffer.slice(), page.getPositionCount(), page.getSizeInBytes());
     }
 
     public SerializedPage serialize(Slice slice, int positionCount)
     {
         checkArgument(slice.isCompact(), "slice is not compact");
-        return wrapSlice(slice, positionCount);
+        return wrapSlice(slice, positionCount, slice.length());
     }
 
     public Page deserialize(SerializedPage serializedPage)
@@ -118,7 +118,7 @@ public class PagesSerde
         return sizeOf(compressionBuffer);
     }
 
-    private SerializedPage wrapSlice(Slice slice, int positionCount)
+    private SerializedPage wrapSlice(Slice slice, int positionCount, long unencodedSize)
     {
         int uncompressedSize = slice.length();
         byte markers = PageCodecMarker.none();
@@ -154,7 +154,7 @@ public class PagesSerde
             checksum = computeSerializedPageChecksum(slice, markers, positionCount, uncompressedSize);
         }
 
-        return new SerializedPage(slice, markers, positionCount, uncompressedSize, checksum);
+        return new SerializedPage(slice, markers, positionCount, uncompressedSize, checksum, unencodedSize);
     }
 
     private static void checkArgument(boolean condition, String message)
@@ -32,6 +32,8 @@ public class SerializedPage
     private final int uncompressedSizeInBytes;
     private final byte pageCodecMarkers;
     private final long checksum;
+    // not part of the serialized form, so pages that were read back report their uncompressed size
+    private final long unencodedSizeInBytes;
 
     public SerializedPage(
             Slice slice,
@@ -39,6 +41,17 @@ public class SerializedPage
             int positionCount,
             int uncompressedSizeInBytes,
             long checksum)
+    {
+        this(slice, pageCodecMarkers, positionCount, uncompressedSizeInBytes, checksum, uncompressedSizeInBytes);
+    }
+
+    public SerializedPage(
+            Slice slice,
+            byte pageCodecMarkers,
+            int positionCount,
+            int uncompressedSizeInBytes,
+            long checksum,
+            long unencodedSizeInBytes)
     {
         this.slice = requireNonNull(slice, "slice is null");
         this.positionCount = positionCount;
@@ -55,6 +68,8 @@ public class SerializedPage
             }
         }
         this.checksum = checksum;
+        checkArgument(unencodedSizeInBytes >= 0, "unencodedSizeInBytes is negative");
+        this.unencodedSizeInBytes = unencodedSizeInBytes;
     }
 
     public byte getPageCodecMarkers()
@@ -72,6 +87,14 @@ public class SerializedPage
         return uncompressedSizeInBytes;
     }
 
+    /**
+     * Size of the page before block encoding and compression, as known to the producer of the page
+     */
+    public long getUnencodedSizeInBytes()
+    {
+        return unencodedSizeInBytes;
+    }
+
     public int getSizeInBytes()
     {
         return slice.length();